@@ -0,0 +1,117 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.config.SpendingLimitProperties;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Transaction;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.limits.SpendingLimiter;
+import com.example.wallet_service.metrics.WalletMetrics;
+import com.example.wallet_service.service.PaymentService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.objenesis.ObjenesisStd;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Shared objects for the micro benchmarks
+ * PaymentService is created without its repositories: only pure in-memory methods are benchmarked.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static PaymentService paymentServiceWithoutRepositories() {
+        PaymentService service = new ObjenesisStd().newInstance(PaymentService.class);
+        ReflectionTestUtils.setField(service, "metrics", new WalletMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "spendingLimiter", spendingLimiter());
+        return service;
+    }
+
+    /**
+     * In-memory limiter with the default windows but no maximums, so every check runs and none fails
+     */
+    static SpendingLimiter spendingLimiter() {
+        SpendingLimitProperties properties = new SpendingLimitProperties();
+        properties.setRebuildOnStartup(false);
+        properties.setRules(List.of(
+                new SpendingLimitProperties.Rule("daily", Duration.ofDays(1), null, null),
+                new SpendingLimitProperties.Rule("hourly", Duration.ofHours(1), null, null),
+                new SpendingLimitProperties.Rule("per-minute", Duration.ofMinutes(1), null, null)));
+        SpendingLimiter limiter = new SpendingLimiter(properties, null);
+        limiter.init();
+        return limiter;
+    }
+
+    static MethodHandle paymentServiceMethod(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.privateLookupIn(PaymentService.class, MethodHandles.lookup())
+                    .findVirtual(PaymentService.class, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("PaymentService." + name + " not found", e);
+        }
+    }
+
+    static ObjectMapper objectMapper() {
+        return objectMapper(new JsonFactory(), false);
+    }
+
+    /**
+     * Same setup as the application's MVC ObjectMapper, for JSON or a binary format (see SerializationConfig)
+     */
+    static ObjectMapper objectMapper(JsonFactory factory, boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    static User user(long id, String username) {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@example.com")
+                .password("not-used")
+                .fullName("Benchmark " + username)
+                .build();
+    }
+
+    static Account account(long id, User user, String balance) {
+        return Account.builder()
+                .id(id)
+                .user(user)
+                .balance(new BigDecimal(balance))
+                .version(1L)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    static Transaction transaction(long id, Account from, Account to, String amount) {
+        return Transaction.builder()
+                .id(id)
+                .fromAccount(from)
+                .toAccount(to)
+                .amount(new BigDecimal(amount))
+                .status(Transaction.TransactionStatus.COMPLETED)
+                .idempotencyKey("bench-" + id)
+                .description("Benchmark transfer")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
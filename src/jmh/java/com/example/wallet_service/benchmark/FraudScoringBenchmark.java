@@ -0,0 +1,66 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.fraud.FraudScorer;
+import com.example.wallet_service.fraud.UserFeatures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-commit fraud scoring with warm features (the path inside every transfer) and the feature update
+ * done after commit. Run with -bm thrpt for scores per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FraudScoringBenchmark {
+
+    private final FraudScorer scorer = new FraudScorer();
+    private UserFeatures features;
+    private BigDecimal usualAmount;
+    private BigDecimal unusualAmount;
+
+    @Setup
+    public void setup() {
+        // A user with a few hundred transfers to 100 recipients over the last day
+        features = UserFeatures.EMPTY;
+        long now = System.currentTimeMillis();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 300; i++) {
+            features = features.withTransfer(random.nextLong(100), 20 + random.nextDouble(80),
+                    now - TimeUnit.DAYS.toMillis(1) + i * 300_000L);
+        }
+        usualAmount = new BigDecimal("45.00");
+        unusualAmount = new BigDecimal("5000.00");
+    }
+
+    @Benchmark
+    public FraudScorer.Score knownRecipient() {
+        return scorer.score(features, 42, usualAmount, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public FraudScorer.Score newRecipientUnusualAmount() {
+        return scorer.score(features, 1_000_000, unusualAmount, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public FraudScorer.Score knownRecipientContended() {
+        return scorer.score(features, ThreadLocalRandom.current().nextLong(100), usualAmount, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public UserFeatures featureUpdate() {
+        return features.withTransfer(42, 45.0, System.currentTimeMillis());
+    }
+}
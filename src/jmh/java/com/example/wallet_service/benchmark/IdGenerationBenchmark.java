@@ -0,0 +1,181 @@
+package com.example.wallet_service.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IDENTITY against pooled SEQUENCE ids, with and without JDBC batching
+ *
+ * Each op persists rowsPerTransaction rows in one transaction through a Hibernate Session: 2 rows
+ * is a transfer (transaction and idempotency key), 1000 a bulk chunk (user import, payout items).
+ * Settings are the production ones from application.yaml (batch_size 50, ordered inserts, batched
+ * versioned data, rewritten batched inserts on PostgreSQL):
+ * - IDENTITY: batching configured, but Hibernate inserts each row on persist to read its id back
+ * - SEQUENCE: pooled sequence (allocationSize 50), batching off
+ * - SEQUENCE_BATCHED: pooled sequence with batching, what the entities use
+ *
+ * Embedded H2 by default; -p database=postgresql runs against DB_URL (default jdbc:postgresql://localhost:5433/wallet_db),
+ * where every statement is a network round trip and the gap is much wider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    public enum Strategy {
+        IDENTITY,
+        SEQUENCE,
+        SEQUENCE_BATCHED
+    }
+
+    @Param({"IDENTITY", "SEQUENCE", "SEQUENCE_BATCHED"})
+    private Strategy strategy;
+
+    @Param({"2", "1000"})
+    private int rowsPerTransaction;
+
+    @Param({"h2"})
+    private String database;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HikariConfig hikari = new HikariConfig();
+        if ("postgresql".equals(database)) {
+            hikari.setJdbcUrl(env("DB_URL", "jdbc:postgresql://localhost:5433/wallet_db"));
+            hikari.setUsername(env("DB_USERNAME", "wallet_user"));
+            hikari.setPassword(env("DB_PASSWORD", "wallet_pass"));
+            hikari.addDataSourceProperty("reWriteBatchedInserts", "true");
+        } else {
+            hikari.setJdbcUrl("jdbc:h2:mem:id_bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            hikari.setUsername("sa");
+        }
+        hikari.setMaximumPoolSize(2);
+        dataSource = new HikariDataSource(hikari);
+
+        boolean batched = strategy != Strategy.SEQUENCE;
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(strategy == Strategy.IDENTITY ? IdentityRow.class : SequenceRow.class)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, batched ? "50" : "0")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.ORDER_UPDATES, "true")
+                .setProperty(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int persist() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < rowsPerTransaction; i++) {
+                BigDecimal amount = BigDecimal.valueOf(i, 2);
+                session.persist(strategy == Strategy.IDENTITY
+                        ? new IdentityRow(amount, "bench-" + i, now)
+                        : new SequenceRow(amount, "bench-" + i, now));
+            }
+            transaction.commit();
+        }
+        return rowsPerTransaction;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    @Entity
+    @Table(name = "bench_identity_rows")
+    public static class IdentityRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "amount", precision = 19, scale = 2)
+        private BigDecimal amount;
+
+        @Column(name = "reference", length = 100)
+        private String reference;
+
+        @Column(name = "created_at")
+        private LocalDateTime createdAt;
+
+        protected IdentityRow() {
+        }
+
+        IdentityRow(BigDecimal amount, String reference, LocalDateTime createdAt) {
+            this.amount = amount;
+            this.reference = reference;
+            this.createdAt = createdAt;
+        }
+    }
+
+    @Entity
+    @Table(name = "bench_sequence_rows")
+    public static class SequenceRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_sequence_rows_seq")
+        @SequenceGenerator(name = "bench_sequence_rows_seq", sequenceName = "bench_sequence_rows_seq", allocationSize = 50)
+        private Long id;
+
+        @Column(name = "amount", precision = 19, scale = 2)
+        private BigDecimal amount;
+
+        @Column(name = "reference", length = 100)
+        private String reference;
+
+        @Column(name = "created_at")
+        private LocalDateTime createdAt;
+
+        protected SequenceRow() {
+        }
+
+        SequenceRow(BigDecimal amount, String reference, LocalDateTime createdAt) {
+            this.amount = amount;
+            this.reference = reference;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.WalletServiceApplication;
+import com.example.wallet_service.dto.request.TransferRequest;
+import com.example.wallet_service.dto.response.TransferResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.UserRepository;
+import com.example.wallet_service.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full PaymentService.transfer path (idempotency key, row locks, validation, inserts, commit)
+ * against an embedded H2 database in PostgreSQL mode - see application-benchmark.yaml.
+ * Absolute numbers are not comparable to PostgreSQL, use it to compare commits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class InProcessTransferBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private Long aliceUserId;
+    private Long bobUserId;
+    private Long aliceAccountId;
+    private Long bobAccountId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(WalletServiceApplication.class)
+                .profiles("benchmark")
+                .web(WebApplicationType.NONE)
+                .run();
+        paymentService = context.getBean(PaymentService.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        User alice = userRepository.save(newUser("bench_alice"));
+        User bob = userRepository.save(newUser("bench_bob"));
+        aliceUserId = alice.getId();
+        bobUserId = bob.getId();
+        aliceAccountId = accountRepository.save(newAccount(alice)).getId();
+        bobAccountId = accountRepository.save(newAccount(bob)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransferResponse transfer() {
+        return paymentService.transfer(aliceUserId,
+                new TransferRequest(bobAccountId, new BigDecimal("0.01"), UUID.randomUUID().toString(), null));
+    }
+
+    @Benchmark
+    public TransferResponse transferBack() {
+        return paymentService.transfer(bobUserId,
+                new TransferRequest(aliceAccountId, new BigDecimal("0.01"), UUID.randomUUID().toString(), null));
+    }
+
+    private User newUser(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("not-used")
+                .fullName(username)
+                .build();
+    }
+
+    private Account newAccount(User user) {
+        return Account.builder()
+                .user(user)
+                .balance(new BigDecimal("1000000000.00"))
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.util.JwtTokenUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT work done on every authenticated request (parse + validate) and on every login (generate)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenUtilBenchmark {
+
+    private JwtTokenUtil jwtTokenUtil;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setup() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret",
+                "mySecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLongForSecurity");
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 86_400_000L);
+
+        token = jwtTokenUtil.generateToken("alice", Set.of("ROLE_USER"));
+        userDetails = org.springframework.security.core.userdetails.User.builder()
+                .username("alice")
+                .password("not-used")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .build();
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtTokenUtil.generateToken("alice", Set.of("ROLE_USER"));
+    }
+
+    @Benchmark
+    public String parse() {
+        return jwtTokenUtil.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public Boolean validate() {
+        return jwtTokenUtil.validateToken(token, userDetails);
+    }
+}
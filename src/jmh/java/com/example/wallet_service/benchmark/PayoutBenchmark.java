@@ -0,0 +1,136 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.WalletServiceApplication;
+import com.example.wallet_service.dto.request.PayoutItemRequest;
+import com.example.wallet_service.dto.request.PayoutRequest;
+import com.example.wallet_service.dto.response.PayoutResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.PayoutJdbcRepository;
+import com.example.wallet_service.repository.UserRepository;
+import com.example.wallet_service.service.PayoutService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One payout to N recipients end to end: sender reservation, item inserts, then every credit chunk
+ * (what PayoutDispatcher does, run inline here) against embedded H2 - see application-benchmark.yaml.
+ * Recipients per second = recipients / score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PayoutBenchmark {
+
+    private static final String OWNER = "payout-benchmark";
+
+    @Param({"10000", "100000"})
+    private int recipients;
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private PayoutService payoutService;
+    private JdbcTemplate jdbcTemplate;
+    private Long senderUserId;
+    private Long senderAccountId;
+    private List<PayoutItemRequest> items;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(WalletServiceApplication.class)
+                .profiles("benchmark")
+                .web(WebApplicationType.NONE)
+                .run();
+        payoutService = context.getBean(PayoutService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User sender = context.getBean(UserRepository.class).save(User.builder()
+                .username("bench_treasury")
+                .email("bench_treasury@example.com")
+                .password("not-used")
+                .fullName("bench_treasury")
+                .build());
+        senderUserId = sender.getId();
+        senderAccountId = context.getBean(AccountRepository.class).save(Account.builder()
+                .user(sender)
+                .balance(new BigDecimal("1000000000.00"))
+                .build()).getId();
+
+        items = new ArrayList<>(recipients);
+        for (long accountId : seedRecipients(context.getBean(PayoutJdbcRepository.class))) {
+            items.add(new PayoutItemRequest(accountId, new BigDecimal("1.00")));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public PayoutResponse payout() {
+        PayoutResponse payout = payoutService.create(senderUserId,
+                new PayoutRequest(UUID.randomUUID().toString(), "benchmark payout", items));
+
+        // Stand-in for PayoutDispatcher.poll (disabled in the benchmark profile)
+        jdbcTemplate.update("UPDATE payouts SET lease_owner = ? WHERE id = ?", OWNER, payout.getPayoutId());
+        PayoutService.Claim claim = new PayoutService.Claim(payout.getPayoutId(), senderAccountId, "USD", "benchmark payout");
+        LocalDateTime leaseUntil = LocalDateTime.now().plusHours(1);
+        while (payoutService.creditChunk(claim, OWNER, chunkSize, leaseUntil) > 0) {
+            // next chunk
+        }
+        payoutService.complete(payout.getPayoutId(), OWNER);
+        return payout;
+    }
+
+    /**
+     * Recipient users and accounts inserted with JDBC batches, going through JPA would dominate the setup
+     */
+    private long[] seedRecipients(PayoutJdbcRepository payoutJdbcRepository) {
+        long[] userIds = payoutJdbcRepository.allocateIds("users_seq", recipients);
+        long[] accountIds = payoutJdbcRepository.allocateIds("accounts_seq", recipients);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> users = new ArrayList<>(recipients);
+        List<Object[]> accounts = new ArrayList<>(recipients);
+        for (int i = 0; i < recipients; i++) {
+            String username = "bench_payee_" + i;
+            users.add(new Object[]{userIds[i], username, username + "@example.com", "not-used", now, now});
+            accounts.add(new Object[]{accountIds[i], userIds[i], now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password, is_enabled, " +
+                "is_account_non_locked, created_at, updated_at) VALUES (?, ?, ?, ?, TRUE, TRUE, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO accounts (id, user_id, balance, held_amount, currency, version, " +
+                "created_at, updated_at) VALUES (?, ?, 0, 0, 'USD', 0, ?, ?)", accounts);
+        return accountIds;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.dto.response.TransactionHistoryResponse;
+import com.example.wallet_service.dto.response.TransferResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Transaction;
+import com.example.wallet_service.service.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> DTO mapping and JSON serialization of transfer and history responses
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseMappingBenchmark {
+
+    private static final MethodHandle BUILD_TRANSFER_RESPONSE = BenchmarkFixtures.paymentServiceMethod(
+            "buildTransferResponse", TransferResponse.class, Transaction.class, Account.class, Account.class);
+    private static final MethodHandle BUILD_HISTORY_RESPONSE = BenchmarkFixtures.paymentServiceMethod(
+            "buildHistoryResponse", TransactionHistoryResponse.class, Transaction.class, Long.class);
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private PaymentService paymentService;
+    private ObjectMapper objectMapper;
+    private Account fromAccount;
+    private Account toAccount;
+    private Transaction transaction;
+    private List<Transaction> page;
+    private TransferResponse transferResponse;
+    private List<TransactionHistoryResponse> historyPage;
+
+    @Setup
+    public void setup() throws Throwable {
+        paymentService = BenchmarkFixtures.paymentServiceWithoutRepositories();
+        objectMapper = BenchmarkFixtures.objectMapper();
+        fromAccount = BenchmarkFixtures.account(1L, BenchmarkFixtures.user(1L, "alice"), "1000.00");
+        toAccount = BenchmarkFixtures.account(2L, BenchmarkFixtures.user(2L, "bob"), "250.50");
+        transaction = BenchmarkFixtures.transaction(1L, fromAccount, toAccount, "12.34");
+
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(i % 2 == 0
+                    ? BenchmarkFixtures.transaction(i, fromAccount, toAccount, "12.34")
+                    : BenchmarkFixtures.transaction(i, toAccount, fromAccount, "5.00"));
+        }
+
+        transferResponse = mapTransfer();
+        historyPage = mapHistoryPage();
+    }
+
+    @Benchmark
+    public TransferResponse mapTransfer() throws Throwable {
+        return (TransferResponse) BUILD_TRANSFER_RESPONSE.invoke(paymentService, transaction, fromAccount, toAccount);
+    }
+
+    @Benchmark
+    public List<TransactionHistoryResponse> mapHistoryPage() throws Throwable {
+        List<TransactionHistoryResponse> responses = new ArrayList<>(page.size());
+        for (Transaction t : page) {
+            responses.add((TransactionHistoryResponse) BUILD_HISTORY_RESPONSE.invoke(paymentService, t, fromAccount.getId()));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public byte[] serializeTransfer() throws Exception {
+        return objectMapper.writeValueAsBytes(transferResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeHistoryPage() throws Exception {
+        return objectMapper.writeValueAsBytes(historyPage);
+    }
+}
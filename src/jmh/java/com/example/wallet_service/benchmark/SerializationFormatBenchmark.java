@@ -0,0 +1,140 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.dto.response.BalanceResponse;
+import com.example.wallet_service.dto.response.TransactionHistoryResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Transaction;
+import com.example.wallet_service.service.PaymentService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost per response format (JSON, CBOR, Smile), with and without Blackbird accessors
+ *
+ * Payload sizes are reported as secondary results of every benchmark (balanceBytes, historyBytes),
+ * so they land in the result file next to the timings of each format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationFormatBenchmark {
+
+    private static final MethodHandle BUILD_HISTORY_RESPONSE = BenchmarkFixtures.paymentServiceMethod(
+            "buildHistoryResponse", TransactionHistoryResponse.class, Transaction.class, Long.class);
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean blackbird;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper mapper;
+    private JavaType historyType;
+    private BalanceResponse balance;
+    private List<TransactionHistoryResponse> historyPage;
+    private byte[] balancePayload;
+    private byte[] historyPayload;
+
+    @Setup
+    public void setup() throws Throwable {
+        mapper = BenchmarkFixtures.objectMapper(factory(format), blackbird);
+        historyType = mapper.getTypeFactory().constructCollectionType(List.class, TransactionHistoryResponse.class);
+
+        PaymentService paymentService = BenchmarkFixtures.paymentServiceWithoutRepositories();
+        Account fromAccount = BenchmarkFixtures.account(1L, BenchmarkFixtures.user(1L, "alice"), "1000.00");
+        Account toAccount = BenchmarkFixtures.account(2L, BenchmarkFixtures.user(2L, "bob"), "250.50");
+        balance = BalanceResponse.builder()
+                .accountId(fromAccount.getId())
+                .userId(fromAccount.getUser().getId())
+                .username(fromAccount.getUser().getUsername())
+                .balance(fromAccount.getBalance())
+                .heldAmount(new BigDecimal("20.00"))
+                .availableBalance(fromAccount.getBalance().subtract(new BigDecimal("20.00")))
+                .currency("USD")
+                .lastUpdated(LocalDateTime.now())
+                .build();
+
+        historyPage = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Transaction t = i % 2 == 0
+                    ? BenchmarkFixtures.transaction(i, fromAccount, toAccount, "12.34")
+                    : BenchmarkFixtures.transaction(i, toAccount, fromAccount, "5.00");
+            t.setCurrency("USD");
+            t.setFromBalanceAfter(new BigDecimal("987.66"));
+            t.setToBalanceAfter(new BigDecimal("262.84"));
+            historyPage.add((TransactionHistoryResponse) BUILD_HISTORY_RESPONSE.invoke(paymentService, t, fromAccount.getId()));
+        }
+
+        balancePayload = mapper.writeValueAsBytes(balance);
+        historyPayload = mapper.writeValueAsBytes(historyPage);
+    }
+
+    /**
+     * Payload sizes in bytes, set when each iteration ends (JMH zeroes counters when it starts)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long balanceBytes;
+        public long historyBytes;
+
+        @TearDown(Level.Iteration)
+        public void record(SerializationFormatBenchmark benchmark) {
+            balanceBytes = benchmark.balancePayload.length;
+            historyBytes = benchmark.historyPayload.length;
+        }
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+    }
+
+    @Benchmark
+    public byte[] serializeBalance(PayloadSize size) throws Exception {
+        return mapper.writeValueAsBytes(balance);
+    }
+
+    @Benchmark
+    public BalanceResponse deserializeBalance(PayloadSize size) throws Exception {
+        return mapper.readValue(balancePayload, BalanceResponse.class);
+    }
+
+    @Benchmark
+    public byte[] serializeHistoryPage(PayloadSize size) throws Exception {
+        return mapper.writeValueAsBytes(historyPage);
+    }
+
+    @Benchmark
+    public List<TransactionHistoryResponse> deserializeHistoryPage(PayloadSize size) throws Exception {
+        return mapper.readValue(historyPayload, historyType);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.metrics.AccountContentionTracker;
+import com.example.wallet_service.metrics.SpaceSavingSketch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-account sketch (see AccountContentionTracker) against exact per-account counting
+ *
+ * skewed: 80% of lock requests go to 10 hot accounts, the rest spread over a million accounts,
+ * so the sketch keeps evicting cold keys. uniform: every request is a new cold key, the worst case
+ * (one eviction per request). The exact map grows with every account seen, the sketch stays
+ * at capacity entries.
+ *
+ * trackerSkewed / globalLockSkewed: 8 threads recording into AccountContentionTracker (striped
+ * sketches merged on read) against one sketch behind a single monitor, as the tracker used to be.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpaceSavingSketchBenchmark {
+
+    private static final int KEYS = 1 << 20;
+    private static final int HOT_ACCOUNTS = 10;
+    private static final int COLD_ACCOUNTS = 1_000_000;
+
+    @Param({"128", "1024"})
+    private int capacity;
+
+    private long[] skewedKeys;
+    private long[] uniformKeys;
+    private long[] waits;
+    private int next;
+    private SpaceSavingSketch sketch;
+    private Map<Long, long[]> exact;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        private AccountContentionTracker tracker;
+        private SpaceSavingSketch globalSketch;
+
+        @Setup
+        public void setup(SpaceSavingSketchBenchmark benchmark) {
+            tracker = new AccountContentionTracker(benchmark.capacity);
+            globalSketch = new SpaceSavingSketch(benchmark.capacity);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        skewedKeys = new long[KEYS];
+        uniformKeys = new long[KEYS];
+        waits = new long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            skewedKeys[i] = random.nextInt(10) < 8
+                    ? random.nextInt(HOT_ACCOUNTS)
+                    : HOT_ACCOUNTS + random.nextInt(COLD_ACCOUNTS);
+            uniformKeys[i] = HOT_ACCOUNTS + random.nextInt(COLD_ACCOUNTS);
+            waits[i] = random.nextLong(5_000_000); // Up to 5 ms
+        }
+        sketch = new SpaceSavingSketch(capacity);
+        exact = new HashMap<>();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (KEYS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public SpaceSavingSketch addSkewed() {
+        int i = nextIndex();
+        sketch.add(skewedKeys[i], waits[i]);
+        return sketch;
+    }
+
+    @Benchmark
+    public SpaceSavingSketch addUniform() {
+        int i = nextIndex();
+        sketch.add(uniformKeys[i], waits[i]);
+        return sketch;
+    }
+
+    @Benchmark
+    public Map<Long, long[]> exactSkewed() {
+        int i = nextIndex();
+        long[] counts = exact.computeIfAbsent(skewedKeys[i], key -> new long[2]);
+        counts[0]++;
+        counts[1] += waits[i];
+        return exact;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<SpaceSavingSketch.Entry> top20() {
+        for (int n = 0; n < 64; n++) {
+            int i = nextIndex();
+            sketch.add(skewedKeys[i], waits[i]);
+        }
+        return sketch.top(20, true);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public AccountContentionTracker trackerSkewed(Shared shared) {
+        int i = nextIndex();
+        shared.tracker.recordLockWait(skewedKeys[i], waits[i]);
+        return shared.tracker;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public SpaceSavingSketch globalLockSkewed(Shared shared) {
+        int i = nextIndex();
+        synchronized (shared.globalSketch) {
+            shared.globalSketch.add(skewedKeys[i], waits[i]);
+        }
+        return shared.globalSketch;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.config.SpendingLimitProperties;
+import com.example.wallet_service.limits.SpendingLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the in-memory limit check added to validateTransfer (three rules, none breached)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpendingLimiterBenchmark {
+
+    @Param({"1", "100000"})
+    private int accounts;
+
+    private SpendingLimiter limiter;
+    private final BigDecimal amount = new BigDecimal("12.34");
+
+    @Setup
+    public void setup() {
+        limiter = BenchmarkFixtures.spendingLimiter();
+    }
+
+    @Benchmark
+    public SpendingLimitProperties.Rule tryAcquire() {
+        return limiter.tryAcquire(ThreadLocalRandom.current().nextLong(accounts), amount);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public SpendingLimitProperties.Rule tryAcquireContended() {
+        return limiter.tryAcquire(ThreadLocalRandom.current().nextLong(accounts), amount);
+    }
+}
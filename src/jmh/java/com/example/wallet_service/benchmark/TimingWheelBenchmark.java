@@ -0,0 +1,99 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.scheduling.TimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduled transfer dispatch with one million pending executions
+ *
+ * loadAndDrain: insert every execution (due over the next 30 days) and fire them all, wheel vs a
+ * PriorityQueue ordered by deadline. tick: steady-state cost of one 100 ms tick while a million
+ * executions wait, which is what the ticker thread pays continuously.
+ */
+@State(Scope.Thread)
+public class TimingWheelBenchmark {
+
+    private static final long TICK_MS = 100;
+    private static final int WHEEL_SIZE = 512;
+    private static final long SPREAD_MS = TimeUnit.DAYS.toMillis(30);
+
+    @Param({"1000000"})
+    private int schedules;
+
+    private long[] deadlines;
+    private TimingWheel<Integer> pendingWheel;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        SplittableRandom random = new SplittableRandom(42);
+        deadlines = new long[schedules];
+        for (int i = 0; i < schedules; i++) {
+            deadlines[i] = TICK_MS + random.nextLong(SPREAD_MS);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void fillWheel() {
+        // Due years from now, so nothing expires while ticks are measured
+        long offset = TimeUnit.DAYS.toMillis(3650);
+        pendingWheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, 0);
+        for (int i = 0; i < schedules; i++) {
+            pendingWheel.add(offset + deadlines[i], i);
+        }
+        now = 0;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long loadAndDrainWheel() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, 0);
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.add(deadlines[i], i);
+        }
+        long[] fired = new long[1];
+        wheel.advance(SPREAD_MS + TICK_MS, task -> fired[0]++);
+        return fired[0];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long loadAndDrainPriorityQueue() {
+        PriorityQueue<long[]> queue = new PriorityQueue<>(deadlines.length, (a, b) -> Long.compare(a[0], b[0]));
+        for (int i = 0; i < deadlines.length; i++) {
+            queue.add(new long[]{deadlines[i], i});
+        }
+        long fired = 0;
+        for (long time = TICK_MS; time <= SPREAD_MS + TICK_MS; time += TICK_MS) {
+            while (!queue.isEmpty() && queue.peek()[0] < time + TICK_MS) {
+                queue.poll();
+                fired++;
+            }
+        }
+        return fired;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int tick() {
+        now += TICK_MS;
+        pendingWheel.advance(now, task -> {
+        });
+        return pendingWheel.size();
+    }
+}
@@ -0,0 +1,468 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.WalletServiceApplication;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Role;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.RoleRepository;
+import com.example.wallet_service.repository.UserRepository;
+import com.example.wallet_service.sharding.ClusterMembership;
+import com.example.wallet_service.util.JwtTokenUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load and invariant harness for /api/payments
+ *
+ * Starts the application against a local database, seeds N users with funded accounts and drives
+ * transfers, balance reads and history reads over HTTP from many client threads. At the end it reports
+ * throughput, latency percentiles and failure rates, then checks that money was conserved
+ * (sum of seeded balances unchanged) and that no balance went negative. Exit code 1 on violation.
+ *
+ * WARNING: writes users and accounts into the target database, point it at a local/throwaway one.
+ *
+ * Run (after ./mvnw -Pbenchmark -DskipTests test-compile):
+ *   ./mvnw -Pbenchmark exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.wallet_service.benchmark.TransferLoadHarness \
+ *     -Dexec.args="--users=1000 --threads=64 --duration=60 --pattern=zipf --mix=transfer:70,balance:20,history:10"
+ *
+ * Options: --db-url --db-user --db-password --users --threads --duration (seconds) --warmup (seconds)
+ *          --pattern=uniform|zipf|pingpong --zipf-exponent --initial-balance --mix
+ *          --limits=true (spending limits are off by default, the load would trip them)
+ *          --nodes=N (N in-process nodes on one database with sharding on, clients pick a node at random
+ *          so most transfers are forwarded to the owner of the sender's account)
+ */
+public class TransferLoadHarness {
+
+    enum Operation {
+        TRANSFER,
+        BALANCE,
+        HISTORY
+    }
+
+    enum Pattern {
+        UNIFORM,
+        ZIPF,
+        PINGPONG
+    }
+
+    private final Map<String, String> options;
+    private final int userCount;
+    private final int threads;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Pattern pattern;
+    private final Operation[] mix;
+    private final BigDecimal initialBalance;
+
+    private final Map<Operation, Recorder> latencies = new HashMap<>();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    private List<SeededAccount> accounts;
+    private double[] zipfCdf;
+    private HttpClient httpClient;
+    private List<String> baseUrls;
+    private volatile boolean recording;
+
+    record SeededAccount(long accountId, String token) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean conserved = new TransferLoadHarness(parseOptions(args)).run();
+        System.exit(conserved ? 0 : 1);
+    }
+
+    TransferLoadHarness(Map<String, String> options) {
+        this.options = options;
+        this.userCount = Integer.parseInt(options.getOrDefault("users", "1000"));
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "32"));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.pattern = Pattern.valueOf(options.getOrDefault("pattern", "uniform").toUpperCase(Locale.ROOT));
+        this.mix = parseMix(options.getOrDefault("mix", "transfer:70,balance:20,history:10"));
+        this.initialBalance = new BigDecimal(options.getOrDefault("initial-balance", "1000.00"));
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(3));
+        }
+    }
+
+    boolean run() throws Exception {
+        int nodeCount = Integer.parseInt(options.getOrDefault("nodes", "1"));
+        List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+        try {
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add(startNode(i, nodeCount));
+            }
+            ConfigurableApplicationContext context = nodes.get(0);
+            baseUrls = nodes.stream()
+                    .map(node -> "http://localhost:" + ((WebServerApplicationContext) node).getWebServer().getPort())
+                    .toList();
+            if (nodeCount > 1) {
+                awaitRing(nodes);
+            }
+            httpClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newFixedThreadPool(threads))
+                    .build();
+
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            accounts = seed(context, runId);
+            if (pattern == Pattern.ZIPF) {
+                zipfCdf = zipfCdf(accounts.size(), Double.parseDouble(options.getOrDefault("zipf-exponent", "1.1")));
+            }
+
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BigDecimal totalBefore = totalBalance(jdbcTemplate);
+
+            drive();
+            if (nodeCount > 1) {
+                reportRouting(nodes);
+            }
+
+            return verify(jdbcTemplate, totalBefore);
+        } finally {
+            nodes.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    private ConfigurableApplicationContext startNode(int index, int nodeCount) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "management.server.port=0",
+                "spring.datasource.url=" + options.getOrDefault("db-url", "jdbc:postgresql://localhost:5433/wallet_db"),
+                "spring.datasource.username=" + options.getOrDefault("db-user", "wallet_user"),
+                "spring.datasource.password=" + options.getOrDefault("db-password", "wallet_pass"),
+                "spring.datasource.hikari.maximum-pool-size=" + options.getOrDefault("pool-size", "32"),
+                "spring.jpa.show-sql=false",
+                "app.limits.enabled=" + options.getOrDefault("limits", "false"),
+                "app.event-log.node-id=load-node-" + index,
+                "logging.level.com.example.wallet_service=WARN"));
+        if (nodeCount > 1) {
+            properties.addAll(List.of(
+                    "app.sharding.enabled=true",
+                    "app.sharding.node-id=load-node-" + index,
+                    "app.sharding.heartbeat-interval-ms=500",
+                    "app.sharding.cluster-secret=load-harness",
+                    "spring.jmx.enabled=false"));
+        }
+        return new SpringApplicationBuilder(WalletServiceApplication.class)
+                .properties(properties.toArray(new String[0]))
+                .run();
+    }
+
+    /**
+     * Wait until every node sees all the others in its ring
+     */
+    private void awaitRing(List<ConfigurableApplicationContext> nodes) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            boolean converged = nodes.stream().allMatch(node ->
+                    node.getBean(ClusterMembership.class).getRing().getNodes().size() == nodes.size());
+            if (converged) {
+                System.out.printf("Shard ring converged on %d nodes%n", nodes.size());
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Shard ring did not converge on " + nodes.size() + " nodes");
+    }
+
+    private void reportRouting(List<ConfigurableApplicationContext> nodes) {
+        System.out.println();
+        System.out.println("routing (routed requests per node, including warmup):");
+        for (ConfigurableApplicationContext node : nodes) {
+            MeterRegistry registry = node.getBean(MeterRegistry.class);
+            System.out.printf("  %-12s", node.getBean(ClusterMembership.class).getSelfId());
+            for (String outcome : List.of("local", "forwarded", "owner_unreachable")) {
+                Counter counter = registry.find("wallet.shard.requests").tag("outcome", outcome).counter();
+                System.out.printf(" %s=%.0f", outcome, counter != null ? counter.count() : 0.0);
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Seed users and funded accounts in batches, reusing one password hash
+     */
+    private List<SeededAccount> seed(ConfigurableApplicationContext context, String runId) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        Role userRole = context.getBean(RoleRepository.class).findByName(Role.RoleName.ROLE_USER).orElseThrow();
+        String password = context.getBean(PasswordEncoder.class).encode("load-test");
+        JwtTokenUtil jwtTokenUtil = context.getBean(JwtTokenUtil.class);
+
+        long start = System.nanoTime();
+        List<SeededAccount> seeded = new ArrayList<>(userCount);
+        for (int from = 0; from < userCount; from += 1000) {
+            List<User> users = new ArrayList<>();
+            for (int i = from; i < Math.min(userCount, from + 1000); i++) {
+                String username = "load_" + runId + "_" + i;
+                User user = User.builder()
+                        .username(username)
+                        .email(username + "@load.test")
+                        .password(password)
+                        .fullName("Load " + i)
+                        .build();
+                user.getRoles().add(userRole);
+                users.add(user);
+            }
+            users = userRepository.saveAll(users);
+
+            List<Account> batch = accountRepository.saveAll(users.stream()
+                    .map(user -> Account.builder().user(user).balance(initialBalance).build())
+                    .toList());
+            for (Account account : batch) {
+                seeded.add(new SeededAccount(account.getId(),
+                        jwtTokenUtil.generateToken(account.getUser().getUsername(), Set.of("ROLE_USER"))));
+            }
+        }
+        System.out.printf("Seeded %d users/accounts in %d ms%n", seeded.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return seeded;
+    }
+
+    private void drive() throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+
+        for (int t = 0; t < threads; t++) {
+            int clientIndex = t;
+            clients.submit(() -> {
+                long iteration = 0;
+                while (System.nanoTime() < end) {
+                    execute(clientIndex, iteration++);
+                }
+            });
+        }
+
+        Thread.sleep(warmup.toMillis());
+        latencies.values().forEach(Recorder::reset);
+        outcomes.clear();
+        recording = true;
+        System.out.printf("Warmup done, measuring for %d s with %d threads, pattern %s%n",
+                duration.toSeconds(), threads, pattern);
+
+        clients.shutdown();
+        clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        recording = false;
+
+        report();
+    }
+
+    private void execute(int clientIndex, long iteration) {
+        Operation operation = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+        long start = System.nanoTime();
+        String outcome;
+        try {
+            HttpResponse<String> response = switch (operation) {
+                case TRANSFER -> transfer(clientIndex, iteration);
+                case BALANCE -> get("/api/payments/balance", pick().token());
+                case HISTORY -> get("/api/payments/transactions?size=20", pick().token());
+            };
+            outcome = classify(operation, response);
+        } catch (Exception e) {
+            outcome = "client_error:" + e.getClass().getSimpleName();
+        }
+        if (recording) {
+            latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            outcomes.computeIfAbsent(operation + " " + outcome, k -> new LongAdder()).increment();
+        }
+    }
+
+    private HttpResponse<String> transfer(int clientIndex, long iteration) throws Exception {
+        SeededAccount from;
+        SeededAccount to;
+        if (pattern == Pattern.PINGPONG) {
+            // Each client bounces money inside its own pair A <-> B
+            int pair = (clientIndex * 2) % (accounts.size() - accounts.size() % 2);
+            boolean forward = iteration % 2 == 0;
+            from = accounts.get(forward ? pair : pair + 1);
+            to = accounts.get(forward ? pair + 1 : pair);
+        } else {
+            from = pick();
+            do {
+                to = pick();
+            } while (to == from);
+        }
+
+        BigDecimal amount = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 100), 2);
+        String body = "{\"toAccountId\":" + to.accountId() +
+                ",\"amount\":" + amount.toPlainString() +
+                ",\"idempotencyKey\":\"" + UUID.randomUUID() + "\"}";
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/api/payments/transfer"))
+                .header("Authorization", "Bearer " + from.token())
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String baseUrl() {
+        return baseUrls.get(ThreadLocalRandom.current().nextInt(baseUrls.size()));
+    }
+
+    private String classify(Operation operation, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status / 100 == 2) {
+            return "ok";
+        }
+        if (status == 409) {
+            return "serialization_failure";
+        }
+        if (operation == Operation.TRANSFER && status == 400 && response.body().contains("Insufficient balance")) {
+            return "insufficient_balance";
+        }
+        return "http_" + status;
+    }
+
+    private SeededAccount pick() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (pattern != Pattern.ZIPF) {
+            return accounts.get(random.nextInt(accounts.size()));
+        }
+        int index = Arrays.binarySearch(zipfCdf, random.nextDouble());
+        return accounts.get(index >= 0 ? index : Math.min(-index - 1, accounts.size() - 1));
+    }
+
+    private void report() {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.println();
+        System.out.println("operation      count   ops/s      p50(ms)  p90(ms)  p99(ms)  p99.9(ms) max(ms)");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %9d %9.1f %9.2f %8.2f %8.2f %9.2f %8.2f%n",
+                    operation, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+
+        System.out.println();
+        System.out.println("outcomes:");
+        Map<String, Long> totals = new HashMap<>();
+        outcomes.forEach((key, count) -> totals.merge(key.substring(0, key.indexOf(' ')), count.sum(), Long::sum));
+        outcomes.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> {
+                    String operation = e.getKey().substring(0, e.getKey().indexOf(' '));
+                    System.out.printf("  %-45s %9d (%.2f%%)%n", e.getKey(), e.getValue().sum(),
+                            100.0 * e.getValue().sum() / totals.get(operation));
+                });
+    }
+
+    /**
+     * Money conservation and no negative balance over the seeded accounts
+     */
+    private boolean verify(JdbcTemplate jdbcTemplate, BigDecimal totalBefore) {
+        BigDecimal totalAfter = totalBalance(jdbcTemplate);
+        Integer negative = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM accounts WHERE balance < 0 AND id IN (" + seededIds() + ")", Integer.class);
+
+        System.out.println();
+        System.out.printf("sum of balances before: %s, after: %s%n", totalBefore, totalAfter);
+        System.out.printf("negative balances: %d%n", negative);
+
+        boolean conserved = totalBefore.compareTo(totalAfter) == 0 && negative != null && negative == 0;
+        System.out.println(conserved ? "INVARIANTS OK" : "INVARIANT VIOLATION");
+        return conserved;
+    }
+
+    private BigDecimal totalBalance(JdbcTemplate jdbcTemplate) {
+        BigDecimal total = jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(balance), 0) FROM accounts WHERE id IN (" + seededIds() + ")", BigDecimal.class);
+        return total == null ? BigDecimal.ZERO : total;
+    }
+
+    private String seededIds() {
+        StringBuilder ids = new StringBuilder();
+        for (SeededAccount account : accounts) {
+            if (!ids.isEmpty()) {
+                ids.append(',');
+            }
+            ids.append(account.accountId());
+        }
+        return ids.toString();
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static Operation[] parseMix(String mix) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.split(":");
+            Operation operation = Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT));
+            int weight = Integer.parseInt(kv[1].trim());
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        }
+        return weighted.toArray(new Operation[0]);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.wallet_service.benchmark;
+
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-lock validation and balance arithmetic of a transfer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransferValidationBenchmark {
+
+    private static final MethodHandle VALIDATE_TRANSFER = BenchmarkFixtures.paymentServiceMethod(
+            "validateTransfer", void.class, Account.class, Account.class, BigDecimal.class);
+
+    private PaymentService paymentService;
+    private Account fromAccount;
+    private Account toAccount;
+    private BigDecimal amount;
+
+    @Setup
+    public void setup() {
+        paymentService = BenchmarkFixtures.paymentServiceWithoutRepositories();
+        fromAccount = BenchmarkFixtures.account(1L, BenchmarkFixtures.user(1L, "alice"), "1000000.00");
+        toAccount = BenchmarkFixtures.account(2L, BenchmarkFixtures.user(2L, "bob"), "250.50");
+        amount = new BigDecimal("12.34");
+    }
+
+    @Benchmark
+    public void validateTransfer() throws Throwable {
+        VALIDATE_TRANSFER.invoke(paymentService, fromAccount, toAccount, amount);
+    }
+
+    @Benchmark
+    public void balanceMath(Blackhole blackhole) {
+        // Same arithmetic as the transfer: debit, credit and the sufficiency check
+        blackhole.consume(fromAccount.getBalance().compareTo(amount) >= 0);
+        blackhole.consume(fromAccount.getBalance().subtract(amount));
+        blackhole.consume(toAccount.getBalance().add(amount));
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.wallet_service;
 
+import com.example.wallet_service.config.WalletRuntimeHints;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(WalletRuntimeHints.class)
 public class WalletServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,203 @@
+package com.example.wallet_service.analytics;
+
+import com.example.wallet_service.event.PayoutItemsCreditedEvent;
+import com.example.wallet_service.event.TransferCompletedEvent;
+import com.example.wallet_service.repository.RollupJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains the daily rollup tables from committed transfers
+ *
+ * Key features:
+ * 1. Runs after commit of transfers and payout chunks, the transfer path never touches the rollup rows
+ *    (a busy merchant's row would otherwise be one more hot lock inside every transfer)
+ * 2. Increments are merged in memory per (account, day, counterparty) and flushed as one batch of
+ *    upserts every flush interval, so a thousand transfers to one account cost one row update
+ * 3. A failed flush keeps its increments for the next one; increments lost to a crash are repaired
+ *    by the rebuild job (see RollupRebuildJobConfig)
+ * 4. A rebuilt day recounts its transactions, so the increments still buffered for it are discarded
+ *    first; flush and discard are serialized so an in-flight flush lands before the rebuild
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RollupAggregator {
+
+    private final RollupJdbcRepository rollupJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.analytics.rollups.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.analytics.rollups.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    private record Key(long accountId, LocalDate day, long counterpartyAccountId) {
+    }
+
+    private record Totals(long sentCount, BigDecimal sentAmount, long receivedCount, BigDecimal receivedAmount) {
+        Totals plus(Totals other) {
+            return new Totals(sentCount + other.sentCount, sentAmount.add(other.sentAmount),
+                    receivedCount + other.receivedCount, receivedAmount.add(other.receivedAmount));
+        }
+    }
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparingLong(Key::accountId)
+            .thenComparing(Key::day)
+            .thenComparingLong(Key::counterpartyAccountId);
+
+    private final Map<Key, Totals> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rollup-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flushQuietly();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        record(event.fromAccountId(), event.toAccountId(), event.amount(), event.creditedAmount(), event.createdAt());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPayoutItemsCredited(PayoutItemsCreditedEvent event) {
+        for (PayoutItemsCreditedEvent.Credit credit : event.credits()) {
+            record(event.fromAccountId(), credit.toAccountId(), credit.amount(), credit.amount(), event.createdAt());
+        }
+    }
+
+    /**
+     * Count one transfer for both of its accounts
+     */
+    public void record(long fromAccountId, long toAccountId, BigDecimal amount, BigDecimal creditedAmount,
+                       LocalDateTime createdAt) {
+        if (!enabled) {
+            return;
+        }
+        LocalDate day = (createdAt != null ? createdAt : LocalDateTime.now()).toLocalDate();
+        pending.merge(new Key(fromAccountId, day, toAccountId),
+                new Totals(1, amount, 0, BigDecimal.ZERO), Totals::plus);
+        pending.merge(new Key(toAccountId, day, fromAccountId),
+                new Totals(0, BigDecimal.ZERO, 1, creditedAmount), Totals::plus);
+    }
+
+    public Duration getFlushInterval() {
+        return Duration.ofMillis(flushIntervalMs);
+    }
+
+    /**
+     * Drop the increments buffered for a day about to be rebuilt, returns the number of rows dropped
+     * Waits for a flush in progress, whose increments then land before the rebuild deletes the day.
+     */
+    public synchronized int discard(LocalDate day) {
+        int discarded = 0;
+        for (Key key : pending.keySet()) {
+            if (key.day().equals(day) && pending.remove(key) != null) {
+                discarded++;
+            }
+        }
+        if (discarded > 0) {
+            log.info("Discarded {} buffered rollup increments of {}, the rebuild recounts them", discarded, day);
+        }
+        return discarded;
+    }
+
+    /**
+     * Write everything merged so far, returns the number of counterparty rows upserted
+     */
+    public synchronized int flush() {
+        Map<Key, Totals> drained = new TreeMap<>(KEY_ORDER);
+        for (Key key : pending.keySet()) {
+            Totals totals = pending.remove(key);
+            if (totals != null) {
+                drained.put(key, totals);
+            }
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        // Sorted by key, so flushes on different nodes lock rows in the same order
+        List<RollupJdbcRepository.Increment> counterparties = new ArrayList<>(drained.size());
+        List<RollupJdbcRepository.Increment> days = new ArrayList<>();
+        Key dayKey = null;
+        Totals dayTotals = null;
+        for (Map.Entry<Key, Totals> entry : drained.entrySet()) {
+            Key key = entry.getKey();
+            Totals totals = entry.getValue();
+            counterparties.add(toIncrement(key, totals, key.counterpartyAccountId()));
+            if (dayKey != null && dayKey.accountId() == key.accountId() && dayKey.day().equals(key.day())) {
+                dayTotals = dayTotals.plus(totals);
+            } else {
+                if (dayKey != null) {
+                    days.add(toIncrement(dayKey, dayTotals, null));
+                }
+                dayKey = key;
+                dayTotals = totals;
+            }
+        }
+        days.add(toIncrement(dayKey, dayTotals, null));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rollupJdbcRepository.addDailyStats(days);
+                rollupJdbcRepository.addDailyCounterparties(counterparties);
+            });
+        } catch (RuntimeException e) {
+            drained.forEach((key, totals) -> pending.merge(key, totals, Totals::plus));
+            throw e;
+        }
+        return counterparties.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Rollup flush failed, {} increments kept for the next one: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    private static RollupJdbcRepository.Increment toIncrement(Key key, Totals totals, Long counterpartyAccountId) {
+        return new RollupJdbcRepository.Increment(key.accountId(), key.day(), counterpartyAccountId,
+                totals.sentCount(), totals.sentAmount(), totals.receivedCount(), totals.receivedAmount());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.repository.BalanceBackfillJdbcRepository;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * One-off job populating balance_after on existing transactions (see BalanceAfterBackfillTasklet)
+ */
+@Configuration
+public class BalanceAfterBackfillJobConfig {
+
+    public static final String JOB_NAME = "balanceAfterBackfillJob";
+
+    @Value("${app.balance-backfill.page-size:1000}")
+    private int pageSize;
+
+    @Bean
+    public Job balanceAfterBackfillJob(JobRepository jobRepository, Step balanceAfterBackfillStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(balanceAfterBackfillStep)
+                .build();
+    }
+
+    @Bean
+    public Step balanceAfterBackfillStep(JobRepository jobRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         BalanceBackfillJdbcRepository balanceBackfillJdbcRepository) {
+        return new StepBuilder("balanceAfterBackfillStep", jobRepository)
+                .tasklet(new BalanceAfterBackfillTasklet(balanceBackfillJdbcRepository, pageSize), transactionManager)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.repository.BalanceBackfillJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills from_balance_after / to_balance_after on transactions recorded before those columns existed
+ *
+ * Walks each account's transactions newest first, starting from the current balance and undoing one
+ * transaction at a time. Rows that already carry a balance (everything written since) re-anchor the walk,
+ * so transfers committed while the job runs never skew it and no account lock is needed.
+ * Each call handles one page of one account in its own transaction; the cursor lives in the step
+ * execution context, so a failed run restarts where it stopped.
+ * Every balance change has its row (payout items included, each one debits the sender), so the walk
+ * only ever undoes real debits and credits.
+ */
+@RequiredArgsConstructor
+public class BalanceAfterBackfillTasklet implements Tasklet {
+
+    public static final String ACCOUNTS_DONE_KEY = "backfill.accounts.done";
+    public static final String ROWS_UPDATED_KEY = "backfill.rows.updated";
+
+    private static final String LAST_ACCOUNT_KEY = "backfill.last.account";
+    private static final String ACCOUNT_KEY = "backfill.account";
+    private static final String RUNNING_BALANCE_KEY = "backfill.running.balance";
+    private static final String CURSOR_CREATED_AT_KEY = "backfill.cursor.created.at";
+    private static final String CURSOR_ID_KEY = "backfill.cursor.id";
+
+    private final BalanceBackfillJdbcRepository repository;
+    private final int pageSize;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext context = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+
+        if (!context.containsKey(ACCOUNT_KEY)) {
+            Long next = repository.findNextAccountId(context.getLong(LAST_ACCOUNT_KEY, 0L));
+            if (next == null) {
+                return RepeatStatus.FINISHED;
+            }
+            // Balance before the first page: anything committed in between carries its own balance
+            context.putLong(ACCOUNT_KEY, next);
+            context.putString(RUNNING_BALANCE_KEY, repository.findBalance(next).toPlainString());
+            context.remove(CURSOR_ID_KEY);
+            context.remove(CURSOR_CREATED_AT_KEY);
+        }
+
+        long accountId = context.getLong(ACCOUNT_KEY);
+        BigDecimal running = new BigDecimal(context.getString(RUNNING_BALANCE_KEY));
+        Long cursorId = context.containsKey(CURSOR_ID_KEY) ? context.getLong(CURSOR_ID_KEY) : null;
+        Timestamp cursorCreatedAt = context.containsKey(CURSOR_CREATED_AT_KEY)
+                ? Timestamp.valueOf(context.getString(CURSOR_CREATED_AT_KEY))
+                : null;
+
+        List<BalanceBackfillJdbcRepository.Row> page = repository.findPage(accountId, cursorCreatedAt, cursorId, pageSize);
+        List<Object[]> sentUpdates = new ArrayList<>();
+        List<Object[]> receivedUpdates = new ArrayList<>();
+        for (BalanceBackfillJdbcRepository.Row row : page) {
+            if (row.balanceAfter() != null) {
+                running = row.balanceAfter();
+            } else if (row.sent()) {
+                sentUpdates.add(new Object[]{running, row.id()});
+            } else {
+                receivedUpdates.add(new Object[]{running, row.id()});
+            }
+            // Balance before this transaction
+            running = row.sent() ? running.add(row.amount()) : running.subtract(row.creditedAmount());
+        }
+
+        int updated = repository.updateBalancesAfter(true, sentUpdates)
+                + repository.updateBalancesAfter(false, receivedUpdates);
+        contribution.incrementWriteCount(updated);
+        context.putLong(ROWS_UPDATED_KEY, context.getLong(ROWS_UPDATED_KEY, 0L) + updated);
+
+        if (page.size() < pageSize) {
+            context.putLong(LAST_ACCOUNT_KEY, accountId);
+            context.putLong(ACCOUNTS_DONE_KEY, context.getLong(ACCOUNTS_DONE_KEY, 0L) + 1);
+            context.remove(ACCOUNT_KEY);
+        } else {
+            BalanceBackfillJdbcRepository.Row last = page.get(page.size() - 1);
+            context.putString(RUNNING_BALANCE_KEY, running.toPlainString());
+            context.putLong(CURSOR_ID_KEY, last.id());
+            context.putString(CURSOR_CREATED_AT_KEY, last.createdAt().toString());
+        }
+        return RepeatStatus.CONTINUABLE;
+    }
+}
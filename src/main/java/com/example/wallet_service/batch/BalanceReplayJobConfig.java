@@ -0,0 +1,47 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.eventlog.BalanceReplayer;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Rebuilds balances from the event log and verifies them against the accounts table
+ */
+@Configuration
+public class BalanceReplayJobConfig {
+
+    public static final String JOB_NAME = "balanceReplayJob";
+    public static final String PARAM_FROM_SNAPSHOT = "from.snapshot";
+
+    @Bean
+    public Job balanceReplayJob(JobRepository jobRepository, Step balanceReplayStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(balanceReplayStep)
+                .build();
+    }
+
+    @Bean
+    public Step balanceReplayStep(JobRepository jobRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  BalanceReplayTasklet balanceReplayTasklet) {
+        return new StepBuilder("balanceReplayStep", jobRepository)
+                .tasklet(balanceReplayTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public BalanceReplayTasklet balanceReplayTasklet(
+            BalanceReplayer balanceReplayer,
+            @Value("#{jobParameters['" + PARAM_FROM_SNAPSHOT + "']}") String fromSnapshot) {
+        return new BalanceReplayTasklet(balanceReplayer, Boolean.parseBoolean(fromSnapshot));
+    }
+}
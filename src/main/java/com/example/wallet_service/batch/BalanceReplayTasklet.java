@@ -0,0 +1,44 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.eventlog.BalanceReplayer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.util.stream.Collectors;
+
+/**
+ * Replays the event log into balances and verifies them, the report is kept in the step execution context
+ */
+@RequiredArgsConstructor
+public class BalanceReplayTasklet implements Tasklet {
+
+    public static final String EVENTS_KEY = "replay.events";
+    public static final String FROM_SNAPSHOT_KEY = "replay.from.snapshot";
+    public static final String VERIFIED_KEY = "replay.accounts.verified";
+    public static final String MISMATCHES_KEY = "replay.mismatches";
+    public static final String SAMPLE_KEY = "replay.mismatch.sample";
+
+    private final BalanceReplayer balanceReplayer;
+    private final boolean fromSnapshot;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        BalanceReplayer.Report report = balanceReplayer.replay(fromSnapshot);
+
+        ExecutionContext context = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        context.putLong(EVENTS_KEY, report.eventsReplayed());
+        context.putString(FROM_SNAPSHOT_KEY, String.valueOf(report.fromSnapshot()));
+        context.putLong(VERIFIED_KEY, report.accountsVerified());
+        context.putLong(MISMATCHES_KEY, report.mismatchCount());
+        context.putString(SAMPLE_KEY, report.sample().stream()
+                .map(mismatch -> String.format("account %d: replayed %d, stored %d (cents)",
+                        mismatch.accountId(), mismatch.replayedCents(), mismatch.storedCents()))
+                .collect(Collectors.joining("\n")));
+        contribution.incrementReadCount(); // One replay per step
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.config.EventLogProperties;
+import com.example.wallet_service.repository.EventLogJdbcRepository;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Exports the transfers created before the node event logs started into the export log
+ *
+ * Together with the node logs it covers every transfer ever made (see BalanceReplayer).
+ */
+@Configuration
+public class EventLogExportJobConfig {
+
+    public static final String JOB_NAME = "eventLogExportJob";
+    public static final String PARAM_CUTOFF = "cutoff.millis";
+
+    @Bean
+    public Job eventLogExportJob(JobRepository jobRepository, Step eventLogExportStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(eventLogExportStep)
+                .build();
+    }
+
+    @Bean
+    public Step eventLogExportStep(JobRepository jobRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   EventLogExportTasklet eventLogExportTasklet) {
+        return new StepBuilder("eventLogExportStep", jobRepository)
+                .tasklet(eventLogExportTasklet, transactionManager)
+                .listener(eventLogExportTasklet)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public EventLogExportTasklet eventLogExportTasklet(
+            EventLogJdbcRepository eventLogJdbcRepository,
+            EventLogProperties properties,
+            @Value("#{jobParameters['" + PARAM_CUTOFF + "']}") Long cutoffMillis) {
+        return new EventLogExportTasklet(eventLogJdbcRepository, properties.exportDir(),
+                properties.getSegmentRecords(), properties.getExportPageSize(), cutoffMillis);
+    }
+}
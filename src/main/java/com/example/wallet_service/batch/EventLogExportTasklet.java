@@ -0,0 +1,92 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.eventlog.BalanceReplayer;
+import com.example.wallet_service.eventlog.SegmentLog;
+import com.example.wallet_service.eventlog.TransferLogRecord;
+import com.example.wallet_service.repository.EventLogJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Copies completed transfers created before the cutoff into the export log, one page per call
+ *
+ * The export log is the event log of everything that happened before the node logs started. The
+ * cursor is the last transaction id in the log itself, so a failed run resumes without duplicates.
+ */
+@RequiredArgsConstructor
+public class EventLogExportTasklet implements Tasklet, StepExecutionListener {
+
+    public static final String EXPORTED_KEY = "export.records.written";
+
+    private final EventLogJdbcRepository repository;
+    private final Path dir;
+    private final int segmentRecords;
+    private final int pageSize;
+    private final long cutoffMillis;
+
+    private SegmentLog exportLog;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws IOException {
+        if (exportLog == null) {
+            open();
+        }
+        TransferLogRecord last = exportLog.getLastRecord();
+        Timestamp cutoff = Timestamp.valueOf(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(cutoffMillis), ZoneId.systemDefault()));
+        List<TransferLogRecord> page = repository.findCompletedBefore(
+                last != null ? last.transactionId() : 0, cutoff, pageSize);
+        if (!page.isEmpty()) {
+            exportLog.append(page);
+            exportLog.force();
+        }
+
+        ExecutionContext context = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        context.putLong(EXPORTED_KEY, context.getLong(EXPORTED_KEY, 0L) + page.size());
+        contribution.incrementWriteCount(page.size());
+        return page.size() == pageSize ? RepeatStatus.CONTINUABLE : RepeatStatus.FINISHED;
+    }
+
+    private void open() throws IOException {
+        Properties meta = SegmentLog.readMeta(dir);
+        String existing = meta.getProperty(BalanceReplayer.CUTOFF_KEY);
+        if (existing != null && Long.parseLong(existing) != cutoffMillis) {
+            throw new IllegalStateException("Export log " + dir + " was started with cutoff " + existing);
+        }
+        if (existing == null) {
+            meta.setProperty(BalanceReplayer.CUTOFF_KEY, String.valueOf(cutoffMillis));
+            SegmentLog.writeMeta(dir, meta);
+        }
+        exportLog = SegmentLog.open(dir, segmentRecords);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        try {
+            if (exportLog != null) {
+                exportLog.close();
+                exportLog = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stepExecution.getExitStatus();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.analytics.RollupAggregator;
+import com.example.wallet_service.repository.RollupJdbcRepository;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+/**
+ * Rebuilds the daily rollup tables for a range of days from transactions
+ *
+ * Covers history from before the rollups existed, and repairs increments lost by a crashed node.
+ * Only days that ended a flush interval ago are rebuilt: until then, other nodes may still buffer
+ * increments for them, which would be added on top of the rebuilt rows.
+ */
+@Configuration
+public class RollupRebuildJobConfig {
+
+    public static final String JOB_NAME = "rollupRebuildJob";
+    public static final String PARAM_FROM = "from.date";
+    public static final String PARAM_TO = "to.date";
+
+    @Bean
+    public Job rollupRebuildJob(JobRepository jobRepository, Step rollupRebuildStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(rollupRebuildStep)
+                .build();
+    }
+
+    @Bean
+    public Step rollupRebuildStep(JobRepository jobRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  RollupRebuildTasklet rollupRebuildTasklet) {
+        return new StepBuilder("rollupRebuildStep", jobRepository)
+                .tasklet(rollupRebuildTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public RollupRebuildTasklet rollupRebuildTasklet(
+            RollupJdbcRepository rollupJdbcRepository,
+            RollupAggregator rollupAggregator,
+            @Value("#{jobParameters['" + PARAM_FROM + "']}") String from,
+            @Value("#{jobParameters['" + PARAM_TO + "']}") String to) {
+        return new RollupRebuildTasklet(rollupJdbcRepository, rollupAggregator, LocalDate.parse(from), LocalDate.parse(to));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.analytics.RollupAggregator;
+import com.example.wallet_service.repository.RollupJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Recomputes the daily rollups from transactions, one day per call (and per transaction)
+ * The next day to rebuild lives in the step execution context, so a failed run restarts where it stopped.
+ * Increments this node still buffers for the day are dropped first, the rebuild counts their transactions.
+ */
+@RequiredArgsConstructor
+public class RollupRebuildTasklet implements Tasklet {
+
+    public static final String DAYS_DONE_KEY = "rebuild.days.done";
+    public static final String ROWS_WRITTEN_KEY = "rebuild.rows.written";
+
+    private static final String NEXT_DAY_KEY = "rebuild.next.day";
+
+    private final RollupJdbcRepository repository;
+    private final RollupAggregator aggregator;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext context = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        LocalDate day = context.containsKey(NEXT_DAY_KEY) ? LocalDate.parse(context.getString(NEXT_DAY_KEY)) : from;
+        if (day.isAfter(to)) {
+            return RepeatStatus.FINISHED;
+        }
+
+        aggregator.discard(day);
+        int rows = repository.rebuildDay(day);
+        contribution.incrementWriteCount(rows);
+        context.putLong(DAYS_DONE_KEY, context.getLong(DAYS_DONE_KEY, 0L) + 1);
+        context.putLong(ROWS_WRITTEN_KEY, context.getLong(ROWS_WRITTEN_KEY, 0L) + rows);
+        context.putString(NEXT_DAY_KEY, day.plusDays(1).toString());
+        return day.isBefore(to) ? RepeatStatus.CONTINUABLE : RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.RoleRepository;
+import com.example.wallet_service.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk user onboarding job
+ *
+ * CSV (with header: username,email,password,fullName) or NDJSON file
+ *   -> validate (same rules as register) -> chunked, batched insert of users, roles and accounts.
+ * Rejected lines go to the error file given by the reject.file job parameter.
+ */
+@Configuration
+public class UserImportJobConfig {
+
+    public static final String JOB_NAME = "userImportJob";
+    public static final String PARAM_INPUT_FILE = "input.file";
+    public static final String PARAM_FORMAT = "format";
+    public static final String PARAM_REJECT_FILE = "reject.file";
+
+    @Value("${app.user-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.user-import.hash-threads:0}")
+    private int hashThreads;
+
+    // Not exposed as a bean: an Executor bean would replace Boot's applicationTaskExecutor
+    private ExecutorService hashExecutor;
+
+    @Bean
+    public Job userImportJob(JobRepository jobRepository, Step userImportStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .listener(new UserImportJobListener())
+                .start(userImportStep)
+                .build();
+    }
+
+    @Bean
+    public Step userImportStep(JobRepository jobRepository,
+                               PlatformTransactionManager transactionManager,
+                               FlatFileItemReader<UserImportRecord> userImportReader,
+                               UserImportProcessor userImportProcessor,
+                               UserImportWriter userImportWriter,
+                               UserImportRejectWriter userImportRejectWriter) {
+        return new StepBuilder("userImportStep", jobRepository)
+                .<UserImportRecord, UserImportRecord>chunk(chunkSize, transactionManager)
+                .reader(userImportReader)
+                .processor(userImportProcessor)
+                .writer(userImportWriter)
+                .stream(userImportRejectWriter)
+                // A user registered concurrently between the existence check and the insert:
+                // the chunk is retried item by item and only the conflicting user is skipped
+                .faultTolerant()
+                .processorNonTransactional()
+                .skip(DataIntegrityViolationException.class)
+                .skipLimit(Integer.MAX_VALUE)
+                .listener(new SkipListener<UserImportRecord, UserImportRecord>() {
+                    @Override
+                    public void onSkipInWrite(UserImportRecord item, Throwable t) {
+                        userImportRejectWriter.reject(item, "Duplicate user or email");
+                    }
+                })
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FlatFileItemReader<UserImportRecord> userImportReader(
+            @Value("#{jobParameters['" + PARAM_INPUT_FILE + "']}") String inputFile,
+            @Value("#{jobParameters['" + PARAM_FORMAT + "']}") String format,
+            ObjectMapper objectMapper) {
+        UserImportLineMapper.Format lineFormat = UserImportLineMapper.Format.valueOf(format);
+        return new FlatFileItemReaderBuilder<UserImportRecord>()
+                .name("userImportReader")
+                .resource(new FileSystemResource(inputFile))
+                .linesToSkip(lineFormat == UserImportLineMapper.Format.CSV ? 1 : 0)
+                .lineMapper(new UserImportLineMapper(lineFormat, objectMapper))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public UserImportRejectWriter userImportRejectWriter(
+            @Value("#{jobParameters['" + PARAM_REJECT_FILE + "']}") String rejectFile) {
+        return new UserImportRejectWriter(Path.of(rejectFile));
+    }
+
+    @Bean
+    @StepScope
+    public UserImportProcessor userImportProcessor(Validator validator,
+                                                   UserImportRejectWriter userImportRejectWriter) {
+        return new UserImportProcessor(validator, userImportRejectWriter);
+    }
+
+    @Bean
+    @StepScope
+    public UserImportWriter userImportWriter(UserRepository userRepository,
+                                             RoleRepository roleRepository,
+                                             AccountRepository accountRepository,
+                                             PasswordEncoder passwordEncoder,
+                                             UserImportRejectWriter userImportRejectWriter) {
+        return new UserImportWriter(userRepository, roleRepository, accountRepository,
+                passwordEncoder, hashExecutor(), userImportRejectWriter);
+    }
+
+    private synchronized ExecutorService hashExecutor() {
+        if (hashExecutor == null) {
+            int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+            hashExecutor = Executors.newFixedThreadPool(threads);
+        }
+        return hashExecutor;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (hashExecutor != null) {
+            hashExecutor.shutdown();
+        }
+    }
+}
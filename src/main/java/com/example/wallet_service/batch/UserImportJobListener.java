@@ -0,0 +1,48 @@
+package com.example.wallet_service.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Report import throughput (users per second) when the job ends
+ */
+@Slf4j
+public class UserImportJobListener implements JobExecutionListener {
+
+    public static final String IMPORTED_KEY = "user.import.imported";
+    public static final String REJECTED_KEY = "user.import.rejected";
+    public static final String USERS_PER_SECOND_KEY = "user.import.users-per-second";
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        long read = 0;
+        long rejected = 0;
+        for (StepExecution step : jobExecution.getStepExecutions()) {
+            read += step.getReadCount();
+            rejected += step.getExecutionContext().getLong(UserImportRejectWriter.REJECT_COUNT_KEY, 0L);
+        }
+        long imported = read - rejected;
+
+        double usersPerSecond = usersPerSecond(imported, jobExecution.getStartTime(), jobExecution.getEndTime());
+        jobExecution.getExecutionContext().putLong(IMPORTED_KEY, imported);
+        jobExecution.getExecutionContext().putLong(REJECTED_KEY, rejected);
+        jobExecution.getExecutionContext().putDouble(USERS_PER_SECOND_KEY, usersPerSecond);
+
+        log.info("User import {} finished with status {}: {} read, {} imported, {} rejected, {} users/s",
+                jobExecution.getId(), jobExecution.getStatus(), read, imported, rejected,
+                String.format("%.1f", usersPerSecond));
+    }
+
+    public static double usersPerSecond(long imported, LocalDateTime start, LocalDateTime end) {
+        if (start == null) {
+            return 0;
+        }
+        long millis = Duration.between(start, end != null ? end : LocalDateTime.now()).toMillis();
+        return millis == 0 ? imported : imported * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.wallet_service.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.batch.item.file.transform.FieldSet;
+
+/**
+ * Map a CSV or NDJSON line to an import record
+ * Malformed lines are not fatal: they come back with parseError set and end up in the error file.
+ */
+public class UserImportLineMapper implements LineMapper<UserImportRecord> {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String[] FIELDS = {"username", "email", "password", "fullName"};
+
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private final DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+
+    public UserImportLineMapper(Format format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.tokenizer.setNames(FIELDS);
+    }
+
+    @Override
+    public UserImportRecord mapLine(String line, int lineNumber) {
+        UserImportRecord record = new UserImportRecord();
+        record.setLineNumber(lineNumber);
+        record.setLine(line);
+
+        try {
+            if (format == Format.CSV) {
+                FieldSet fieldSet = tokenizer.tokenize(line);
+                record.setUsername(fieldSet.readString("username"));
+                record.setEmail(fieldSet.readString("email"));
+                record.setPassword(fieldSet.readRawString("password"));
+                record.setFullName(fieldSet.readString("fullName"));
+            } else {
+                JsonNode node = objectMapper.readTree(line);
+                record.setUsername(text(node, "username"));
+                record.setEmail(text(node, "email"));
+                record.setPassword(text(node, "password"));
+                record.setFullName(text(node, "fullName"));
+            }
+        } catch (Exception e) {
+            record.setParseError("Malformed line: " + e.getMessage());
+        }
+
+        return record;
+    }
+
+    private String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
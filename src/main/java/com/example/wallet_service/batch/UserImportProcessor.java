@@ -0,0 +1,57 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.dto.request.RegisterRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.batch.item.ItemProcessor;
+
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Validate import records with the same rules as /api/auth/register
+ * Invalid records are written to the error file and filtered out of the chunk.
+ */
+public class UserImportProcessor implements ItemProcessor<UserImportRecord, UserImportRecord> {
+
+    private final Validator validator;
+    private final UserImportRejectWriter rejectWriter;
+
+    public UserImportProcessor(Validator validator, UserImportRejectWriter rejectWriter) {
+        this.validator = validator;
+        this.rejectWriter = rejectWriter;
+    }
+
+    @Override
+    public UserImportRecord process(UserImportRecord record) {
+        if (record.getParseError() != null) {
+            rejectWriter.reject(record, record.getParseError());
+            return null;
+        }
+
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(trim(record.getUsername()));
+        request.setEmail(trim(record.getEmail()));
+        request.setPassword(record.getPassword());
+        request.setFullName(trim(record.getFullName()));
+
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            rejectWriter.reject(record, violations.stream()
+                    .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+
+        record.setUsername(request.getUsername());
+        record.setEmail(request.getEmail());
+        record.setFullName(request.getFullName());
+        return record;
+    }
+
+    private String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.wallet_service.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a user import file (CSV or NDJSON)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRecord {
+    private long lineNumber;
+    private String line;
+    private String username;
+    private String email;
+    private String password;
+    private String fullName;
+    private String parseError; // Set when the line cannot be mapped
+}
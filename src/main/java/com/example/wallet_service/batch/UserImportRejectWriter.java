@@ -0,0 +1,138 @@
+package com.example.wallet_service.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Error file for rejected import lines
+ * Format: line number, reason, original line - one reject per line, tab separated.
+ * Opened in append mode so a restarted job keeps earlier rejects.
+ *
+ * Rejects are held until the chunk transaction commits, then appended, so the file and the
+ * reject count only cover committed chunks:
+ * 1. A line rejected twice (chunk retried item by item) is written once, keyed by line number
+ * 2. Rejects found by the writer are dropped when the chunk rolls back, the retry finds them again;
+ *    the processor's are kept, its results are cached across the rollback (processorNonTransactional)
+ */
+@Slf4j
+public class UserImportRejectWriter implements ItemStream {
+
+    public static final String REJECT_COUNT_KEY = "user.import.reject.count";
+
+    private final Path rejectFile;
+    private final Map<Long, String> pending = new LinkedHashMap<>(); // Line number -> reject line
+    private final Set<Long> pendingFromWrite = new HashSet<>();
+    private BufferedWriter writer;
+    private long rejectCount; // Committed rejects
+    private boolean synchronizationRegistered;
+
+    public UserImportRejectWriter(Path rejectFile) {
+        this.rejectFile = rejectFile;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        rejectCount = executionContext.getLong(REJECT_COUNT_KEY, 0L);
+        try {
+            writer = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new ItemStreamException("Cannot open reject file " + rejectFile, e);
+        }
+    }
+
+    /**
+     * Reject found while reading or processing (or a skip), kept until a chunk commits
+     */
+    public synchronized void reject(UserImportRecord record, String reason) {
+        add(record, reason);
+        pendingFromWrite.remove(record.getLineNumber());
+    }
+
+    /**
+     * Reject found by the writer, dropped if the chunk rolls back since the retried write finds it again
+     */
+    public synchronized void rejectInWrite(UserImportRecord record, String reason) {
+        add(record, reason);
+        pendingFromWrite.add(record.getLineNumber());
+    }
+
+    private void add(UserImportRecord record, String reason) {
+        pending.put(record.getLineNumber(), record.getLineNumber() + "\t" + reason + "\t" + record.getLine());
+        registerSynchronization();
+    }
+
+    @Override
+    public synchronized void update(ExecutionContext executionContext) throws ItemStreamException {
+        // Saved in the chunk transaction, with the rejects that are appended once it commits
+        executionContext.putLong(REJECT_COUNT_KEY, rejectCount + pending.size());
+        registerSynchronization();
+    }
+
+    private void registerSynchronization() {
+        if (synchronizationRegistered || pending.isEmpty()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        synchronizationRegistered = true;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                completed(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private synchronized void completed(boolean committed) {
+        synchronizationRegistered = false;
+        if (!committed) {
+            pending.keySet().removeAll(pendingFromWrite);
+            pendingFromWrite.clear();
+            return;
+        }
+        try {
+            for (String line : pending.values()) {
+                writer.write(line);
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new ItemStreamException("Cannot write reject file " + rejectFile, e);
+        }
+        rejectCount += pending.size();
+        pending.clear();
+        pendingFromWrite.clear();
+    }
+
+    @Override
+    public synchronized void close() throws ItemStreamException {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            log.info("User import rejects written to {} ({} lines)", rejectFile, rejectCount);
+        } catch (IOException e) {
+            throw new ItemStreamException("Cannot close reject file " + rejectFile, e);
+        } finally {
+            writer = null;
+            pending.clear();
+            pendingFromWrite.clear();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.wallet_service.batch;
+
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Role;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.RoleRepository;
+import com.example.wallet_service.repository.UserRepository;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Insert a chunk of imported users
+ *
+ * Per chunk, instead of per user:
+ * 1. One query for existing usernames and one for existing emails
+ * 2. BCrypt hashes computed in parallel
+ * 3. users, user_role and accounts inserted with JDBC batching (hibernate.jdbc.batch_size)
+ */
+public class UserImportWriter implements ItemWriter<UserImportRecord> {
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final AccountRepository accountRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService hashExecutor;
+    private final UserImportRejectWriter rejectWriter;
+
+    public UserImportWriter(UserRepository userRepository,
+                            RoleRepository roleRepository,
+                            AccountRepository accountRepository,
+                            PasswordEncoder passwordEncoder,
+                            ExecutorService hashExecutor,
+                            UserImportRejectWriter rejectWriter) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.accountRepository = accountRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashExecutor = hashExecutor;
+        this.rejectWriter = rejectWriter;
+    }
+
+    @Override
+    public void write(Chunk<? extends UserImportRecord> chunk) {
+        List<? extends UserImportRecord> items = chunk.getItems();
+
+        // Step 1: Set-based uniqueness check against the database
+        Set<String> existingUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                items.stream().map(UserImportRecord::getUsername).toList()));
+        Set<String> existingEmails = new HashSet<>(userRepository.findExistingEmails(
+                items.stream().map(UserImportRecord::getEmail).toList()));
+
+        // Step 2: Drop duplicates, both against the database and inside the chunk.
+        // Reported as write rejects: a chunk rolled back and retried item by item reports them again
+        List<UserImportRecord> accepted = new ArrayList<>(items.size());
+        for (UserImportRecord record : items) {
+            if (!existingUsernames.add(record.getUsername())) {
+                rejectWriter.rejectInWrite(record, "User existed");
+            } else if (!existingEmails.add(record.getEmail())) {
+                rejectWriter.rejectInWrite(record, "Email existed");
+            } else {
+                accepted.add(record);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Step 3: Hash passwords in parallel, BCrypt dominates the import cost
+        List<CompletableFuture<String>> hashes = accepted.stream()
+                .map(record -> CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(record.getPassword()), hashExecutor))
+                .toList();
+
+        Role userRole = roleRepository.findByName(Role.RoleName.ROLE_USER)
+                .orElseThrow(() -> new RuntimeException("Role ROLE_USER not existed"));
+
+        // Step 4: Batch insert users (with user_role rows) and their zero-balance accounts
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            UserImportRecord record = accepted.get(i);
+            User user = User.builder()
+                    .username(record.getUsername())
+                    .email(record.getEmail())
+                    .password(hashes.get(i).join())
+                    .fullName(record.getFullName())
+                    .enabled(true)
+                    .accountNonLocked(true)
+                    .build();
+            user.getRoles().add(userRole);
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+
+        accountRepository.saveAll(users.stream()
+                .map(user -> Account.builder()
+                        .user(user)
+                        .balance(BigDecimal.ZERO)
+                        .build())
+                .toList());
+
+        // Flush inside the write so constraint violations are skippable, not a commit failure
+        accountRepository.flush();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.wallet_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Transfer event log: one segment directory per node plus one for the export of older transfers
+ */
+@Data
+@ConfigurationProperties(prefix = "app.event-log")
+public class EventLogProperties {
+
+    public static final String EXPORT_DIR = "_export";
+
+    private boolean enabled = true;
+    private String dir = "data/event-log";  // Shared by all nodes when replay should see every node's log
+    private String nodeId = "";             // Required, outbox rows are only drained by a node with the same id
+    private int segmentRecords = 1_000_000; // 64 MB segments
+    private int batchSize = 4096;           // Outbox rows per append and fsync
+    private long pollIntervalMs = 100;      // Outbox poll delay once it is drained, how far the log trails commits
+    private int exportPageSize = 100_000;
+    private int replayThreads = 0;          // 0 = one per CPU
+    private long maxReplayAccounts = 200_000_000; // Dense balance array bound, 8 bytes per account id
+
+    public Path rootDir() {
+        return Path.of(dir);
+    }
+
+    public Path nodeDir() {
+        return rootDir().resolve(nodeId);
+    }
+
+    public Path exportDir() {
+        return rootDir().resolve(EXPORT_DIR);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.wallet_service.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(FraudProperties.class)
+public class FraudConfig {
+}
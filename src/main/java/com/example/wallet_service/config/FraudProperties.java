@@ -0,0 +1,27 @@
+package com.example.wallet_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Fraud scoring thresholds and budgets, scores go from 0 to 100
+ */
+@Data
+@ConfigurationProperties(prefix = "app.fraud")
+public class FraudProperties {
+
+    public enum FailMode {
+        OPEN,   // Let the transfer through when scoring can't finish in time
+        CLOSED  // Decline it
+    }
+
+    private boolean enabled = true;
+    private long budgetMs = 5;          // Pre-commit scoring budget, including a cold feature load
+    private FailMode failMode = FailMode.OPEN;
+    private int declineScore = 90;      // Pre-commit: declined at or above
+    private int reviewScore = 60;       // After commit: flagged for review at or above
+    private int featureCacheSize = 100_000;
+    private int featureHistorySize = 200; // Sent transfers loaded to build a cold user's features
+    private int workers = 2;
+    private int queueCapacity = 10_000; // Deep scoring backlog, events beyond it are dropped and counted
+}
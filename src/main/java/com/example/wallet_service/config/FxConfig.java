@@ -0,0 +1,29 @@
+package com.example.wallet_service.config;
+
+import com.example.wallet_service.fx.FileFxRateProvider;
+import com.example.wallet_service.fx.FxRateProvider;
+import com.example.wallet_service.fx.StaticFxRateProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(FxProperties.class)
+public class FxConfig {
+
+    @Bean
+    public FxRateProvider fxRateProvider(FxProperties properties, ObjectMapper objectMapper) {
+        return switch (properties.getProvider()) {
+            case STATIC -> new StaticFxRateProvider(properties.getBase(), properties.getStaticRates());
+            case FILE -> {
+                if (properties.getFile() == null || properties.getFile().isBlank()) {
+                    throw new IllegalStateException("app.fx.file is required when app.fx.provider=FILE");
+                }
+                yield new FileFxRateProvider(Path.of(properties.getFile()), objectMapper);
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.wallet_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.fx")
+public class FxProperties {
+
+    public enum Provider {
+        STATIC, // Rates from app.fx.static-rates
+        FILE    // Rates from a JSON file, re-read on every refresh
+    }
+
+    private Provider provider = Provider.STATIC;
+    private String base = "USD";
+    private Map<String, BigDecimal> staticRates = new HashMap<>(); // Units of currency per 1 base
+    private String file;
+    private long refreshIntervalMs = 60000;
+    private long maxAgeSeconds = 900; // Older snapshots are not used for conversion
+}
@@ -0,0 +1,61 @@
+package com.example.wallet_service.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary response formats for high-volume API clients
+ *
+ * Key features:
+ * 1. Clients sending Accept: application/cbor or application/x-jackson-smile get the same document as
+ *    JSON in a compact binary encoding, request bodies may use them too (Content-Type)
+ * 2. The binary mappers come from the application's Jackson builder, so dates, decimals and modules
+ *    match the JSON mapper (Spring's own CBOR/Smile converters use plain defaults and are replaced)
+ * 3. JSON stays first: requests without an Accept header, or accepting any type, are answered in JSON
+ * 4. Blackbird generates property accessors with LambdaMetafactory once per type instead of calling
+ *    getters and setters reflectively, for every format
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(SerializationProperties.class)
+public class SerializationConfig implements WebMvcConfigurer {
+
+    private final SerializationProperties properties;
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder; // Prototype, a new builder per call
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.serialization", name = "blackbird", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        // Module beans are registered with every mapper the Jackson builder creates
+        return new BlackbirdModule();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        if (!properties.isBinaryFormats()) {
+            return;
+        }
+        // Appended after the JSON converter, which keeps answering clients that accept anything
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+    }
+}
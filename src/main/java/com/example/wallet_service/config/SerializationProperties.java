@@ -0,0 +1,15 @@
+package com.example.wallet_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Response formats offered through content negotiation, JSON is always available and the default
+ */
+@Data
+@ConfigurationProperties(prefix = "app.serialization")
+public class SerializationProperties {
+
+    private boolean binaryFormats = true; // application/cbor and application/x-jackson-smile
+    private boolean blackbird = true;     // Generated property accessors instead of reflection, off in the native image
+}
@@ -0,0 +1,44 @@
+package com.example.wallet_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Account ownership across nodes
+ *
+ * Routed endpoints are "METHOD /path/pattern" (PathPattern syntax, e.g. "POST /api/holds/{id}/release"),
+ * they are sent to the owner of the caller's account.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+    private String nodeId = "";           // Defaults to the host name, must be unique per node
+    private String advertisedUrl = "";    // Base URL other nodes forward to, defaults to http://<host>:<port>
+    private String clusterSecret = "";    // Shared by all nodes, authenticates forwarded requests (required when enabled)
+    private int virtualNodes = 128;       // Points per node on the ring, more = more even shares
+    private long heartbeatIntervalMs = 2000;
+    private long nodeTtlMs = 10000;       // A node missing heartbeats this long leaves the ring (clock skew must stay below)
+    private long forwardTimeoutMs = 30000;
+    private long localLockTimeoutMs = 5000;
+    private int localLockStripes = 4096;
+    private int accountCacheSize = 100_000;
+    private List<String> routedEndpoints = new ArrayList<>();
+
+    public String resolvedNodeId() {
+        if (nodeId != null && !nodeId.isBlank()) {
+            return nodeId;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "local";
+        }
+    }
+}
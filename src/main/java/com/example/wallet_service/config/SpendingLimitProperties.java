@@ -0,0 +1,42 @@
+package com.example.wallet_service.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outgoing spending and velocity limits per account
+ *
+ * Amounts are in the sender account's currency.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.limits")
+public class SpendingLimitProperties {
+
+    public enum Mode {
+        MEMORY,   // In-memory sliding windows; one node, or requests for an account always on the same node
+        DATABASE  // SUM/COUNT over transactions per check - consistent across nodes, slower
+    }
+
+    private boolean enabled = true;
+    private Mode mode = Mode.MEMORY;
+    private boolean rebuildOnStartup = true;
+    private int bucketsPerWindow = 60; // Window resolution: a window may reach back one bucket further
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rule {
+        private String name;
+        private Duration window;
+        private BigDecimal maxAmount; // Null: no amount limit
+        private Integer maxCount;     // Null: no transfer count limit
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.wallet_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint SQL statement budgets
+ *
+ * Endpoint keys are "METHOD /path/pattern" as mapped in the controllers, e.g. "GET /api/users/{id}".
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sql-budget")
+public class SqlBudgetProperties {
+
+    public enum Mode {
+        LOG,  // Log a warning and keep the response
+        FAIL  // Replace the response with a 500 - meant for tests and CI
+    }
+
+    private boolean enabled = true;
+    private Mode mode = Mode.LOG;
+    private int defaultMaxStatements = 20;
+    private int repeatedStatementThreshold = 5; // Same statement this many times in one request = likely N+1
+    private boolean exposeHeaders = false;
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultMaxStatements);
+    }
+}
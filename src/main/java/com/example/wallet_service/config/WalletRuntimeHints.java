@@ -0,0 +1,95 @@
+package com.example.wallet_service.config;
+
+import com.example.wallet_service.metrics.SqlStatementInspector;
+import com.example.wallet_service.metrics.SqlStatementListener;
+import jakarta.persistence.Entity;
+import jakarta.persistence.IdClass;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reflection hints for the native image (./mvnw -Pnative native:compile)
+ *
+ * Spring AOT already covers beans, controller bindings and the JPA managed types, these are the
+ * pieces it cannot see: classes jjwt loads by name, Hibernate extensions configured by class name,
+ * and DTOs/entities that are also (de)serialized outside controllers.
+ * Entities and DTOs are found by scanning their packages at build time, so new ones are covered
+ * without touching this class.
+ */
+public class WalletRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String ENTITY_PACKAGE = "com.example.wallet_service.entity";
+    private static final String DTO_PACKAGE = "com.example.wallet_service.dto";
+
+    // jjwt-api instantiates its implementation classes reflectively
+    private static final List<String> JJWT_IMPL_CLASSES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String className : JJWT_IMPL_CLASSES) {
+            hints.reflection().registerTypeIfPresent(classLoader, className,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+        // Hibernate session extensions (see SqlBudgetConfig)
+        hints.reflection().registerType(SqlStatementListener.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(SqlStatementInspector.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Lombok generates plain fields/accessors, register the full shape for Hibernate and Jackson
+        for (Class<?> entity : scan(classLoader, ENTITY_PACKAGE, new AnnotationTypeFilter(Entity.class))) {
+            registerEntityShape(hints, entity);
+            IdClass idClass = entity.getAnnotation(IdClass.class);
+            if (idClass != null) {
+                registerEntityShape(hints, idClass.value()); // Composite keys of the analytics rollups
+            }
+        }
+
+        // Request and response bodies, also the notification payloads and cached/stored responses
+        BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                scan(classLoader, DTO_PACKAGE, (reader, factory) -> true).toArray(new Class<?>[0]));
+    }
+
+    private static void registerEntityShape(RuntimeHints hints, Class<?> type) {
+        hints.reflection().registerType(type,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS);
+    }
+
+    private static List<Class<?>> scan(ClassLoader classLoader, String basePackage, TypeFilter filter) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(filter);
+        return scanner.findCandidateComponents(basePackage).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .<Class<?>>map(className -> ClassUtils.resolveClassName(className, classLoader))
+                .toList();
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.wallet_service.controller;
+
+import com.example.wallet_service.dto.request.RefundRequest;
+import com.example.wallet_service.dto.response.BalanceBackfillResponse;
+import com.example.wallet_service.dto.response.BalanceReplayResponse;
+import com.example.wallet_service.dto.response.EventLogExportResponse;
+import com.example.wallet_service.dto.response.FraudReviewResponse;
+import com.example.wallet_service.dto.response.HotAccountsResponse;
+import com.example.wallet_service.dto.response.RollupRebuildResponse;
+import com.example.wallet_service.dto.response.ShardRingResponse;
+import com.example.wallet_service.dto.response.TransferResponse;
+import com.example.wallet_service.entity.FraudReview;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.fraud.FraudService;
+import com.example.wallet_service.metrics.AccountContentionTracker;
+import com.example.wallet_service.service.BalanceBackfillService;
+import com.example.wallet_service.service.EventLogService;
+import com.example.wallet_service.service.PaymentService;
+import com.example.wallet_service.service.RollupRebuildService;
+import com.example.wallet_service.sharding.ClusterMembership;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Operational diagnostics APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    private final AccountContentionTracker contentionTracker;
+    private final FraudService fraudService;
+    private final PaymentService paymentService;
+    private final BalanceBackfillService balanceBackfillService;
+    private final RollupRebuildService rollupRebuildService;
+    private final EventLogService eventLogService;
+    private final ClusterMembership clusterMembership;
+
+    @GetMapping("/accounts/hot")
+    @Operation(
+            summary = "Get hottest accounts",
+            description = "Accounts with the most row lock requests and the longest lock wait in the current " +
+                    "window (or the last complete window with previousWindow=true), with wait-time histograms."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<HotAccountsResponse> getHotAccounts(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean previousWindow) {
+        if (limit < 1 || limit > 1000) {
+            throw new BadRequestException("Limit must be between 1 and 1000");
+        }
+        return ResponseEntity.ok(contentionTracker.snapshot(limit, previousWindow));
+    }
+
+    @GetMapping("/fraud/reviews")
+    @Operation(summary = "List transfers flagged by fraud scoring", description = "Newest first")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Page<FraudReviewResponse>> getFraudReviews(
+            @RequestParam(defaultValue = "OPEN") FraudReview.ReviewStatus status,
+            @PageableDefault() Pageable pageable) {
+        return ResponseEntity.ok(fraudService.getReviews(status, pageable));
+    }
+
+    @PostMapping("/fraud/reviews/{id}/resolve")
+    @Operation(summary = "Resolve a fraud review", description = "Decision is CONFIRMED_FRAUD or DISMISSED")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<FraudReviewResponse> resolveFraudReview(
+            @PathVariable Long id,
+            @RequestParam FraudReview.ReviewStatus decision,
+            Authentication authentication) {
+        return ResponseEntity.ok(fraudService.resolveReview(id, decision, authentication.getName()));
+    }
+
+    @PostMapping("/transactions/{id}/refund")
+    @Operation(
+            summary = "Reverse a transfer",
+            description = "Support refund of any completed transfer, fully or partially, debited from the recipient. " +
+                    "Replaces manual counter-transfers: the refund is linked to the original transaction."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<TransferResponse> refundTransaction(
+            @PathVariable Long id,
+            @Valid @RequestBody RefundRequest request,
+            Authentication authentication) {
+        paymentService.checkClientIdempotencyKey(request.getIdempotencyKey());
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(paymentService.refund(userId, id, request, true));
+    }
+
+    @PostMapping("/backfills/balance-after")
+    @Operation(
+            summary = "Backfill statement balances",
+            description = "Starts the job filling balance after on transactions recorded before it was stored, " +
+                    "resuming the last run if it failed. Returns immediately, poll the execution for progress."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<BalanceBackfillResponse> startBalanceBackfill() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(balanceBackfillService.startBackfill());
+    }
+
+    @GetMapping("/backfills/balance-after/{executionId}")
+    @Operation(summary = "Get balance backfill status")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<BalanceBackfillResponse> getBalanceBackfill(@PathVariable Long executionId) {
+        return ResponseEntity.ok(balanceBackfillService.getBackfill(executionId));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    @Operation(
+            summary = "Rebuild analytics rollups",
+            description = "Recomputes the daily rollups of the given days (before today) from transactions. " +
+                    "Returns immediately, poll the execution for progress."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<RollupRebuildResponse> startRollupRebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(rollupRebuildService.startRebuild(from, to));
+    }
+
+    @GetMapping("/rollups/rebuild/{executionId}")
+    @Operation(summary = "Get rollup rebuild status")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<RollupRebuildResponse> getRollupRebuild(@PathVariable Long executionId) {
+        return ResponseEntity.ok(rollupRebuildService.getRebuild(executionId));
+    }
+
+    @PostMapping("/event-log/export")
+    @Operation(
+            summary = "Export history to the event log",
+            description = "Copies the transfers made before the node event logs started into the export log, " +
+                    "resuming a previous export. Required once before the first replay."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<EventLogExportResponse> startEventLogExport() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(eventLogService.startExport());
+    }
+
+    @GetMapping("/event-log/export/{executionId}")
+    @Operation(summary = "Get event log export status")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<EventLogExportResponse> getEventLogExport(@PathVariable Long executionId) {
+        return ResponseEntity.ok(eventLogService.getExport(executionId));
+    }
+
+    @PostMapping("/event-log/replay")
+    @Operation(
+            summary = "Replay balances from the event log",
+            description = "Rebuilds every balance from the event log (from the last snapshot unless " +
+                    "fromSnapshot=false) and compares it with the stored balance. Poll the execution for the report."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<BalanceReplayResponse> startBalanceReplay(
+            @RequestParam(defaultValue = "true") boolean fromSnapshot) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(eventLogService.startReplay(fromSnapshot));
+    }
+
+    @GetMapping("/event-log/replay/{executionId}")
+    @Operation(summary = "Get balance replay status and report")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<BalanceReplayResponse> getBalanceReplay(@PathVariable Long executionId) {
+        return ResponseEntity.ok(eventLogService.getReplay(executionId));
+    }
+
+    @GetMapping("/shards")
+    @Operation(
+            summary = "Get the account ownership ring",
+            description = "Live nodes with the share of accounts each owns, as seen by this node. " +
+                    "With accountId, also the node that owns that account."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ShardRingResponse> getShards(@RequestParam(required = false) Long accountId) {
+        return ResponseEntity.ok(clusterMembership.describe(accountId));
+    }
+}
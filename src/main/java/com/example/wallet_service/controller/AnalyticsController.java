@@ -0,0 +1,67 @@
+package com.example.wallet_service.controller;
+
+import com.example.wallet_service.dto.response.ActivitySummaryResponse;
+import com.example.wallet_service.dto.response.CounterpartyResponse;
+import com.example.wallet_service.service.AnalyticsService;
+import com.example.wallet_service.service.PaymentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analytics", description = "Account activity dashboards, served from daily rollups")
+@SecurityRequirement(name = "bearerAuth")
+public class AnalyticsController {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final AnalyticsService analyticsService;
+    private final PaymentService paymentService;
+
+    @GetMapping("/summary")
+    @Operation(
+            summary = "Get activity summary",
+            description = "Sent and received counts and amounts (outflow, inflow, net) of the authenticated " +
+                    "user's account per day and in total, for the given days (default: last 30). " +
+                    "Today's figures lag transfers by a few seconds."
+    )
+    public ResponseEntity<ActivitySummaryResponse> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        return ResponseEntity.ok(analyticsService.getSummary(userId, start, end));
+    }
+
+    @GetMapping("/counterparties")
+    @Operation(
+            summary = "Get top counterparties",
+            description = "Accounts the authenticated user exchanged the most money with, in either direction, " +
+                    "for the given days (default: last 30)"
+    )
+    public ResponseEntity<List<CounterpartyResponse>> getTopCounterparties(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        return ResponseEntity.ok(analyticsService.getTopCounterparties(userId, start, end, limit));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.wallet_service.controller;
+
+import com.example.wallet_service.dto.request.CaptureHoldRequest;
+import com.example.wallet_service.dto.request.PlaceHoldRequest;
+import com.example.wallet_service.dto.response.HoldResponse;
+import com.example.wallet_service.dto.response.TransferResponse;
+import com.example.wallet_service.service.HoldService;
+import com.example.wallet_service.service.PaymentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/holds")
+@RequiredArgsConstructor
+@Tag(name = "Holds", description = "Authorization hold APIs: reserve funds, then capture or release them")
+@SecurityRequirement(name = "bearerAuth")
+public class HoldController {
+
+    private final HoldService holdService;
+    private final PaymentService paymentService;
+
+    @PostMapping
+    @Operation(
+            summary = "Place a hold",
+            description = "Reserve funds on the authenticated user's account for the given recipient account. " +
+                    "Held funds can't be spent until the hold is captured, released or expires. " +
+                    "Retrying with the same idempotency key returns the existing hold."
+    )
+    public ResponseEntity<HoldResponse> placeHold(
+            @Valid @RequestBody PlaceHoldRequest request,
+            Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(holdService.placeHold(userId, request));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a hold", description = "Visible to the payer and the recipient")
+    public ResponseEntity<HoldResponse> getHold(@PathVariable Long id, Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(holdService.getHold(userId, id));
+    }
+
+    @PostMapping("/{id}/capture")
+    @Operation(
+            summary = "Capture a hold",
+            description = "Called by the recipient. Transfers up to the held amount, the rest is released."
+    )
+    public ResponseEntity<TransferResponse> captureHold(
+            @PathVariable Long id,
+            @Valid @RequestBody CaptureHoldRequest request,
+            Authentication authentication) {
+        paymentService.checkClientIdempotencyKey(request.getIdempotencyKey());
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(paymentService.captureHold(userId, id, request));
+    }
+
+    @PostMapping("/{id}/release")
+    @Operation(summary = "Release a hold", description = "Called by the payer or the recipient")
+    public ResponseEntity<HoldResponse> releaseHold(@PathVariable Long id, Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(holdService.releaseHold(userId, id));
+    }
+}
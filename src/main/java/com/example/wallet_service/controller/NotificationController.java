@@ -0,0 +1,37 @@
+package com.example.wallet_service.controller;
+
+import com.example.wallet_service.notification.NotificationRegistry;
+import com.example.wallet_service.service.PaymentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+@Tag(name = "Notifications", description = "Real-time notification APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class NotificationController {
+
+    private final NotificationRegistry notificationRegistry;
+    private final PaymentService paymentService;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream incoming transfers",
+            description = "Server-sent events: a '" + NotificationRegistry.TRANSFER_RECEIVED + "' event with the " +
+                    "credited amount and new balance whenever money arrives on the authenticated user's account. " +
+                    "Replaces polling the balance endpoint; reconnect when the stream ends."
+    )
+    public SseEmitter stream(Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return notificationRegistry.subscribe(userId);
+    }
+}
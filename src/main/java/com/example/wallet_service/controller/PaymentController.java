@@ -1,5 +1,6 @@
 package com.example.wallet_service.controller;
 
+import com.example.wallet_service.dto.request.RefundRequest;
 import com.example.wallet_service.dto.request.TransferRequest;
 import com.example.wallet_service.dto.response.BalanceResponse;
 import com.example.wallet_service.dto.response.TransferResponse;
@@ -20,6 +21,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/payments")
 @RequiredArgsConstructor
@@ -47,6 +50,7 @@ public class PaymentController {
             @Valid @RequestBody TransferRequest request,
             Authentication authentication
     ) {
+        paymentService.checkClientIdempotencyKey(request.getIdempotencyKey());
         Long userId = getUserIdFromAuthentication(authentication);
         TransferResponse response = paymentService.transfer(userId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -76,14 +80,45 @@ public class PaymentController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/transactions/{id}/refund")
+    @Operation(
+            summary = "Refund a transfer",
+            description = "Called by the recipient of a transfer. Returns the given amount (default: everything " +
+                    "not refunded yet) to the sender; several partial refunds are allowed up to the amount received. " +
+                    "Requires idempotency key to prevent double refunds."
+    )
+    public ResponseEntity<TransferResponse> refund(
+            @PathVariable Long id,
+            @Valid @RequestBody RefundRequest request,
+            Authentication authentication
+    ) {
+        paymentService.checkClientIdempotencyKey(request.getIdempotencyKey());
+        Long userId = getUserIdFromAuthentication(authentication);
+        TransferResponse response = paymentService.refund(userId, id, request, false);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/transactions/{id}/refunds")
+    @Operation(summary = "Get refunds of a transfer", description = "Visible to the sender and the recipient")
+    public ResponseEntity<List<TransactionHistoryResponse>> getRefunds(
+            @PathVariable Long id,
+            Authentication authentication
+    ) {
+        Long userId = getUserIdFromAuthentication(authentication);
+        return ResponseEntity.ok(paymentService.getRefunds(userId, id, false));
+    }
+
     @PostMapping("/account/create")
     @Operation(
             summary = "Create account", 
-            description = "Create an account for the authenticated user if it doesn't exist"
+            description = "Create an account for the authenticated user if it doesn't exist. " +
+                    "The account holds its balance in the given ISO 4217 currency (default USD)."
     )
-    public ResponseEntity<BalanceResponse> createAccount(Authentication authentication) {
+    public ResponseEntity<BalanceResponse> createAccount(
+            @RequestParam(required = false) String currency,
+            Authentication authentication) {
         Long userId = getUserIdFromAuthentication(authentication);
-        paymentService.createAccountForUser(userId);
+        paymentService.createAccountForUser(userId, currency);
         BalanceResponse response = paymentService.getBalance(userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
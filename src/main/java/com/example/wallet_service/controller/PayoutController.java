@@ -0,0 +1,47 @@
+package com.example.wallet_service.controller;
+
+import com.example.wallet_service.dto.request.PayoutRequest;
+import com.example.wallet_service.dto.response.PayoutResponse;
+import com.example.wallet_service.service.PaymentService;
+import com.example.wallet_service.service.PayoutService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/payouts")
+@RequiredArgsConstructor
+@Tag(name = "Payouts", description = "One-to-many payout APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class PayoutController {
+
+    private final PayoutService payoutService;
+    private final PaymentService paymentService;
+
+    @PostMapping
+    @Operation(
+            summary = "Create a payout",
+            description = "Debit the authenticated user's account once for the total and credit all recipients " +
+                    "in the background. All recipients must use the sender's currency. " +
+                    "Retrying with the same idempotency key returns the existing payout."
+    )
+    public ResponseEntity<PayoutResponse> create(
+            @Valid @RequestBody PayoutRequest request,
+            Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(payoutService.create(userId, request));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get payout progress")
+    public ResponseEntity<PayoutResponse> get(@PathVariable Long id, Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(payoutService.get(userId, id));
+    }
+}
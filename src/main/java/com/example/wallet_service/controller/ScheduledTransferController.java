@@ -0,0 +1,79 @@
+package com.example.wallet_service.controller;
+
+import com.example.wallet_service.dto.request.ScheduledTransferRequest;
+import com.example.wallet_service.dto.response.ScheduledTransferResponse;
+import com.example.wallet_service.service.PaymentService;
+import com.example.wallet_service.service.ScheduledTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/scheduled-transfers")
+@RequiredArgsConstructor
+@Tag(name = "Scheduled Transfers", description = "Recurring and future-dated transfer APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class ScheduledTransferController {
+
+    private final ScheduledTransferService scheduledTransferService;
+    private final PaymentService paymentService;
+
+    @PostMapping
+    @Operation(
+            summary = "Schedule a transfer",
+            description = "Create a one-off (ONCE) or recurring (DAILY, WEEKLY, MONTHLY) transfer from the " +
+                    "authenticated user's account. Executions run shortly after their due time."
+    )
+    public ResponseEntity<ScheduledTransferResponse> create(
+            @Valid @RequestBody ScheduledTransferRequest request,
+            Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(scheduledTransferService.create(userId, request));
+    }
+
+    @GetMapping
+    @Operation(summary = "List scheduled transfers of the authenticated user")
+    public ResponseEntity<Page<ScheduledTransferResponse>> list(
+            @PageableDefault() Pageable pageable,
+            Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(scheduledTransferService.list(userId, pageable));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a scheduled transfer")
+    public ResponseEntity<ScheduledTransferResponse> get(@PathVariable Long id, Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(scheduledTransferService.get(userId, id));
+    }
+
+    @PostMapping("/{id}/pause")
+    @Operation(summary = "Pause a scheduled transfer")
+    public ResponseEntity<ScheduledTransferResponse> pause(@PathVariable Long id, Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(scheduledTransferService.pause(userId, id));
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "Resume a paused scheduled transfer", description = "Occurrences missed while paused are skipped")
+    public ResponseEntity<ScheduledTransferResponse> resume(@PathVariable Long id, Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(scheduledTransferService.resume(userId, id));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel a scheduled transfer")
+    public ResponseEntity<ScheduledTransferResponse> cancel(@PathVariable Long id, Authentication authentication) {
+        Long userId = paymentService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(scheduledTransferService.cancel(userId, id));
+    }
+}
@@ -1,17 +1,22 @@
 package com.example.wallet_service.controller;
 
+import com.example.wallet_service.dto.response.UserImportResponse;
 import com.example.wallet_service.dto.response.UserResponse;
+import com.example.wallet_service.service.UserImportService;
 import com.example.wallet_service.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/users")
@@ -21,16 +26,37 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @GetMapping("/search")
     @Operation(summary = "Search users with pagination")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<Page<UserResponse>> searchUsers(
+    public ResponseEntity<Slice<UserResponse>> searchUsers(
             @RequestParam(required = false) String keyword,
             @PageableDefault() Pageable pageable) {
         return ResponseEntity.ok(userService.searchUsers(keyword, pageable));
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Bulk import users",
+            description = "Start a background import of a CSV (header: username,email,password,fullName) " +
+                    "or NDJSON file. Each imported user gets ROLE_USER and a zero-balance account."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<UserImportResponse> importUsers(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(userImportService.startImport(file, format));
+    }
+
+    @GetMapping("/import/{executionId}")
+    @Operation(summary = "Get bulk import progress")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<UserImportResponse> getImport(@PathVariable Long executionId) {
+        return ResponseEntity.ok(userImportService.getImport(executionId));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user information by ID")
     @PreAuthorize("hasAuthority('ROLE_ADMIN') or authentication.name == #id.toString()")
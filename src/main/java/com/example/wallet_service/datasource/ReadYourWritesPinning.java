@@ -0,0 +1,95 @@
+package com.example.wallet_service.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes for replica routing
+ *
+ * After a user's write commits, that user's read-only transactions go to the primary for a short
+ * window, so they never see their own transfer missing because a replica is lagging.
+ * Expired pins are dropped on the next read of that user or by a periodic sweep, so the map only
+ * holds users who wrote within the last window.
+ */
+@Component
+public class ReadYourWritesPinning {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final ConcurrentHashMap<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesPinning(
+            @Value("${app.datasource.replica.enabled:false}") boolean replicasEnabled,
+            @Value("${app.datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+        this.enabled = replicasEnabled && windowMs > 0;
+        this.windowNanos = windowMs * 1_000_000;
+    }
+
+    /**
+     * Pin the current user to the primary once the current transaction commits
+     */
+    public void pinCurrentUserAfterCommit() {
+        if (!enabled) {
+            return;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pin(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pin(username);
+            }
+        });
+    }
+
+    public void pin(String username) {
+        pinnedUntil.put(username, System.nanoTime() + windowNanos);
+    }
+
+    public boolean isCurrentUserPinned() {
+        if (!enabled || pinnedUntil.isEmpty()) {
+            return false;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(username);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() <= 0) {
+            pinnedUntil.remove(username, until);
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.pin-sweep-interval-ms:30000}")
+    public void evictExpired() {
+        if (pinnedUntil.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        // Conditional remove per entry, a user pinned again meanwhile keeps the new pin
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
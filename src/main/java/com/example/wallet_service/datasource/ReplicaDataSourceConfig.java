@@ -0,0 +1,87 @@
+package com.example.wallet_service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Route @Transactional(readOnly = true) work to read replicas
+ *
+ * The application DataSource becomes a LazyConnectionDataSourceProxy: the physical connection is only
+ * fetched on first use, after the transaction has marked it read-only, so read-only transactions get a
+ * replica connection and everything else (transfers, schema updates, batch metadata) the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private List<String> urls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username}}")
+    private String username;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password}}")
+    private String password;
+
+    @Value("${app.datasource.replica.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${app.datasource.replica.connection-timeout-ms:1000}")
+    private long connectionTimeoutMs;
+
+    @Value("${app.datasource.replica.max-lag-seconds:5}")
+    private double maxLagSeconds;
+
+    @Value("${app.datasource.replica.health-check-interval-ms:2000}")
+    private long healthCheckIntervalMs;
+
+    /**
+     * Primary pool, configured from spring.datasource.* as Boot would
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("wallet-primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                                     ReadYourWritesPinning pinning) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("wallet-replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setConnectionTimeout(connectionTimeoutMs); // Fail over fast instead of queueing on a dead replica
+            replica.setReadOnly(true);
+            // Don't fail startup on a replica that is down, the health check takes it out of rotation
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, pinning, maxLagSeconds, healthCheckIntervalMs);
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(HikariDataSource primaryDataSource,
+                                                    ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.wallet_service.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaptureHoldRequest {
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount; // Defaults to the full held amount, the rest of the hold is released
+
+    @NotBlank(message = "Idempotency key is required")
+    private String idempotencyKey;
+}
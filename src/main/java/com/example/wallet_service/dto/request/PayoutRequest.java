@@ -0,0 +1,27 @@
+package com.example.wallet_service.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayoutRequest {
+    @NotBlank(message = "Idempotency key is required")
+    @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+    private String idempotencyKey;
+
+    @Size(max = 500, message = "Description must be at most 500 characters")
+    private String description;
+
+    @NotEmpty(message = "At least one recipient is required")
+    @Valid
+    private List<PayoutItemRequest> items; // Limited by app.payouts.max-items
+}
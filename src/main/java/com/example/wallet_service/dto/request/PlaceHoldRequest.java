@@ -0,0 +1,36 @@
+package com.example.wallet_service.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlaceHoldRequest {
+    @NotNull(message = "To account ID is required")
+    private Long toAccountId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    @NotBlank(message = "Idempotency key is required")
+    @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+    private String idempotencyKey;
+
+    @Min(value = 60, message = "Hold must last at least 60 seconds")
+    @Max(value = 2592000, message = "Hold can last at most 30 days")
+    private Long expiresInSeconds; // Default app.holds.default-expiry-seconds
+
+    @Size(max = 500, message = "Description must be at most 500 characters")
+    private String description;
+}
@@ -0,0 +1,35 @@
+package com.example.wallet_service.dto.request;
+
+import com.example.wallet_service.entity.ScheduledTransfer;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransferRequest {
+    @NotNull(message = "To account ID is required")
+    private Long toAccountId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    @NotNull(message = "Frequency is required")
+    private ScheduledTransfer.Frequency frequency;
+
+    @NotNull(message = "Start time is required")
+    private LocalDateTime startAt;
+
+    private LocalDateTime endAt; // Optional, no executions after this time
+
+    @Size(max = 500, message = "Description must be at most 500 characters")
+    private String description;
+}
@@ -0,0 +1,27 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivitySummaryResponse {
+    private Long accountId;
+    private String currency;
+    private LocalDate from;
+    private LocalDate to;
+    private Long sentCount;
+    private BigDecimal sentAmount; // Outflow
+    private Long receivedCount;
+    private BigDecimal receivedAmount; // Inflow
+    private BigDecimal netAmount; // Inflow - outflow
+    private List<DailyActivityResponse> days; // Days with activity only
+}
@@ -0,0 +1,21 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceBackfillResponse {
+    private Long executionId;
+    private String status;
+    private Long accountsDone;
+    private Long rowsUpdated;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,26 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceReplayResponse {
+    private Long executionId;
+    private String status;
+    private Boolean fromSnapshot;
+    private Long eventsReplayed;
+    private Long eventsPerSecond;
+    private Long accountsVerified;
+    private Long mismatchCount;
+    private List<String> mismatchSample;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
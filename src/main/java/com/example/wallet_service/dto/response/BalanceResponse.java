@@ -17,6 +17,9 @@ public class BalanceResponse {
     private Long userId;
     private String username;
     private BigDecimal balance;
+    private BigDecimal heldAmount;
+    private BigDecimal availableBalance;
+    private String currency;
     private LocalDateTime lastUpdated;
 }
 
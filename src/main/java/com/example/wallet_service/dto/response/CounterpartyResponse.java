@@ -0,0 +1,20 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CounterpartyResponse {
+    private Long accountId;
+    private Long sentCount;
+    private BigDecimal sentAmount; // Sent to this counterparty
+    private Long receivedCount;
+    private BigDecimal receivedAmount; // Received from this counterparty
+}
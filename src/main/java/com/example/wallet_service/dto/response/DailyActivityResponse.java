@@ -0,0 +1,21 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyActivityResponse {
+    private LocalDate day;
+    private Long sentCount;
+    private BigDecimal sentAmount;
+    private Long receivedCount;
+    private BigDecimal receivedAmount;
+}
@@ -0,0 +1,21 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventLogExportResponse {
+    private Long executionId;
+    private String status;
+    private LocalDateTime cutoff; // Transfers created before this are exported
+    private Long exportedCount;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
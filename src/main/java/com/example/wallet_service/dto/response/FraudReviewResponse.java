@@ -0,0 +1,30 @@
+package com.example.wallet_service.dto.response;
+
+import com.example.wallet_service.entity.FraudReview;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FraudReviewResponse {
+    private Long id;
+    private Long transactionId;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+    private String currency;
+    private Integer score;
+    private List<String> reasons;
+    private FraudReview.ReviewStatus status;
+    private String resolvedBy;
+    private LocalDateTime resolvedAt;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.example.wallet_service.dto.response;
+
+import com.example.wallet_service.entity.Hold;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HoldResponse {
+    private Long holdId;
+    private Long accountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+    private BigDecimal capturedAmount;
+    private Hold.HoldStatus status;
+    private String idempotencyKey;
+    private String description;
+    private Long transactionId;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotAccountResponse {
+    private Long accountId;
+    private Long lockRequests;
+    private Long lockRequestsError; // Space-saving overestimate bound: true count >= lockRequests - error
+    private Double lockRequestsPerSecond;
+    private Double lockWaitTotalMs;
+    private Double lockWaitAvgMs;
+    private Map<String, Long> lockWaitHistogram;
+}
@@ -0,0 +1,23 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotAccountsResponse {
+    private LocalDateTime windowStart;
+    private Double windowSeconds;
+    private Long totalLockRequests;
+    private Map<String, Long> lockWaitHistogram; // All accounts
+    private List<HotAccountResponse> topByRequests;
+    private List<HotAccountResponse> topByLockWait;
+}
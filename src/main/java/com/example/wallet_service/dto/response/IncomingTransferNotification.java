@@ -0,0 +1,26 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IncomingTransferNotification {
+    private Long transactionId;
+    private Long toUserId;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount; // Debited from the sender, in currency
+    private String currency;
+    private BigDecimal creditedAmount;
+    private String creditedCurrency;
+    private BigDecimal toAccountBalance; // Recipient balance right after this transfer
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.example.wallet_service.dto.response;
+
+import com.example.wallet_service.entity.Payout;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayoutResponse {
+    private Long payoutId;
+    private Long accountId;
+    private Payout.PayoutStatus status;
+    private BigDecimal totalAmount;
+    private String currency;
+    private Integer itemCount;
+    private Integer creditedCount;
+    private Integer failedCount;
+    private BigDecimal failedAmount; // Released back to the sender, never debited
+    private Double recipientsPerSecond;
+    private String idempotencyKey;
+    private String description;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,24 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupRebuildResponse {
+    private Long executionId;
+    private String status;
+    private LocalDate from;
+    private LocalDate to;
+    private Long daysDone;
+    private Long rowsWritten;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,31 @@
+package com.example.wallet_service.dto.response;
+
+import com.example.wallet_service.entity.ScheduledTransfer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduledTransferResponse {
+    private Long id;
+    private Long toAccountId;
+    private BigDecimal amount;
+    private String description;
+    private ScheduledTransfer.Frequency frequency;
+    private LocalDateTime startAt;
+    private LocalDateTime endAt;
+    private ScheduledTransfer.ScheduleStatus status;
+    private Integer occurrence; // Index of the next execution
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastRunAt;
+    private String lastError;
+    private Integer failureCount;
+    private LocalDateTime createdAt;
+}
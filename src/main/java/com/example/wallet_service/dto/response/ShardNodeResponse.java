@@ -0,0 +1,16 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardNodeResponse {
+    private String nodeId;
+    private String baseUrl;
+    private Double share; // Fraction of accounts owned
+}
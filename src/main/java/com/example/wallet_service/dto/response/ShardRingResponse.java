@@ -0,0 +1,20 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardRingResponse {
+    private Boolean enabled;
+    private String selfId;
+    private List<ShardNodeResponse> nodes;
+    private Long accountId; // Only when an account was asked for
+    private String accountOwner;
+}
@@ -20,10 +20,17 @@ public class TransactionHistoryResponse {
     private Long toAccountId;
     private String toUsername;
     private BigDecimal amount;
+    private String currency;
+    private BigDecimal creditedAmount;
+    private String creditedCurrency;
+    private BigDecimal fxRate;
     private Transaction.TransactionStatus status;
+    private Long refundOfTransactionId;
+    private BigDecimal refundedAmount;
     private String description;
     private LocalDateTime createdAt;
     private String transactionType; // "SENT" or "RECEIVED"
+    private BigDecimal balanceAfter; // This account's balance right after the transaction
 }
 
 
@@ -18,7 +18,13 @@ public class TransferResponse {
     private Long fromAccountId;
     private Long toAccountId;
     private BigDecimal amount;
+    private String currency;
+    private BigDecimal creditedAmount;
+    private String creditedCurrency;
+    private BigDecimal fxRate;
     private Transaction.TransactionStatus status;
+    private Long refundOfTransactionId;
+    private BigDecimal refundedAmount;
     private String idempotencyKey;
     private String description;
     private LocalDateTime createdAt;
@@ -0,0 +1,25 @@
+package com.example.wallet_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResponse {
+    private Long executionId;
+    private String status;
+    private String fileName;
+    private Long readCount;
+    private Long importedCount;
+    private Long rejectedCount;
+    private Double usersPerSecond;
+    private String rejectFile;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -21,7 +22,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -32,6 +34,16 @@ public class Account {
     @Builder.Default
     private BigDecimal balance = BigDecimal.ZERO;
 
+    @Column(name = "held_amount", nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal heldAmount = BigDecimal.ZERO; // Sum of active holds, maintained with every hold change
+
+    @Column(name = "currency", nullable = false, length = 3)
+    @ColumnDefault("'USD'")
+    @Builder.Default
+    private String currency = "USD"; // ISO 4217 code, balance is held in this currency
+
     @Version
     @Column(name = "version")
     private Long version; // For optimistic locking
@@ -43,6 +55,11 @@ public class Account {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
-}
-
 
+    /**
+     * Balance that can still be spent or held
+     */
+    public BigDecimal availableBalance() {
+        return balance.subtract(heldAmount);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per account, per day, per counterparty totals, for top counterparty dashboards
+ */
+@Entity
+@Data
+@Table(name = "account_daily_counterparties")
+@IdClass(AccountDailyCounterparty.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDailyCounterparty {
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate day;
+
+    @Id
+    @Column(name = "counterparty_account_id")
+    private Long counterpartyAccountId;
+
+    @Column(name = "sent_count", nullable = false)
+    @ColumnDefault("0")
+    private long sentCount;
+
+    @Column(name = "sent_amount", nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    private BigDecimal sentAmount;
+
+    @Column(name = "received_count", nullable = false)
+    @ColumnDefault("0")
+    private long receivedCount;
+
+    @Column(name = "received_amount", nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    private BigDecimal receivedAmount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate day;
+        private Long counterpartyAccountId;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per account, per day totals, maintained incrementally by RollupAggregator
+ * Amounts are in the account's currency: debited when sent, credited when received.
+ */
+@Entity
+@Data
+@Table(name = "account_daily_stats")
+@IdClass(AccountDailyStats.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDailyStats {
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate day;
+
+    @Column(name = "sent_count", nullable = false)
+    @ColumnDefault("0")
+    private long sentCount;
+
+    @Column(name = "sent_amount", nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    private BigDecimal sentAmount;
+
+    @Column(name = "received_count", nullable = false)
+    @ColumnDefault("0")
+    private long receivedCount;
+
+    @Column(name = "received_amount", nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    private BigDecimal receivedAmount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate day;
+    }
+}
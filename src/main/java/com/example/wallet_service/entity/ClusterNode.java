@@ -0,0 +1,33 @@
+package com.example.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A running node and where to reach it, kept alive by its heartbeat (see ClusterMembership)
+ */
+@Entity
+@Data
+@Table(name = "cluster_nodes")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClusterNode {
+    @Id
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    @Column(name = "base_url", nullable = false, length = 200)
+    private String baseUrl;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
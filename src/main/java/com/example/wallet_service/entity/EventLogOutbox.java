@@ -0,0 +1,28 @@
+package com.example.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A committed transfer not yet appended to its node's event log (see EventLogWriter)
+ * Inserted in the transfer's own transaction, deleted once the record is on disk.
+ */
+@Entity
+@Data
+@Table(name = "event_log_outbox", indexes = {
+    @Index(name = "idx_event_log_outbox_node", columnList = "node_id, transaction_id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventLogOutbox {
+    @Id
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "node_id", nullable = false, length = 100)
+    private String nodeId;
+}
@@ -0,0 +1,72 @@
+package com.example.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Completed transfer flagged by the after-commit fraud scoring
+ */
+@Entity
+@Data
+@Table(name = "fraud_reviews", indexes = {
+    @Index(name = "idx_fraud_review_status_created_at", columnList = "status, created_at"),
+    @Index(name = "idx_fraud_review_transaction", columnList = "transaction_id", unique = true)
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FraudReview {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fraud_reviews_seq")
+    @SequenceGenerator(name = "fraud_reviews_seq", sequenceName = "fraud_reviews_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false, unique = true)
+    private Long transactionId;
+
+    @Column(name = "from_account_id", nullable = false)
+    private Long fromAccountId;
+
+    @Column(name = "to_account_id", nullable = false)
+    private Long toAccountId;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "score", nullable = false)
+    private int score;
+
+    @Column(name = "reasons", length = 500)
+    private String reasons; // Comma-separated rule names
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private ReviewStatus status = ReviewStatus.OPEN;
+
+    @Column(name = "resolved_by", length = 50)
+    private String resolvedBy;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum ReviewStatus {
+        OPEN,
+        CONFIRMED_FRAUD,
+        DISMISSED
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "holds", indexes = {
+    // Expiry index: the sweeper scans ACTIVE holds by expiry time
+    @Index(name = "idx_hold_status_expires_at", columnList = "status, expires_at"),
+    @Index(name = "idx_hold_account", columnList = "account_id"),
+    @Index(name = "idx_hold_transaction", columnList = "transaction_id"), // Captures, excluded from fraud features
+    @Index(name = "idx_hold_idempotency_key", columnList = "idempotency_key", unique = true)
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Hold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "holds_seq")
+    @SequenceGenerator(name = "holds_seq", sequenceName = "holds_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account; // Funds are reserved on this account
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "to_account_id", nullable = false)
+    private Account toAccount; // Captured funds go here, its owner captures
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "captured_amount", precision = 19, scale = 2)
+    private BigDecimal capturedAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private HoldStatus status = HoldStatus.ACTIVE;
+
+    @Column(name = "idempotency_key", unique = true, nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Column(name = "transaction_id")
+    private Long transactionId; // Capture transaction
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum HoldStatus {
+        ACTIVE,
+        CAPTURED,
+        RELEASED,
+        EXPIRED
+    }
+}
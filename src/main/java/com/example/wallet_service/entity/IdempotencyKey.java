@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 @Builder
 public class IdempotencyKey {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_keys_seq")
+    @SequenceGenerator(name = "idempotency_keys_seq", sequenceName = "idempotency_keys_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "key_value", unique = true, nullable = false, length = 100)
@@ -36,6 +37,9 @@ public class IdempotencyKey {
     @Column(name = "transaction_id")
     private Long transactionId; // Reference to the transaction if completed
 
+    @Column(name = "response_payload", length = 4096)
+    private byte[] responsePayload; // Response sent when the key was used, CBOR (see TransferResponseCodec)
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
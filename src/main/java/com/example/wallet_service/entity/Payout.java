@@ -0,0 +1,101 @@
+package com.example.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One-to-many payout: the total is reserved on the sender when the payout is accepted,
+ * recipients are credited afterwards in chunks, each chunk debiting the sender (see PayoutItem)
+ */
+@Entity
+@Data
+@Table(name = "payouts", indexes = {
+    @Index(name = "idx_payout_status_lease", columnList = "status, lease_until"),
+    @Index(name = "idx_payout_account", columnList = "account_id"),
+    @Index(name = "idx_payout_idempotency_key", columnList = "idempotency_key", unique = true)
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Payout {
+    // Prefix of the idempotency keys of the per-recipient transactions
+    public static final String TRANSACTION_KEY_PREFIX = "payout-";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payouts_seq")
+    @SequenceGenerator(name = "payouts_seq", sequenceName = "payouts_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account; // Sender
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @Column(name = "credited_count", nullable = false)
+    @Builder.Default
+    private int creditedCount = 0;
+
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private int failedCount = 0;
+
+    @Column(name = "failed_amount", nullable = false, precision = 19, scale = 2)
+    @Builder.Default
+    private BigDecimal failedAmount = BigDecimal.ZERO; // Released back to the sender, never debited
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private PayoutStatus status = PayoutStatus.PENDING;
+
+    @Column(name = "idempotency_key", unique = true, nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum PayoutStatus {
+        PENDING,
+        PROCESSING,
+        COMPLETED
+    }
+}
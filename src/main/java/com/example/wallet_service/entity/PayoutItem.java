@@ -0,0 +1,53 @@
+package com.example.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One recipient of a payout, written and processed with plain JDBC batches (see PayoutJdbcRepository)
+ */
+@Entity
+@Data
+@Table(name = "payout_items", indexes = {
+    // Pending items of a payout in recipient order, the chunk scan
+    @Index(name = "idx_payout_item_payout_status_to", columnList = "payout_id, status, to_account_id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayoutItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payout_items_seq")
+    @SequenceGenerator(name = "payout_items_seq", sequenceName = "payout_items_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "payout_id", nullable = false)
+    private Payout payout;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "to_account_id", nullable = false)
+    private Account toAccount;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private ItemStatus status = ItemStatus.PENDING;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    public enum ItemStatus {
+        PENDING,
+        CREDITED,
+        FAILED
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "scheduled_transfers", indexes = {
+    @Index(name = "idx_scheduled_transfer_status_next_run", columnList = "status, next_run_at"),
+    @Index(name = "idx_scheduled_transfer_user", columnList = "user_id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduledTransfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_transfers_seq")
+    @SequenceGenerator(name = "scheduled_transfers_seq", sequenceName = "scheduled_transfers_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user; // Payer
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "to_account_id", nullable = false)
+    private Account toAccount;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false, length = 20)
+    private Frequency frequency;
+
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime startAt;
+
+    @Column(name = "end_at")
+    private LocalDateTime endAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private ScheduleStatus status = ScheduleStatus.ACTIVE;
+
+    @Column(name = "occurrence", nullable = false)
+    @Builder.Default
+    private Integer occurrence = 0; // Index of the next execution, part of its idempotency key
+
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner; // Node that loaded the next execution into its timing wheel
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "failure_count", nullable = false)
+    @Builder.Default
+    private Integer failureCount = 0;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Time of the n-th execution, always computed from startAt so monthly schedules don't drift
+     * (Jan 31 -> Feb 28 -> Mar 31)
+     */
+    public LocalDateTime occurrenceTime(int n) {
+        return switch (frequency) {
+            case ONCE -> startAt;
+            case DAILY -> startAt.plusDays(n);
+            case WEEKLY -> startAt.plusWeeks(n);
+            case MONTHLY -> startAt.plusMonths(n);
+        };
+    }
+
+    public enum Frequency {
+        ONCE,
+        DAILY,
+        WEEKLY,
+        MONTHLY
+    }
+
+    public enum ScheduleStatus {
+        ACTIVE,
+        PAUSED,
+        COMPLETED,
+        CANCELLED
+    }
+}
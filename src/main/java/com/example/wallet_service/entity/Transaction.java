@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
@@ -14,16 +15,19 @@ import java.time.LocalDateTime;
 @Data
 @Table(name = "transactions", indexes = {
     @Index(name = "idx_transaction_from_account", columnList = "from_account_id"),
+    @Index(name = "idx_transaction_from_account_created_at", columnList = "from_account_id, created_at"),
     @Index(name = "idx_transaction_to_account", columnList = "to_account_id"),
+    @Index(name = "idx_transaction_to_account_created_at", columnList = "to_account_id, created_at"),
     @Index(name = "idx_transaction_created_at", columnList = "created_at"),
-    @Index(name = "idx_transaction_idempotency_key", columnList = "idempotency_key", unique = true)
+    @Index(name = "idx_transaction_refund_of", columnList = "refund_of_transaction_id")
 })
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,7 +39,28 @@ public class Transaction {
     private Account toAccount;
 
     @Column(name = "amount", nullable = false, precision = 19, scale = 2)
-    private BigDecimal amount;
+    private BigDecimal amount; // Debited from the sender, in currency
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "credited_amount", precision = 19, scale = 2)
+    private BigDecimal creditedAmount; // Credited to the recipient, in creditedCurrency
+
+    @Column(name = "credited_currency", length = 3)
+    private String creditedCurrency;
+
+    @Column(name = "fx_rate", precision = 29, scale = 10)
+    private BigDecimal fxRate; // Null for same-currency transfers
+
+    @Column(name = "fx_rate_version")
+    private Long fxRateVersion; // Content hash of the rate snapshot used, same on every node (see FxRateSnapshot)
+
+    @Column(name = "from_balance_after", precision = 19, scale = 2)
+    private BigDecimal fromBalanceAfter; // Sender balance right after this transaction
+
+    @Column(name = "to_balance_after", precision = 19, scale = 2)
+    private BigDecimal toBalanceAfter; // Recipient balance right after this transaction
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
@@ -45,6 +70,19 @@ public class Transaction {
     @Column(name = "idempotency_key", unique = true, nullable = false, length = 100)
     private String idempotencyKey;
 
+    @Column(name = "refund_of_transaction_id")
+    private Long refundOfTransactionId; // Set on refunds, the transfer being refunded
+
+    @Column(name = "refunded_amount", nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal refundedAmount = BigDecimal.ZERO; // Sum of refunds so far, in creditedCurrency
+
+    @Column(name = "refund_returned_amount", nullable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal refundReturnedAmount = BigDecimal.ZERO; // Same refunds as returned to the sender, in currency
+
     @Column(name = "description", length = 500)
     private String description;
 
@@ -56,7 +94,21 @@ public class Transaction {
         PENDING,
         COMPLETED,
         FAILED,
-        CANCELLED
+        CANCELLED // Fully refunded
+    }
+
+    /**
+     * What can still be refunded, in the recipient's currency
+     */
+    public BigDecimal refundableAmount() {
+        return creditedOrDebitedAmount().subtract(refundedAmount);
+    }
+
+    /**
+     * Transfers recorded before currencies were added credited exactly the debited amount
+     */
+    public BigDecimal creditedOrDebitedAmount() {
+        return creditedAmount != null ? creditedAmount : amount;
     }
 }
 
@@ -0,0 +1,28 @@
+package com.example.wallet_service.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published inside a payout chunk's transaction for its credited items, one event per chunk
+ * Payout items don't publish TransferCompletedEvent: per-transfer listeners (fraud scoring)
+ * would be flooded by a single payout. Listeners that need every credit (notifications, event log,
+ * rollups) iterate credits.
+ */
+public record PayoutItemsCreditedEvent(
+        Long payoutId,
+        Long fromAccountId,
+        String currency,
+        List<Credit> credits,
+        LocalDateTime createdAt
+) {
+    public record Credit(
+            Long transactionId,
+            Long toAccountId,
+            Long toUserId,
+            BigDecimal amount, // Same currency on both sides, payouts are never converted
+            BigDecimal toAccountBalance // Recipient balance right after this credit
+    ) {
+    }
+}
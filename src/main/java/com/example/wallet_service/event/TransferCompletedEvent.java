@@ -0,0 +1,29 @@
+package com.example.wallet_service.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published inside the transfer transaction, listeners use @TransactionalEventListener(AFTER_COMMIT)
+ * so they only ever see committed transfers; the event log outbox is written BEFORE_COMMIT, in the transaction
+ */
+public record TransferCompletedEvent(
+        Kind kind,
+        Long transactionId,
+        Long fromUserId,
+        Long fromAccountId,
+        Long toUserId,
+        Long toAccountId,
+        BigDecimal amount,
+        String currency,
+        BigDecimal creditedAmount,
+        String creditedCurrency,
+        BigDecimal toAccountBalance,
+        LocalDateTime createdAt
+) {
+    public enum Kind {
+        TRANSFER,
+        CAPTURE, // Of a hold
+        REFUND
+    }
+}
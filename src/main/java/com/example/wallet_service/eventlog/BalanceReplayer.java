@@ -0,0 +1,356 @@
+package com.example.wallet_service.eventlog;
+
+import com.example.wallet_service.config.EventLogProperties;
+import com.example.wallet_service.repository.EventLogJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds account balances from the event log and verifies them against the accounts table
+ *
+ * Key features:
+ * 1. A balance is the sum of its deltas, so segments are replayed in parallel in any order, one
+ *    segment per task, into a dense array indexed by account id
+ * 2. Replay starts from the last snapshot (balances plus the sequence reached in every log directory)
+ *    and only reads the tail; every replay writes a new snapshot
+ * 3. History from before the node logs started comes from the export log (see EventLogExportTasklet),
+ *    live records created before the export cutoff are skipped so nothing is counted twice
+ * 4. Mismatches are rechecked after replaying the tail again, the logs trail the database by the
+ *    outbox rows not written yet
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceReplayer {
+
+    public static final String CUTOFF_KEY = "cutoff-millis";
+
+    private static final String SNAPSHOT_FILE = "balances.snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x57424c31; // "WBL1"
+    private static final int VERIFY_FETCH_SIZE = 10_000;
+    private static final int RECHECK_ROUNDS = 3;
+    private static final long RECHECK_DELAY_MS = 1000;
+    private static final int MAX_TRACKED_MISMATCHES = 100_000;
+    private static final int SAMPLE_SIZE = 20;
+
+    private final EventLogProperties properties;
+    private final EventLogJdbcRepository eventLogJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public record Mismatch(long accountId, long replayedCents, long storedCents) {
+    }
+
+    public record Report(boolean fromSnapshot, long eventsReplayed, long accountsVerified,
+                         long mismatchCount, List<Mismatch> sample) {
+    }
+
+    /**
+     * Balances in cents; accounts created after replay started land in the overflow map
+     */
+    private static final class Balances {
+        private final AtomicLongArray dense;
+        private final Map<Long, AtomicLong> overflow = new ConcurrentHashMap<>();
+
+        private Balances(int size) {
+            dense = new AtomicLongArray(size);
+        }
+
+        void add(long accountId, long delta) {
+            if (accountId < dense.length()) {
+                dense.getAndAdd((int) accountId, delta);
+            } else {
+                overflow.computeIfAbsent(accountId, id -> new AtomicLong()).getAndAdd(delta);
+            }
+        }
+
+        long get(long accountId) {
+            if (accountId < dense.length()) {
+                return dense.get((int) accountId);
+            }
+            AtomicLong balance = overflow.get(accountId);
+            return balance != null ? balance.get() : 0;
+        }
+    }
+
+    private record SegmentResult(String dir, int index, long lastSequence, long events) {
+    }
+
+    /**
+     * Start of the live logs: the latest first start among node directories, null if no node logged yet
+     * Every transfer created from then on is in some node's log.
+     */
+    public Long liveLogsStartMillis() throws IOException {
+        Long start = null;
+        for (Path dir : logDirs()) {
+            String createdAt = SegmentLog.readMeta(dir).getProperty(EventLogWriter.CREATED_AT_KEY);
+            if (createdAt != null) {
+                start = Math.max(start != null ? start : 0, Long.parseLong(createdAt));
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Cutoff of the export log, null if no export was started
+     */
+    public Long exportCutoffMillis() throws IOException {
+        String cutoff = SegmentLog.readMeta(properties.exportDir()).getProperty(CUTOFF_KEY);
+        return cutoff != null ? Long.parseLong(cutoff) : null;
+    }
+
+    public Report replay(boolean fromSnapshot) throws IOException, InterruptedException {
+        Long cutoff = exportCutoffMillis();
+        if (cutoff == null) {
+            throw new IllegalStateException("No event log export, transfers before the node logs would be missing");
+        }
+
+        Map<String, Long> positions = new HashMap<>();
+        long maxAccountId = eventLogJdbcRepository.findMaxAccountId();
+        Balances balances = fromSnapshot ? loadSnapshot(cutoff, maxAccountId, positions) : null;
+        boolean snapshotUsed = balances != null;
+        if (balances == null) {
+            balances = newBalances(maxAccountId);
+        }
+
+        int threads = properties.getReplayThreads() > 0
+                ? properties.getReplayThreads() : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "event-log-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long started = System.nanoTime();
+            long events = applyTail(pool, balances, positions, cutoff);
+            log.info("Replayed {} events with {} threads in {} ms (from snapshot: {})", events, threads,
+                    (System.nanoTime() - started) / 1_000_000, snapshotUsed);
+
+            Balances replayed = balances;
+            long[] verified = new long[1];
+            long[] mismatchCount = new long[1];
+            List<Long> mismatched = new ArrayList<>();
+            transactionTemplate.executeWithoutResult(status ->
+                    eventLogJdbcRepository.forEachBalance(VERIFY_FETCH_SIZE, (accountId, storedCents) -> {
+                        verified[0]++;
+                        if (replayed.get(accountId) != storedCents) {
+                            mismatchCount[0]++;
+                            if (mismatched.size() < MAX_TRACKED_MISMATCHES) {
+                                mismatched.add(accountId);
+                            }
+                        }
+                    }));
+
+            Map<Long, Long> stored = Map.of();
+            for (int round = 0; round < RECHECK_ROUNDS && !mismatched.isEmpty(); round++) {
+                Thread.sleep(RECHECK_DELAY_MS);
+                events += applyTail(pool, balances, positions, cutoff);
+                stored = eventLogJdbcRepository.findBalances(mismatched);
+                int before = mismatched.size();
+                Map<Long, Long> currentStored = stored;
+                mismatched.removeIf(accountId ->
+                        replayed.get(accountId) == currentStored.getOrDefault(accountId, 0L));
+                mismatchCount[0] -= before - mismatched.size();
+            }
+
+            writeSnapshot(cutoff, positions, balances);
+
+            List<Mismatch> sample = new ArrayList<>();
+            for (Long accountId : mismatched.subList(0, Math.min(SAMPLE_SIZE, mismatched.size()))) {
+                sample.add(new Mismatch(accountId, balances.get(accountId),
+                        stored.getOrDefault(accountId, 0L)));
+            }
+            if (mismatchCount[0] > 0) {
+                log.error("Event log replay: {} of {} accounts differ from the accounts table", mismatchCount[0], verified[0]);
+            }
+            return new Report(snapshotUsed, events, verified[0], mismatchCount[0], sample);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Replay every record after the current positions, advancing them, returns the number of events applied
+     */
+    private long applyTail(ExecutorService pool, Balances balances, Map<String, Long> positions, long cutoff)
+            throws IOException, InterruptedException {
+        Map<String, List<SegmentLog.Segment>> segmentsByDir = new HashMap<>();
+        List<Future<SegmentResult>> tasks = new ArrayList<>();
+        for (Path dir : logDirs()) {
+            String name = dir.getFileName().toString();
+            boolean live = !dir.equals(properties.exportDir());
+            long position = positions.getOrDefault(name, 0L);
+            List<SegmentLog.Segment> segments = SegmentLog.segments(dir);
+            segmentsByDir.put(name, segments);
+            for (int i = 0; i < segments.size(); i++) {
+                if (i + 1 < segments.size() && segments.get(i + 1).firstSequence() <= position + 1) {
+                    continue; // Fully covered by the snapshot
+                }
+                int index = i;
+                Path file = segments.get(i).path();
+                tasks.add(pool.submit(() -> replaySegment(name, index, file, position, live, cutoff, balances)));
+            }
+        }
+
+        Map<String, List<SegmentResult>> resultsByDir = new HashMap<>();
+        long events = 0;
+        try {
+            for (Future<SegmentResult> task : tasks) {
+                SegmentResult result = task.get();
+                resultsByDir.computeIfAbsent(result.dir(), dir -> new ArrayList<>()).add(result);
+                events += result.events();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Event log replay failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        // Only a directory's last segment may end early (it is still being written)
+        for (Map.Entry<String, List<SegmentResult>> entry : resultsByDir.entrySet()) {
+            List<SegmentLog.Segment> segments = segmentsByDir.get(entry.getKey());
+            long position = positions.getOrDefault(entry.getKey(), 0L);
+            for (SegmentResult result : entry.getValue()) {
+                if (result.index() + 1 < segments.size()
+                        && result.lastSequence() != segments.get(result.index() + 1).firstSequence() - 1) {
+                    throw new IOException("Event log " + entry.getKey() + " is corrupt after sequence "
+                            + result.lastSequence());
+                }
+                position = Math.max(position, result.lastSequence());
+            }
+            positions.put(entry.getKey(), position);
+        }
+        return events;
+    }
+
+    private SegmentResult replaySegment(String dir, int index, Path file, long afterSequence, boolean live,
+                                        long cutoff, Balances balances) throws IOException {
+        long[] events = new long[1];
+        long lastSequence = SegmentLog.read(file, afterSequence,
+                (sequence, transactionId, fromAccountId, toAccountId, debitCents, creditCents, createdAtMillis) -> {
+                    if (live && createdAtMillis < cutoff) {
+                        return; // Part of the export
+                    }
+                    balances.add(fromAccountId, -debitCents);
+                    balances.add(toAccountId, creditCents);
+                    events[0]++;
+                });
+        return new SegmentResult(dir, index, lastSequence, events[0]);
+    }
+
+    /**
+     * Node directories and the export directory
+     */
+    private List<Path> logDirs() throws IOException {
+        Path root = properties.rootDir();
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> dirs = Files.list(root)) {
+            return dirs.filter(Files::isDirectory).sorted().toList();
+        }
+    }
+
+    private Balances newBalances(long maxAccountId) {
+        if (maxAccountId >= properties.getMaxReplayAccounts()) {
+            throw new IllegalStateException("Account id " + maxAccountId + " above app.event-log.max-replay-accounts");
+        }
+        return new Balances((int) maxAccountId + 1);
+    }
+
+    /**
+     * Load the snapshot balances and positions, null if there is none or it was taken against another export
+     */
+    private Balances loadSnapshot(long cutoff, long maxAccountId, Map<String, Long> positions) throws IOException {
+        Path file = properties.rootDir().resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readLong() != cutoff) {
+                log.warn("Ignoring event log snapshot {}: taken against another export", file);
+                return null;
+            }
+            Balances balances = newBalances(Math.max(maxAccountId, in.readLong()));
+            int dirs = in.readInt();
+            for (int i = 0; i < dirs; i++) {
+                positions.put(in.readUTF(), in.readLong());
+            }
+            long accounts = in.readLong();
+            for (long i = 0; i < accounts; i++) {
+                balances.add(in.readLong(), in.readLong());
+            }
+            return balances;
+        }
+    }
+
+    /**
+     * Write balances and positions to a temporary file and move it over the previous snapshot
+     */
+    private void writeSnapshot(long cutoff, Map<String, Long> positions, Balances balances) throws IOException {
+        Path file = properties.rootDir().resolve(SNAPSHOT_FILE);
+        Path tmp = properties.rootDir().resolve(SNAPSHOT_FILE + ".tmp");
+
+        long maxAccountId = balances.dense.length() - 1;
+        long accounts = 0;
+        for (int id = 0; id < balances.dense.length(); id++) {
+            if (balances.dense.get(id) != 0) {
+                accounts++;
+            }
+        }
+        Map<Long, Long> overflow = new HashMap<>();
+        balances.overflow.forEach((id, balance) -> {
+            if (balance.get() != 0) {
+                overflow.put(id, balance.get());
+            }
+        });
+        for (long id : overflow.keySet()) {
+            maxAccountId = Math.max(maxAccountId, id);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(cutoff);
+            out.writeLong(maxAccountId);
+            out.writeInt(positions.size());
+            for (Map.Entry<String, Long> position : positions.entrySet()) {
+                out.writeUTF(position.getKey());
+                out.writeLong(position.getValue());
+            }
+            out.writeLong(accounts + overflow.size());
+            for (int id = 0; id < balances.dense.length(); id++) {
+                long balance = balances.dense.get(id);
+                if (balance != 0) {
+                    out.writeLong(id);
+                    out.writeLong(balance);
+                }
+            }
+            for (Map.Entry<Long, Long> balance : overflow.entrySet()) {
+                out.writeLong(balance.getKey());
+                out.writeLong(balance.getValue());
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Event log snapshot written: {} accounts, positions {}", accounts + overflow.size(), positions);
+    }
+}
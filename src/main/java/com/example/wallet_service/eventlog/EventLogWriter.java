@@ -0,0 +1,211 @@
+package com.example.wallet_service.eventlog;
+
+import com.example.wallet_service.config.EventLogProperties;
+import com.example.wallet_service.event.PayoutItemsCreditedEvent;
+import com.example.wallet_service.event.TransferCompletedEvent;
+import com.example.wallet_service.repository.EventLogJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends every committed transfer to this node's segment log
+ *
+ * Key features:
+ * 1. Transfers, captures, refunds and payout credits insert an event_log_outbox row in their own
+ *    transaction, so a committed transfer is never lost to a crash and committing threads never wait on the log
+ * 2. A single writer thread polls the node's outbox rows, appends them in batches with one fsync per
+ *    batch (group commit), then deletes the rows
+ * 3. On (re)open the outbox rows of the records at the log tail are deleted first: a crash between the
+ *    fsync and the delete leaves at most one batch on disk with its rows, and it must not be written twice
+ * 4. Each node writes its own directory under app.event-log.dir, replay reads all of them: balances
+ *    are sums of deltas, so no global order across nodes is needed
+ * 5. Outbox rows belong to a node id, so the id must be set explicitly and survive restarts: startup
+ *    fails without one, and a stopping node drains its rows first in case it never comes back
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.event-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EventLogWriter {
+
+    public static final String CREATED_AT_KEY = "created-at-millis";
+
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final long DRAIN_TIMEOUT_SECONDS = 10;
+
+    private final EventLogProperties properties;
+    private final EventLogJdbcRepository eventLogJdbcRepository;
+    private final MeterRegistry meterRegistry;
+
+    private String nodeId;
+    private SegmentLog segmentLog;
+    private Thread writer;
+    private volatile boolean running;
+    private Counter failures;
+
+    @PostConstruct
+    public void start() throws IOException {
+        // A host name default would strand the rows of a pod that restarts under a new name
+        if (properties.getNodeId() == null || properties.getNodeId().isBlank()) {
+            throw new IllegalStateException("app.event-log.node-id (EVENT_LOG_NODE_ID) must be set to an id "
+                    + "that is stable across restarts, or the event log disabled");
+        }
+        Path dir = properties.nodeDir();
+        Properties meta = SegmentLog.readMeta(dir);
+        if (meta.getProperty(CREATED_AT_KEY) == null) {
+            // Transfers created before this moment are covered by the export (see EventLogExportTasklet)
+            meta.setProperty(CREATED_AT_KEY, String.valueOf(System.currentTimeMillis()));
+            SegmentLog.writeMeta(dir, meta);
+        }
+        nodeId = properties.getNodeId();
+        failures = Counter.builder("wallet.eventlog.write_failures")
+                .description("Event log appends or outbox deletes that failed and were retried")
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Event log {} started for node {}", dir, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The writer drains the outbox before exiting, rows still there after the timeout wait for the next start
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(DRAIN_TIMEOUT_SECONDS));
+        if (writer.isAlive()) {
+            log.warn("Event log outbox of node {} not drained within {} s", nodeId, DRAIN_TIMEOUT_SECONDS);
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        eventLogJdbcRepository.insertOutbox(nodeId, List.of(event.transactionId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPayoutItemsCredited(PayoutItemsCreditedEvent event) {
+        List<Long> transactionIds = new ArrayList<>(event.credits().size());
+        for (PayoutItemsCreditedEvent.Credit credit : event.credits()) {
+            transactionIds.add(credit.transactionId());
+        }
+        eventLogJdbcRepository.insertOutbox(nodeId, transactionIds);
+    }
+
+    private void writeLoop() {
+        long[] written = null; // On disk, outbox rows not deleted yet
+        while (!Thread.currentThread().isInterrupted()) {
+            // Read before polling, so the poll that ends a stop sees every row committed before it
+            boolean stopping = !running;
+            try {
+                if (segmentLog == null) {
+                    open();
+                }
+                if (written != null) {
+                    eventLogJdbcRepository.deleteOutbox(nodeId, written);
+                    written = null;
+                }
+                List<TransferLogRecord> batch = eventLogJdbcRepository.findOutbox(nodeId, properties.getBatchSize());
+                if (!batch.isEmpty()) {
+                    segmentLog.append(batch);
+                    segmentLog.force();
+                    written = transactionIds(batch);
+                    eventLogJdbcRepository.deleteOutbox(nodeId, written);
+                    written = null;
+                }
+                if (batch.size() < properties.getBatchSize()) {
+                    if (stopping) {
+                        break;
+                    }
+                    // Woken early by stop()
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(properties.getPollIntervalMs()));
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // Reopen truncates a torn tail, the batch rows are still in the outbox
+                failures.increment();
+                log.error("Event log write failed, reopening: {}", e.getMessage());
+                closeQuietly();
+                if (!sleepQuietly()) {
+                    break;
+                }
+            } catch (DataAccessException e) {
+                failures.increment();
+                log.error("Event log outbox unavailable, retrying: {}", e.getMessage());
+                if (!sleepQuietly()) {
+                    break;
+                }
+            }
+        }
+        closeQuietly();
+    }
+
+    /**
+     * Open the log and delete the outbox rows of its last batch, which may have been written before a crash
+     */
+    private void open() throws IOException {
+        Path dir = properties.nodeDir();
+        SegmentLog opened = SegmentLog.open(dir, properties.getSegmentRecords());
+        try {
+            eventLogJdbcRepository.deleteOutbox(nodeId, SegmentLog.lastTransactionIds(dir, properties.getBatchSize()));
+        } catch (IOException | RuntimeException e) {
+            opened.close();
+            throw e;
+        }
+        segmentLog = opened;
+        log.info("Event log {} opened at sequence {}", dir, segmentLog.getNextSequence());
+    }
+
+    private static long[] transactionIds(List<TransferLogRecord> batch) {
+        long[] ids = new long[batch.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = batch.get(i).transactionId();
+        }
+        return ids;
+    }
+
+    private void closeQuietly() {
+        try {
+            if (segmentLog != null) {
+                segmentLog.close();
+            }
+        } catch (IOException e) {
+            log.warn("Event log close failed: {}", e.getMessage());
+        }
+        segmentLog = null;
+    }
+
+    /**
+     * Wait before a retry, false once interrupted
+     */
+    private boolean sleepQuietly() {
+        try {
+            Thread.sleep(RETRY_DELAY_MS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.wallet_service.eventlog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of TransferLogRecords in a directory of fixed-size segment files
+ *
+ * Segments are named after their first sequence and hold segmentRecords records each. Records are
+ * only ever appended; on open, a torn or corrupt tail (crash mid-write) is truncated and appending
+ * resumes after the last valid record. Readers map whole segments and stop at the first invalid record.
+ *
+ * Not thread-safe for writing, one writer per directory.
+ */
+public class SegmentLog implements Closeable {
+
+    private static final String SUFFIX = ".seg";
+    private static final String META_FILE = "log.properties";
+
+    public record Segment(Path path, long firstSequence) {
+    }
+
+    /**
+     * Visits records without allocating, replay reads hundreds of millions of them
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long sequence, long transactionId, long fromAccountId, long toAccountId,
+                   long debitCents, long creditCents, long createdAtMillis);
+    }
+
+    private final Path dir;
+    private final int segmentRecords;
+    private FileChannel channel;
+    private long segmentFirstSequence;
+    private long nextSequence;
+    private TransferLogRecord lastRecord;
+
+    private SegmentLog(Path dir, int segmentRecords) {
+        this.dir = dir;
+        this.segmentRecords = segmentRecords;
+    }
+
+    public static SegmentLog open(Path dir, int segmentRecords) throws IOException {
+        Files.createDirectories(dir);
+        SegmentLog log = new SegmentLog(dir, segmentRecords);
+        log.recover();
+        return log;
+    }
+
+    private void recover() throws IOException {
+        List<Segment> segments = segments(dir);
+        if (segments.isEmpty()) {
+            nextSequence = 1;
+            openSegment(1);
+            return;
+        }
+
+        Segment last = segments.get(segments.size() - 1);
+        channel = FileChannel.open(last.path(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmentFirstSequence = last.firstSequence();
+        long validRecords = 0;
+        long size = channel.size();
+        if (size > 0) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            while ((validRecords + 1) * TransferLogRecord.SIZE <= size
+                    && TransferLogRecord.isValid(buffer, (int) (validRecords * TransferLogRecord.SIZE))) {
+                validRecords++;
+            }
+            if (validRecords > 0) {
+                lastRecord = TransferLogRecord.readAt(buffer, (int) ((validRecords - 1) * TransferLogRecord.SIZE));
+            }
+        }
+        channel.truncate(validRecords * TransferLogRecord.SIZE);
+        channel.position(validRecords * TransferLogRecord.SIZE);
+        nextSequence = segmentFirstSequence + validRecords;
+
+        if (lastRecord == null && segments.size() > 1) {
+            // Empty last segment, the previous one holds the last record
+            lastRecord = readLast(segments.get(segments.size() - 2).path());
+        }
+    }
+
+    /**
+     * Append records in order, assigning their sequences, returns the last sequence written
+     */
+    public long append(List<TransferLogRecord> records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(records.size() * TransferLogRecord.SIZE);
+        for (TransferLogRecord record : records) {
+            if (nextSequence - segmentFirstSequence >= segmentRecords) {
+                flushBuffer(buffer);
+                channel.force(false);
+                channel.close();
+                openSegment(nextSequence);
+            }
+            lastRecord = record.withSequence(nextSequence++);
+            lastRecord.writeTo(buffer);
+        }
+        flushBuffer(buffer);
+        return nextSequence - 1;
+    }
+
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Last record appended, null for an empty log
+     */
+    public TransferLogRecord getLastRecord() {
+        return lastRecord;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private void flushBuffer(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        segmentFirstSequence = firstSequence;
+        channel = FileChannel.open(dir.resolve(String.format("%020d%s", firstSequence, SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    /**
+     * Segments of a log directory, in sequence order
+     */
+    public static List<Segment> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> {
+                        String name = file.getFileName().toString();
+                        segments.add(new Segment(file, Long.parseLong(name.substring(0, name.length() - SUFFIX.length()))));
+                    });
+        }
+        segments.sort((a, b) -> Long.compare(a.firstSequence(), b.firstSequence()));
+        return segments;
+    }
+
+    /**
+     * Visit the valid records of a segment with a sequence above afterSequence, returns the last sequence seen
+     * Only the bytes present when the call starts are read, a concurrent writer can keep appending.
+     */
+    public static long read(Path segment, long afterSequence, RecordVisitor visitor) throws IOException {
+        long lastSequence = afterSequence;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long size = fileSize - fileSize % TransferLogRecord.SIZE;
+            if (size == 0) {
+                return lastSequence;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            for (int offset = 0; offset < size; offset += TransferLogRecord.SIZE) {
+                if (!TransferLogRecord.isValid(buffer, offset)) {
+                    break;
+                }
+                long sequence = buffer.getLong(offset);
+                if (sequence <= afterSequence) {
+                    continue;
+                }
+                visitor.visit(sequence, buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                        buffer.getLong(offset + 24), buffer.getLong(offset + 32), buffer.getLong(offset + 40),
+                        buffer.getLong(offset + 48));
+                lastSequence = sequence;
+            }
+        }
+        return lastSequence;
+    }
+
+    /**
+     * Transaction ids of the last count valid records of a log directory, newest first
+     */
+    public static long[] lastTransactionIds(Path dir, int count) throws IOException {
+        long[] ids = new long[count];
+        int found = 0;
+        List<Segment> segments = segments(dir);
+        for (int i = segments.size() - 1; i >= 0 && found < count; i--) {
+            Path path = segments.get(i).path();
+            long[] segmentIds = new long[(int) (Files.size(path) / TransferLogRecord.SIZE)];
+            int[] read = new int[1];
+            read(path, 0, (sequence, transactionId, from, to, debit, credit, createdAt) ->
+                    segmentIds[read[0]++] = transactionId);
+            for (int j = read[0] - 1; j >= 0 && found < count; j--) {
+                ids[found++] = segmentIds[j];
+            }
+        }
+        return found == count ? ids : Arrays.copyOf(ids, found);
+    }
+
+    private static TransferLogRecord readLast(Path segment) throws IOException {
+        TransferLogRecord[] last = new TransferLogRecord[1];
+        read(segment, 0, (sequence, transactionId, from, to, debit, credit, createdAt) ->
+                last[0] = new TransferLogRecord(sequence, transactionId, from, to, debit, credit, createdAt));
+        return last[0];
+    }
+
+    public static Properties readMeta(Path dir) throws IOException {
+        Properties meta = new Properties();
+        Path file = dir.resolve(META_FILE);
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                meta.load(in);
+            }
+        }
+        return meta;
+    }
+
+    public static void writeMeta(Path dir, Properties meta) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(META_FILE + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            meta.store(out, null);
+        }
+        Files.move(tmp, dir.resolve(META_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.wallet_service.eventlog;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.CRC32C;
+
+/**
+ * One completed transfer in the event log, as a fixed-size 64 byte record
+ *
+ * Layout: sequence, transaction id, from account, to account, debited cents, credited cents,
+ * created at (epoch millis), CRC32C of the preceding 56 bytes, 4 reserved bytes.
+ * Amounts are unscaled cents in the currency of each account, like the balance columns (scale 2).
+ */
+public record TransferLogRecord(long sequence, long transactionId, long fromAccountId, long toAccountId,
+                                long debitCents, long creditCents, long createdAtMillis) {
+
+    public static final int SIZE = 64;
+    private static final int CHECKED_BYTES = 56;
+
+    public static TransferLogRecord of(long transactionId, long fromAccountId, long toAccountId,
+                                       BigDecimal debited, BigDecimal credited, LocalDateTime createdAt) {
+        LocalDateTime at = createdAt != null ? createdAt : LocalDateTime.now();
+        return new TransferLogRecord(0, transactionId, fromAccountId, toAccountId, cents(debited), cents(credited),
+                at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public static long cents(BigDecimal amount) {
+        return amount.setScale(2).unscaledValue().longValueExact();
+    }
+
+    public TransferLogRecord withSequence(long sequence) {
+        return new TransferLogRecord(sequence, transactionId, fromAccountId, toAccountId,
+                debitCents, creditCents, createdAtMillis);
+    }
+
+    /**
+     * Write at the buffer's position, advancing it by SIZE
+     */
+    public void writeTo(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putLong(sequence)
+                .putLong(transactionId)
+                .putLong(fromAccountId)
+                .putLong(toAccountId)
+                .putLong(debitCents)
+                .putLong(creditCents)
+                .putLong(createdAtMillis);
+        buffer.putInt(checksum(buffer, start));
+        buffer.putInt(0);
+    }
+
+    /**
+     * Read the record at an absolute offset, null if it is torn or corrupt
+     */
+    public static TransferLogRecord readAt(ByteBuffer buffer, int offset) {
+        if (!isValid(buffer, offset)) {
+            return null;
+        }
+        return new TransferLogRecord(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24), buffer.getLong(offset + 32), buffer.getLong(offset + 40),
+                buffer.getLong(offset + 48));
+    }
+
+    public static boolean isValid(ByteBuffer buffer, int offset) {
+        return buffer.limit() - offset >= SIZE && buffer.getInt(offset + CHECKED_BYTES) == checksum(buffer, offset);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CHECKED_BYTES));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.wallet_service.fraud;
+
+import com.example.wallet_service.config.FraudProperties;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Payout;
+import com.example.wallet_service.entity.Transaction;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user feature vectors for fraud scoring
+ *
+ * Cold users are loaded from their recent sent transfers on a background thread, one load per user
+ * at a time, so a caller can wait for it within its own budget. Cached users are kept up to date
+ * from committed transfers. Over capacity, an arbitrary tenth of the entries is dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FraudFeatureCache {
+
+    private final FraudProperties properties;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+
+    private final Map<Long, UserFeatures> features = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<UserFeatures>> loading = new ConcurrentHashMap<>();
+    private ExecutorService loader;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        loader = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "fraud-feature-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        loader.shutdownNow();
+    }
+
+    public UserFeatures getIfPresent(Long userId) {
+        return features.get(userId);
+    }
+
+    /**
+     * Features of a user, loading them from the database if they are not cached
+     */
+    public CompletableFuture<UserFeatures> get(Long userId) {
+        UserFeatures cached = features.get(userId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<UserFeatures> load = loading.computeIfAbsent(userId, id ->
+                CompletableFuture.supplyAsync(() -> loadFromHistory(id), loader));
+        load.whenComplete((loaded, error) -> {
+            if (loaded != null) {
+                put(userId, loaded);
+            }
+            loading.remove(userId, load);
+        });
+        return load;
+    }
+
+    /**
+     * Apply a committed transfer to a cached user, uncached users get it with their next load
+     */
+    public void recordTransfer(Long userId, long toAccountId, double amount, long timeMillis) {
+        features.computeIfPresent(userId, (id, current) -> current.withTransfer(toAccountId, amount, timeMillis));
+    }
+
+    private void put(Long userId, UserFeatures loaded) {
+        if (features.size() >= properties.getFeatureCacheSize()) {
+            int toDrop = Math.max(1, properties.getFeatureCacheSize() / 10);
+            Iterator<Long> keys = features.keySet().iterator();
+            while (toDrop-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        features.putIfAbsent(userId, loaded);
+    }
+
+    private UserFeatures loadFromHistory(Long userId) {
+        Long accountId = accountRepository.findByUserId(userId).map(Account::getId).orElse(null);
+        if (accountId == null) {
+            return UserFeatures.EMPTY;
+        }
+        // The transfers deep scoring records: no refunds, captures or payout items; refunded transfers still count
+        List<TransactionRepository.SentTransfer> sent = transactionRepository.findSentTransfers(accountId,
+                List.of(Transaction.TransactionStatus.COMPLETED, Transaction.TransactionStatus.CANCELLED),
+                Payout.TRANSACTION_KEY_PREFIX + "%", PageRequest.of(0, properties.getFeatureHistorySize()));
+
+        // Newest first from the query, replay oldest first
+        UserFeatures loaded = UserFeatures.EMPTY;
+        for (int i = sent.size() - 1; i >= 0; i--) {
+            TransactionRepository.SentTransfer t = sent.get(i);
+            loaded = loaded.withTransfer(t.getToAccountId(), t.getAmount().doubleValue(),
+                    t.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.wallet_service.fraud;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rule-based risk score of a transfer against the sender's features, pure in-memory arithmetic
+ */
+@Component
+public class FraudScorer {
+
+    static final int FIRST_TRANSFER = 10;
+    static final int NEW_RECIPIENT = 30;
+    static final int UNUSUAL_AMOUNT = 35;
+    static final int VELOCITY_MINUTE = 25;
+    static final int VELOCITY_HOUR = 15;
+
+    public record Score(int value, List<String> reasons) {
+    }
+
+    public Score score(UserFeatures features, long toAccountId, BigDecimal amount, long nowMillis) {
+        int score = 0;
+        List<String> reasons = new ArrayList<>(4);
+
+        if (features.transfers() == 0) {
+            score += FIRST_TRANSFER;
+            reasons.add("first_transfer");
+        } else if (!features.knowsRecipient(toAccountId) && !features.recipientsFull()) {
+            score += NEW_RECIPIENT;
+            reasons.add("new_recipient");
+        }
+
+        // Needs some history before an amount can be called unusual
+        if (features.transfers() >= 5) {
+            double value = amount.doubleValue();
+            double stdDev = features.stdDevAmount();
+            boolean unusual = stdDev > 0
+                    ? (value - features.meanAmount()) / stdDev > 3
+                    : value > 3 * features.meanAmount();
+            if (unusual) {
+                score += UNUSUAL_AMOUNT;
+                reasons.add("unusual_amount");
+            }
+        }
+
+        if (features.transfersSince(nowMillis - 60_000) >= 5) {
+            score += VELOCITY_MINUTE;
+            reasons.add("velocity_minute");
+        } else if (features.transfersSince(nowMillis - 3_600_000) >= 20) {
+            score += VELOCITY_HOUR;
+            reasons.add("velocity_hour");
+        }
+
+        return new Score(Math.min(100, score), reasons);
+    }
+}
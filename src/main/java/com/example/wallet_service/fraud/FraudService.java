@@ -0,0 +1,253 @@
+package com.example.wallet_service.fraud;
+
+import com.example.wallet_service.config.FraudProperties;
+import com.example.wallet_service.dto.response.FraudReviewResponse;
+import com.example.wallet_service.entity.FraudReview;
+import com.example.wallet_service.event.TransferCompletedEvent;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.FraudReviewRepository;
+import com.example.wallet_service.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fraud scoring in two stages
+ *
+ * Key features:
+ * 1. Pre-commit screening runs before the transfer transaction opens, against cached feature vectors;
+ *    a cold user's features are loaded within the time budget, past it the fail mode decides
+ * 2. Deep scoring runs after commit on a bounded worker pool, from the TransferCompletedEvent stream:
+ *    the same rules plus database lookups on the recipient, then the features are updated.
+ *    Only transfers are scored: refunds and hold captures are initiated by the recipient
+ * 3. Completed transfers scoring at or above the review score are stored as FraudReview
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FraudService {
+
+    private final FraudProperties properties;
+    private final FraudFeatureCache featureCache;
+    private final FraudScorer scorer;
+    private final FraudReviewRepository fraudReviewRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final MeterRegistry meterRegistry;
+
+    static final int NEW_RECIPIENT_ACCOUNT = 15;
+    static final int RECIPIENT_FAN_IN = 20;
+    private static final int FAN_IN_SENDERS = 10;
+
+    public record Decision(boolean declined, int score, List<String> reasons) {
+        static final Decision ALLOWED = new Decision(false, 0, List.of());
+    }
+
+    private ThreadPoolExecutor deepScoringExecutor;
+    private Timer screenTimer;
+    private Timer deepScoreTimer;
+    private Counter screenTimeouts;
+    private Counter screenDeclines;
+    private Counter deepDropped;
+    private Counter flagged;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        deepScoringExecutor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), r -> {
+            Thread thread = new Thread(r, "fraud-scoring-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        screenTimer = Timer.builder("wallet.fraud.screen")
+                .description("Pre-commit fraud screening, including cold feature loads")
+                .register(meterRegistry);
+        deepScoreTimer = Timer.builder("wallet.fraud.deep_score").register(meterRegistry);
+        screenTimeouts = Counter.builder("wallet.fraud.screen.timeouts")
+                .description("Screenings past the budget, resolved by the fail mode")
+                .register(meterRegistry);
+        screenDeclines = Counter.builder("wallet.fraud.screen.declined").register(meterRegistry);
+        deepDropped = Counter.builder("wallet.fraud.deep_score.dropped")
+                .description("Completed transfers not deep-scored because the backlog was full")
+                .register(meterRegistry);
+        flagged = Counter.builder("wallet.fraud.flagged").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        deepScoringExecutor.shutdown();
+    }
+
+    /**
+     * Pre-commit screening of a transfer, bounded by app.fraud.budget-ms
+     */
+    public Decision screen(Long userId, Long toAccountId, BigDecimal amount) {
+        if (!properties.isEnabled()) {
+            return Decision.ALLOWED;
+        }
+        long start = System.nanoTime();
+        try {
+            UserFeatures features = featureCache.getIfPresent(userId);
+            if (features == null) {
+                features = featureCache.get(userId).get(properties.getBudgetMs(), TimeUnit.MILLISECONDS);
+            }
+            FraudScorer.Score score = scorer.score(features, toAccountId, amount, System.currentTimeMillis());
+            boolean declined = score.value() >= properties.getDeclineScore();
+            if (declined) {
+                screenDeclines.increment();
+                log.warn("Transfer from user {} to account {} declined, score {} {}",
+                        userId, toAccountId, score.value(), score.reasons());
+            }
+            return new Decision(declined, score.value(), score.reasons());
+        } catch (TimeoutException | ExecutionException e) {
+            screenTimeouts.increment();
+            return failDecision(e instanceof TimeoutException ? "screening_timeout" : "screening_error");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failDecision("screening_interrupted");
+        } finally {
+            screenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Decision failDecision(String reason) {
+        boolean declined = properties.getFailMode() == FraudProperties.FailMode.CLOSED;
+        if (declined) {
+            screenDeclines.increment();
+        }
+        return new Decision(declined, 0, List.of(reason));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        if (!properties.isEnabled() || event.kind() != TransferCompletedEvent.Kind.TRANSFER) {
+            return;
+        }
+        try {
+            deepScoringExecutor.execute(() -> deepScore(event));
+        } catch (RejectedExecutionException e) {
+            deepDropped.increment();
+        }
+    }
+
+    private void deepScore(TransferCompletedEvent event) {
+        long start = System.nanoTime();
+        try {
+            // Features before this transfer; a cold load already contains it, which only softens the score
+            UserFeatures features = featureCache.get(event.fromUserId()).join();
+            long time = event.createdAt() != null
+                    ? event.createdAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : System.currentTimeMillis();
+            FraudScorer.Score quick = scorer.score(features, event.toAccountId(), event.amount(), time);
+
+            int score = quick.value();
+            List<String> reasons = new ArrayList<>(quick.reasons());
+            LocalDateTime now = LocalDateTime.now();
+            boolean newAccount = accountRepository.findById(event.toAccountId())
+                    .map(account -> account.getCreatedAt() != null && account.getCreatedAt().isAfter(now.minusDays(1)))
+                    .orElse(false);
+            if (newAccount) {
+                score += NEW_RECIPIENT_ACCOUNT;
+                reasons.add("new_recipient_account");
+            }
+            if (transactionRepository.countDistinctSendersSince(event.toAccountId(), now.minusHours(1)) >= FAN_IN_SENDERS) {
+                score += RECIPIENT_FAN_IN;
+                reasons.add("recipient_fan_in");
+            }
+            score = Math.min(100, score);
+
+            featureCache.recordTransfer(event.fromUserId(), event.toAccountId(), event.amount().doubleValue(), time);
+
+            if (score >= properties.getReviewScore()) {
+                flag(event, score, reasons);
+            }
+        } catch (RuntimeException e) {
+            log.error("Deep fraud scoring failed for transaction {}", event.transactionId(), e);
+        } finally {
+            deepScoreTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flag(TransferCompletedEvent event, int score, List<String> reasons) {
+        try {
+            fraudReviewRepository.save(FraudReview.builder()
+                    .transactionId(event.transactionId())
+                    .fromAccountId(event.fromAccountId())
+                    .toAccountId(event.toAccountId())
+                    .amount(event.amount())
+                    .currency(event.currency())
+                    .score(score)
+                    .reasons(String.join(",", reasons))
+                    .build());
+            flagged.increment();
+            log.warn("Transaction {} flagged for review, score {} {}", event.transactionId(), score, reasons);
+        } catch (DataIntegrityViolationException e) {
+            // Already flagged (event delivered twice)
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<FraudReviewResponse> getReviews(FraudReview.ReviewStatus status, Pageable pageable) {
+        return fraudReviewRepository.findByStatusOrderByCreatedAtDesc(status, pageable).map(this::toResponse);
+    }
+
+    @Transactional
+    public FraudReviewResponse resolveReview(Long id, FraudReview.ReviewStatus decision, String resolvedBy) {
+        if (decision == FraudReview.ReviewStatus.OPEN) {
+            throw new BadRequestException("Decision must be CONFIRMED_FRAUD or DISMISSED");
+        }
+        FraudReview review = fraudReviewRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Fraud review not found with id: " + id));
+        review.setStatus(decision);
+        review.setResolvedBy(resolvedBy);
+        review.setResolvedAt(LocalDateTime.now());
+        return toResponse(review);
+    }
+
+    private FraudReviewResponse toResponse(FraudReview review) {
+        return FraudReviewResponse.builder()
+                .id(review.getId())
+                .transactionId(review.getTransactionId())
+                .fromAccountId(review.getFromAccountId())
+                .toAccountId(review.getToAccountId())
+                .amount(review.getAmount())
+                .currency(review.getCurrency())
+                .score(review.getScore())
+                .reasons(review.getReasons() == null || review.getReasons().isEmpty()
+                        ? List.of() : Arrays.asList(review.getReasons().split(",")))
+                .status(review.getStatus())
+                .resolvedBy(review.getResolvedBy())
+                .resolvedAt(review.getResolvedAt())
+                .createdAt(review.getCreatedAt())
+                .build();
+    }
+}
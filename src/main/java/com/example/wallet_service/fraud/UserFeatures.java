@@ -0,0 +1,93 @@
+package com.example.wallet_service.fraud;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable behaviour summary of a sender, replaced as a whole on every update
+ *
+ * Amount mean and variance are kept with Welford's online algorithm, recent transfer times in a small ring.
+ */
+public final class UserFeatures {
+
+    public static final UserFeatures EMPTY = new UserFeatures(0, 0, 0, Set.of(), new long[0]);
+
+    static final int MAX_RECIPIENTS = 256;
+    static final int RECENT_TIMES = 32;
+
+    private final long transfers;
+    private final double meanAmount;
+    private final double m2;
+    private final Set<Long> recipients;
+    private final long[] recentTimes; // Newest first, epoch millis
+
+    private UserFeatures(long transfers, double meanAmount, double m2, Set<Long> recipients, long[] recentTimes) {
+        this.transfers = transfers;
+        this.meanAmount = meanAmount;
+        this.m2 = m2;
+        this.recipients = recipients;
+        this.recentTimes = recentTimes;
+    }
+
+    public UserFeatures withTransfer(long toAccountId, double amount, long timeMillis) {
+        long n = transfers + 1;
+        double delta = amount - meanAmount;
+        double mean = meanAmount + delta / n;
+        double newM2 = m2 + delta * (amount - mean);
+
+        Set<Long> newRecipients = recipients;
+        if (!recipients.contains(toAccountId) && recipients.size() < MAX_RECIPIENTS) {
+            newRecipients = new HashSet<>(recipients);
+            newRecipients.add(toAccountId);
+            newRecipients = Set.copyOf(newRecipients);
+        }
+
+        long[] times = new long[Math.min(RECENT_TIMES, recentTimes.length + 1)];
+        times[0] = timeMillis;
+        System.arraycopy(recentTimes, 0, times, 1, times.length - 1);
+        Arrays.sort(times);
+        reverse(times);
+
+        return new UserFeatures(n, mean, newM2, newRecipients, times);
+    }
+
+    public long transfers() {
+        return transfers;
+    }
+
+    public double meanAmount() {
+        return meanAmount;
+    }
+
+    public double stdDevAmount() {
+        return transfers < 2 ? 0 : Math.sqrt(m2 / (transfers - 1));
+    }
+
+    public boolean knowsRecipient(long toAccountId) {
+        return recipients.contains(toAccountId);
+    }
+
+    public boolean recipientsFull() {
+        return recipients.size() >= MAX_RECIPIENTS;
+    }
+
+    public int transfersSince(long sinceMillis) {
+        int count = 0;
+        for (long time : recentTimes) {
+            if (time < sinceMillis) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static void reverse(long[] values) {
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            long tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+}
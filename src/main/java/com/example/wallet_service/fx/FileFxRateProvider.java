@@ -0,0 +1,45 @@
+package com.example.wallet_service.fx;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rates from a local JSON file: {"base": "USD", "rates": {"EUR": 0.92, "GBP": 0.79}}
+ * The file is re-read on every refresh, so rates can be updated without a restart.
+ * Numbers are read as BigDecimal, a rate is never rounded through a double.
+ */
+public class FileFxRateProvider implements FxRateProvider {
+
+    private final Path file;
+    private final ObjectReader reader;
+
+    public FileFxRateProvider(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.reader = objectMapper.readerFor(JsonNode.class)
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    @Override
+    public FxRates fetchRates() throws IOException {
+        JsonNode root = reader.readValue(file.toFile());
+        String base = root.path("base").asText(null);
+        JsonNode ratesNode = root.path("rates");
+        if (base == null || !ratesNode.isObject()) {
+            throw new IOException("FX rate file " + file + " must contain 'base' and 'rates'");
+        }
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (Map.Entry<String, JsonNode> field : ratesNode.properties()) {
+            rates.put(field.getKey(), field.getValue().decimalValue());
+        }
+        return new FxRates(base, rates);
+    }
+}
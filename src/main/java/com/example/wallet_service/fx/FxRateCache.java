@@ -0,0 +1,71 @@
+package com.example.wallet_service.fx;
+
+import com.example.wallet_service.config.FxProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * In-memory FX rates for the transfer path
+ *
+ * Readers only do a volatile read of the current snapshot, the provider is called exclusively by
+ * the background refresh. A failed refresh keeps the previous snapshot until it is too old to use.
+ * Snapshot versions are content hashes (see FxRateSnapshot), unchanged rates keep their version.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FxRateCache {
+
+    private final FxRateProvider provider;
+    private final FxProperties properties;
+
+    private volatile FxRateSnapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.fx.refresh-interval-ms:60000}",
+            initialDelayString = "${app.fx.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        try {
+            FxRates rates = provider.fetchRates();
+            FxRateSnapshot previous = snapshot;
+            snapshot = FxRateSnapshot.of(Instant.now(), rates);
+            if (previous == null || previous.getVersion() != snapshot.getVersion()) {
+                log.info("FX rates changed, version {} with base {}", snapshot.getVersion(), rates.base());
+            } else {
+                log.debug("FX rates refreshed, version {} unchanged", snapshot.getVersion());
+            }
+        } catch (Exception e) {
+            log.warn("FX rate refresh failed, keeping version {}: {}",
+                    snapshot != null ? snapshot.getVersion() : null, e.getMessage());
+        }
+    }
+
+    /**
+     * Current quote for a currency pair, null if there are no usable rates for it
+     */
+    public FxRateSnapshot.Quote quote(String from, String to) {
+        FxRateSnapshot current = snapshot;
+        if (current == null || isStale(current)) {
+            return null;
+        }
+        return current.quote(from, to);
+    }
+
+    public FxRateSnapshot current() {
+        return snapshot;
+    }
+
+    private boolean isStale(FxRateSnapshot current) {
+        return Duration.between(current.getFetchedAt(), Instant.now()).getSeconds() > properties.getMaxAgeSeconds();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.wallet_service.fx;
+
+/**
+ * Source of FX rates, only ever called by FxRateCache in the background
+ */
+public interface FxRateProvider {
+
+    FxRates fetchRates() throws Exception;
+}
@@ -0,0 +1,99 @@
+package com.example.wallet_service.fx;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable set of rates for every currency pair, built once per refresh
+ *
+ * Cross rates are precomputed and rounded here, so conversion is one map lookup and one multiply,
+ * and the rate recorded on the transaction reproduces the credited amount exactly.
+ * The version is a hash of the rates themselves, so every node and every restart gives the same
+ * rates the same version, and the version stored on a transaction identifies the rates it used.
+ */
+public final class FxRateSnapshot {
+
+    public static final int RATE_SCALE = 10;
+
+    public record Quote(BigDecimal rate, long version) {
+        public BigDecimal convert(BigDecimal amount) {
+            return amount.multiply(rate).setScale(2, RoundingMode.HALF_EVEN);
+        }
+    }
+
+    private final long version;
+    private final Instant fetchedAt;
+    private final Map<String, Quote> pairs;
+
+    private FxRateSnapshot(long version, Instant fetchedAt, Map<String, Quote> pairs) {
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.pairs = pairs;
+    }
+
+    public static FxRateSnapshot of(Instant fetchedAt, FxRates rates) {
+        Map<String, BigDecimal> perBase = new HashMap<>(rates.rates());
+        perBase.put(rates.base(), BigDecimal.ONE);
+        long version = versionOf(rates.base(), perBase);
+
+        Map<String, Quote> pairs = new HashMap<>(perBase.size() * perBase.size() * 2);
+        for (Map.Entry<String, BigDecimal> from : perBase.entrySet()) {
+            if (from.getValue().signum() <= 0) {
+                continue;
+            }
+            for (Map.Entry<String, BigDecimal> to : perBase.entrySet()) {
+                if (to.getValue().signum() <= 0 || from.getKey().equals(to.getKey())) {
+                    continue;
+                }
+                BigDecimal rate = to.getValue().divide(from.getValue(), RATE_SCALE, RoundingMode.HALF_EVEN);
+                pairs.put(pairKey(from.getKey(), to.getKey()), new Quote(rate, version));
+            }
+        }
+        return new FxRateSnapshot(version, fetchedAt, Map.copyOf(pairs));
+    }
+
+    /**
+     * Quote for converting from one currency to another, null if the pair is unknown
+     */
+    public Quote quote(String from, String to) {
+        return pairs.get(pairKey(from, to));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * First 63 bits of SHA-256 over base and rates in currency order, scale-insensitive (0.90 == 0.9)
+     */
+    static long versionOf(String base, Map<String, BigDecimal> perBase) {
+        StringBuilder canonical = new StringBuilder(base);
+        for (Map.Entry<String, BigDecimal> rate : new TreeMap<>(perBase).entrySet()) {
+            canonical.append(';').append(rate.getKey()).append('=')
+                    .append(rate.getValue().stripTrailingZeros().toPlainString());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong() & Long.MAX_VALUE;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String pairKey(String from, String to) {
+        return from + "/" + to;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.wallet_service.fx;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Rates as returned by a provider: units of each currency per 1 unit of base
+ */
+public record FxRates(String base, Map<String, BigDecimal> rates) {
+}
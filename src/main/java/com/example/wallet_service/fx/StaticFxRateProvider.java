@@ -0,0 +1,21 @@
+package com.example.wallet_service.fx;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Fixed rates from configuration, for local development and tests
+ */
+public class StaticFxRateProvider implements FxRateProvider {
+
+    private final FxRates rates;
+
+    public StaticFxRateProvider(String base, Map<String, BigDecimal> rates) {
+        this.rates = new FxRates(base, Map.copyOf(rates));
+    }
+
+    @Override
+    public FxRates fetchRates() {
+        return rates;
+    }
+}
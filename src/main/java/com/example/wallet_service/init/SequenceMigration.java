@@ -0,0 +1,67 @@
+package com.example.wallet_service.init;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Move tables created with IDENTITY ids onto the pooled sequences used by the entities
+ *
+ * Runs right after Hibernate has updated the schema (which creates the sequences starting at 1)
+ * and before any runner or request can insert rows:
+ * 1. Drop the old identity so only one id source remains
+ * 2. Bump each sequence past MAX(id) - the pooled optimizer hands out (value - 49 .. value]
+ * 3. Default the id column to the sequence for raw JDBC inserts
+ * Safe to run on every startup, a sequence already ahead of the table is left untouched.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SequenceMigration {
+
+    // table -> sequence, must match @SequenceGenerator on the entities
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq",
+            "roles", "roles_seq",
+            "accounts", "accounts_seq",
+            "transactions", "transactions_seq",
+            "idempotency_keys", "idempotency_keys_seq",
+            "email_outbox", "email_outbox_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    @PostConstruct
+    public void migrate() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+
+        SEQUENCES.forEach((table, sequence) -> {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+
+            List<Long> moved = jdbcTemplate.queryForList(
+                    "SELECT setval('" + sequence + "', m) FROM (SELECT max(id) AS m FROM " + table + ") t " +
+                            "WHERE m IS NOT NULL AND m >= (SELECT last_value FROM " + sequence + ")",
+                    Long.class);
+            if (!moved.isEmpty()) {
+                log.info("Sequence {} moved past existing ids of {} (max id {})", sequence, table, moved.get(0));
+            }
+
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+        });
+    }
+}
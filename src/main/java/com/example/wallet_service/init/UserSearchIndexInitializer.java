@@ -0,0 +1,96 @@
+package com.example.wallet_service.init;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Create indexes used by admin user search
+ * Trigram GIN indexes serve substring matches (LIKE '%kw%'),
+ * text_pattern_ops btree indexes serve prefix matches for keywords shorter than a trigram.
+ * Hibernate ddl-auto cannot create expression indexes, so they are managed here.
+ * Built CONCURRENTLY so a large users table stays writable during the build.
+ * A concurrent build that fails leaves an INVALID index behind, which IF NOT EXISTS would keep forever:
+ * invalid indexes are dropped and built again, unless another node is building them right now.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndexInitializer implements CommandLineRunner {
+
+    // Index name -> definition
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        INDEXES.put("idx_user_username_trgm", "ON users USING gin (lower(username) gin_trgm_ops)");
+        INDEXES.put("idx_user_email_trgm", "ON users USING gin (lower(email) gin_trgm_ops)");
+        INDEXES.put("idx_user_full_name_trgm", "ON users USING gin (lower(full_name) gin_trgm_ops)");
+        INDEXES.put("idx_user_username_prefix", "ON users (lower(username) text_pattern_ops)");
+        INDEXES.put("idx_user_email_prefix", "ON users (lower(email) text_pattern_ops)");
+        INDEXES.put("idx_user_full_name_prefix", "ON users (lower(full_name) text_pattern_ops)");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    @Value("${app.user-search.manage-indexes:true}")
+    private boolean manageIndexes;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!manageIndexes) {
+            return;
+        }
+
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            log.warn("User search indexes require PostgreSQL, skipping on {}", product);
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (DataAccessException e) {
+            // Usually missing privilege for CREATE EXTENSION; search still works, just without the indexes
+            log.error("Cannot create user search indexes: {}", e.getMessage());
+            return;
+        }
+        INDEXES.forEach(this::ensureIndex);
+    }
+
+    private void ensureIndex(String name, String definition) {
+        try {
+            List<Boolean> valid = jdbcTemplate.queryForList(
+                    "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)", Boolean.class, name);
+            if (!valid.isEmpty() && valid.get(0)) {
+                return;
+            }
+            if (!valid.isEmpty()) {
+                Integer building = jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM pg_stat_progress_create_index WHERE index_relid = to_regclass(?)",
+                        Integer.class, name);
+                if (building != null && building > 0) {
+                    log.info("Index {} is being built by another session, leaving it", name);
+                    return;
+                }
+                log.warn("Index {} is invalid (failed concurrent build), rebuilding it", name);
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            }
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " " + definition);
+        } catch (DataAccessException e) {
+            // An interrupted build leaves the index invalid, the next start rebuilds it
+            log.error("Cannot create user search index {}: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.wallet_service.limits;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free sliding window of amounts and counts, split into fixed time buckets
+ *
+ * A bucket left over from an older window is replaced with a compare-and-set, so writers never block.
+ * The window covers the current (partial) bucket plus the bucketCount - 1 before it.
+ */
+public class SlidingWindowCounter {
+
+    public static final class Bucket {
+        private final long epoch;
+        private final AtomicLong amount = new AtomicLong();
+        private final AtomicLong count = new AtomicLong();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    public SlidingWindowCounter(long windowMillis, int bucketCount) {
+        this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * Add an amount at the given time
+     *
+     * @return the bucket it went to, for undo - null if the time is older than the window
+     */
+    public Bucket add(long timeMillis, long amount) {
+        Bucket bucket = bucketAt(timeMillis);
+        if (bucket != null) {
+            bucket.amount.addAndGet(amount);
+            bucket.count.incrementAndGet();
+        }
+        return bucket;
+    }
+
+    public void undo(Bucket bucket, long amount) {
+        // No-op in effect if the bucket has been replaced meanwhile, it is out of the window anyway
+        bucket.amount.addAndGet(-amount);
+        bucket.count.decrementAndGet();
+    }
+
+    public long amount(long nowMillis) {
+        long oldest = nowMillis / bucketMillis - buckets.length();
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch > oldest) {
+                total += bucket.amount.get();
+            }
+        }
+        return total;
+    }
+
+    public long count(long nowMillis) {
+        long oldest = nowMillis / bucketMillis - buckets.length();
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch > oldest) {
+                total += bucket.count.get();
+            }
+        }
+        return total;
+    }
+
+    public boolean isEmpty(long nowMillis) {
+        return count(nowMillis) == 0;
+    }
+
+    private Bucket bucketAt(long timeMillis) {
+        long epoch = timeMillis / bucketMillis;
+        int index = (int) (epoch % buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epoch >= epoch) {
+                return bucket.epoch == epoch ? bucket : null;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.wallet_service.limits;
+
+import com.example.wallet_service.config.SpendingLimitProperties;
+import com.example.wallet_service.entity.Payout;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outgoing spending and velocity limits (see SpendingLimitProperties)
+ *
+ * Key features:
+ * 1. MEMORY mode keeps one lock-free sliding window per account and rule in a ConcurrentHashMap,
+ *    a check is a few array reads - no query inside the SERIALIZABLE transfer transaction
+ * 2. Counted transfers are taken back out if the transaction rolls back
+ * 3. Windows are rebuilt from recent transactions before the node serves traffic
+ * 4. DATABASE mode sums transactions per check instead, for nodes that don't see all transfers of an account
+ * 5. Every outgoing debit is counted: transfers, hold captures and payouts (once, for their total, when
+ *    accepted). Refunds give money back and are not counted. Rebuild and DATABASE mode read the same
+ *    rows (SENT_ROWS), so a restart or a mode switch sees what the live windows saw.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SpendingLimiter {
+
+    // Outgoing debits as (account, amount, time): transfers and captures, including fully refunded (CANCELLED)
+    // ones, and payouts from the payouts table - their per-recipient transactions would count them again
+    private static final String SENT_ROWS =
+            "SELECT from_account_id AS account_id, amount, created_at FROM transactions " +
+                    "WHERE status IN ('COMPLETED', 'CANCELLED') AND refund_of_transaction_id IS NULL " +
+                    "AND idempotency_key NOT LIKE '" + Payout.TRANSACTION_KEY_PREFIX + "%%' AND created_at >= ? %s" +
+                    "UNION ALL " +
+                    "SELECT account_id, total_amount, created_at FROM payouts WHERE created_at >= ? %s";
+
+    private final SpendingLimitProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, SlidingWindowCounter[]> windows = new ConcurrentHashMap<>();
+    private List<SpendingLimitProperties.Rule> rules;
+    private long longestWindowMillis;
+
+    @PostConstruct
+    public void init() {
+        rules = List.copyOf(properties.getRules());
+        longestWindowMillis = rules.stream().mapToLong(rule -> rule.getWindow().toMillis()).max().orElse(0);
+        if (properties.isEnabled() && properties.getMode() == SpendingLimitProperties.Mode.MEMORY
+                && properties.isRebuildOnStartup() && !rules.isEmpty()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Check an outgoing debit against every rule and count it
+     * Callers hold the sender's account row lock, so check-then-count can't race for the same account.
+     *
+     * @return the first rule the transfer would break (nothing counted), null if it fits
+     */
+    public SpendingLimitProperties.Rule tryAcquire(Long accountId, BigDecimal amount) {
+        if (!properties.isEnabled() || rules.isEmpty()) {
+            return null;
+        }
+        if (properties.getMode() == SpendingLimitProperties.Mode.DATABASE) {
+            return checkDatabase(accountId, amount);
+        }
+
+        long now = System.currentTimeMillis();
+        long cents = toCents(amount);
+        SlidingWindowCounter[] counters = windows.computeIfAbsent(accountId, id -> newCounters());
+        for (int i = 0; i < counters.length; i++) {
+            SpendingLimitProperties.Rule rule = rules.get(i);
+            if (exceeds(rule, counters[i].amount(now) + cents, counters[i].count(now) + 1)) {
+                return rule;
+            }
+        }
+
+        SlidingWindowCounter.Bucket[] buckets = new SlidingWindowCounter.Bucket[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            buckets[i] = counters[i].add(now, cents);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        for (int i = 0; i < counters.length; i++) {
+                            counters[i].undo(buckets[i], cents);
+                        }
+                    }
+                }
+            });
+        }
+        return null;
+    }
+
+    private SpendingLimitProperties.Rule checkDatabase(Long accountId, BigDecimal amount) {
+        String sql = "SELECT COALESCE(SUM(amount), 0), COUNT(*) FROM ("
+                + SENT_ROWS.formatted("AND from_account_id = ? ", "AND account_id = ?") + ") sent";
+        LocalDateTime now = LocalDateTime.now();
+        for (SpendingLimitProperties.Rule rule : rules) {
+            Timestamp since = Timestamp.valueOf(now.minus(rule.getWindow()));
+            boolean exceeded = Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql,
+                    (rs, rowNum) -> exceeds(rule, toCents(rs.getBigDecimal(1).add(amount)), rs.getLong(2) + 1),
+                    since, accountId, since, accountId));
+            if (exceeded) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private boolean exceeds(SpendingLimitProperties.Rule rule, long cents, long count) {
+        return (rule.getMaxAmount() != null && cents > toCents(rule.getMaxAmount()))
+                || (rule.getMaxCount() != null && count > rule.getMaxCount());
+    }
+
+    /**
+     * Reload the windows with the outgoing debits of the longest window
+     */
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minus(Duration.ofMillis(longestWindowMillis)));
+        long[] rows = new long[1];
+        jdbcTemplate.query(
+                SENT_ROWS.formatted("", ""),
+                rs -> {
+                    SlidingWindowCounter[] counters = windows.computeIfAbsent(rs.getLong(1), id -> newCounters());
+                    long cents = toCents(rs.getBigDecimal(2));
+                    long time = rs.getTimestamp(3).getTime();
+                    for (SlidingWindowCounter counter : counters) {
+                        counter.add(time, cents);
+                    }
+                    rows[0]++;
+                },
+                since, since);
+        log.info("Spending limit windows rebuilt from {} debits ({} accounts) in {} ms",
+                rows[0], windows.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Drop the windows of accounts that have not sent anything within the longest window
+     * A transfer racing with the eviction of its account's windows may go uncounted, at most one per account.
+     */
+    @Scheduled(fixedDelayString = "${app.limits.evict-interval-ms:300000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        windows.entrySet().removeIf(entry -> {
+            for (SlidingWindowCounter counter : entry.getValue()) {
+                if (!counter.isEmpty(now)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private SlidingWindowCounter[] newCounters() {
+        SlidingWindowCounter[] counters = new SlidingWindowCounter[rules.size()];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new SlidingWindowCounter(rules.get(i).getWindow().toMillis(), properties.getBucketsPerWindow());
+        }
+        return counters;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.UP).longValue();
+    }
+}
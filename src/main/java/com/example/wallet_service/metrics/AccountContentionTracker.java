@@ -0,0 +1,174 @@
+package com.example.wallet_service.metrics;
+
+import com.example.wallet_service.dto.response.HotAccountResponse;
+import com.example.wallet_service.dto.response.HotAccountsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Track row lock wait per account to find hot accounts
+ *
+ * Keeps bounded space-saving sketches per time window (current + last complete window),
+ * so memory is O(stripes * capacity) no matter how many accounts are active.
+ *
+ * Key features:
+ * 1. Waits are recorded after the transaction completes, never while its row locks are held
+ * 2. One sketch per stripe, a thread records into its own stripe (or any free one) under that
+ *    stripe's lock only, the wait histogram is lock-free; stripes are merged on read
+ */
+@Component
+public class AccountContentionTracker {
+
+    private final int capacity;
+    private final int stripes;
+
+    private volatile Window current;
+    private volatile Window previous;
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final SpaceSavingSketch sketch;
+
+        private Stripe(int capacity) {
+            this.sketch = new SpaceSavingSketch(capacity);
+        }
+    }
+
+    private static final class Window {
+        private final LocalDateTime start = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final Stripe[] stripes;
+        private final AtomicLongArray waitBuckets = new AtomicLongArray(LatencyBuckets.BUCKETS);
+        private volatile long endNanos;
+
+        private Window(int stripeCount, int capacity) {
+            this.stripes = new Stripe[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new Stripe(capacity);
+            }
+        }
+    }
+
+    public AccountContentionTracker(@Value("${app.diagnostics.hot-accounts.capacity:128}") int capacity) {
+        this.capacity = capacity;
+        // Power of two at or above the core count, so a stripe is picked with a mask
+        this.stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+        this.current = new Window(stripes, capacity);
+    }
+
+    /**
+     * Record a row lock wait, deferred until the surrounding transaction (if any) has completed
+     */
+    public void recordLockWait(long accountId, long waitNanos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(accountId, waitNanos);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                record(accountId, waitNanos);
+            }
+        });
+    }
+
+    private void record(long accountId, long waitNanos) {
+        Window window = current;
+        window.waitBuckets.incrementAndGet(LatencyBuckets.bucketOf(waitNanos));
+
+        Stripe[] stripes = window.stripes;
+        int mask = stripes.length - 1;
+        int home = spread(System.identityHashCode(Thread.currentThread())) & mask;
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(home + i) & mask];
+            if (stripe.lock.tryLock()) {
+                try {
+                    stripe.sketch.add(accountId, waitNanos);
+                } finally {
+                    stripe.lock.unlock();
+                }
+                return;
+            }
+        }
+        Stripe stripe = stripes[home]; // Every stripe busy, wait for our own
+        stripe.lock.lock();
+        try {
+            stripe.sketch.add(accountId, waitNanos);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @Scheduled(fixedRateString = "${app.diagnostics.hot-accounts.window-seconds:60}",
+            initialDelayString = "${app.diagnostics.hot-accounts.window-seconds:60}",
+            timeUnit = TimeUnit.SECONDS)
+    public void rotate() {
+        Window ended = current;
+        current = new Window(stripes, capacity);
+        ended.endNanos = System.nanoTime();
+        previous = ended;
+    }
+
+    /**
+     * Hot accounts of the running window, or of the last complete one
+     */
+    public HotAccountsResponse snapshot(int limit, boolean completeWindow) {
+        Window window = completeWindow && previous != null ? previous : current;
+        List<SpaceSavingSketch> copies = new ArrayList<>(window.stripes.length);
+        for (Stripe stripe : window.stripes) {
+            stripe.lock.lock();
+            try {
+                copies.add(stripe.sketch.copy());
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        SpaceSavingSketch merged = SpaceSavingSketch.merge(copies);
+        List<SpaceSavingSketch.Entry> byRequests = merged.top(limit, false);
+        List<SpaceSavingSketch.Entry> byWait = merged.top(limit, true);
+        long[] buckets = new long[LatencyBuckets.BUCKETS];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = window.waitBuckets.get(i);
+        }
+        long total = merged.getTotal();
+
+        long endNanos = window.endNanos != 0 ? window.endNanos : System.nanoTime();
+        double seconds = Math.max(1e-3, (endNanos - window.startNanos) / 1e9);
+
+        return HotAccountsResponse.builder()
+                .windowStart(window.start)
+                .windowSeconds(seconds)
+                .totalLockRequests(total)
+                .lockWaitHistogram(LatencyBuckets.describe(buckets))
+                .topByRequests(byRequests.stream().map(e -> toResponse(e, seconds)).toList())
+                .topByLockWait(byWait.stream().map(e -> toResponse(e, seconds)).toList())
+                .build();
+    }
+
+    private HotAccountResponse toResponse(SpaceSavingSketch.Entry entry, double seconds) {
+        long tracked = entry.getCount() - entry.getError();
+        return HotAccountResponse.builder()
+                .accountId(entry.getKey())
+                .lockRequests(entry.getCount())
+                .lockRequestsError(entry.getError())
+                .lockRequestsPerSecond(entry.getCount() / seconds)
+                .lockWaitTotalMs(entry.getWeight() / 1e6)
+                .lockWaitAvgMs(tracked > 0 ? entry.getWeight() / 1e6 / tracked : 0.0)
+                .lockWaitHistogram(LatencyBuckets.describe(entry.getWaitBuckets()))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.wallet_service.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Power-of-two latency buckets: bucket i holds waits below 2^i microseconds, the last one is open-ended
+ * 25 buckets cover 1us .. ~16s, cheap enough to keep one array per hot account.
+ */
+public final class LatencyBuckets {
+
+    public static final int BUCKETS = 25;
+
+    private LatencyBuckets() {
+    }
+
+    public static int bucketOf(long nanos) {
+        long micros = nanos / 1_000;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    /**
+     * Label each non-empty bucket with its upper bound, e.g. "<512us", "<2ms", ">8s" (ms and s rounded down)
+     */
+    public static Map<String, Long> describe(long[] buckets) {
+        Map<String, Long> described = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == 0) {
+                continue;
+            }
+            String label = i == BUCKETS - 1
+                    ? ">" + format(1L << (BUCKETS - 2))
+                    : "<" + format(1L << i);
+            described.put(label, buckets[i]);
+        }
+        return described;
+    }
+
+    private static String format(long micros) {
+        if (micros >= 1_000_000) {
+            return (micros / 1_000_000) + "s";
+        }
+        if (micros >= 1_000) {
+            return (micros / 1_000) + "ms";
+        }
+        return micros + "us";
+    }
+}
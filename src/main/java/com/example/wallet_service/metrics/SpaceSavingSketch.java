@@ -0,0 +1,220 @@
+package com.example.wallet_service.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-saving top-K sketch (Metwally et al.) over long keys
+ *
+ * Tracks at most capacity keys. When a new key arrives and the sketch is full, the key with the
+ * smallest count is replaced and the newcomer inherits that count as its error bound, so
+ * count - error <= true weight <= count. Any key heavier than total / capacity is guaranteed to be kept.
+ * Each tracked key also keeps a lock wait histogram (see LatencyBuckets).
+ *
+ * Entries also sit in a min-heap on count, so finding the key to evict is O(1) and an update O(log capacity).
+ * Not thread-safe on its own, callers synchronize.
+ * Sketches filled by different threads can be merged (see merge) into one with the same guarantee.
+ */
+public class SpaceSavingSketch {
+
+    public static final class Entry {
+        private final long key;
+        private long count;
+        private long error;
+        private long weight;
+        private int heapIndex;
+        private final long[] waitBuckets = new long[LatencyBuckets.BUCKETS];
+
+        private Entry(long key) {
+            this.key = key;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        public long[] getWaitBuckets() {
+            return waitBuckets.clone();
+        }
+
+        private Entry copy() {
+            Entry copy = new Entry(key);
+            copy.count = count;
+            copy.error = error;
+            copy.weight = weight;
+            System.arraycopy(waitBuckets, 0, copy.waitBuckets, 0, waitBuckets.length);
+            return copy;
+        }
+    }
+
+    private final int capacity;
+    private final Map<Long, Entry> entries;
+    private final Entry[] heap;
+    private long total;
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.entries = new HashMap<>(capacity * 2);
+        this.heap = new Entry[capacity];
+    }
+
+    /**
+     * Count one occurrence of key, with a weight (lock wait in nanos) recorded alongside
+     */
+    public void add(long key, long weightNanos) {
+        total++;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(key);
+            if (entries.size() >= capacity) {
+                Entry min = heap[0];
+                entries.remove(min.key);
+                entry.count = min.count;
+                entry.error = min.count;
+                entry.heapIndex = 0;
+                heap[0] = entry;
+            } else {
+                entry.heapIndex = entries.size();
+                heap[entry.heapIndex] = entry;
+                siftUp(entry.heapIndex);
+            }
+            entries.put(key, entry);
+        }
+        entry.count++;
+        entry.weight += weightNanos;
+        entry.waitBuckets[LatencyBuckets.bucketOf(weightNanos)]++;
+        siftDown(entry.heapIndex);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Count a key absent from this sketch may have had: the smallest count once full, else 0
+     */
+    public long minCount() {
+        return entries.size() >= capacity ? heap[0].count : 0;
+    }
+
+    /**
+     * Deep copy, so a caller can read it after releasing the lock guarding this sketch
+     */
+    public SpaceSavingSketch copy() {
+        SpaceSavingSketch copy = new SpaceSavingSketch(capacity);
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = heap[i].copy();
+            entry.heapIndex = i;
+            copy.heap[i] = entry;
+            copy.entries.put(entry.key, entry);
+        }
+        copy.total = total;
+        return copy;
+    }
+
+    /**
+     * Merge sketches into one holding every key of any of them (Agarwal et al., mergeable summaries)
+     *
+     * A key missing from a full sketch may have been evicted there, so that sketch's min count is
+     * added to both its count and error: count - error <= true weight <= count still holds.
+     * Wait totals and histograms only sum what was tracked.
+     */
+    public static SpaceSavingSketch merge(List<SpaceSavingSketch> sketches) {
+        Map<Long, Entry> merged = new HashMap<>();
+        long total = 0;
+        for (SpaceSavingSketch sketch : sketches) {
+            total += sketch.total;
+            for (Entry entry : sketch.entries.values()) {
+                Entry into = merged.computeIfAbsent(entry.key, Entry::new);
+                into.weight += entry.weight;
+                for (int i = 0; i < LatencyBuckets.BUCKETS; i++) {
+                    into.waitBuckets[i] += entry.waitBuckets[i];
+                }
+            }
+        }
+        for (SpaceSavingSketch sketch : sketches) {
+            long missing = sketch.minCount();
+            for (Entry into : merged.values()) {
+                Entry entry = sketch.entries.get(into.key);
+                into.count += entry != null ? entry.count : missing;
+                into.error += entry != null ? entry.error : missing;
+            }
+        }
+        SpaceSavingSketch result = new SpaceSavingSketch(Math.max(1, merged.size()));
+        for (Entry entry : merged.values()) {
+            entry.heapIndex = result.entries.size();
+            result.heap[entry.heapIndex] = entry;
+            result.entries.put(entry.key, entry);
+            result.siftUp(entry.heapIndex);
+        }
+        result.total = total;
+        return result;
+    }
+
+    /**
+     * Snapshot of the top entries by count (or by weight), heaviest first
+     */
+    public List<Entry> top(int limit, boolean byWeight) {
+        List<Entry> copies = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            copies.add(entry.copy());
+        }
+        copies.sort(byWeight
+                ? Comparator.comparingLong(Entry::getWeight).reversed()
+                : Comparator.comparingLong(Entry::getCount).reversed());
+        return copies.subList(0, Math.min(limit, copies.size()));
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= entry.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        int size = entries.size();
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (entry.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(entry, index);
+    }
+
+    private void place(Entry entry, int index) {
+        heap[index] = entry;
+        entry.heapIndex = index;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.wallet_service.metrics;
+
+import com.example.wallet_service.config.SqlBudgetProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attributes SQL statements to the HTTP request and enforces per-endpoint budgets
+ *
+ * Runs before Spring Security, so the JWT user lookup counts against the endpoint too.
+ * In FAIL mode the response is buffered and replaced with a 500 when the budget is exceeded.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sql-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private final SqlBudgetProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // Event streams stay open and can't be buffered, their subscription queries are not budgeted
+        String accept = request.getHeader("Accept");
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!SqlStatementCounter.begin()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean failMode = properties.getMode() == SqlBudgetProperties.Mode.FAIL;
+        HttpServletResponse target = failMode ? new ContentCachingResponseWrapper(response) : response;
+        SqlStatementCounter.Stats stats;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            stats = SqlStatementCounter.end();
+        }
+
+        String endpoint = endpointOf(request);
+        int budget = properties.budgetFor(endpoint);
+        List<Map.Entry<String, Integer>> repeated = stats.repeatedStatements(properties.getRepeatedStatementThreshold());
+        boolean exceeded = stats.getStatements() > budget;
+
+        if (!repeated.isEmpty()) {
+            log.warn("Possible N+1 on {}: {}", endpoint, describe(repeated));
+        }
+        if (exceeded) {
+            log.warn("SQL budget exceeded on {}: {} statements (budget {}), {} ms in JDBC",
+                    endpoint, stats.getStatements(), budget, String.format("%.2f", stats.getExecutionMillis()));
+        } else if (log.isDebugEnabled()) {
+            log.debug("{}: {} statements, {} ms in JDBC",
+                    endpoint, stats.getStatements(), String.format("%.2f", stats.getExecutionMillis()));
+        }
+
+        if (properties.isExposeHeaders() && !target.isCommitted()) {
+            target.setHeader("X-SQL-Statements", String.valueOf(stats.getStatements()));
+            target.setHeader("X-SQL-Budget", String.valueOf(budget));
+        }
+
+        if (failMode) {
+            ContentCachingResponseWrapper wrapper = (ContentCachingResponseWrapper) target;
+            if (exceeded && !response.isCommitted()) {
+                wrapper.resetBuffer();
+                wrapper.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                wrapper.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                wrapper.getOutputStream().write(("{\"message\":\"SQL budget exceeded on " + endpoint + ": "
+                        + stats.getStatements() + " statements, budget " + budget + "\"}")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * "METHOD /mapped/pattern", falls back to the raw URI for unmapped requests
+     */
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private String describe(List<Map.Entry<String, Integer>> repeated) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : repeated) {
+            sb.append("\n  ").append(entry.getValue()).append("x ").append(entry.getKey());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.wallet_service.metrics;
+
+import com.example.wallet_service.exception.SqlBudgetExceededException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-thread SQL statement counter
+ *
+ * Fed by SqlStatementInspector (statement text) and SqlStatementListener (execution time) for
+ * every statement Hibernate runs on the current thread. Counting only happens between begin()
+ * and end(), so background work (batch jobs, schedulers) costs one ThreadLocal lookup per statement.
+ *
+ * Also serves as the test assertion API:
+ * <pre>
+ *     SqlStatementCounter.assertAtMost(3, () -> paymentService.getBalance(userId));
+ * </pre>
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static final class Stats {
+        private int statements;
+        private int batches;
+        private long executionNanos;
+        private final Map<String, Integer> statementCounts = new HashMap<>();
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public double getExecutionMillis() {
+            return executionNanos / 1e6;
+        }
+
+        /**
+         * Statements prepared at least threshold times in this scope - the usual N+1 signature
+         */
+        public List<Map.Entry<String, Integer>> repeatedStatements(int threshold) {
+            return statementCounts.entrySet().stream()
+                    .filter(e -> e.getValue() >= threshold)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .toList();
+        }
+    }
+
+    /**
+     * Start counting on this thread, returns false if a scope is already open (nested scopes share it)
+     */
+    public static boolean begin() {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(new Stats());
+        return true;
+    }
+
+    public static Stats end() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    static void recordStatement(String sql) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void recordExecution(long nanos, boolean batch) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.executionNanos += nanos;
+            if (batch) {
+                stats.batches++;
+            }
+        }
+    }
+
+    /**
+     * Run action in its own counting scope and return the statistics
+     */
+    public static Stats measure(Runnable action) {
+        Stats outer = CURRENT.get();
+        CURRENT.set(new Stats());
+        try {
+            action.run();
+            return CURRENT.get();
+        } finally {
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Run action and fail if it issued more than maxStatements SQL statements
+     */
+    public static Stats assertAtMost(int maxStatements, Runnable action) {
+        Stats stats = measure(action);
+        if (stats.getStatements() > maxStatements) {
+            throw new SqlBudgetExceededException("Expected at most " + maxStatements + " SQL statements but "
+                    + stats.getStatements() + " were executed, repeated: " + stats.repeatedStatements(2));
+        }
+        return stats;
+    }
+}
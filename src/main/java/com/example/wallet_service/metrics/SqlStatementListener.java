@@ -0,0 +1,31 @@
+package com.example.wallet_service.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times statement and batch execution, one instance per Hibernate session
+ */
+public class SqlStatementListener implements SessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementCounter.recordExecution(System.nanoTime() - executeStart, false);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementCounter.recordExecution(System.nanoTime() - executeStart, true);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.wallet_service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the wallet hot paths
+ *
+ * All meters are registered once at startup and kept in fields, so recording on the hot path
+ * is a nanoTime call plus a lock-free histogram update - no registry lookup, no tag allocation.
+ */
+@Component
+public class WalletMetrics {
+
+    public enum TransferStage {
+        IDEMPOTENCY_LOCK,
+        FRAUD_SCREEN,
+        ACCOUNT_LOCK,
+        VALIDATION,
+        PERSIST,
+        COMMIT
+    }
+
+    public enum RejectReason {
+        INSUFFICIENT_BALANCE,
+        SAME_ACCOUNT,
+        INVALID_AMOUNT,
+        EXPIRED_KEY,
+        ACCOUNT_NOT_FOUND,
+        FX_RATE_UNAVAILABLE,
+        LIMIT_EXCEEDED,
+        FRAUD_DECLINED
+    }
+
+    private final Map<TransferStage, Timer> stageTimers = new EnumMap<>(TransferStage.class);
+    private final Map<RejectReason, Counter> rejectCounters = new EnumMap<>(RejectReason.class);
+    private final Timer transferCommitted;
+    private final Timer transferRolledBack;
+    private final Counter transferReplayed;
+    private final Timer balanceRead;
+    private final Timer historyRead;
+    private final Timer jwtValidation;
+
+    public WalletMetrics(MeterRegistry registry) {
+        for (TransferStage stage : TransferStage.values()) {
+            stageTimers.put(stage, Timer.builder("wallet.transfer.stage")
+                    .description("Time spent in each stage of a transfer")
+                    .tag("stage", tagValue(stage))
+                    .register(registry));
+        }
+        for (RejectReason reason : RejectReason.values()) {
+            rejectCounters.put(reason, Counter.builder("wallet.transfer.rejected")
+                    .description("Transfers rejected by validation")
+                    .tag("reason", tagValue(reason))
+                    .register(registry));
+        }
+        transferCommitted = transferTimer(registry, "committed");
+        transferRolledBack = transferTimer(registry, "rolled_back");
+        transferReplayed = Counter.builder("wallet.transfer.replayed")
+                .description("Transfers answered from an already used idempotency key")
+                .register(registry);
+        balanceRead = Timer.builder("wallet.balance.read").register(registry);
+        historyRead = Timer.builder("wallet.history.read").register(registry);
+        jwtValidation = Timer.builder("wallet.jwt.validation")
+                .description("JWT parse, user lookup and validation per request")
+                .register(registry);
+    }
+
+    public void recordStage(TransferStage stage, long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void reject(RejectReason reason) {
+        rejectCounters.get(reason).increment();
+    }
+
+    public void replayed() {
+        transferReplayed.increment();
+    }
+
+    public void recordBalanceRead(long startNanos) {
+        balanceRead.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordHistoryRead(long startNanos) {
+        historyRead.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJwtValidation(long startNanos) {
+        jwtValidation.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time the commit (flush + COMMIT) and the whole transfer including it
+     * Must be called inside the transfer transaction.
+     */
+    public void trackTransferCompletion(long transferStartNanos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitStartNanos;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitStartNanos = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                long now = System.nanoTime();
+                if (status == STATUS_COMMITTED) {
+                    stageTimers.get(TransferStage.COMMIT).record(now - commitStartNanos, TimeUnit.NANOSECONDS);
+                    transferCommitted.record(now - transferStartNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    transferRolledBack.record(now - transferStartNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+
+    private Timer transferTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("wallet.transfer")
+                .description("End-to-end transfer time including commit")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.wallet_service.notification;
+
+import com.example.wallet_service.dto.response.IncomingTransferNotification;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Several nodes: every node consumes the topic with its own consumer group and delivers
+ * to the streams it holds, keyed by recipient so one user's events stay in order
+ *
+ * The group is named after the node (app.notifications.kafka.node-id, the host name by default),
+ * so a restarted node rejoins its own group instead of leaving a new one behind every time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.notifications", name = "bus", havingValue = "kafka")
+public class KafkaNotificationBus implements NotificationBus {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationRegistry registry;
+
+    @Value("${app.notifications.kafka.topic:wallet.incoming-transfers}")
+    private String topic;
+
+    @Value("${app.notifications.kafka.group-prefix:wallet-notifications}")
+    private String groupPrefix;
+
+    @Value("${app.notifications.kafka.node-id:}")
+    private String nodeId;
+
+    /**
+     * Consumer group of this node, stable across restarts
+     */
+    public String getGroupId() {
+        if (nodeId != null && !nodeId.isBlank()) {
+            return groupPrefix + "-" + nodeId;
+        }
+        try {
+            return groupPrefix + "-" + InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot resolve the host name, set app.notifications.kafka.node-id", e);
+        }
+    }
+
+    @Override
+    public void publish(IncomingTransferNotification notification) {
+        try {
+            kafkaTemplate.send(topic, String.valueOf(notification.getToUserId()),
+                    objectMapper.writeValueAsString(notification));
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize notification for transaction {}", notification.getTransactionId(), e);
+        }
+    }
+
+    @KafkaListener(
+            topics = "${app.notifications.kafka.topic:wallet.incoming-transfers}",
+            groupId = "#{__listener.groupId}")
+    public void onMessage(String payload) throws JsonProcessingException {
+        registry.deliver(objectMapper.readValue(payload, IncomingTransferNotification.class));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.wallet_service.notification;
+
+import com.example.wallet_service.dto.response.IncomingTransferNotification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single node: deliver straight to this node's streams
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.notifications", name = "bus", havingValue = "local", matchIfMissing = true)
+public class LocalNotificationBus implements NotificationBus {
+
+    private final NotificationRegistry registry;
+
+    @Override
+    public void publish(IncomingTransferNotification notification) {
+        registry.deliver(notification);
+    }
+}
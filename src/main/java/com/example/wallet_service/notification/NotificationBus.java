@@ -0,0 +1,11 @@
+package com.example.wallet_service.notification;
+
+import com.example.wallet_service.dto.response.IncomingTransferNotification;
+
+/**
+ * Carries notifications to the node(s) holding the recipient's streams
+ */
+public interface NotificationBus {
+
+    void publish(IncomingTransferNotification notification);
+}
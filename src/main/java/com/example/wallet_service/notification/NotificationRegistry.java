@@ -0,0 +1,292 @@
+package com.example.wallet_service.notification;
+
+import com.example.wallet_service.dto.response.IncomingTransferNotification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SSE subscriptions of the users connected to this node
+ *
+ * Key features:
+ * 1. Emitters are parked async requests: an idle connection holds no thread, only its socket
+ * 2. Every write (events and heartbeats) goes through the stream's own bounded queue, drained by
+ *    a small sender pool one write at a time per stream; a full queue evicts its oldest event
+ * 3. A write taking longer than the write timeout ends the stream, so a slow client can't keep
+ *    a sender thread; heartbeats keep idle streams open through proxies and expose dead clients
+ * 4. The sender pool queue is bounded too (at most one drain task per stream), past it new events are dropped
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationRegistry {
+
+    public static final String TRANSFER_RECEIVED = "transfer.received";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.notifications.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${app.notifications.max-streams-per-user:5}")
+    private int maxStreamsPerUser;
+
+    @Value("${app.notifications.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${app.notifications.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${app.notifications.sender-queue-capacity:10000}")
+    private int senderQueueCapacity;
+
+    @Value("${app.notifications.max-pending-per-stream:32}")
+    private int maxPendingPerStream;
+
+    @Value("${app.notifications.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    private final Map<Long, Set<Stream>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger streams = new AtomicInteger();
+    private ThreadPoolExecutor sender;
+    private ScheduledExecutorService heartbeat;
+    private Counter dropped;
+    private Counter writeTimeouts;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(senderQueueCapacity), r -> {
+            Thread thread = new Thread(r, "notification-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "notification-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        long checkMs = Math.max(100, writeTimeoutMs / 2);
+        heartbeat.scheduleWithFixedDelay(this::closeStalledStreams, checkMs, checkMs, TimeUnit.MILLISECONDS);
+
+        dropped = Counter.builder("wallet.notifications.dropped")
+                .description("Events not sent: stream queue or sender backlog full")
+                .register(meterRegistry);
+        writeTimeouts = Counter.builder("wallet.notifications.write_timeouts")
+                .description("Streams closed because a write took longer than the write timeout")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        subscriptions.values().forEach(userStreams -> userStreams.forEach(stream -> stream.emitter.complete()));
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Stream stream = new Stream(emitter);
+        emitter.onCompletion(() -> remove(userId, stream));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(userId, stream));
+
+        Stream[] evicted = new Stream[1];
+        subscriptions.compute(userId, (id, userStreams) -> {
+            if (userStreams == null) {
+                userStreams = ConcurrentHashMap.newKeySet();
+            } else if (userStreams.size() >= maxStreamsPerUser) {
+                // Oldest stream of a reconnecting client is usually already dead
+                evicted[0] = userStreams.iterator().next();
+                userStreams.remove(evicted[0]);
+                streams.decrementAndGet();
+            }
+            userStreams.add(stream);
+            return userStreams;
+        });
+        streams.incrementAndGet();
+        if (evicted[0] != null) {
+            evicted[0].emitter.complete();
+        }
+
+        try {
+            // Flushes the response headers on the request thread, so the client knows the stream is open
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Queue a notification on the recipient's streams on this node, if any
+     */
+    public void deliver(IncomingTransferNotification notification) {
+        Set<Stream> userStreams = subscriptions.get(notification.getToUserId());
+        if (userStreams == null) {
+            return;
+        }
+        for (Stream stream : userStreams) {
+            stream.offer(SseEmitter.event()
+                    .name(TRANSFER_RECEIVED)
+                    .id(String.valueOf(notification.getTransactionId()))
+                    .data(notification, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    public int getStreams() {
+        return streams.get();
+    }
+
+    /**
+     * Queue a heartbeat on every idle stream; a stream with events queued or in flight doesn't need one
+     */
+    private void sendHeartbeats() {
+        for (Set<Stream> userStreams : subscriptions.values()) {
+            for (Stream stream : userStreams) {
+                if (stream.isIdle()) {
+                    stream.offer(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    /**
+     * End streams whose current write has taken longer than the write timeout
+     * The stuck write itself returns once the container's socket write times out.
+     */
+    private void closeStalledStreams() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        subscriptions.forEach((userId, userStreams) -> {
+            for (Stream stream : userStreams) {
+                long since = stream.writingSince;
+                if (since != 0 && now - since > timeoutNanos) {
+                    writeTimeouts.increment();
+                    log.debug("Notification stream of user {} stalled for {} ms, closing it", userId,
+                            TimeUnit.NANOSECONDS.toMillis(now - since));
+                    remove(userId, stream);
+                    stream.emitter.completeWithError(new IOException("SSE write timed out"));
+                }
+            }
+        });
+    }
+
+    private void remove(Long userId, Stream stream) {
+        subscriptions.computeIfPresent(userId, (id, userStreams) -> {
+            if (userStreams.remove(stream)) {
+                streams.decrementAndGet();
+            }
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+        stream.close();
+    }
+
+    /**
+     * One SSE connection and its pending writes, sent in order by one sender thread at a time
+     */
+    private final class Stream {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile long writingSince; // nanoTime the current write started, 0 between writes
+
+        private Stream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        boolean isIdle() {
+            return size.get() == 0 && !draining.get();
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (size.incrementAndGet() > maxPendingPerStream && pending.poll() != null) {
+                // Slow client: evict the oldest event, newer ones carry the latest balance
+                size.decrementAndGet();
+                dropped.increment();
+            }
+            pending.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Sender backlog full: drop what this stream has queued rather than wait for room
+                dropped.increment(clear());
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            // At most one queue's worth per run, so busy streams take turns on the sender threads
+            for (int sent = 0; sent < maxPendingPerStream && !closed; sent++) {
+                SseEmitter.SseEventBuilder event = pending.poll();
+                if (event == null) {
+                    break;
+                }
+                size.decrementAndGet();
+                writingSince = System.nanoTime();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    emitter.completeWithError(e);
+                } finally {
+                    writingSince = 0;
+                }
+            }
+            draining.set(false);
+            if (!closed && !pending.isEmpty()) {
+                schedule(); // Queued after the loop ended, or more than one run's worth
+            }
+        }
+
+        void close() {
+            closed = true;
+            clear();
+        }
+
+        private int clear() {
+            int cleared = 0;
+            while (pending.poll() != null) {
+                size.decrementAndGet();
+                cleared++;
+            }
+            return cleared;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.wallet_service.notification;
+
+import com.example.wallet_service.dto.response.IncomingTransferNotification;
+import com.example.wallet_service.event.PayoutItemsCreditedEvent;
+import com.example.wallet_service.event.TransferCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Turns committed transfers into incoming-transfer notifications for the recipient
+ * Payout credits are transfers too for the recipient: one notification per credited item.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.notifications", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TransferNotificationPublisher {
+
+    private final NotificationBus notificationBus;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        try {
+            notificationBus.publish(IncomingTransferNotification.builder()
+                    .transactionId(event.transactionId())
+                    .toUserId(event.toUserId())
+                    .fromAccountId(event.fromAccountId())
+                    .toAccountId(event.toAccountId())
+                    .amount(event.amount())
+                    .currency(event.currency())
+                    .creditedAmount(event.creditedAmount())
+                    .creditedCurrency(event.creditedCurrency())
+                    .toAccountBalance(event.toAccountBalance())
+                    .createdAt(event.createdAt())
+                    .build());
+        } catch (RuntimeException e) {
+            // Notifications are best effort, clients still have the balance endpoint
+            log.warn("Notification for transaction {} not published: {}", event.transactionId(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPayoutItemsCredited(PayoutItemsCreditedEvent event) {
+        for (PayoutItemsCreditedEvent.Credit credit : event.credits()) {
+            try {
+                notificationBus.publish(IncomingTransferNotification.builder()
+                        .transactionId(credit.transactionId())
+                        .toUserId(credit.toUserId())
+                        .fromAccountId(event.fromAccountId())
+                        .toAccountId(credit.toAccountId())
+                        .amount(credit.amount())
+                        .currency(event.currency())
+                        .creditedAmount(credit.amount())
+                        .creditedCurrency(event.currency())
+                        .toAccountBalance(credit.toAccountBalance())
+                        .createdAt(event.createdAt())
+                        .build());
+            } catch (RuntimeException e) {
+                log.warn("Notification for transaction {} not published: {}", credit.transactionId(), e.getMessage());
+            }
+        }
+    }
+}
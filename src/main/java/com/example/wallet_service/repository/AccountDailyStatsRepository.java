@@ -0,0 +1,39 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.entity.AccountDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountDailyStatsRepository extends JpaRepository<AccountDailyStats, AccountDailyStats.Key> {
+
+    List<AccountDailyStats> findByAccountIdAndDayBetweenOrderByDayAsc(Long accountId, LocalDate from, LocalDate to);
+
+    interface CounterpartyTotals {
+        Long getCounterpartyAccountId();
+        Long getSentCount();
+        BigDecimal getSentAmount();
+        Long getReceivedCount();
+        BigDecimal getReceivedAmount();
+    }
+
+    // Ranked by money moved in either direction
+    @Query("SELECT c.counterpartyAccountId AS counterpartyAccountId, " +
+           "SUM(c.sentCount) AS sentCount, SUM(c.sentAmount) AS sentAmount, " +
+           "SUM(c.receivedCount) AS receivedCount, SUM(c.receivedAmount) AS receivedAmount " +
+           "FROM AccountDailyCounterparty c " +
+           "WHERE c.accountId = :accountId AND c.day BETWEEN :from AND :to " +
+           "GROUP BY c.counterpartyAccountId " +
+           "ORDER BY SUM(c.sentAmount) + SUM(c.receivedAmount) DESC " +
+           "LIMIT :limit")
+    List<CounterpartyTotals> findTopCounterparties(@Param("accountId") Long accountId,
+                                                   @Param("from") LocalDate from,
+                                                   @Param("to") LocalDate to,
+                                                   @Param("limit") int limit);
+}
@@ -4,11 +4,13 @@ import com.example.wallet_service.entity.Account;
 import com.example.wallet_service.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
@@ -17,6 +19,10 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     
     Optional<Account> findByUserId(Long userId);
 
+    // Shard routing needs only the id of the caller's account
+    @Query("SELECT a.id FROM Account a WHERE a.user.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
     // Pessimistic lock for transfer operations
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM Account a WHERE a.id = :id")
@@ -26,6 +32,9 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Lock(LockModeType.OPTIMISTIC)
     @Query("SELECT a FROM Account a WHERE a.id = :id")
     Optional<Account> findByIdWithOptimisticLock(@Param("id") Long id);
-}
-
 
+    // Release held funds without loading the account (expiry sweeper)
+    @Modifying
+    @Query("UPDATE Account a SET a.heldAmount = a.heldAmount - :amount, a.version = a.version + 1 WHERE a.id = :id")
+    int releaseHeld(@Param("id") Long id, @Param("amount") BigDecimal amount);
+}
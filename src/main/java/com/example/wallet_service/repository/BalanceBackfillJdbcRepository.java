@@ -0,0 +1,77 @@
+package com.example.wallet_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Keyset reads and batched updates for the balance_after backfill
+ */
+@Repository
+@RequiredArgsConstructor
+public class BalanceBackfillJdbcRepository {
+
+    private static final String COLUMNS =
+            "SELECT id, from_account_id, amount, COALESCE(credited_amount, amount), " +
+            "from_balance_after, to_balance_after, created_at FROM transactions ";
+
+    // Every completed transfer moved money, fully refunded ones (CANCELLED) included;
+    // payout items are the sender's debits like any transfer
+    private static final String ACCOUNT_ROWS =
+            "WHERE (from_account_id = ? OR to_account_id = ?) AND status IN ('COMPLETED', 'CANCELLED') ";
+
+    private static final String NEWEST_FIRST = "ORDER BY created_at DESC, id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Row(long id, boolean sent, BigDecimal amount, BigDecimal creditedAmount,
+                      BigDecimal balanceAfter, Timestamp createdAt) {
+    }
+
+    public Long findNextAccountId(long afterId) {
+        return jdbcTemplate.queryForObject("SELECT min(id) FROM accounts WHERE id > ?", Long.class, afterId);
+    }
+
+    public BigDecimal findBalance(long accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+
+    /**
+     * Transactions of an account, newest first, strictly older than the cursor if one is given
+     */
+    public List<Row> findPage(long accountId, Timestamp beforeCreatedAt, Long beforeId, int limit) {
+        RowMapper<Row> mapper = (rs, rowNum) -> {
+            boolean sent = rs.getLong(2) == accountId;
+            return new Row(rs.getLong(1), sent, rs.getBigDecimal(3), rs.getBigDecimal(4),
+                    rs.getBigDecimal(sent ? 5 : 6), rs.getTimestamp(7));
+        };
+        if (beforeId == null) {
+            return jdbcTemplate.query(COLUMNS + ACCOUNT_ROWS + NEWEST_FIRST, mapper, accountId, accountId, limit);
+        }
+        return jdbcTemplate.query(COLUMNS + ACCOUNT_ROWS + "AND (created_at, id) < (?, ?) " + NEWEST_FIRST,
+                mapper, accountId, accountId, beforeCreatedAt, beforeId, limit);
+    }
+
+    /**
+     * Fill one side's balance where it is still missing, returns the number of rows updated
+     */
+    public int updateBalancesAfter(boolean sent, List<Object[]> balanceAndIds) {
+        if (balanceAndIds.isEmpty()) {
+            return 0;
+        }
+        String column = sent ? "from_balance_after" : "to_balance_after";
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE transactions SET " + column + " = ? WHERE id = ? AND " + column + " IS NULL",
+                balanceAndIds);
+        int updated = 0;
+        for (int count : counts) {
+            updated += Math.max(count, 0);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    // Pick due emails; SKIP LOCKED lets several dispatcher nodes drain the outbox without blocking each other.
+    // SENDING rows whose lease (next_attempt_at) has passed are picked up again after a crash.
+    @Query(value = "SELECT * FROM email_outbox " +
+            "WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Lease claimed emails to the current dispatcher
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.example.wallet_service.entity.EmailOutbox.EmailStatus.SENDING, " +
+            "e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids")
+    int markSending(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.example.wallet_service.entity.EmailOutbox.EmailStatus.SENT, " +
+            "e.sentAt = :sentAt, e.attempts = e.attempts + 1, e.lastError = null WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+}
@@ -0,0 +1,116 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.eventlog.TransferLogRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event log outbox, plus the reads for the export and the replay verification
+ */
+@Repository
+@RequiredArgsConstructor
+public class EventLogJdbcRepository {
+
+    @FunctionalInterface
+    public interface BalanceVisitor {
+        void visit(long accountId, long balanceCents);
+    }
+
+    private static final int OUTBOX_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Queue committed transactions for the node's event log, must run inside their transaction
+     */
+    public void insertOutbox(String nodeId, List<Long> transactionIds) {
+        jdbcTemplate.batchUpdate("INSERT INTO event_log_outbox (transaction_id, node_id) VALUES (?, ?)",
+                transactionIds, OUTBOX_BATCH_SIZE, (ps, transactionId) -> {
+                    ps.setLong(1, transactionId);
+                    ps.setString(2, nodeId);
+                });
+    }
+
+    /**
+     * The node's outbox transactions as log records, in id order
+     */
+    public List<TransferLogRecord> findOutbox(String nodeId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT t.id, t.from_account_id, t.to_account_id, t.amount, COALESCE(t.credited_amount, t.amount), " +
+                        "t.created_at FROM event_log_outbox o JOIN transactions t ON t.id = o.transaction_id " +
+                        "WHERE o.node_id = ? ORDER BY o.transaction_id LIMIT ?",
+                (rs, rowNum) -> TransferLogRecord.of(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                        rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getTimestamp(6).toLocalDateTime()),
+                nodeId, limit);
+    }
+
+    public int deleteOutbox(String nodeId, long[] transactionIds) {
+        if (transactionIds.length == 0) {
+            return 0;
+        }
+        PreparedStatementSetter ids = ps -> {
+            ps.setString(1, nodeId);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint",
+                    Arrays.stream(transactionIds).boxed().toArray()));
+        };
+        return jdbcTemplate.update("DELETE FROM event_log_outbox WHERE node_id = ? AND transaction_id = ANY(?)", ids);
+    }
+
+    /**
+     * Completed transfers created before the cutoff, in id order after the given id
+     * Fully refunded ones (CANCELLED) moved money too, their refunds are separate rows.
+     */
+    public List<TransferLogRecord> findCompletedBefore(long afterId, Timestamp before, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, from_account_id, to_account_id, amount, COALESCE(credited_amount, amount), created_at " +
+                        "FROM transactions WHERE id > ? AND created_at < ? AND status IN ('COMPLETED', 'CANCELLED') " +
+                        "ORDER BY id LIMIT ?",
+                (rs, rowNum) -> TransferLogRecord.of(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                        rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getTimestamp(6).toLocalDateTime()),
+                afterId, before, limit);
+    }
+
+    public long findMaxAccountId() {
+        Long max = jdbcTemplate.queryForObject("SELECT max(id) FROM accounts", Long.class);
+        return max != null ? max : 0;
+    }
+
+    /**
+     * Stream every account balance in cents, the caller must run inside a transaction for the cursor to be used
+     */
+    public void forEachBalance(int fetchSize, BalanceVisitor visitor) {
+        PreparedStatementCreator query = connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT id, balance FROM accounts");
+            statement.setFetchSize(fetchSize);
+            return statement;
+        };
+        RowCallbackHandler visit = rs -> visitor.visit(rs.getLong(1), TransferLogRecord.cents(rs.getBigDecimal(2)));
+        jdbcTemplate.query(query, visit);
+    }
+
+    /**
+     * Current balance of the given accounts in cents, in one query
+     */
+    public Map<Long, Long> findBalances(List<Long> accountIds) {
+        Map<Long, Long> balances = new HashMap<>(accountIds.size() * 2);
+        PreparedStatementSetter ids = ps -> {
+            Array array = ps.getConnection().createArrayOf("bigint", accountIds.toArray());
+            ps.setArray(1, array);
+        };
+        RowCallbackHandler collect = rs -> balances.put(rs.getLong(1), TransferLogRecord.cents(rs.getBigDecimal(2)));
+        jdbcTemplate.query("SELECT id, balance FROM accounts WHERE id = ANY(?)", ids, collect);
+        return balances;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.entity.FraudReview;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FraudReviewRepository extends JpaRepository<FraudReview, Long> {
+    Page<FraudReview> findByStatusOrderByCreatedAtDesc(FraudReview.ReviewStatus status, Pageable pageable);
+}
@@ -0,0 +1,29 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.entity.Hold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+    Optional<Hold> findByIdempotencyKey(String idempotencyKey);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM Hold h WHERE h.id = :id")
+    Optional<Hold> findByIdWithLock(@Param("id") Long id);
+
+    // Expired active holds; SKIP LOCKED so sweepers on several nodes and concurrent captures don't block
+    @Query(value = "SELECT * FROM holds " +
+            "WHERE status = 'ACTIVE' AND expires_at <= :now " +
+            "ORDER BY expires_at " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Hold> findExpiredForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
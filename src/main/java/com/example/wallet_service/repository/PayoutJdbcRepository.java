@@ -0,0 +1,195 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.dto.request.PayoutItemRequest;
+import com.example.wallet_service.entity.Payout;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC batches for payouts, where one JPA entity per recipient would be the bottleneck
+ *
+ * Ids come from the same pooled sequences as the entities: the pooled optimizer treats a sequence
+ * value v as the block (v - 49 .. v], so one nextval covers 50 rows and never collides with ids
+ * handed out by Hibernate.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PayoutJdbcRepository {
+
+    private static final int SEQUENCE_BLOCK = 50; // allocationSize of the entity sequences
+    private static final int BATCH_SIZE = 1000;
+    private static final int LOOKUP_SIZE = 10_000; // Ids per ANY(?) array, H2 caps arrays at 65536 elements
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record PendingItem(long id, long toAccountId, BigDecimal amount) {
+    }
+
+    /**
+     * Currency of every existing account among the given ids, one query per LOOKUP_SIZE ids
+     */
+    public Map<Long, String> findCurrencies(List<Long> accountIds) {
+        Map<Long, String> currencies = new HashMap<>(accountIds.size() * 2);
+        RowCallbackHandler collect = rs -> currencies.put(rs.getLong(1), rs.getString(2));
+        for (int from = 0; from < accountIds.size(); from += LOOKUP_SIZE) {
+            List<Long> slice = accountIds.subList(from, Math.min(accountIds.size(), from + LOOKUP_SIZE));
+            PreparedStatementSetter ids = ps -> {
+                Array array = ps.getConnection().createArrayOf("bigint", slice.toArray());
+                ps.setArray(1, array);
+            };
+            jdbcTemplate.query("SELECT id, currency FROM accounts WHERE id = ANY(?)", ids, collect);
+        }
+        return currencies;
+    }
+
+    /**
+     * Current balance of the given accounts, in one query, their owners are put in userIds
+     */
+    public Map<Long, BigDecimal> findBalances(List<Long> accountIds, Map<Long, Long> userIds) {
+        Map<Long, BigDecimal> balances = new HashMap<>(accountIds.size() * 2);
+        PreparedStatementSetter ids = ps -> {
+            Array array = ps.getConnection().createArrayOf("bigint", accountIds.toArray());
+            ps.setArray(1, array);
+        };
+        RowCallbackHandler collect = rs -> {
+            balances.put(rs.getLong(1), rs.getBigDecimal(2));
+            userIds.put(rs.getLong(1), rs.getLong(3));
+        };
+        jdbcTemplate.query("SELECT id, balance, user_id FROM accounts WHERE id = ANY(?)", ids, collect);
+        return balances;
+    }
+
+    /**
+     * Reserve count ids from a pooled sequence with a single statement
+     */
+    public long[] allocateIds(String sequence, int count) {
+        int blocks = (count + SEQUENCE_BLOCK - 1) / SEQUENCE_BLOCK;
+        List<Long> blockEnds = jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, blocks);
+
+        long[] ids = new long[count];
+        int i = 0;
+        for (long end : blockEnds) {
+            for (long id = end - SEQUENCE_BLOCK + 1; id <= end && i < count; id++) {
+                ids[i++] = id;
+            }
+        }
+        return ids;
+    }
+
+    public void insertItems(long payoutId, List<PayoutItemRequest> items) {
+        long[] ids = allocateIds("payout_items_seq", items.size());
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            PayoutItemRequest item = items.get(i);
+            rows.add(new Object[]{ids[i], payoutId, item.getToAccountId(), item.getAmount()});
+        }
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO payout_items (id, payout_id, to_account_id, amount, status) VALUES (?, ?, ?, ?, 'PENDING')",
+                    rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    /**
+     * Take over the payout row for one chunk: locks it until commit and checks the lease is still ours
+     */
+    public boolean touch(long payoutId, String owner, LocalDateTime leaseUntil) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update(
+                "UPDATE payouts SET status = 'PROCESSING', lease_until = ?, started_at = COALESCE(started_at, ?), " +
+                        "updated_at = ? WHERE id = ? AND lease_owner = ? AND status <> 'COMPLETED'",
+                Timestamp.valueOf(leaseUntil), now, now, payoutId, owner) == 1;
+    }
+
+    public List<PendingItem> findPendingItems(long payoutId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, to_account_id, amount FROM payout_items " +
+                        "WHERE payout_id = ? AND status = 'PENDING' ORDER BY to_account_id LIMIT ?",
+                (rs, rowNum) -> new PendingItem(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3)),
+                payoutId, limit);
+    }
+
+    public int countPendingItems(long payoutId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payout_items WHERE payout_id = ? AND status = 'PENDING'",
+                Integer.class, payoutId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Credit recipients in the given (account id) order, returns the updated row count per item
+     */
+    public int[] creditAccounts(List<PendingItem> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.batchUpdate(
+                "UPDATE accounts SET balance = balance + ?, version = version + 1, updated_at = ? WHERE id = ?",
+                items.stream().map(item -> new Object[]{item.amount(), now, item.toAccountId()}).toList());
+    }
+
+    /**
+     * Debit the sender for a chunk and release its reservation (credited and failed items)
+     */
+    public void debitSender(long accountId, BigDecimal debited, BigDecimal released) {
+        jdbcTemplate.update(
+                "UPDATE accounts SET balance = balance - ?, held_amount = held_amount - ?, version = version + 1, " +
+                        "updated_at = ? WHERE id = ?",
+                debited, released, Timestamp.valueOf(LocalDateTime.now()), accountId);
+    }
+
+    /**
+     * Insert the COMPLETED transactions of credited items, returns their ids in item order
+     */
+    public long[] insertTransactions(long payoutId, long fromAccountId, String currency, String description,
+                                     List<PendingItem> items, BigDecimal[] fromBalancesAfter,
+                                     BigDecimal[] toBalancesAfter, LocalDateTime createdAt) {
+        long[] ids = allocateIds("transactions_seq", items.size());
+        Timestamp now = Timestamp.valueOf(createdAt);
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            PendingItem item = items.get(i);
+            rows.add(new Object[]{ids[i], fromAccountId, item.toAccountId(), item.amount(), currency,
+                    item.amount(), currency, fromBalancesAfter[i], toBalancesAfter[i],
+                    Payout.TRANSACTION_KEY_PREFIX + payoutId + "-" + item.id(), description, now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (id, from_account_id, to_account_id, amount, currency, credited_amount, " +
+                        "credited_currency, from_balance_after, to_balance_after, status, idempotency_key, description, " +
+                        "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'COMPLETED', ?, ?, ?)",
+                rows);
+        return ids;
+    }
+
+    public void markCredited(List<PendingItem> items, long[] transactionIds) {
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            rows.add(new Object[]{transactionIds[i], items.get(i).id()});
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE payout_items SET status = 'CREDITED', transaction_id = ? WHERE id = ?", rows);
+    }
+
+    public void markFailed(List<PendingItem> items) {
+        jdbcTemplate.batchUpdate("UPDATE payout_items SET status = 'FAILED' WHERE id = ?",
+                items.stream().map(item -> new Object[]{item.id()}).toList());
+    }
+
+    public void addProgress(long payoutId, int credited, int failed, BigDecimal failedAmount) {
+        jdbcTemplate.update(
+                "UPDATE payouts SET credited_count = credited_count + ?, failed_count = failed_count + ?, " +
+                        "failed_amount = failed_amount + ? WHERE id = ?",
+                credited, failed, failedAmount, payoutId);
+    }
+}
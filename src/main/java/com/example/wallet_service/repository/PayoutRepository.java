@@ -0,0 +1,53 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.entity.Payout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayoutRepository extends JpaRepository<Payout, Long> {
+    Optional<Payout> findByIdempotencyKey(String idempotencyKey);
+
+    @Query("SELECT p FROM Payout p WHERE p.id = :id AND p.account.user.id = :userId")
+    Optional<Payout> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payout p WHERE p.id = :id")
+    Optional<Payout> findByIdWithLock(@Param("id") Long id);
+
+    // Unfinished payouts no node is working on; expired leases (node died mid-payout) are resumed
+    @Query(value = "SELECT * FROM payouts " +
+            "WHERE status IN ('PENDING', 'PROCESSING') " +
+            "AND (lease_until IS NULL OR lease_until < :now) " +
+            "ORDER BY id " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Payout> findClaimableForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Payout p SET p.leaseOwner = :owner, p.leaseUntil = :leaseUntil WHERE p.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE Payout p SET p.leaseOwner = null, p.leaseUntil = :retryAt, p.lastError = :error " +
+            "WHERE p.id = :id AND p.leaseOwner = :owner")
+    int release(@Param("id") Long id,
+                @Param("owner") String owner,
+                @Param("retryAt") LocalDateTime retryAt,
+                @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE Payout p SET p.leaseOwner = null, p.leaseUntil = null WHERE p.leaseOwner = :owner")
+    int releaseLeases(@Param("owner") String owner);
+}
@@ -0,0 +1,97 @@
+package com.example.wallet_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Upserts and rebuilds for the daily rollup tables
+ *
+ * Increments are applied with INSERT ... ON CONFLICT DO UPDATE, so concurrent flushes from several
+ * nodes add up without reading the row first. Callers sort the rows by key to keep lock order stable.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RollupJdbcRepository {
+
+    // Money moved on every completed transfer, fully refunded ones (CANCELLED) included
+    private static final String DAY_TRANSACTIONS =
+            "FROM transactions WHERE status IN ('COMPLETED', 'CANCELLED') AND created_at >= ? AND created_at < ? ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Increment(long accountId, LocalDate day, Long counterpartyAccountId,
+                            long sentCount, BigDecimal sentAmount, long receivedCount, BigDecimal receivedAmount) {
+    }
+
+    public void addDailyStats(List<Increment> increments) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO account_daily_stats (account_id, stat_date, sent_count, sent_amount, " +
+                        "received_count, received_amount, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (account_id, stat_date) DO UPDATE SET " +
+                        "sent_count = account_daily_stats.sent_count + EXCLUDED.sent_count, " +
+                        "sent_amount = account_daily_stats.sent_amount + EXCLUDED.sent_amount, " +
+                        "received_count = account_daily_stats.received_count + EXCLUDED.received_count, " +
+                        "received_amount = account_daily_stats.received_amount + EXCLUDED.received_amount, " +
+                        "updated_at = EXCLUDED.updated_at",
+                increments.stream().map(i -> new Object[]{i.accountId(), Date.valueOf(i.day()),
+                        i.sentCount(), i.sentAmount(), i.receivedCount(), i.receivedAmount(), now}).toList());
+    }
+
+    public void addDailyCounterparties(List<Increment> increments) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO account_daily_counterparties (account_id, stat_date, counterparty_account_id, " +
+                        "sent_count, sent_amount, received_count, received_amount) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (account_id, stat_date, counterparty_account_id) DO UPDATE SET " +
+                        "sent_count = account_daily_counterparties.sent_count + EXCLUDED.sent_count, " +
+                        "sent_amount = account_daily_counterparties.sent_amount + EXCLUDED.sent_amount, " +
+                        "received_count = account_daily_counterparties.received_count + EXCLUDED.received_count, " +
+                        "received_amount = account_daily_counterparties.received_amount + EXCLUDED.received_amount",
+                increments.stream().map(i -> new Object[]{i.accountId(), Date.valueOf(i.day()),
+                        i.counterpartyAccountId(), i.sentCount(), i.sentAmount(),
+                        i.receivedCount(), i.receivedAmount()}).toList());
+    }
+
+    /**
+     * Recompute one day of both rollup tables from transactions, returns the number of stats rows
+     */
+    public int rebuildDay(LocalDate day) {
+        Date date = Date.valueOf(day);
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        jdbcTemplate.update("DELETE FROM account_daily_counterparties WHERE stat_date = ?", date);
+        jdbcTemplate.update("DELETE FROM account_daily_stats WHERE stat_date = ?", date);
+
+        jdbcTemplate.update(
+                "INSERT INTO account_daily_counterparties (account_id, stat_date, counterparty_account_id, " +
+                        "sent_count, sent_amount, received_count, received_amount) " +
+                        "SELECT account_id, ?, counterparty_account_id, SUM(sent_count), SUM(sent_amount), " +
+                        "SUM(received_count), SUM(received_amount) FROM (" +
+                        "SELECT from_account_id AS account_id, to_account_id AS counterparty_account_id, " +
+                        "COUNT(*) AS sent_count, SUM(amount) AS sent_amount, 0 AS received_count, 0 AS received_amount " +
+                        DAY_TRANSACTIONS + "GROUP BY from_account_id, to_account_id " +
+                        "UNION ALL " +
+                        "SELECT to_account_id, from_account_id, 0, 0, COUNT(*), SUM(COALESCE(credited_amount, amount)) " +
+                        DAY_TRANSACTIONS + "GROUP BY to_account_id, from_account_id" +
+                        ") t GROUP BY account_id, counterparty_account_id",
+                date, start, end, start, end);
+
+        // Derived from the counterparty rows just written instead of grouping transactions again
+        return jdbcTemplate.update(
+                "INSERT INTO account_daily_stats (account_id, stat_date, sent_count, sent_amount, " +
+                        "received_count, received_amount, updated_at) " +
+                        "SELECT account_id, stat_date, SUM(sent_count), SUM(sent_amount), SUM(received_count), " +
+                        "SUM(received_amount), ? FROM account_daily_counterparties WHERE stat_date = ? " +
+                        "GROUP BY account_id, stat_date",
+                Timestamp.valueOf(LocalDateTime.now()), date);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.entity.ScheduledTransfer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+    Page<ScheduledTransfer> findByUserId(Long userId, Pageable pageable);
+
+    Optional<ScheduledTransfer> findByIdAndUserId(Long id, Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScheduledTransfer s WHERE s.id = :id")
+    Optional<ScheduledTransfer> findByIdWithLock(@Param("id") Long id);
+
+    // Executions due before the horizon that no node holds; SKIP LOCKED spreads them across dispatcher nodes.
+    // Expired leases (node died before running them) are picked up again.
+    @Query(value = "SELECT * FROM scheduled_transfers " +
+            "WHERE status = 'ACTIVE' AND next_run_at <= :horizon " +
+            "AND (lease_until IS NULL OR lease_until < :now) " +
+            "ORDER BY next_run_at " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ScheduledTransfer> findDueForUpdate(@Param("horizon") LocalDateTime horizon,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.leaseOwner = :owner, s.leaseUntil = :leaseUntil WHERE s.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.leaseOwner = null, s.leaseUntil = null WHERE s.leaseOwner = :owner")
+    int releaseLeases(@Param("owner") String owner);
+}
@@ -1,23 +1,44 @@
 package com.example.wallet_service.repository;
 
 import com.example.wallet_service.entity.Transaction;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
 
-    // Get transactions for an account (both sent and received)
-    @Query("SELECT t FROM Transaction t WHERE " +
-           "(t.fromAccount.id = :accountId OR t.toAccount.id = :accountId) " +
-           "ORDER BY t.createdAt DESC")
+    // Refunds lock the original transfer, its refunded amount is the eligibility check
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdWithLock(@Param("id") Long id);
+
+    // Refunds of a transfer, with both parties fetched for the history rows
+    @Query("SELECT t FROM Transaction t " +
+           "JOIN FETCH t.fromAccount fa JOIN FETCH fa.user " +
+           "JOIN FETCH t.toAccount ta JOIN FETCH ta.user " +
+           "WHERE t.refundOfTransactionId = :refundOfTransactionId ORDER BY t.id ASC")
+    List<Transaction> findByRefundOfTransactionIdOrderByIdAsc(@Param("refundOfTransactionId") Long refundOfTransactionId);
+
+    // Get transactions for an account (both sent and received), with both parties fetched for the history rows
+    @Query(value = "SELECT t FROM Transaction t " +
+           "JOIN FETCH t.fromAccount fa JOIN FETCH fa.user " +
+           "JOIN FETCH t.toAccount ta JOIN FETCH ta.user " +
+           "WHERE (fa.id = :accountId OR ta.id = :accountId) " +
+           "ORDER BY t.createdAt DESC",
+           countQuery = "SELECT COUNT(t) FROM Transaction t WHERE " +
+           "(t.fromAccount.id = :accountId OR t.toAccount.id = :accountId)")
     Page<Transaction> findByAccountId(@Param("accountId") Long accountId, Pageable pageable);
 
     // Get sent transactions
@@ -27,5 +48,28 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     // Get received transactions
     @Query("SELECT t FROM Transaction t WHERE t.toAccount.id = :accountId ORDER BY t.createdAt DESC")
     Page<Transaction> findReceivedTransactionsByAccountId(@Param("accountId") Long accountId, Pageable pageable);
-}
 
+    interface SentTransfer {
+        Long getToAccountId();
+
+        BigDecimal getAmount();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    // Latest transfers sent by an account, newest first (fraud features): no refunds, hold captures or payout items
+    @Query("SELECT t.toAccount.id AS toAccountId, t.amount AS amount, t.createdAt AS createdAt FROM Transaction t " +
+           "WHERE t.fromAccount.id = :accountId AND t.status IN :statuses AND t.refundOfTransactionId IS NULL " +
+           "AND t.idempotencyKey NOT LIKE :excludedKeys " +
+           "AND NOT EXISTS (SELECT 1 FROM Hold h WHERE h.transactionId = t.id) " +
+           "ORDER BY t.createdAt DESC")
+    List<SentTransfer> findSentTransfers(@Param("accountId") Long accountId,
+                                         @Param("statuses") List<Transaction.TransactionStatus> statuses,
+                                         @Param("excludedKeys") String excludedKeys,
+                                         Pageable pageable);
+
+    // Distinct senders to an account since a point in time (fraud scoring: money mule fan-in)
+    @Query("SELECT COUNT(DISTINCT t.fromAccount.id) FROM Transaction t " +
+           "WHERE t.toAccount.id = :accountId AND t.createdAt >= :since")
+    long countDistinctSendersSince(@Param("accountId") Long accountId, @Param("since") LocalDateTime since);
+}
@@ -1,13 +1,15 @@
 package com.example.wallet_service.repository;
 
 import com.example.wallet_service.entity.User;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,14 +18,38 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByResetPasswordToken(String token);
 
-    // Search users with pagination
+    // Pages without a total: a search-as-you-type request must not count every match
+    Slice<User> findAllBy(Pageable pageable);
+
+    // Search in the caller's sort order, served by the same trigram / prefix indexes as the ranked search
     @Query("SELECT u FROM User u WHERE " +
-            "(:keyword IS NULL OR :keyword = '' OR " +
-            "LOWER(u.username) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(u.fullName) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<User> searchUsers(@Param("keyword") String keyword, Pageable pageable);
+            "LOWER(u.username) LIKE :pattern OR LOWER(u.email) LIKE :pattern OR LOWER(u.fullName) LIKE :pattern")
+    Slice<User> searchUsers(@Param("pattern") String pattern, Pageable pageable);
+
+    // Ranked search served by the trigram / prefix indexes from UserSearchIndexInitializer
+    // Exact matches first, then prefix matches, then by trigram similarity
+    @Query(value = "SELECT u.* FROM users u WHERE " +
+            "lower(u.username) LIKE :pattern OR lower(u.email) LIKE :pattern OR lower(u.full_name) LIKE :pattern " +
+            "ORDER BY " +
+            "CASE WHEN lower(u.username) = :keyword OR lower(u.email) = :keyword THEN 0 " +
+            "WHEN lower(u.username) LIKE :prefix OR lower(u.email) LIKE :prefix OR lower(u.full_name) LIKE :prefix THEN 1 " +
+            "ELSE 2 END, " +
+            "GREATEST(similarity(lower(u.username), :keyword), similarity(lower(u.email), :keyword), " +
+            "similarity(lower(coalesce(u.full_name, '')), :keyword)) DESC, " +
+            "u.id",
+            nativeQuery = true)
+    Slice<User> searchUsersRanked(@Param("keyword") String keyword,
+                                 @Param("pattern") String pattern,
+                                 @Param("prefix") String prefix,
+                                 Pageable pageable);
 
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Set-based existence checks for bulk import
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,27 @@
+package com.example.wallet_service.scheduling;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One claimed execution of a scheduled transfer, as held in the timing wheel
+ */
+public record ScheduledExecution(
+        Long scheduleId,
+        int occurrence,
+        Long fromUserId,
+        Long toAccountId,
+        BigDecimal amount,
+        String description,
+        LocalDateTime dueAt
+) {
+    public static final String IDEMPOTENCY_KEY_PREFIX = "sched-";
+
+    /**
+     * Same key for every attempt of the same occurrence, so a retry after a crash or a lease
+     * takeover replays the first transfer instead of paying twice
+     */
+    public String idempotencyKey() {
+        return IDEMPOTENCY_KEY_PREFIX + scheduleId + "-" + occurrence;
+    }
+}
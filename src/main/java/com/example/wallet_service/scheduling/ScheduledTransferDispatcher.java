@@ -0,0 +1,217 @@
+package com.example.wallet_service.scheduling;
+
+import com.example.wallet_service.dto.request.TransferRequest;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import com.example.wallet_service.service.PaymentService;
+import com.example.wallet_service.service.ScheduledTransferService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs scheduled transfers
+ *
+ * Key features:
+ * 1. Loads only executions due within the next horizon, claimed with SKIP LOCKED and a lease,
+ *    so due work is spread across nodes and a dead node's executions are picked up after its lease
+ * 2. Claimed executions wait in a hierarchical timing wheel and fire at their due time plus a
+ *    per-schedule jitter, so "rent on the 1st at 00:00" does not hit the database all at once
+ * 3. Each execution goes through PaymentService.transfer with a deterministic idempotency key,
+ *    so retries and lease takeovers can never pay twice
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.scheduled-transfers", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ScheduledTransferDispatcher {
+
+    private final ScheduledTransferService scheduledTransferService;
+    private final PaymentService paymentService;
+
+    @Value("${app.scheduled-transfers.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${app.scheduled-transfers.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${app.scheduled-transfers.horizon-seconds:60}")
+    private long horizonSeconds;
+
+    @Value("${app.scheduled-transfers.jitter-ms:30000}")
+    private long jitterMs;
+
+    @Value("${app.scheduled-transfers.lease-grace-seconds:120}")
+    private long leaseGraceSeconds;
+
+    @Value("${app.scheduled-transfers.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+
+    @Value("${app.scheduled-transfers.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.scheduled-transfers.max-pending:50000}")
+    private int maxPending;
+
+    @Value("${app.scheduled-transfers.workers:4}")
+    private int workers;
+
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName()
+            + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    // Claimed by the loader, moved into the wheel by the ticker thread (the wheel is single-threaded)
+    private final Queue<ScheduledExecution> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private TimingWheel<ScheduledExecution> wheel;
+    private ScheduledExecutorService ticker;
+    private ExecutorService transferExecutor;
+
+    @PostConstruct
+    public void start() {
+        wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "scheduled-transfer-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        transferExecutor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "scheduled-transfer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Scheduled transfer dispatcher started as {}", nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        transferExecutor.shutdown();
+        try {
+            transferExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Hand unexecuted work back right away instead of waiting for the leases to expire
+        int released = scheduledTransferService.releaseLeases(nodeId);
+        log.info("Scheduled transfer dispatcher stopped, released {} executions", released);
+    }
+
+    /**
+     * Claim the executions due within the horizon
+     */
+    @Scheduled(fixedDelayString = "${app.scheduled-transfers.load-interval-ms:10000}")
+    public void load() {
+        List<ScheduledExecution> batch;
+        do {
+            int room = Math.min(batchSize, maxPending - pending.get());
+            if (room <= 0) {
+                log.warn("Scheduled transfer backlog at {} executions, not claiming more", pending.get());
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime horizon = now.plusSeconds(horizonSeconds);
+            LocalDateTime leaseUntil = horizon.plusNanos(jitterMs * 1_000_000).plusSeconds(leaseGraceSeconds);
+            batch = scheduledTransferService.claimDue(nodeId, horizon, leaseUntil, room);
+            pending.addAndGet(batch.size());
+            inbox.addAll(batch);
+        } while (batch.size() == batchSize);
+    }
+
+    private void tick() {
+        try {
+            ScheduledExecution execution;
+            while ((execution = inbox.poll()) != null) {
+                if (!wheel.add(deadlineOf(execution), execution)) {
+                    submit(execution);
+                }
+            }
+            wheel.advance(System.currentTimeMillis(), this::submit);
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic tick
+            log.error("Scheduled transfer tick failed", e);
+        }
+    }
+
+    private void submit(ScheduledExecution execution) {
+        transferExecutor.execute(() -> {
+            try {
+                execute(execution);
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    private void execute(ScheduledExecution execution) {
+        try {
+            if (!scheduledTransferService.isExecutable(execution)) {
+                return;
+            }
+
+            String error = null;
+            try {
+                paymentService.transfer(execution.fromUserId(), new TransferRequest(
+                        execution.toAccountId(),
+                        execution.amount(),
+                        execution.idempotencyKey(),
+                        execution.description()));
+            } catch (BadRequestException | ResourceNotFoundException e) {
+                // Business failure (e.g. insufficient balance): this occurrence is skipped.
+                // Transient database errors are not wrapped by PaymentService, they reach the retry below
+                error = e.getMessage();
+                log.warn("Scheduled transfer {} occurrence {} failed: {}",
+                        execution.scheduleId(), execution.occurrence(), error);
+            }
+            scheduledTransferService.complete(execution, error);
+        } catch (RuntimeException e) {
+            // Lock timeout, serialization failure, database unavailable...: give it back, any node retries it later
+            log.warn("Scheduled transfer {} occurrence {} will be retried: {}",
+                    execution.scheduleId(), execution.occurrence(), e.getMessage());
+            try {
+                scheduledTransferService.release(
+                        execution, nodeId, LocalDateTime.now().plusSeconds(retryDelaySeconds));
+            } catch (RuntimeException releaseError) {
+                log.error("Could not release scheduled transfer {}, lease will expire",
+                        execution.scheduleId(), releaseError);
+            }
+        }
+    }
+
+    /**
+     * Due time plus a jitter that is stable per schedule, to spread executions sharing a due time
+     */
+    private long deadlineOf(ScheduledExecution execution) {
+        long dueMs = execution.dueAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (jitterMs <= 0) {
+            return dueMs;
+        }
+        long hash = execution.scheduleId() * 0x9E3779B97F4A7C15L;
+        return dueMs + Math.floorMod(hash ^ (hash >>> 32), jitterMs);
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.wallet_service.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese & Lauck, as used by Kafka's purgatory)
+ *
+ * Each level is a ring of wheelSize buckets, tickMs wide. Deadlines beyond a level's span go to an
+ * overflow level whose tick is the whole span of the level below, and cascade down as time advances.
+ * Insert is O(1), advancing is O(1) per tick plus the expired entries, so millions of pending
+ * executions cost no more per tick than a handful. Deadlines are honoured at tick resolution.
+ *
+ * Not thread-safe, meant to be driven by a single ticker thread.
+ */
+public class TimingWheel<T> {
+
+    private record Entry<T>(long deadlineMs, T task) {
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long intervalMs;
+    private final List<List<Entry<T>>> buckets;
+    private long currentTime; // Start of the current tick, multiple of tickMs
+    private int count;
+    private TimingWheel<T> overflow;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be > 0 and wheelSize >= 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.intervalMs = tickMs * wheelSize;
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedule task at deadlineMs, returns false if it is already due (caller should run it now)
+     */
+    public boolean add(long deadlineMs, T task) {
+        return add(new Entry<>(deadlineMs, task));
+    }
+
+    private boolean add(Entry<T> entry) {
+        long deadline = entry.deadlineMs();
+        if (deadline < currentTime + tickMs) {
+            return false;
+        }
+        if (deadline < currentTime + intervalMs) {
+            buckets.get((int) Math.floorMod(deadline / tickMs, (long) wheelSize)).add(entry);
+            count++;
+        } else {
+            if (overflow == null) {
+                overflow = new TimingWheel<>(intervalMs, wheelSize, currentTime);
+            }
+            overflow.add(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Move the clock to nowMs and hand every task that became due to expired
+     */
+    public void advance(long nowMs, Consumer<T> expired) {
+        while (nowMs >= currentTime + tickMs) {
+            currentTime += tickMs;
+            // Let the coarser level hand down the entries that now fit this level
+            if (overflow != null) {
+                overflow.advanceTo(currentTime, entry -> {
+                    if (!add(entry)) {
+                        expired.accept(entry.task());
+                    }
+                });
+            }
+            flush(bucketAt(currentTime), expired);
+        }
+    }
+
+    private void advanceTo(long nowMs, Consumer<Entry<T>> reinsert) {
+        while (nowMs >= currentTime + tickMs) {
+            currentTime += tickMs;
+            if (overflow != null) {
+                overflow.advanceTo(currentTime, entry -> {
+                    if (!add(entry)) {
+                        reinsert.accept(entry);
+                    }
+                });
+            }
+            List<Entry<T>> bucket = bucketAt(currentTime);
+            if (!bucket.isEmpty()) {
+                List<Entry<T>> entries = new ArrayList<>(bucket);
+                bucket.clear();
+                count -= entries.size();
+                entries.forEach(reinsert);
+            }
+        }
+    }
+
+    private void flush(List<Entry<T>> bucket, Consumer<T> expired) {
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> entries = new ArrayList<>(bucket);
+        bucket.clear();
+        count -= entries.size();
+        for (Entry<T> entry : entries) {
+            expired.accept(entry.task());
+        }
+    }
+
+    private List<Entry<T>> bucketAt(long time) {
+        return buckets.get((int) Math.floorMod(time / tickMs, (long) wheelSize));
+    }
+
+    public int size() {
+        return count + (overflow != null ? overflow.size() : 0);
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+}
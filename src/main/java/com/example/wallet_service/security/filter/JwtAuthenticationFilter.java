@@ -1,5 +1,6 @@
 package com.example.wallet_service.security.filter;
 
+import com.example.wallet_service.metrics.WalletMetrics;
 import com.example.wallet_service.service.CustomUserDetailsService;
 import com.example.wallet_service.util.JwtTokenUtil;
 import jakarta.servlet.FilterChain;
@@ -23,6 +24,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final WalletMetrics metrics;
 
     @Override
     protected void doFilterInternal(
@@ -43,6 +45,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Skip filter for public endpoints
         if (path.startsWith("/api/auth") || 
             path.startsWith("/api/health") ||
+            path.startsWith("/actuator/health") ||
             path.startsWith("/v3/api-docs") || 
             path.startsWith("/swagger-ui") || 
             path.startsWith("/swagger-resources") ||
@@ -58,6 +61,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        long start = System.nanoTime();
         try {
             final String jwt = authHeader.substring(7);
             final String username = jwtTokenUtil.getUsernameFromToken(jwt);
@@ -78,6 +82,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
         }
+        metrics.recordJwtValidation(start);
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,112 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.dto.response.ActivitySummaryResponse;
+import com.example.wallet_service.dto.response.CounterpartyResponse;
+import com.example.wallet_service.dto.response.DailyActivityResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.AccountDailyStats;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import com.example.wallet_service.repository.AccountDailyStatsRepository;
+import com.example.wallet_service.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Dashboard queries answered from the daily rollups, never from transactions
+ * Cost grows with the number of days in the range, not with the account's transaction count.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    private final AccountRepository accountRepository;
+    private final AccountDailyStatsRepository accountDailyStatsRepository;
+
+    @Value("${app.analytics.max-range-days:366}")
+    private int maxRangeDays;
+
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public ActivitySummaryResponse getSummary(Long userId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        Account account = accountRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + userId));
+
+        List<DailyActivityResponse> days = accountDailyStatsRepository
+                .findByAccountIdAndDayBetweenOrderByDayAsc(account.getId(), from, to).stream()
+                .map(this::toDailyResponse)
+                .toList();
+
+        long sentCount = 0;
+        long receivedCount = 0;
+        BigDecimal sentAmount = BigDecimal.ZERO;
+        BigDecimal receivedAmount = BigDecimal.ZERO;
+        for (DailyActivityResponse day : days) {
+            sentCount += day.getSentCount();
+            sentAmount = sentAmount.add(day.getSentAmount());
+            receivedCount += day.getReceivedCount();
+            receivedAmount = receivedAmount.add(day.getReceivedAmount());
+        }
+
+        return ActivitySummaryResponse.builder()
+                .accountId(account.getId())
+                .currency(account.getCurrency())
+                .from(from)
+                .to(to)
+                .sentCount(sentCount)
+                .sentAmount(sentAmount)
+                .receivedCount(receivedCount)
+                .receivedAmount(receivedAmount)
+                .netAmount(receivedAmount.subtract(sentAmount))
+                .days(days)
+                .build();
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public List<CounterpartyResponse> getTopCounterparties(Long userId, LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("Limit must be between 1 and 100");
+        }
+        Long accountId = accountRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + userId))
+                .getId();
+
+        return accountDailyStatsRepository.findTopCounterparties(accountId, from, to, limit).stream()
+                .map(totals -> CounterpartyResponse.builder()
+                        .accountId(totals.getCounterpartyAccountId())
+                        .sentCount(totals.getSentCount())
+                        .sentAmount(totals.getSentAmount())
+                        .receivedCount(totals.getReceivedCount())
+                        .receivedAmount(totals.getReceivedAmount())
+                        .build())
+                .toList();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new BadRequestException("Range must be at most " + maxRangeDays + " days");
+        }
+    }
+
+    private DailyActivityResponse toDailyResponse(AccountDailyStats stats) {
+        return DailyActivityResponse.builder()
+                .day(stats.getDay())
+                .sentCount(stats.getSentCount())
+                .sentAmount(stats.getSentAmount())
+                .receivedCount(stats.getReceivedCount())
+                .receivedAmount(stats.getReceivedAmount())
+                .build();
+    }
+}
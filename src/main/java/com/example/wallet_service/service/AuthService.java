@@ -119,7 +119,7 @@ public class AuthService {
 
         userRepository.save(user);
 
-        // send email reset password
+        // queue email reset password, delivered by EmailDispatcher after commit
         emailService.sendPasswordResetEmail(user.getEmail(), resetToken);
     }
 
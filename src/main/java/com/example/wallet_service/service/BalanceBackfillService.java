@@ -0,0 +1,102 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.batch.BalanceAfterBackfillJobConfig;
+import com.example.wallet_service.batch.BalanceAfterBackfillTasklet;
+import com.example.wallet_service.dto.response.BalanceBackfillResponse;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceBackfillService {
+
+    private final Job balanceAfterBackfillJob;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+
+    private TaskExecutorJobLauncher asyncJobLauncher;
+
+    @PostConstruct
+    public void init() throws Exception {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("balance-backfill-");
+        taskExecutor.setConcurrencyLimit(1);
+
+        asyncJobLauncher = new TaskExecutorJobLauncher();
+        asyncJobLauncher.setJobRepository(jobRepository);
+        asyncJobLauncher.setTaskExecutor(taskExecutor);
+        asyncJobLauncher.afterPropertiesSet();
+    }
+
+    /**
+     * Start the backfill asynchronously, resuming the last run if it failed or was stopped
+     */
+    public BalanceBackfillResponse startBackfill() {
+        String jobName = BalanceAfterBackfillJobConfig.JOB_NAME;
+        if (!jobExplorer.findRunningJobExecutions(jobName).isEmpty()) {
+            throw new BadRequestException("Balance backfill is already running");
+        }
+
+        JobParameters parameters = new JobParametersBuilder()
+                .addLong("run.id", System.currentTimeMillis())
+                .toJobParameters();
+        JobInstance lastInstance = jobExplorer.getLastJobInstance(jobName);
+        if (lastInstance != null) {
+            JobExecution lastExecution = jobExplorer.getLastJobExecution(lastInstance);
+            if (lastExecution != null && (lastExecution.getStatus() == BatchStatus.FAILED
+                    || lastExecution.getStatus() == BatchStatus.STOPPED)) {
+                parameters = lastExecution.getJobParameters();
+            }
+        }
+
+        try {
+            JobExecution execution = asyncJobLauncher.run(balanceAfterBackfillJob, parameters);
+            log.info("Balance backfill {} started", execution.getId());
+            return toResponse(execution);
+        } catch (Exception e) {
+            throw new BadRequestException("Cannot start balance backfill: " + e.getMessage());
+        }
+    }
+
+    public BalanceBackfillResponse getBackfill(Long executionId) {
+        JobExecution execution = jobExplorer.getJobExecution(executionId);
+        if (execution == null
+                || !BalanceAfterBackfillJobConfig.JOB_NAME.equals(execution.getJobInstance().getJobName())) {
+            throw new ResourceNotFoundException("Balance backfill not found with id: " + executionId);
+        }
+        return toResponse(execution);
+    }
+
+    private BalanceBackfillResponse toResponse(JobExecution execution) {
+        long accounts = 0;
+        long rows = 0;
+        for (StepExecution step : execution.getStepExecutions()) {
+            accounts += step.getExecutionContext().getLong(BalanceAfterBackfillTasklet.ACCOUNTS_DONE_KEY, 0L);
+            rows += step.getExecutionContext().getLong(BalanceAfterBackfillTasklet.ROWS_UPDATED_KEY, 0L);
+        }
+
+        return BalanceBackfillResponse.builder()
+                .executionId(execution.getId())
+                .status(execution.getStatus().name())
+                .accountsDone(accounts)
+                .rowsUpdated(rows)
+                .startTime(execution.getStartTime())
+                .endTime(execution.getEndTime())
+                .build();
+    }
+}
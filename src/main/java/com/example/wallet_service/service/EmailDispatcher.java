@@ -0,0 +1,166 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.entity.EmailOutbox;
+import com.example.wallet_service.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the email outbox in the background
+ *
+ * Key features:
+ * 1. Claims due emails with SKIP LOCKED and a lease, so several nodes can dispatch concurrently
+ * 2. Sends each batch through a single send call - JavaMailSender reuses one SMTP connection per call
+ * 3. Failed emails are retried with exponential backoff, then marked FAILED
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.email.dispatch.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.dispatch.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.dispatch.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.email.dispatch.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${app.email.dispatch.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.email.from:}")
+    private String from;
+
+    @Scheduled(fixedDelayString = "${app.email.dispatch.interval-ms:2000}")
+    public void dispatch() {
+        List<EmailOutbox> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Claim a batch of due emails and lease them to this dispatcher
+     */
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(now, batchSize);
+            if (!due.isEmpty()) {
+                emailOutboxRepository.markSending(
+                        due.stream().map(EmailOutbox::getId).toList(),
+                        now.plusSeconds(leaseSeconds));
+            }
+            return due;
+        });
+    }
+
+    private void sendBatch(List<EmailOutbox> batch) {
+        Map<SimpleMailMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            messages.put(toMessage(email), email);
+        }
+
+        Map<Object, Exception> failedMessages = Map.of();
+        MailException batchFailure = null;
+        try {
+            mailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Per-message failures, the rest of the batch went through
+            failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            // Connection or authentication failure, nothing was sent
+            batchFailure = e;
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        List<EmailOutbox> failed = new ArrayList<>();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception error = batchFailure != null ? batchFailure : failedMessages.get(entry.getKey());
+            if (error == null) {
+                sentIds.add(entry.getValue().getId());
+            } else {
+                entry.getValue().setLastError(truncate(error.getMessage()));
+                failed.add(entry.getValue());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                emailOutboxRepository.markSent(sentIds, LocalDateTime.now());
+            }
+            failed.forEach(this::scheduleRetry);
+            emailOutboxRepository.saveAll(failed);
+        });
+
+        log.info("Email batch dispatched: {} sent, {} failed", sentIds.size(), failed.size());
+    }
+
+    /**
+     * Schedule next attempt with exponential backoff, give up after max attempts
+     */
+    private void scheduleRetry(EmailOutbox email) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.EmailStatus.FAILED);
+            log.error("Giving up on email {} to {} after {} attempts: {}",
+                    email.getId(), email.getRecipient(), attempts, email.getLastError());
+            return;
+        }
+
+        long backoff = Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+        email.setStatus(EmailOutbox.EmailStatus.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+        log.warn("Email {} to {} failed (attempt {}), retrying in {}s: {}",
+                email.getId(), email.getRecipient(), attempts, backoff, email.getLastError());
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        if (!from.isBlank()) {
+            message.setFrom(from);
+        }
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -1,36 +1,43 @@
 package com.example.wallet_service.service;
 
+import com.example.wallet_service.entity.EmailOutbox;
+import com.example.wallet_service.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
     @Value("${app.reset-password.frontend-url:http://localhost:5173/reset-password}")
     private String resetPasswordFrontendUrl;
 
+    /**
+     * Queue password reset email in the outbox
+     * Joins the caller's transaction, so the email is only sent if the reset token is committed.
+     * Actual delivery is done by EmailDispatcher in the background.
+     */
+    @Transactional
     public void sendPasswordResetEmail(String email, String token) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(email);
-            message.setSubject("Reset Password - Wallet Service");
-            message.setText("To reset your password, please click on the following link:\n" +
-                    resetPasswordFrontendUrl + "?token=" + token + "\n\n" +
-                    "This link will expire in 1 hour.");
+        EmailOutbox outbox = EmailOutbox.builder()
+                .recipient(email)
+                .subject("Reset Password - Wallet Service")
+                .body("To reset your password, please click on the following link:\n" +
+                        resetPasswordFrontendUrl + "?token=" + token + "\n\n" +
+                        "This link will expire in 1 hour.")
+                .status(EmailOutbox.EmailStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
 
-            mailSender.send(message);
-            log.info("Password reset email sent to: {}", email);
-        } catch (Exception e) {
-            log.error("Error sending email to {}: {}", email, e.getMessage());
-            // In production, you can throw exception or queue for retry
-        }
+        emailOutboxRepository.save(outbox);
+        log.info("Password reset email queued for: {}", email);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.batch.BalanceReplayJobConfig;
+import com.example.wallet_service.batch.BalanceReplayTasklet;
+import com.example.wallet_service.batch.EventLogExportJobConfig;
+import com.example.wallet_service.batch.EventLogExportTasklet;
+import com.example.wallet_service.dto.response.BalanceReplayResponse;
+import com.example.wallet_service.dto.response.EventLogExportResponse;
+import com.example.wallet_service.eventlog.BalanceReplayer;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventLogService {
+
+    // Transfers created just before the cutoff may still be committing
+    private static final long EXPORT_SETTLE_MILLIS = 60_000;
+
+    private final Job eventLogExportJob;
+    private final Job balanceReplayJob;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    private final BalanceReplayer balanceReplayer;
+
+    private TaskExecutorJobLauncher asyncJobLauncher;
+
+    @PostConstruct
+    public void init() throws Exception {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("event-log-job-");
+        taskExecutor.setConcurrencyLimit(1);
+
+        asyncJobLauncher = new TaskExecutorJobLauncher();
+        asyncJobLauncher.setJobRepository(jobRepository);
+        asyncJobLauncher.setTaskExecutor(taskExecutor);
+        asyncJobLauncher.afterPropertiesSet();
+    }
+
+    /**
+     * Start exporting the transfers created before the node logs started, resuming a previous export
+     */
+    public EventLogExportResponse startExport() {
+        if (!jobExplorer.findRunningJobExecutions(EventLogExportJobConfig.JOB_NAME).isEmpty()) {
+            throw new BadRequestException("Event log export is already running");
+        }
+
+        Long cutoff;
+        try {
+            cutoff = balanceReplayer.exportCutoffMillis();
+            if (cutoff == null) {
+                cutoff = balanceReplayer.liveLogsStartMillis();
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Cannot read the event log: " + e.getMessage());
+        }
+        if (cutoff == null) {
+            throw new BadRequestException("No node has written an event log yet");
+        }
+        if (System.currentTimeMillis() < cutoff + EXPORT_SETTLE_MILLIS) {
+            throw new BadRequestException("Event logs started less than a minute ago, retry later");
+        }
+
+        JobParameters parameters = new JobParametersBuilder()
+                .addLong(EventLogExportJobConfig.PARAM_CUTOFF, cutoff)
+                .toJobParameters();
+        JobExecution last = jobRepository.getLastJobExecution(EventLogExportJobConfig.JOB_NAME, parameters);
+        if (last != null && last.getStatus() == BatchStatus.COMPLETED) {
+            // Exported before: a new run only checks there is nothing left
+            parameters = new JobParametersBuilder(parameters)
+                    .addLong("run.id", System.currentTimeMillis())
+                    .toJobParameters();
+        }
+        try {
+            JobExecution execution = asyncJobLauncher.run(eventLogExportJob, parameters);
+            log.info("Event log export {} started with cutoff {}", execution.getId(), toDateTime(cutoff));
+            return toExportResponse(execution);
+        } catch (Exception e) {
+            throw new BadRequestException("Cannot start event log export: " + e.getMessage());
+        }
+    }
+
+    public EventLogExportResponse getExport(Long executionId) {
+        return toExportResponse(findExecution(executionId, EventLogExportJobConfig.JOB_NAME, "Event log export"));
+    }
+
+    /**
+     * Start rebuilding balances from the event log, from the last snapshot or from the beginning
+     */
+    public BalanceReplayResponse startReplay(boolean fromSnapshot) {
+        if (!jobExplorer.findRunningJobExecutions(BalanceReplayJobConfig.JOB_NAME).isEmpty()) {
+            throw new BadRequestException("Balance replay is already running");
+        }
+        if (!jobExplorer.findRunningJobExecutions(EventLogExportJobConfig.JOB_NAME).isEmpty()) {
+            throw new BadRequestException("Event log export is still running");
+        }
+        try {
+            if (balanceReplayer.exportCutoffMillis() == null) {
+                throw new BadRequestException("Export the transfers older than the event logs first");
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Cannot read the event log: " + e.getMessage());
+        }
+
+        JobParameters parameters = new JobParametersBuilder()
+                .addString(BalanceReplayJobConfig.PARAM_FROM_SNAPSHOT, String.valueOf(fromSnapshot))
+                .addLong("run.id", System.currentTimeMillis())
+                .toJobParameters();
+        try {
+            JobExecution execution = asyncJobLauncher.run(balanceReplayJob, parameters);
+            log.info("Balance replay {} started (from snapshot: {})", execution.getId(), fromSnapshot);
+            return toReplayResponse(execution);
+        } catch (Exception e) {
+            throw new BadRequestException("Cannot start balance replay: " + e.getMessage());
+        }
+    }
+
+    public BalanceReplayResponse getReplay(Long executionId) {
+        return toReplayResponse(findExecution(executionId, BalanceReplayJobConfig.JOB_NAME, "Balance replay"));
+    }
+
+    private JobExecution findExecution(Long executionId, String jobName, String label) {
+        JobExecution execution = jobExplorer.getJobExecution(executionId);
+        if (execution == null || !jobName.equals(execution.getJobInstance().getJobName())) {
+            throw new ResourceNotFoundException(label + " not found with id: " + executionId);
+        }
+        return execution;
+    }
+
+    private EventLogExportResponse toExportResponse(JobExecution execution) {
+        long exported = 0;
+        for (StepExecution step : execution.getStepExecutions()) {
+            exported += step.getExecutionContext().getLong(EventLogExportTasklet.EXPORTED_KEY, 0L);
+        }
+
+        return EventLogExportResponse.builder()
+                .executionId(execution.getId())
+                .status(execution.getStatus().name())
+                .cutoff(toDateTime(execution.getJobParameters().getLong(EventLogExportJobConfig.PARAM_CUTOFF)))
+                .exportedCount(exported)
+                .startTime(execution.getStartTime())
+                .endTime(execution.getEndTime())
+                .build();
+    }
+
+    private BalanceReplayResponse toReplayResponse(JobExecution execution) {
+        BalanceReplayResponse.BalanceReplayResponseBuilder response = BalanceReplayResponse.builder()
+                .executionId(execution.getId())
+                .status(execution.getStatus().name())
+                .fromSnapshot(Boolean.parseBoolean(
+                        execution.getJobParameters().getString(BalanceReplayJobConfig.PARAM_FROM_SNAPSHOT)))
+                .mismatchSample(List.of())
+                .startTime(execution.getStartTime())
+                .endTime(execution.getEndTime());
+
+        for (StepExecution step : execution.getStepExecutions()) {
+            ExecutionContext context = step.getExecutionContext();
+            if (!context.containsKey(BalanceReplayTasklet.EVENTS_KEY)) {
+                continue;
+            }
+            long events = context.getLong(BalanceReplayTasklet.EVENTS_KEY);
+            String sample = context.getString(BalanceReplayTasklet.SAMPLE_KEY, "");
+            response.fromSnapshot(Boolean.parseBoolean(context.getString(BalanceReplayTasklet.FROM_SNAPSHOT_KEY)))
+                    .eventsReplayed(events)
+                    .eventsPerSecond(perSecond(events, execution.getStartTime(), execution.getEndTime()))
+                    .accountsVerified(context.getLong(BalanceReplayTasklet.VERIFIED_KEY))
+                    .mismatchCount(context.getLong(BalanceReplayTasklet.MISMATCHES_KEY))
+                    .mismatchSample(sample.isEmpty() ? List.of() : Arrays.asList(sample.split("\n")));
+        }
+        return response.build();
+    }
+
+    private Long perSecond(long events, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return null;
+        }
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return events * 1000 / millis;
+    }
+
+    private LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
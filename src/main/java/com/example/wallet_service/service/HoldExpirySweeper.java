@@ -0,0 +1,64 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.entity.Hold;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.HoldRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Expires authorization holds past their expiry time
+ *
+ * Walks the (status, expires_at) index in batches with SKIP LOCKED, so holds being captured or
+ * released right now are left alone and several nodes can sweep concurrently.
+ * Held amounts are returned with one update per account, in account id order.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldExpirySweeper {
+
+    private final HoldRepository holdRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.holds.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.holds.sweep-interval-ms:30000}")
+    public void sweep() {
+        int total = 0;
+        int expired;
+        do {
+            expired = transactionTemplate.execute(status -> expireBatch());
+            total += expired;
+        } while (expired == batchSize);
+
+        if (total > 0) {
+            log.info("Expired {} holds", total);
+        }
+    }
+
+    private int expireBatch() {
+        List<Hold> expired = holdRepository.findExpiredForUpdate(LocalDateTime.now(), batchSize);
+
+        Map<Long, BigDecimal> releasedPerAccount = new TreeMap<>();
+        for (Hold hold : expired) {
+            releasedPerAccount.merge(hold.getAccount().getId(), hold.getAmount(), BigDecimal::add);
+            hold.setStatus(Hold.HoldStatus.EXPIRED);
+        }
+        releasedPerAccount.forEach(accountRepository::releaseHeld);
+        holdRepository.saveAll(expired);
+        return expired.size();
+    }
+}
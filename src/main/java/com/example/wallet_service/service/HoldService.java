@@ -0,0 +1,137 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.dto.request.PlaceHoldRequest;
+import com.example.wallet_service.dto.response.HoldResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Hold;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.HoldRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Authorization holds: reserve funds now, capture (PaymentService.captureHold) or release later
+ *
+ * Account.heldAmount is adjusted with every hold change under the account row lock, so the
+ * available balance is always balance - heldAmount without summing holds.
+ * Lock order is hold, then account - the same as capture and the expiry sweeper.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldService {
+
+    private final HoldRepository holdRepository;
+    private final AccountRepository accountRepository;
+
+    @Value("${app.holds.default-expiry-seconds:604800}")
+    private long defaultExpirySeconds;
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public HoldResponse placeHold(Long userId, PlaceHoldRequest request) {
+        Long accountId = accountRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + userId))
+                .getId();
+        // Lock first, so retries with the same key are serialized behind the original request
+        Account account = accountRepository.findByIdWithLock(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + userId));
+
+        Optional<Hold> existing = holdRepository.findByIdempotencyKey(request.getIdempotencyKey());
+        if (existing.isPresent()) {
+            if (!existing.get().getAccount().getId().equals(accountId)) {
+                throw new BadRequestException("Idempotency key already used");
+            }
+            return toResponse(existing.get());
+        }
+
+        Account toAccount = accountRepository.findById(request.getToAccountId())
+                .orElseThrow(() -> new ResourceNotFoundException("To account not found"));
+        if (account.getId().equals(toAccount.getId())) {
+            throw new BadRequestException("Cannot place a hold to the same account");
+        }
+        if (account.availableBalance().compareTo(request.getAmount()) < 0) {
+            throw new BadRequestException(String.format("Insufficient balance. Available balance: %s, Required: %s",
+                    account.availableBalance(), request.getAmount()));
+        }
+
+        long expiresIn = request.getExpiresInSeconds() != null ? request.getExpiresInSeconds() : defaultExpirySeconds;
+        account.setHeldAmount(account.getHeldAmount().add(request.getAmount()));
+        accountRepository.save(account);
+
+        Hold hold = holdRepository.save(Hold.builder()
+                .account(account)
+                .toAccount(toAccount)
+                .amount(request.getAmount())
+                .idempotencyKey(request.getIdempotencyKey())
+                .description(request.getDescription())
+                .expiresAt(LocalDateTime.now().plusSeconds(expiresIn))
+                .build());
+
+        log.info("Hold {} placed on account {} for {}", hold.getId(), accountId, hold.getAmount());
+        return toResponse(hold);
+    }
+
+    /**
+     * Release an active hold, by the payer or the recipient
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public HoldResponse releaseHold(Long userId, Long holdId) {
+        Hold hold = holdRepository.findByIdWithLock(holdId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold not found with id: " + holdId));
+        checkParticipant(hold, userId);
+
+        if (hold.getStatus() != Hold.HoldStatus.ACTIVE) {
+            throw new BadRequestException("Hold is already " + hold.getStatus());
+        }
+
+        Account account = accountRepository.findByIdWithLock(hold.getAccount().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        account.setHeldAmount(account.getHeldAmount().subtract(hold.getAmount()));
+        accountRepository.save(account);
+
+        hold.setStatus(Hold.HoldStatus.RELEASED);
+        log.info("Hold {} released", holdId);
+        return toResponse(hold);
+    }
+
+    @Transactional(readOnly = true)
+    public HoldResponse getHold(Long userId, Long holdId) {
+        Hold hold = holdRepository.findById(holdId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold not found with id: " + holdId));
+        checkParticipant(hold, userId);
+        return toResponse(hold);
+    }
+
+    private void checkParticipant(Hold hold, Long userId) {
+        boolean payer = hold.getAccount().getUser().getId().equals(userId);
+        boolean recipient = hold.getToAccount().getUser().getId().equals(userId);
+        if (!payer && !recipient) {
+            throw new ResourceNotFoundException("Hold not found with id: " + hold.getId());
+        }
+    }
+
+    public static HoldResponse toResponse(Hold hold) {
+        return HoldResponse.builder()
+                .holdId(hold.getId())
+                .accountId(hold.getAccount().getId())
+                .toAccountId(hold.getToAccount().getId())
+                .amount(hold.getAmount())
+                .capturedAmount(hold.getCapturedAmount())
+                .status(hold.getStatus())
+                .idempotencyKey(hold.getIdempotencyKey())
+                .description(hold.getDescription())
+                .transactionId(hold.getTransactionId())
+                .expiresAt(hold.getExpiresAt())
+                .createdAt(hold.getCreatedAt())
+                .build();
+    }
+}
@@ -1,39 +1,88 @@
 package com.example.wallet_service.service;
 
+import com.example.wallet_service.config.SpendingLimitProperties;
+import com.example.wallet_service.datasource.ReadYourWritesPinning;
+import com.example.wallet_service.dto.request.CaptureHoldRequest;
+import com.example.wallet_service.dto.request.RefundRequest;
 import com.example.wallet_service.dto.request.TransferRequest;
 import com.example.wallet_service.dto.response.BalanceResponse;
 import com.example.wallet_service.dto.response.TransferResponse;
 import com.example.wallet_service.dto.response.TransactionHistoryResponse;
 import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Hold;
 import com.example.wallet_service.entity.IdempotencyKey;
+import com.example.wallet_service.entity.Payout;
 import com.example.wallet_service.entity.Transaction;
 import com.example.wallet_service.entity.User;
+import com.example.wallet_service.event.TransferCompletedEvent;
 import com.example.wallet_service.exception.BadRequestException;
 import com.example.wallet_service.exception.ResourceNotFoundException;
+import com.example.wallet_service.fraud.FraudService;
+import com.example.wallet_service.fx.FxRateCache;
+import com.example.wallet_service.fx.FxRateSnapshot;
+import com.example.wallet_service.limits.SpendingLimiter;
+import com.example.wallet_service.metrics.AccountContentionTracker;
+import com.example.wallet_service.metrics.WalletMetrics;
 import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.HoldRepository;
 import com.example.wallet_service.repository.IdempotencyKeyRepository;
 import com.example.wallet_service.repository.TransactionRepository;
 import com.example.wallet_service.repository.UserRepository;
+import com.example.wallet_service.scheduling.ScheduledExecution;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
 
+    private static final List<String> RESERVED_KEY_PREFIXES = List.of(
+            ScheduledExecution.IDEMPOTENCY_KEY_PREFIX, Payout.TRANSACTION_KEY_PREFIX);
+
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final IdempotencyKeyRepository idempotencyKeyRepository;
     private final UserRepository userRepository;
+    private final WalletMetrics metrics;
+    private final AccountContentionTracker contentionTracker;
+    private final ReadYourWritesPinning readYourWrites;
+    private final FxRateCache fxRateCache;
+    private final HoldRepository holdRepository;
+    private final SpendingLimiter spendingLimiter;
+    private final FraudService fraudService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferResponseCodec responseCodec;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transferTransaction;
+
+    @PostConstruct
+    public void init() {
+        transferTransaction = new TransactionTemplate(transactionManager);
+        transferTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+    }
 
     /**
      * Get account balance
@@ -41,19 +90,26 @@ public class PaymentService {
      */
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public BalanceResponse getBalance(Long userId) {
+        long start = System.nanoTime();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         Account account = accountRepository.findByUser(user)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + userId));
 
-        return BalanceResponse.builder()
+        BalanceResponse response = BalanceResponse.builder()
                 .accountId(account.getId())
                 .userId(user.getId())
                 .username(user.getUsername())
                 .balance(account.getBalance())
+                .heldAmount(account.getHeldAmount())
+                .availableBalance(account.availableBalance())
+                .currency(account.getCurrency())
                 .lastUpdated(account.getUpdatedAt())
                 .build();
+
+        metrics.recordBalanceRead(start);
+        return response;
     }
 
     /**
@@ -65,53 +121,88 @@ public class PaymentService {
      * 3. Idempotency check - prevents double transfer
      * 4. Balance validation - ensures no negative balance
      * 5. Atomic transaction - all or nothing
+     * 6. Fraud screening before the transaction opens: a cold feature load borrows its own connection,
+     *    so the request holds neither a connection nor the idempotency key lock while it waits
      */
-    @Transactional(
-            isolation = Isolation.SERIALIZABLE,
-            rollbackFor = Exception.class
-    )
     public TransferResponse transfer(Long fromUserId, TransferRequest request) {
         log.info("Processing transfer request from user {} to account {} with amount {}", 
                 fromUserId, request.getToAccountId(), request.getAmount());
+        long start = System.nanoTime();
+
+        // Screened outside the transaction, bounded by its own time budget; the decision applies to new transfers only
+        long stageStart = System.nanoTime();
+        FraudService.Decision fraudDecision = fraudService.screen(
+                fromUserId, request.getToAccountId(), request.getAmount());
+        metrics.recordStage(WalletMetrics.TransferStage.FRAUD_SCREEN, stageStart);
+
+        return transferTransaction.execute(status -> transfer(fromUserId, request, fraudDecision, start));
+    }
+
+    private TransferResponse transfer(Long fromUserId, TransferRequest request, FraudService.Decision fraudDecision,
+                                      long start) {
+        metrics.trackTransferCompletion(start);
+        readYourWrites.pinCurrentUserAfterCommit();
 
         // Step 1: Check idempotency key (with pessimistic lock)
+        long stageStart = System.nanoTime();
         IdempotencyKey idempotencyKey = checkAndCreateIdempotencyKey(
                 fromUserId, 
                 request.getIdempotencyKey()
         );
+        metrics.recordStage(WalletMetrics.TransferStage.IDEMPOTENCY_LOCK, stageStart);
 
         // If key was already used, return the existing transaction
         if (idempotencyKey.getIsUsed() && idempotencyKey.getTransactionId() != null) {
-            Transaction existingTransaction = transactionRepository
-                    .findById(idempotencyKey.getTransactionId())
-                    .orElseThrow(() -> new BadRequestException("Transaction not found for idempotency key"));
-
-            Account fromAccount = accountRepository.findById(existingTransaction.getFromAccount().getId())
-                    .orElseThrow();
-            Account toAccount = accountRepository.findById(existingTransaction.getToAccount().getId())
-                    .orElseThrow();
+            metrics.replayed();
+            return replayTransfer(idempotencyKey);
+        }
 
-            return buildTransferResponse(existingTransaction, fromAccount, toAccount);
+        // A retry of a committed transfer gets its response back above, whatever the screening says now
+        if (fraudDecision.declined()) {
+            metrics.reject(WalletMetrics.RejectReason.FRAUD_DECLINED);
+            throw new BadRequestException("Transfer declined by risk checks");
         }
 
         // Step 2: Get accounts with pessimistic lock (prevents concurrent modifications)
-        Account fromAccount = accountRepository.findByIdWithLock(
-                accountRepository.findByUserId(fromUserId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + fromUserId))
-                        .getId()
-        ).orElseThrow(() -> new ResourceNotFoundException("From account not found"));
+        stageStart = System.nanoTime();
+        Long fromAccountId = accountRepository.findByUserId(fromUserId)
+                .orElseThrow(() -> accountNotFound("Account not found for user: " + fromUserId))
+                .getId();
+        Account fromAccount = lockAccount(fromAccountId)
+                .orElseThrow(() -> accountNotFound("From account not found"));
 
-        Account toAccount = accountRepository.findByIdWithLock(request.getToAccountId())
-                .orElseThrow(() -> new ResourceNotFoundException("To account not found"));
+        Account toAccount = lockAccount(request.getToAccountId())
+                .orElseThrow(() -> accountNotFound("To account not found"));
+        metrics.recordStage(WalletMetrics.TransferStage.ACCOUNT_LOCK, stageStart);
 
         // Step 3: Validate transfer
+        stageStart = System.nanoTime();
         validateTransfer(fromAccount, toAccount, request.getAmount());
 
+        // Cross-currency: convert with the cached rate snapshot, the FX provider is never called here
+        BigDecimal creditedAmount = request.getAmount();
+        FxRateSnapshot.Quote fxQuote = null;
+        if (!fromAccount.getCurrency().equals(toAccount.getCurrency())) {
+            fxQuote = fxQuote(fromAccount.getCurrency(), toAccount.getCurrency());
+            creditedAmount = fxQuote.convert(request.getAmount());
+            if (creditedAmount.signum() <= 0) {
+                metrics.reject(WalletMetrics.RejectReason.INVALID_AMOUNT);
+                throw new BadRequestException("Amount is too small to convert to " + toAccount.getCurrency());
+            }
+        }
+        metrics.recordStage(WalletMetrics.TransferStage.VALIDATION, stageStart);
+
         // Step 4: Create transaction record (PENDING status)
+        stageStart = System.nanoTime();
         Transaction transaction = Transaction.builder()
                 .fromAccount(fromAccount)
                 .toAccount(toAccount)
                 .amount(request.getAmount())
+                .currency(fromAccount.getCurrency())
+                .creditedAmount(creditedAmount)
+                .creditedCurrency(toAccount.getCurrency())
+                .fxRate(fxQuote != null ? fxQuote.rate() : null)
+                .fxRateVersion(fxQuote != null ? fxQuote.version() : null)
                 .status(Transaction.TransactionStatus.PENDING)
                 .idempotencyKey(request.getIdempotencyKey())
                 .description(request.getDescription())
@@ -122,24 +213,31 @@ public class PaymentService {
         try {
             // Step 5: Perform transfer (atomic operation)
             fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
-            toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
+            toAccount.setBalance(toAccount.getBalance().add(creditedAmount));
 
             accountRepository.save(fromAccount);
             accountRepository.save(toAccount);
 
-            // Step 6: Update transaction status to COMPLETED
+            // Step 6: Update transaction status to COMPLETED, with both balances for statements
             transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+            transaction.setFromBalanceAfter(fromAccount.getBalance());
+            transaction.setToBalanceAfter(toAccount.getBalance());
             transaction = transactionRepository.save(transaction);
 
-            // Step 7: Mark idempotency key as used
-            idempotencyKey.setIsUsed(true);
-            idempotencyKey.setTransactionId(transaction.getId());
-            idempotencyKeyRepository.save(idempotencyKey);
+            // Step 7: Mark idempotency key as used, with the response retries get back
+            TransferResponse response = buildTransferResponse(transaction, fromAccount, toAccount);
+            markUsed(idempotencyKey, response);
+            publishCompleted(TransferCompletedEvent.Kind.TRANSFER, transaction, fromUserId, fromAccount, toAccount);
 
+            metrics.recordStage(WalletMetrics.TransferStage.PERSIST, stageStart);
             log.info("Transfer completed successfully. Transaction ID: {}", transaction.getId());
 
-            return buildTransferResponse(transaction, fromAccount, toAccount);
+            return response;
 
+        } catch (TransientDataAccessException | RecoverableDataAccessException
+                 | DataAccessResourceFailureException e) {
+            // Lock timeout, serialization failure, lost connection: not the request's fault, a retry can succeed
+            throw e;
         } catch (Exception e) {
             log.error("Error during transfer, rolling back transaction", e);
             transaction.setStatus(Transaction.TransactionStatus.FAILED);
@@ -148,6 +246,316 @@ public class PaymentService {
         }
     }
 
+    /**
+     * Capture an authorization hold (see HoldService), called by the owner of the hold's recipient account
+     *
+     * Same path as transfer: idempotency key lock, then hold, then both account rows.
+     * The whole hold is released and the captured amount (up to the held amount) is debited,
+     * so a partial capture returns the rest to the available balance.
+     */
+    @Transactional(
+            isolation = Isolation.SERIALIZABLE,
+            rollbackFor = Exception.class
+    )
+    public TransferResponse captureHold(Long userId, Long holdId, CaptureHoldRequest request) {
+        long start = System.nanoTime();
+        metrics.trackTransferCompletion(start);
+        readYourWrites.pinCurrentUserAfterCommit();
+
+        long stageStart = System.nanoTime();
+        IdempotencyKey idempotencyKey = checkAndCreateIdempotencyKey(userId, request.getIdempotencyKey());
+        metrics.recordStage(WalletMetrics.TransferStage.IDEMPOTENCY_LOCK, stageStart);
+
+        if (idempotencyKey.getIsUsed() && idempotencyKey.getTransactionId() != null) {
+            metrics.replayed();
+            return replayTransfer(idempotencyKey);
+        }
+
+        // Hold row first, then accounts - same order as release and the expiry sweeper
+        stageStart = System.nanoTime();
+        Hold hold = holdRepository.findByIdWithLock(holdId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold not found with id: " + holdId));
+        Account fromAccount = lockAccount(hold.getAccount().getId())
+                .orElseThrow(() -> accountNotFound("From account not found"));
+        Account toAccount = lockAccount(hold.getToAccount().getId())
+                .orElseThrow(() -> accountNotFound("To account not found"));
+        metrics.recordStage(WalletMetrics.TransferStage.ACCOUNT_LOCK, stageStart);
+
+        stageStart = System.nanoTime();
+        if (!toAccount.getUser().getId().equals(userId)) {
+            throw new ResourceNotFoundException("Hold not found with id: " + holdId);
+        }
+        if (hold.getStatus() != Hold.HoldStatus.ACTIVE) {
+            throw new BadRequestException("Hold is already " + hold.getStatus());
+        }
+        if (!hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("Hold has expired");
+        }
+
+        BigDecimal amount = request.getAmount() != null ? request.getAmount() : hold.getAmount();
+        if (amount.compareTo(hold.getAmount()) > 0) {
+            metrics.reject(WalletMetrics.RejectReason.INVALID_AMOUNT);
+            throw new BadRequestException(String.format("Capture amount %s exceeds held amount %s",
+                    amount, hold.getAmount()));
+        }
+
+        BigDecimal creditedAmount = amount;
+        FxRateSnapshot.Quote fxQuote = null;
+        if (!fromAccount.getCurrency().equals(toAccount.getCurrency())) {
+            fxQuote = fxQuote(fromAccount.getCurrency(), toAccount.getCurrency());
+            creditedAmount = fxQuote.convert(amount);
+            if (creditedAmount.signum() <= 0) {
+                metrics.reject(WalletMetrics.RejectReason.INVALID_AMOUNT);
+                throw new BadRequestException("Amount is too small to convert to " + toAccount.getCurrency());
+            }
+        }
+        // Counted when captured, that's when the money leaves the account
+        checkSpendingLimits(fromAccount, amount);
+        metrics.recordStage(WalletMetrics.TransferStage.VALIDATION, stageStart);
+
+        stageStart = System.nanoTime();
+        // Held funds were already covered by the balance, so the debit can't go negative
+        fromAccount.setHeldAmount(fromAccount.getHeldAmount().subtract(hold.getAmount()));
+        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
+        toAccount.setBalance(toAccount.getBalance().add(creditedAmount));
+        accountRepository.save(fromAccount);
+        accountRepository.save(toAccount);
+
+        Transaction transaction = transactionRepository.save(Transaction.builder()
+                .fromAccount(fromAccount)
+                .toAccount(toAccount)
+                .amount(amount)
+                .currency(fromAccount.getCurrency())
+                .creditedAmount(creditedAmount)
+                .creditedCurrency(toAccount.getCurrency())
+                .fxRate(fxQuote != null ? fxQuote.rate() : null)
+                .fxRateVersion(fxQuote != null ? fxQuote.version() : null)
+                .fromBalanceAfter(fromAccount.getBalance())
+                .toBalanceAfter(toAccount.getBalance())
+                .status(Transaction.TransactionStatus.COMPLETED)
+                .idempotencyKey(request.getIdempotencyKey())
+                .description(hold.getDescription())
+                .build());
+
+        hold.setStatus(Hold.HoldStatus.CAPTURED);
+        hold.setCapturedAmount(amount);
+        hold.setTransactionId(transaction.getId());
+
+        TransferResponse response = buildTransferResponse(transaction, fromAccount, toAccount);
+        markUsed(idempotencyKey, response);
+        publishCompleted(TransferCompletedEvent.Kind.CAPTURE, transaction, fromAccount.getUser().getId(),
+                fromAccount, toAccount);
+        metrics.recordStage(WalletMetrics.TransferStage.PERSIST, stageStart);
+
+        log.info("Hold {} captured for {}. Transaction ID: {}", holdId, amount, transaction.getId());
+        return response;
+    }
+
+    /**
+     * Refund a completed transfer, fully or partially, back to its sender
+     *
+     * Called by the recipient of the transfer, or by support (onBehalf) to reverse any transfer.
+     * Same path as transfer: idempotency key lock, then the original transaction row, then both accounts.
+     * The original row carries the refunded total, so eligibility is a single row read, and it is
+     * updated in the same transaction as the balances - CANCELLED once nothing is left to refund.
+     * Cross-currency refunds are converted back at the rate of the original transfer, rounded down, and the
+     * last one returns whatever is left of the original amount, so the refunds add up to exactly what was paid.
+     */
+    @Transactional(
+            isolation = Isolation.SERIALIZABLE,
+            rollbackFor = Exception.class
+    )
+    public TransferResponse refund(Long userId, Long transactionId, RefundRequest request, boolean onBehalf) {
+        long start = System.nanoTime();
+        metrics.trackTransferCompletion(start);
+        readYourWrites.pinCurrentUserAfterCommit();
+
+        long stageStart = System.nanoTime();
+        IdempotencyKey idempotencyKey = checkAndCreateIdempotencyKey(userId, request.getIdempotencyKey());
+        metrics.recordStage(WalletMetrics.TransferStage.IDEMPOTENCY_LOCK, stageStart);
+
+        if (idempotencyKey.getIsUsed() && idempotencyKey.getTransactionId() != null) {
+            metrics.replayed();
+            return replayTransfer(idempotencyKey);
+        }
+
+        // Original row first, concurrent refunds of the same transfer queue up here
+        stageStart = System.nanoTime();
+        Transaction original = transactionRepository.findByIdWithLock(transactionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + transactionId));
+        Account fromAccount = lockAccount(original.getToAccount().getId())
+                .orElseThrow(() -> accountNotFound("From account not found"));
+        Account toAccount = lockAccount(original.getFromAccount().getId())
+                .orElseThrow(() -> accountNotFound("To account not found"));
+        metrics.recordStage(WalletMetrics.TransferStage.ACCOUNT_LOCK, stageStart);
+
+        stageStart = System.nanoTime();
+        if (!onBehalf && !fromAccount.getUser().getId().equals(userId)) {
+            throw new ResourceNotFoundException("Transaction not found with id: " + transactionId);
+        }
+        if (original.getRefundOfTransactionId() != null) {
+            throw new BadRequestException("A refund can't be refunded");
+        }
+        if (original.getStatus() != Transaction.TransactionStatus.COMPLETED) {
+            throw new BadRequestException("Transaction is " + original.getStatus() + ", only completed transfers can be refunded");
+        }
+
+        BigDecimal refundable = original.refundableAmount();
+        BigDecimal amount = request.getAmount() != null ? request.getAmount() : refundable;
+        if (amount.compareTo(refundable) > 0) {
+            metrics.reject(WalletMetrics.RejectReason.INVALID_AMOUNT);
+            throw new BadRequestException(String.format("Refund amount %s exceeds refundable amount %s",
+                    amount, refundable));
+        }
+        if (fromAccount.availableBalance().compareTo(amount) < 0) {
+            metrics.reject(WalletMetrics.RejectReason.INSUFFICIENT_BALANCE);
+            throw new BadRequestException(String.format("Insufficient balance. Available balance: %s, Required: %s",
+                    fromAccount.availableBalance(), amount));
+        }
+
+        // Proportional share of what the sender paid, rounded down so refunds never return more than that;
+        // the last refund returns the rest, rounding included
+        BigDecimal originalCredited = original.creditedOrDebitedAmount();
+        BigDecimal creditedAmount = amount.compareTo(refundable) == 0
+                ? original.getAmount().subtract(original.getRefundReturnedAmount())
+                : amount.multiply(original.getAmount()).divide(originalCredited, 2, RoundingMode.DOWN);
+        if (creditedAmount.signum() <= 0) {
+            metrics.reject(WalletMetrics.RejectReason.INVALID_AMOUNT);
+            throw new BadRequestException("Amount is too small to convert to " + toAccount.getCurrency());
+        }
+        metrics.recordStage(WalletMetrics.TransferStage.VALIDATION, stageStart);
+
+        stageStart = System.nanoTime();
+        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
+        toAccount.setBalance(toAccount.getBalance().add(creditedAmount));
+        accountRepository.save(fromAccount);
+        accountRepository.save(toAccount);
+
+        Transaction refund = transactionRepository.save(Transaction.builder()
+                .fromAccount(fromAccount)
+                .toAccount(toAccount)
+                .amount(amount)
+                .currency(fromAccount.getCurrency())
+                .creditedAmount(creditedAmount)
+                .creditedCurrency(toAccount.getCurrency())
+                // Rate actually applied, rounding included, the original's version says where it came from
+                .fxRate(original.getFxRate() != null
+                        ? creditedAmount.divide(amount, 10, RoundingMode.HALF_EVEN)
+                        : null)
+                .fxRateVersion(original.getFxRateVersion())
+                .fromBalanceAfter(fromAccount.getBalance())
+                .toBalanceAfter(toAccount.getBalance())
+                .status(Transaction.TransactionStatus.COMPLETED)
+                .refundOfTransactionId(original.getId())
+                .idempotencyKey(request.getIdempotencyKey())
+                .description(request.getReason() != null ? request.getReason() : "Refund of transaction " + original.getId())
+                .build());
+
+        original.setRefundedAmount(original.getRefundedAmount().add(amount));
+        original.setRefundReturnedAmount(original.getRefundReturnedAmount().add(creditedAmount));
+        if (original.refundableAmount().signum() == 0) {
+            original.setStatus(Transaction.TransactionStatus.CANCELLED);
+        }
+        transactionRepository.save(original);
+
+        TransferResponse response = buildTransferResponse(refund, fromAccount, toAccount);
+        markUsed(idempotencyKey, response);
+        publishCompleted(TransferCompletedEvent.Kind.REFUND, refund, fromAccount.getUser().getId(), fromAccount, toAccount);
+        metrics.recordStage(WalletMetrics.TransferStage.PERSIST, stageStart);
+
+        log.info("Transaction {} refunded {} ({} of {} refunded). Refund transaction ID: {}",
+                original.getId(), amount, original.getRefundedAmount(), originalCredited, refund.getId());
+        return response;
+    }
+
+    /**
+     * Refunds of a transfer, visible to its sender and recipient (or support)
+     */
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public List<TransactionHistoryResponse> getRefunds(Long userId, Long transactionId, boolean onBehalf) {
+        Transaction original = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + transactionId));
+        Long accountId = accountRepository.findByUserId(userId).map(Account::getId).orElse(null);
+        boolean party = original.getFromAccount().getId().equals(accountId)
+                || original.getToAccount().getId().equals(accountId);
+        if (!onBehalf && !party) {
+            throw new ResourceNotFoundException("Transaction not found with id: " + transactionId);
+        }
+
+        // Seen from the original sender, refunds are received
+        Long viewAccountId = party ? accountId : original.getFromAccount().getId();
+        return transactionRepository.findByRefundOfTransactionIdOrderByIdAsc(transactionId).stream()
+                .map(t -> buildHistoryResponse(t, viewAccountId))
+                .toList();
+    }
+
+    /**
+     * Reject client idempotency keys in the forms used by scheduled transfer executions and payout items
+     */
+    public void checkClientIdempotencyKey(String keyValue) {
+        for (String prefix : RESERVED_KEY_PREFIXES) {
+            if (keyValue.startsWith(prefix)) {
+                throw new BadRequestException("Idempotency keys starting with '" + prefix + "' are reserved");
+            }
+        }
+    }
+
+    /**
+     * Announce a completed transfer, listeners run after commit
+     */
+    private void publishCompleted(TransferCompletedEvent.Kind kind, Transaction transaction, Long fromUserId,
+                                  Account fromAccount, Account toAccount) {
+        eventPublisher.publishEvent(new TransferCompletedEvent(
+                kind,
+                transaction.getId(),
+                fromUserId,
+                fromAccount.getId(),
+                toAccount.getUser().getId(),
+                toAccount.getId(),
+                transaction.getAmount(),
+                transaction.getCurrency(),
+                transaction.getCreditedAmount(),
+                transaction.getCreditedCurrency(),
+                toAccount.getBalance(),
+                transaction.getCreatedAt()));
+    }
+
+    /**
+     * Mark the idempotency key as used and keep the response, so retries get it back unchanged
+     */
+    private void markUsed(IdempotencyKey idempotencyKey, TransferResponse response) {
+        idempotencyKey.setIsUsed(true);
+        idempotencyKey.setTransactionId(response.getTransactionId());
+        idempotencyKey.setResponsePayload(responseCodec.encode(response));
+        idempotencyKeyRepository.save(idempotencyKey);
+    }
+
+    /**
+     * Response for a request whose idempotency key was already used
+     *
+     * The stored response comes with the locked key row, balances are those right after the transfer.
+     * Keys used before responses were stored rebuild it from the transaction and current balances.
+     */
+    private TransferResponse replayTransfer(IdempotencyKey idempotencyKey) {
+        if (idempotencyKey.getResponsePayload() != null) {
+            TransferResponse stored = responseCodec.decode(idempotencyKey.getResponsePayload());
+            if (stored != null) {
+                return stored;
+            }
+        }
+
+        Transaction existingTransaction = transactionRepository
+                .findById(idempotencyKey.getTransactionId())
+                .orElseThrow(() -> new BadRequestException("Transaction not found for idempotency key"));
+
+        Account fromAccount = accountRepository.findById(existingTransaction.getFromAccount().getId())
+                .orElseThrow();
+        Account toAccount = accountRepository.findById(existingTransaction.getToAccount().getId())
+                .orElseThrow();
+
+        return buildTransferResponse(existingTransaction, fromAccount, toAccount);
+    }
+
     /**
      * Check and create idempotency key with pessimistic lock
      */
@@ -160,6 +568,7 @@ public class PaymentService {
             // Check if expired
             if (existingKey.getExpiresAt().isBefore(LocalDateTime.now())) {
                 log.warn("Idempotency key expired: {}", keyValue);
+                metrics.reject(WalletMetrics.RejectReason.EXPIRED_KEY);
                 throw new BadRequestException("Idempotency key has expired");
             }
             return existingKey;
@@ -185,21 +594,63 @@ public class PaymentService {
     private void validateTransfer(Account fromAccount, Account toAccount, BigDecimal amount) {
         // Check if transferring to same account
         if (fromAccount.getId().equals(toAccount.getId())) {
+            metrics.reject(WalletMetrics.RejectReason.SAME_ACCOUNT);
             throw new BadRequestException("Cannot transfer to the same account");
         }
 
         // Check if amount is positive
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            metrics.reject(WalletMetrics.RejectReason.INVALID_AMOUNT);
             throw new BadRequestException("Transfer amount must be greater than zero");
         }
 
-        // Check if balance is sufficient (no negative balance)
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
+        // Check if balance is sufficient (no negative balance), funds reserved by holds can't be spent
+        if (fromAccount.availableBalance().compareTo(amount) < 0) {
+            metrics.reject(WalletMetrics.RejectReason.INSUFFICIENT_BALANCE);
             throw new BadRequestException(
-                    String.format("Insufficient balance. Current balance: %s, Required: %s",
-                            fromAccount.getBalance(), amount)
+                    String.format("Insufficient balance. Available balance: %s, Required: %s",
+                            fromAccount.availableBalance(), amount)
             );
         }
+
+        checkSpendingLimits(fromAccount, amount);
+    }
+
+    /**
+     * Spending and velocity limits, counted only if the debit passes every rule
+     */
+    private void checkSpendingLimits(Account fromAccount, BigDecimal amount) {
+        SpendingLimitProperties.Rule brokenLimit = spendingLimiter.tryAcquire(fromAccount.getId(), amount);
+        if (brokenLimit != null) {
+            metrics.reject(WalletMetrics.RejectReason.LIMIT_EXCEEDED);
+            throw new BadRequestException("Transfer exceeds the " + brokenLimit.getName() + " limit");
+        }
+    }
+
+    /**
+     * Lock account row and record how long we waited for it
+     */
+    private Optional<Account> lockAccount(Long accountId) {
+        long start = System.nanoTime();
+        Optional<Account> account = accountRepository.findByIdWithLock(accountId);
+        if (account.isPresent()) {
+            contentionTracker.recordLockWait(accountId, System.nanoTime() - start);
+        }
+        return account;
+    }
+
+    private FxRateSnapshot.Quote fxQuote(String from, String to) {
+        FxRateSnapshot.Quote quote = fxRateCache.quote(from, to);
+        if (quote == null) {
+            metrics.reject(WalletMetrics.RejectReason.FX_RATE_UNAVAILABLE);
+            throw new BadRequestException("No exchange rate available for " + from + " to " + to);
+        }
+        return quote;
+    }
+
+    private ResourceNotFoundException accountNotFound(String message) {
+        metrics.reject(WalletMetrics.RejectReason.ACCOUNT_NOT_FOUND);
+        return new ResourceNotFoundException(message);
     }
 
     /**
@@ -211,7 +662,13 @@ public class PaymentService {
                 .fromAccountId(fromAccount.getId())
                 .toAccountId(toAccount.getId())
                 .amount(transaction.getAmount())
+                .currency(transaction.getCurrency())
+                .creditedAmount(transaction.getCreditedAmount())
+                .creditedCurrency(transaction.getCreditedCurrency())
+                .fxRate(transaction.getFxRate())
                 .status(transaction.getStatus())
+                .refundOfTransactionId(transaction.getRefundOfTransactionId())
+                .refundedAmount(transaction.getRefundedAmount())
                 .idempotencyKey(transaction.getIdempotencyKey())
                 .description(transaction.getDescription())
                 .createdAt(transaction.getCreatedAt())
@@ -225,29 +682,44 @@ public class PaymentService {
      */
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public Page<TransactionHistoryResponse> getTransactionHistory(Long userId, Pageable pageable) {
+        long start = System.nanoTime();
         Account account = accountRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + userId));
 
         Page<Transaction> transactions = transactionRepository.findByAccountId(account.getId(), pageable);
 
-        return transactions.map(t -> {
-            String transactionType = t.getFromAccount().getId().equals(account.getId()) 
-                    ? "SENT" 
-                    : "RECEIVED";
-
-            return TransactionHistoryResponse.builder()
-                    .transactionId(t.getId())
-                    .fromAccountId(t.getFromAccount().getId())
-                    .fromUsername(t.getFromAccount().getUser().getUsername())
-                    .toAccountId(t.getToAccount().getId())
-                    .toUsername(t.getToAccount().getUser().getUsername())
-                    .amount(t.getAmount())
-                    .status(t.getStatus())
-                    .description(t.getDescription())
-                    .createdAt(t.getCreatedAt())
-                    .transactionType(transactionType)
-                    .build();
-        });
+        Page<TransactionHistoryResponse> response = transactions.map(t -> buildHistoryResponse(t, account.getId()));
+
+        metrics.recordHistoryRead(start);
+        return response;
+    }
+
+    /**
+     * Build transaction history row as seen from the given account
+     */
+    private TransactionHistoryResponse buildHistoryResponse(Transaction t, Long accountId) {
+        boolean sent = t.getFromAccount().getId().equals(accountId);
+        String transactionType = sent ? "SENT" : "RECEIVED";
+
+        return TransactionHistoryResponse.builder()
+                .transactionId(t.getId())
+                .fromAccountId(t.getFromAccount().getId())
+                .fromUsername(t.getFromAccount().getUser().getUsername())
+                .toAccountId(t.getToAccount().getId())
+                .toUsername(t.getToAccount().getUser().getUsername())
+                .amount(t.getAmount())
+                .currency(t.getCurrency())
+                .creditedAmount(t.getCreditedAmount())
+                .creditedCurrency(t.getCreditedCurrency())
+                .fxRate(t.getFxRate())
+                .status(t.getStatus())
+                .refundOfTransactionId(t.getRefundOfTransactionId())
+                .refundedAmount(t.getRefundedAmount())
+                .description(t.getDescription())
+                .createdAt(t.getCreatedAt())
+                .transactionType(transactionType)
+                .balanceAfter(sent ? t.getFromBalanceAfter() : t.getToBalanceAfter())
+                .build();
     }
 
     /**
@@ -255,6 +727,16 @@ public class PaymentService {
      */
     @Transactional(isolation = Isolation.READ_COMMITTED)
     public Account createAccountForUser(Long userId) {
+        return createAccountForUser(userId, null);
+    }
+
+    /**
+     * Create account in the given currency (default USD) for a user (if not exists)
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Account createAccountForUser(Long userId, String currency) {
+        readYourWrites.pinCurrentUserAfterCommit();
+        String accountCurrency = normalizeCurrency(currency);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
@@ -263,11 +745,23 @@ public class PaymentService {
                     Account newAccount = Account.builder()
                             .user(user)
                             .balance(BigDecimal.ZERO)
+                            .currency(accountCurrency)
                             .build();
                     return accountRepository.save(newAccount);
                 });
     }
 
+    private String normalizeCurrency(String currency) {
+        if (currency == null || currency.isBlank()) {
+            return "USD";
+        }
+        try {
+            return Currency.getInstance(currency.trim().toUpperCase(Locale.ROOT)).getCurrencyCode();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported currency: " + currency);
+        }
+    }
+
     /**
      * Get user ID by username
      */
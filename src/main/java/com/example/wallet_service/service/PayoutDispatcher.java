@@ -0,0 +1,133 @@
+package com.example.wallet_service.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Credits the recipients of accepted payouts in the background
+ *
+ * Payouts are claimed with SKIP LOCKED and a lease that is renewed with every chunk, so a payout
+ * is worked on by one node at a time and resumed by another one if its node dies.
+ * Each chunk commits its credits together with the item statuses, so a resumed payout never pays twice.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.payouts", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PayoutDispatcher {
+
+    private final PayoutService payoutService;
+
+    @Value("${app.payouts.workers:2}")
+    private int workers;
+
+    @Value("${app.payouts.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.payouts.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${app.payouts.retry-delay-seconds:5}")
+    private long retryDelaySeconds;
+
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName()
+            + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicInteger running = new AtomicInteger();
+    private ExecutorService payoutExecutor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        payoutExecutor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "payout-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        payoutExecutor.shutdownNow();
+        try {
+            payoutExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int released = payoutService.releaseLeases(nodeId);
+        log.info("Payout dispatcher stopped, released {} payouts", released);
+    }
+
+    @Scheduled(fixedDelayString = "${app.payouts.poll-interval-ms:1000}")
+    public void poll() {
+        int room = workers - running.get();
+        if (room <= 0) {
+            return;
+        }
+        List<PayoutService.Claim> claims = payoutService.claim(nodeId, leaseUntil(), room);
+        for (PayoutService.Claim claim : claims) {
+            running.incrementAndGet();
+            payoutExecutor.execute(() -> {
+                try {
+                    process(claim);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void process(PayoutService.Claim claim) {
+        try {
+            int processed;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    // Shutting down, the lease is released in stop()
+                    return;
+                }
+                processed = payoutService.creditChunk(claim, nodeId, chunkSize, leaseUntil());
+            } while (processed > 0);
+
+            if (processed == 0) {
+                payoutService.complete(claim.payoutId(), nodeId);
+            } else {
+                log.warn("Payout {} lease lost, another node took it over", claim.payoutId());
+            }
+        } catch (RuntimeException e) {
+            // Deadlock with concurrent transfers, database unavailable...: the chunk rolled back, retry later
+            log.warn("Payout {} will be retried: {}", claim.payoutId(), e.getMessage());
+            try {
+                payoutService.release(claim.payoutId(), nodeId,
+                        LocalDateTime.now().plusSeconds(retryDelaySeconds), truncate(e.getMessage()));
+            } catch (RuntimeException releaseError) {
+                log.error("Could not release payout {}, lease will expire", claim.payoutId(), releaseError);
+            }
+        }
+    }
+
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plusSeconds(leaseSeconds);
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
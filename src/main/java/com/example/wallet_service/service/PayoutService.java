@@ -0,0 +1,317 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.dto.request.PayoutItemRequest;
+import com.example.wallet_service.dto.request.PayoutRequest;
+import com.example.wallet_service.dto.response.PayoutResponse;
+import com.example.wallet_service.config.SpendingLimitProperties;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Payout;
+import com.example.wallet_service.event.PayoutItemsCreditedEvent;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import com.example.wallet_service.limits.SpendingLimiter;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.PayoutJdbcRepository;
+import com.example.wallet_service.repository.PayoutRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * One-to-many payouts
+ *
+ * Key features:
+ * 1. The total is reserved on the sender (held_amount, like a hold) when the payout is accepted,
+ *    so it can't be spent twice while the payout runs
+ * 2. Recipients are credited in chunks in account id order by PayoutDispatcher, each chunk is one
+ *    transaction with JDBC batches for balances, transactions and item statuses, and debits the
+ *    sender once for the chunk instead of once per recipient
+ * 3. Every balance change has its transaction row: the item rows carry both balances after,
+ *    reserving moves no money and items that can't be credited only release their reservation
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PayoutService {
+
+    private final PayoutRepository payoutRepository;
+    private final PayoutJdbcRepository payoutJdbcRepository;
+    private final AccountRepository accountRepository;
+    private final SpendingLimiter spendingLimiter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.payouts.max-items:100000}")
+    private int maxItems;
+
+    public record Claim(long payoutId, long fromAccountId, String currency, String description) {
+    }
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public PayoutResponse create(Long userId, PayoutRequest request) {
+        Long accountId = accountRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + userId))
+                .getId();
+        // Retries with the same key queue behind the sender lock
+        Account account = accountRepository.findByIdWithLock(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + userId));
+
+        Optional<Payout> existing = payoutRepository.findByIdempotencyKey(request.getIdempotencyKey());
+        if (existing.isPresent()) {
+            if (!existing.get().getAccount().getId().equals(accountId)) {
+                throw new BadRequestException("Idempotency key already used");
+            }
+            return toResponse(existing.get());
+        }
+
+        List<PayoutItemRequest> items = validateItems(account, request.getItems());
+        BigDecimal total = items.stream().map(PayoutItemRequest::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (account.availableBalance().compareTo(total) < 0) {
+            throw new BadRequestException(String.format("Insufficient balance. Available balance: %s, Required: %s",
+                    account.availableBalance(), total));
+        }
+        // Counted once for the total, as one outgoing debit
+        SpendingLimitProperties.Rule brokenLimit = spendingLimiter.tryAcquire(accountId, total);
+        if (brokenLimit != null) {
+            throw new BadRequestException("Payout exceeds the " + brokenLimit.getName() + " limit");
+        }
+
+        account.setHeldAmount(account.getHeldAmount().add(total));
+        accountRepository.save(account);
+
+        Payout payout = payoutRepository.saveAndFlush(Payout.builder()
+                .account(account)
+                .totalAmount(total)
+                .currency(account.getCurrency())
+                .itemCount(items.size())
+                .idempotencyKey(request.getIdempotencyKey())
+                .description(request.getDescription())
+                .build());
+        payoutJdbcRepository.insertItems(payout.getId(), items);
+
+        log.info("Payout {} accepted: {} recipients, {} {} reserved on account {}",
+                payout.getId(), items.size(), total, payout.getCurrency(), accountId);
+        return toResponse(payout);
+    }
+
+    /**
+     * Items sorted by recipient, rejecting unknown, duplicate, self and cross-currency recipients
+     */
+    private List<PayoutItemRequest> validateItems(Account account, List<PayoutItemRequest> requested) {
+        if (requested.size() > maxItems) {
+            throw new BadRequestException("A payout can have at most " + maxItems + " recipients");
+        }
+
+        List<PayoutItemRequest> items = new ArrayList<>(requested);
+        items.sort(Comparator.comparing(PayoutItemRequest::getToAccountId));
+
+        Map<Long, String> currencies = payoutJdbcRepository.findCurrencies(
+                items.stream().map(PayoutItemRequest::getToAccountId).toList());
+
+        Long previous = null;
+        for (PayoutItemRequest item : items) {
+            Long toAccountId = item.getToAccountId();
+            if (toAccountId.equals(previous)) {
+                throw new BadRequestException("Duplicate recipient account: " + toAccountId);
+            }
+            if (toAccountId.equals(account.getId())) {
+                throw new BadRequestException("Cannot pay out to the sender account");
+            }
+            String currency = currencies.get(toAccountId);
+            if (currency == null) {
+                throw new BadRequestException("Recipient account not found: " + toAccountId);
+            }
+            if (!currency.equals(account.getCurrency())) {
+                throw new BadRequestException("Recipient account " + toAccountId + " is in " + currency
+                        + ", payouts are single-currency (" + account.getCurrency() + ")");
+            }
+            previous = toAccountId;
+        }
+        return items;
+    }
+
+    @Transactional(readOnly = true)
+    public PayoutResponse get(Long userId, Long payoutId) {
+        return payoutRepository.findByIdAndUserId(payoutId, userId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Payout not found with id: " + payoutId));
+    }
+
+    /**
+     * Lease unfinished payouts to a dispatcher node
+     */
+    @Transactional
+    public List<Claim> claim(String owner, LocalDateTime leaseUntil, int limit) {
+        List<Payout> payouts = payoutRepository.findClaimableForUpdate(LocalDateTime.now(), limit);
+        if (payouts.isEmpty()) {
+            return List.of();
+        }
+        payoutRepository.lease(payouts.stream().map(Payout::getId).toList(), owner, leaseUntil);
+        return payouts.stream()
+                .map(p -> new Claim(p.getId(), p.getAccount().getId(), p.getCurrency(), p.getDescription()))
+                .toList();
+    }
+
+    /**
+     * Credit the next chunk of recipients, in account id order
+     *
+     * @return number of items processed, 0 when none are left, -1 if the lease was lost to another node
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int creditChunk(Claim claim, String owner, int chunkSize, LocalDateTime leaseUntil) {
+        if (!payoutJdbcRepository.touch(claim.payoutId(), owner, leaseUntil)) {
+            return -1;
+        }
+
+        List<PayoutJdbcRepository.PendingItem> items = payoutJdbcRepository.findPendingItems(claim.payoutId(), chunkSize);
+        if (items.isEmpty()) {
+            return 0;
+        }
+
+        int[] updated = payoutJdbcRepository.creditAccounts(items);
+        List<PayoutJdbcRepository.PendingItem> credited = new ArrayList<>(items.size());
+        List<PayoutJdbcRepository.PendingItem> failed = new ArrayList<>();
+        BigDecimal creditedAmount = BigDecimal.ZERO;
+        BigDecimal failedAmount = BigDecimal.ZERO;
+        for (int i = 0; i < items.size(); i++) {
+            if (updated[i] == 0) {
+                failed.add(items.get(i));
+                failedAmount = failedAmount.add(items.get(i).amount());
+            } else {
+                credited.add(items.get(i));
+                creditedAmount = creditedAmount.add(items.get(i).amount());
+            }
+        }
+        // Sender last, after the recipients: one row lock per chunk, released reservation includes failed items
+        payoutJdbcRepository.debitSender(claim.fromAccountId(), creditedAmount, creditedAmount.add(failedAmount));
+
+        if (!credited.isEmpty()) {
+            BigDecimal[] fromBalancesAfter = new BigDecimal[credited.size()];
+            BigDecimal[] toBalancesAfter = new BigDecimal[credited.size()];
+            Map<Long, Long> toUserIds = new HashMap<>(credited.size() * 2);
+            balancesAfter(claim.fromAccountId(), credited, fromBalancesAfter, toBalancesAfter, toUserIds);
+            // Same timestamp on the rows and the event, the event log export splits history on it
+            LocalDateTime creditedAt = LocalDateTime.now();
+            long[] transactionIds = payoutJdbcRepository.insertTransactions(claim.payoutId(), claim.fromAccountId(),
+                    claim.currency(), claim.description(), credited, fromBalancesAfter, toBalancesAfter, creditedAt);
+            payoutJdbcRepository.markCredited(credited, transactionIds);
+            List<PayoutItemsCreditedEvent.Credit> credits = new ArrayList<>(credited.size());
+            for (int i = 0; i < credited.size(); i++) {
+                PayoutJdbcRepository.PendingItem item = credited.get(i);
+                credits.add(new PayoutItemsCreditedEvent.Credit(transactionIds[i], item.toAccountId(),
+                        toUserIds.get(item.toAccountId()), item.amount(), toBalancesAfter[i]));
+            }
+            eventPublisher.publishEvent(new PayoutItemsCreditedEvent(claim.payoutId(), claim.fromAccountId(),
+                    claim.currency(), credits, creditedAt));
+        }
+        if (!failed.isEmpty()) {
+            log.warn("Payout {}: {} recipient accounts disappeared, their amount is released to the sender",
+                    claim.payoutId(), failed.size());
+            payoutJdbcRepository.markFailed(failed);
+        }
+        payoutJdbcRepository.addProgress(claim.payoutId(), credited.size(), failed.size(), failedAmount);
+        return items.size();
+    }
+
+    /**
+     * Sender and recipient balances right after each credit, in item order
+     * Exact because the chunk's updates still lock the rows: the sender was debited for the whole
+     * chunk, so walking backwards adds the later items back to it and takes them off the recipients.
+     * The recipients' owners come with the same query and are put in toUserIds, for the notifications.
+     */
+    private void balancesAfter(long fromAccountId, List<PayoutJdbcRepository.PendingItem> credited,
+                               BigDecimal[] fromBalancesAfter, BigDecimal[] toBalancesAfter,
+                               Map<Long, Long> toUserIds) {
+        List<Long> accountIds = new ArrayList<>(credited.size() + 1);
+        accountIds.add(fromAccountId);
+        credited.stream().map(PayoutJdbcRepository.PendingItem::toAccountId).distinct().forEach(accountIds::add);
+        Map<Long, BigDecimal> running = payoutJdbcRepository.findBalances(accountIds, toUserIds);
+
+        BigDecimal fromBalance = running.get(fromAccountId);
+        // Backwards, so an account credited twice in the chunk gets both intermediate balances
+        for (int i = credited.size() - 1; i >= 0; i--) {
+            PayoutJdbcRepository.PendingItem item = credited.get(i);
+            BigDecimal balance = running.get(item.toAccountId());
+            toBalancesAfter[i] = balance;
+            running.put(item.toAccountId(), balance.subtract(item.amount()));
+            fromBalancesAfter[i] = fromBalance;
+            fromBalance = fromBalance.add(item.amount());
+        }
+    }
+
+    /**
+     * Mark the payout COMPLETED once no item is pending
+     * Nothing moves here: every chunk already debited its credited items and released the reservation.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void complete(long payoutId, String owner) {
+        Payout payout = payoutRepository.findByIdWithLock(payoutId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payout not found with id: " + payoutId));
+        if (payout.getStatus() == Payout.PayoutStatus.COMPLETED || !owner.equals(payout.getLeaseOwner())
+                || payoutJdbcRepository.countPendingItems(payoutId) > 0) {
+            return;
+        }
+
+        payout.setStatus(Payout.PayoutStatus.COMPLETED);
+        payout.setCompletedAt(LocalDateTime.now());
+        payout.setLeaseOwner(null);
+        payout.setLeaseUntil(null);
+        log.info("Payout {} completed: {} credited, {} failed", payoutId, payout.getCreditedCount(), payout.getFailedCount());
+    }
+
+    /**
+     * Give a payout back after a transient failure (deadlock, database unavailable...), retried after retryAt
+     */
+    @Transactional
+    public void release(long payoutId, String owner, LocalDateTime retryAt, String error) {
+        payoutRepository.release(payoutId, owner, retryAt, error);
+    }
+
+    @Transactional
+    public int releaseLeases(String owner) {
+        return payoutRepository.releaseLeases(owner);
+    }
+
+    private PayoutResponse toResponse(Payout payout) {
+        return PayoutResponse.builder()
+                .payoutId(payout.getId())
+                .accountId(payout.getAccount().getId())
+                .status(payout.getStatus())
+                .totalAmount(payout.getTotalAmount())
+                .currency(payout.getCurrency())
+                .itemCount(payout.getItemCount())
+                .creditedCount(payout.getCreditedCount())
+                .failedCount(payout.getFailedCount())
+                .failedAmount(payout.getFailedAmount())
+                .recipientsPerSecond(recipientsPerSecond(payout))
+                .idempotencyKey(payout.getIdempotencyKey())
+                .description(payout.getDescription())
+                .lastError(payout.getLastError())
+                .createdAt(payout.getCreatedAt())
+                .startedAt(payout.getStartedAt())
+                .completedAt(payout.getCompletedAt())
+                .build();
+    }
+
+    private Double recipientsPerSecond(Payout payout) {
+        if (payout.getStartedAt() == null) {
+            return null;
+        }
+        LocalDateTime end = payout.getCompletedAt() != null ? payout.getCompletedAt() : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(payout.getStartedAt(), end).toMillis());
+        return (payout.getCreditedCount() + payout.getFailedCount()) * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.analytics.RollupAggregator;
+import com.example.wallet_service.batch.RollupRebuildJobConfig;
+import com.example.wallet_service.batch.RollupRebuildTasklet;
+import com.example.wallet_service.dto.response.RollupRebuildResponse;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RollupRebuildService {
+
+    private final Job rollupRebuildJob;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    private final RollupAggregator rollupAggregator;
+
+    private TaskExecutorJobLauncher asyncJobLauncher;
+
+    @PostConstruct
+    public void init() throws Exception {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("rollup-rebuild-");
+        taskExecutor.setConcurrencyLimit(1);
+
+        asyncJobLauncher = new TaskExecutorJobLauncher();
+        asyncJobLauncher.setJobRepository(jobRepository);
+        asyncJobLauncher.setTaskExecutor(taskExecutor);
+        asyncJobLauncher.afterPropertiesSet();
+    }
+
+    /**
+     * Start rebuilding the given closed days asynchronously
+     * Running it again for the same range after a failure resumes the failed run.
+     */
+    public RollupRebuildResponse startRebuild(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        // Other nodes flush their buffered increments within a flush interval, only then is a day settled
+        if (to.plusDays(1).atStartOfDay().isAfter(LocalDateTime.now().minus(rollupAggregator.getFlushInterval()))) {
+            throw new BadRequestException("Only days that ended more than "
+                    + rollupAggregator.getFlushInterval().toSeconds() + " seconds ago can be rebuilt");
+        }
+        if (!jobExplorer.findRunningJobExecutions(RollupRebuildJobConfig.JOB_NAME).isEmpty()) {
+            throw new BadRequestException("Rollup rebuild is already running");
+        }
+
+        JobParameters parameters = new JobParametersBuilder()
+                .addString(RollupRebuildJobConfig.PARAM_FROM, from.toString())
+                .addString(RollupRebuildJobConfig.PARAM_TO, to.toString())
+                .toJobParameters();
+        JobExecution last = jobRepository.getLastJobExecution(RollupRebuildJobConfig.JOB_NAME, parameters);
+        if (last != null && last.getStatus() == BatchStatus.COMPLETED) {
+            // Same range rebuilt before: start a new run instead of resuming
+            parameters = new JobParametersBuilder(parameters)
+                    .addLong("run.id", System.currentTimeMillis())
+                    .toJobParameters();
+        }
+        try {
+            JobExecution execution = asyncJobLauncher.run(rollupRebuildJob, parameters);
+            log.info("Rollup rebuild {} started for {} to {}", execution.getId(), from, to);
+            return toResponse(execution);
+        } catch (Exception e) {
+            throw new BadRequestException("Cannot start rollup rebuild: " + e.getMessage());
+        }
+    }
+
+    public RollupRebuildResponse getRebuild(Long executionId) {
+        JobExecution execution = jobExplorer.getJobExecution(executionId);
+        if (execution == null || !RollupRebuildJobConfig.JOB_NAME.equals(execution.getJobInstance().getJobName())) {
+            throw new ResourceNotFoundException("Rollup rebuild not found with id: " + executionId);
+        }
+        return toResponse(execution);
+    }
+
+    private RollupRebuildResponse toResponse(JobExecution execution) {
+        long days = 0;
+        long rows = 0;
+        for (StepExecution step : execution.getStepExecutions()) {
+            days += step.getExecutionContext().getLong(RollupRebuildTasklet.DAYS_DONE_KEY, 0L);
+            rows += step.getExecutionContext().getLong(RollupRebuildTasklet.ROWS_WRITTEN_KEY, 0L);
+        }
+
+        return RollupRebuildResponse.builder()
+                .executionId(execution.getId())
+                .status(execution.getStatus().name())
+                .from(LocalDate.parse(execution.getJobParameters().getString(RollupRebuildJobConfig.PARAM_FROM)))
+                .to(LocalDate.parse(execution.getJobParameters().getString(RollupRebuildJobConfig.PARAM_TO)))
+                .daysDone(days)
+                .rowsWritten(rows)
+                .startTime(execution.getStartTime())
+                .endTime(execution.getEndTime())
+                .build();
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.dto.request.ScheduledTransferRequest;
+import com.example.wallet_service.dto.response.ScheduledTransferResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.ScheduledTransfer;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.ScheduledTransferRepository;
+import com.example.wallet_service.repository.UserRepository;
+import com.example.wallet_service.scheduling.ScheduledExecution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScheduledTransferService {
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final AccountRepository accountRepository;
+    private final UserRepository userRepository;
+
+    @Transactional
+    public ScheduledTransferResponse create(Long userId, ScheduledTransferRequest request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        Account fromAccount = accountRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found for user: " + userId));
+        Account toAccount = accountRepository.findById(request.getToAccountId())
+                .orElseThrow(() -> new ResourceNotFoundException("To account not found"));
+
+        if (fromAccount.getId().equals(toAccount.getId())) {
+            throw new BadRequestException("Cannot schedule a transfer to the same account");
+        }
+        if (request.getStartAt().isBefore(LocalDateTime.now().minusMinutes(1))) {
+            throw new BadRequestException("Start time must not be in the past");
+        }
+        if (request.getEndAt() != null && request.getEndAt().isBefore(request.getStartAt())) {
+            throw new BadRequestException("End time must be after start time");
+        }
+
+        ScheduledTransfer schedule = ScheduledTransfer.builder()
+                .user(user)
+                .toAccount(toAccount)
+                .amount(request.getAmount())
+                .description(request.getDescription())
+                .frequency(request.getFrequency())
+                .startAt(request.getStartAt())
+                .endAt(request.getEndAt())
+                .nextRunAt(request.getStartAt())
+                .build();
+
+        schedule = scheduledTransferRepository.save(schedule);
+        log.info("Scheduled transfer {} created for user {}: {} {} from {}",
+                schedule.getId(), userId, schedule.getFrequency(), schedule.getAmount(), schedule.getStartAt());
+        return toResponse(schedule);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ScheduledTransferResponse> list(Long userId, Pageable pageable) {
+        return scheduledTransferRepository.findByUserId(userId, pageable).map(this::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public ScheduledTransferResponse get(Long userId, Long id) {
+        return toResponse(findOwned(userId, id));
+    }
+
+    @Transactional
+    public ScheduledTransferResponse pause(Long userId, Long id) {
+        ScheduledTransfer schedule = findOwned(userId, id);
+        if (schedule.getStatus() != ScheduledTransfer.ScheduleStatus.ACTIVE) {
+            throw new BadRequestException("Only active schedules can be paused");
+        }
+        schedule.setStatus(ScheduledTransfer.ScheduleStatus.PAUSED);
+        return toResponse(schedule);
+    }
+
+    /**
+     * Resume a paused schedule, occurrences missed while paused are skipped
+     */
+    @Transactional
+    public ScheduledTransferResponse resume(Long userId, Long id) {
+        ScheduledTransfer schedule = findOwned(userId, id);
+        if (schedule.getStatus() != ScheduledTransfer.ScheduleStatus.PAUSED) {
+            throw new BadRequestException("Only paused schedules can be resumed");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int occurrence = schedule.getOccurrence();
+        if (schedule.getFrequency() != ScheduledTransfer.Frequency.ONCE) {
+            while (schedule.occurrenceTime(occurrence).isBefore(now)) {
+                occurrence++;
+            }
+        }
+        LocalDateTime next = schedule.occurrenceTime(occurrence);
+        schedule.setOccurrence(occurrence);
+        schedule.setLeaseOwner(null);
+        schedule.setLeaseUntil(null);
+        if (schedule.getEndAt() != null && next.isAfter(schedule.getEndAt())) {
+            schedule.setStatus(ScheduledTransfer.ScheduleStatus.COMPLETED);
+            schedule.setNextRunAt(null);
+        } else {
+            schedule.setStatus(ScheduledTransfer.ScheduleStatus.ACTIVE);
+            schedule.setNextRunAt(next);
+        }
+        return toResponse(schedule);
+    }
+
+    @Transactional
+    public ScheduledTransferResponse cancel(Long userId, Long id) {
+        ScheduledTransfer schedule = findOwned(userId, id);
+        if (schedule.getStatus() == ScheduledTransfer.ScheduleStatus.COMPLETED
+                || schedule.getStatus() == ScheduledTransfer.ScheduleStatus.CANCELLED) {
+            throw new BadRequestException("Schedule is already " + schedule.getStatus());
+        }
+        schedule.setStatus(ScheduledTransfer.ScheduleStatus.CANCELLED);
+        schedule.setNextRunAt(null);
+        return toResponse(schedule);
+    }
+
+    /**
+     * Claim executions due before horizon and lease them to owner
+     */
+    @Transactional
+    public List<ScheduledExecution> claimDue(String owner, LocalDateTime horizon, LocalDateTime leaseUntil, int limit) {
+        List<ScheduledTransfer> due = scheduledTransferRepository.findDueForUpdate(horizon, LocalDateTime.now(), limit);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        scheduledTransferRepository.lease(due.stream().map(ScheduledTransfer::getId).toList(), owner, leaseUntil);
+        return due.stream()
+                .map(s -> new ScheduledExecution(
+                        s.getId(),
+                        s.getOccurrence(),
+                        s.getUser().getId(),
+                        s.getToAccount().getId(),
+                        s.getAmount(),
+                        s.getDescription(),
+                        s.getNextRunAt()))
+                .toList();
+    }
+
+    /**
+     * Whether a claimed execution should still run (schedule not paused/cancelled or already advanced)
+     */
+    @Transactional
+    public boolean isExecutable(ScheduledExecution execution) {
+        return scheduledTransferRepository.findById(execution.scheduleId())
+                .map(s -> s.getStatus() == ScheduledTransfer.ScheduleStatus.ACTIVE
+                        && s.getOccurrence() == execution.occurrence())
+                .orElse(false);
+    }
+
+    /**
+     * Record the outcome of an execution and move the schedule to its next occurrence
+     * No-op if the occurrence was already completed (e.g. by a node that took over an expired lease)
+     */
+    @Transactional
+    public void complete(ScheduledExecution execution, String error) {
+        ScheduledTransfer schedule = scheduledTransferRepository.findByIdWithLock(execution.scheduleId())
+                .orElse(null);
+        if (schedule == null || schedule.getOccurrence() != execution.occurrence()) {
+            return;
+        }
+
+        int occurrence = execution.occurrence() + 1;
+        LocalDateTime next = schedule.occurrenceTime(occurrence);
+        schedule.setOccurrence(occurrence);
+        schedule.setLastRunAt(LocalDateTime.now());
+        schedule.setLastError(error == null ? null : truncate(error));
+        if (error != null) {
+            schedule.setFailureCount(schedule.getFailureCount() + 1);
+        }
+        schedule.setLeaseOwner(null);
+        schedule.setLeaseUntil(null);
+
+        boolean finished = schedule.getFrequency() == ScheduledTransfer.Frequency.ONCE
+                || (schedule.getEndAt() != null && next.isAfter(schedule.getEndAt()));
+        if (finished && schedule.getStatus() == ScheduledTransfer.ScheduleStatus.ACTIVE) {
+            schedule.setStatus(ScheduledTransfer.ScheduleStatus.COMPLETED);
+        }
+        schedule.setNextRunAt(finished ? null : next);
+    }
+
+    /**
+     * Give an execution back after a transient failure, any node may retry it after retryAt
+     */
+    @Transactional
+    public void release(ScheduledExecution execution, String owner, LocalDateTime retryAt) {
+        scheduledTransferRepository.findByIdWithLock(execution.scheduleId())
+                .filter(s -> owner.equals(s.getLeaseOwner()) && s.getOccurrence() == execution.occurrence())
+                .ifPresent(s -> {
+                    s.setLeaseOwner(null);
+                    s.setLeaseUntil(retryAt);
+                });
+    }
+
+    @Transactional
+    public int releaseLeases(String owner) {
+        return scheduledTransferRepository.releaseLeases(owner);
+    }
+
+    private ScheduledTransfer findOwned(Long userId, Long id) {
+        return scheduledTransferRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Scheduled transfer not found with id: " + id));
+    }
+
+    private ScheduledTransferResponse toResponse(ScheduledTransfer schedule) {
+        return ScheduledTransferResponse.builder()
+                .id(schedule.getId())
+                .toAccountId(schedule.getToAccount().getId())
+                .amount(schedule.getAmount())
+                .description(schedule.getDescription())
+                .frequency(schedule.getFrequency())
+                .startAt(schedule.getStartAt())
+                .endAt(schedule.getEndAt())
+                .status(schedule.getStatus())
+                .occurrence(schedule.getOccurrence())
+                .nextRunAt(schedule.getNextRunAt())
+                .lastRunAt(schedule.getLastRunAt())
+                .lastError(schedule.getLastError())
+                .failureCount(schedule.getFailureCount())
+                .createdAt(schedule.getCreatedAt())
+                .build();
+    }
+
+    private String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.dto.response.TransferResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Binary (CBOR) form of a transfer response, stored on its idempotency key
+ *
+ * Key features:
+ * 1. Built from the application's Jackson settings, so dates, enums and nulls encode the way the
+ *    JSON response renders them, and a decoded response serializes to the same JSON
+ * 2. Decimals keep their scale and timestamps their full precision, a replay is the original response
+ * 3. A payload that no longer decodes (older layout) returns null, the caller rebuilds the response
+ */
+@Slf4j
+@Component
+public class TransferResponseCodec {
+
+    private final ObjectMapper cborMapper;
+
+    public TransferResponseCodec(Jackson2ObjectMapperBuilder builder) {
+        this.cborMapper = builder.factory(new CBORFactory()).build();
+    }
+
+    public byte[] encode(TransferResponse response) {
+        try {
+            return cborMapper.writeValueAsBytes(response);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode transfer response " + response.getTransactionId(), e);
+        }
+    }
+
+    public TransferResponse decode(byte[] payload) {
+        try {
+            return cborMapper.readValue(payload, TransferResponse.class);
+        } catch (IOException e) {
+            log.warn("Stored transfer response does not decode ({} bytes): {}", payload.length, e.getMessage());
+            return null;
+        }
+    }
+}
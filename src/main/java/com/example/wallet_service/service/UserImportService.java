@@ -0,0 +1,134 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.batch.UserImportJobConfig;
+import com.example.wallet_service.batch.UserImportJobListener;
+import com.example.wallet_service.batch.UserImportLineMapper;
+import com.example.wallet_service.batch.UserImportRejectWriter;
+import com.example.wallet_service.dto.response.UserImportResponse;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    private final Job userImportJob;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+
+    @Value("${app.user-import.work-dir:${java.io.tmpdir}/wallet-user-import}")
+    private String workDir;
+
+    // Own launcher so the HTTP request returns as soon as the job is started
+    private TaskExecutorJobLauncher asyncJobLauncher;
+
+    @PostConstruct
+    public void init() throws Exception {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("user-import-");
+        taskExecutor.setConcurrencyLimit(1);
+
+        asyncJobLauncher = new TaskExecutorJobLauncher();
+        asyncJobLauncher.setJobRepository(jobRepository);
+        asyncJobLauncher.setTaskExecutor(taskExecutor);
+        asyncJobLauncher.afterPropertiesSet();
+    }
+
+    /**
+     * Store the uploaded file and start the import job asynchronously
+     */
+    public UserImportResponse startImport(MultipartFile file, String format) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("Import file is empty");
+        }
+
+        UserImportLineMapper.Format lineFormat = resolveFormat(file.getOriginalFilename(), format);
+
+        try {
+            Path dir = Files.createDirectories(Path.of(workDir));
+            Path input = Files.createTempFile(dir, "users-", "." + lineFormat.name().toLowerCase(Locale.ROOT));
+            file.transferTo(input);
+            Path rejects = dir.resolve(input.getFileName() + ".rejects.tsv");
+
+            JobParameters parameters = new JobParametersBuilder()
+                    .addString(UserImportJobConfig.PARAM_INPUT_FILE, input.toString())
+                    .addString(UserImportJobConfig.PARAM_FORMAT, lineFormat.name())
+                    .addString(UserImportJobConfig.PARAM_REJECT_FILE, rejects.toString())
+                    .addString("original.file", String.valueOf(file.getOriginalFilename()), false)
+                    .toJobParameters();
+
+            JobExecution execution = asyncJobLauncher.run(userImportJob, parameters);
+            log.info("User import {} started for file {}", execution.getId(), file.getOriginalFilename());
+            return toResponse(execution);
+        } catch (IOException e) {
+            throw new BadRequestException("Cannot store import file: " + e.getMessage());
+        } catch (Exception e) {
+            throw new BadRequestException("Cannot start user import: " + e.getMessage());
+        }
+    }
+
+    public UserImportResponse getImport(Long executionId) {
+        JobExecution execution = jobExplorer.getJobExecution(executionId);
+        if (execution == null || !UserImportJobConfig.JOB_NAME.equals(execution.getJobInstance().getJobName())) {
+            throw new ResourceNotFoundException("User import not found with id: " + executionId);
+        }
+        return toResponse(execution);
+    }
+
+    private UserImportLineMapper.Format resolveFormat(String fileName, String format) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return UserImportLineMapper.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported import format: " + format + " (use CSV or NDJSON)");
+            }
+        }
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                ? UserImportLineMapper.Format.NDJSON
+                : UserImportLineMapper.Format.CSV;
+    }
+
+    private UserImportResponse toResponse(JobExecution execution) {
+        long read = 0;
+        long rejected = 0;
+        for (StepExecution step : execution.getStepExecutions()) {
+            read += step.getReadCount();
+            rejected += step.getExecutionContext().getLong(UserImportRejectWriter.REJECT_COUNT_KEY, 0L);
+        }
+
+        return UserImportResponse.builder()
+                .executionId(execution.getId())
+                .status(execution.getStatus().name())
+                .fileName(execution.getJobParameters().getString("original.file"))
+                .readCount(read)
+                .importedCount(read - rejected)
+                .rejectedCount(rejected)
+                .usersPerSecond(UserImportJobListener.usersPerSecond(
+                        read - rejected, execution.getStartTime(), execution.getEndTime()))
+                .rejectFile(execution.getJobParameters().getString(UserImportJobConfig.PARAM_REJECT_FILE))
+                .startTime(execution.getStartTime())
+                .endTime(execution.getEndTime())
+                .build();
+    }
+}
@@ -6,22 +6,43 @@ import com.example.wallet_service.entity.User;
 import com.example.wallet_service.exception.ResourceNotFoundException;
 import com.example.wallet_service.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    // Shortest keyword the trigram index can serve, shorter keywords use prefix match
+    private static final int TRIGRAM_MIN_LENGTH = 3;
+
     private final UserRepository userRepository;
 
+    /**
+     * Search users by username, email or full name
+     * Without explicit sort, results are ranked: exact match, prefix match, then trigram similarity.
+     * Returns a slice (no total count): counting every match on each keystroke is a full index scan.
+     */
     @Transactional(readOnly = true)
-    public Page<UserResponse> searchUsers(String keyword, Pageable pageable) {
-        Page<User> users = userRepository.searchUsers(keyword, pageable);
+    public Slice<UserResponse> searchUsers(String keyword, Pageable pageable) {
+        if (keyword == null || keyword.isBlank()) {
+            return userRepository.findAllBy(pageable).map(this::convertToResponse);
+        }
+
+        String normalized = keyword.trim().toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(normalized);
+        String prefix = escaped + "%";
+        String pattern = normalized.length() < TRIGRAM_MIN_LENGTH ? prefix : "%" + escaped + "%";
+
+        // Caller asked for a specific order: same indexed match, their order instead of the ranking
+        Slice<User> users = pageable.getSort().isSorted()
+                ? userRepository.searchUsers(pattern, pageable)
+                : userRepository.searchUsersRanked(normalized, pattern, prefix, pageable);
         return users.map(this::convertToResponse);
     }
 
@@ -32,6 +53,12 @@ public class UserService {
         return convertToResponse(user);
     }
 
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
     private UserResponse convertToResponse(User user) {
         return UserResponse.builder()
                 .id(user.getId())
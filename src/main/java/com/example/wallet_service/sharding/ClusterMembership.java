@@ -0,0 +1,194 @@
+package com.example.wallet_service.sharding;
+
+import com.example.wallet_service.config.ShardingProperties;
+import com.example.wallet_service.dto.response.ShardNodeResponse;
+import com.example.wallet_service.dto.response.ShardRingResponse;
+import com.example.wallet_service.entity.ClusterNode;
+import com.example.wallet_service.repository.ClusterNodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Live nodes and the account ownership ring built from them
+ *
+ * Key features:
+ * 1. Each node upserts its row in cluster_nodes every heartbeat interval and reads the live ones back,
+ *    a node whose heartbeat is older than node-ttl-ms is out of the ring; a clean shutdown leaves at once.
+ *    Heartbeats and the TTL use the database clock, so a node with a skewed clock is neither dropped nor kept
+ * 2. The ring is rebuilt whenever the set of live nodes changes, so ownership rebalances on join
+ *    and leave, moving about 1/N of the accounts
+ * 3. Nodes may briefly disagree on the ring after a change. Ownership is a locality optimization:
+ *    account rows are still locked in PostgreSQL, so two nodes working on one account stay correct
+ *
+ * With sharding disabled the ring holds this node only and every account is local.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterMembership {
+
+    private final ShardingProperties properties;
+    private final ClusterNodeRepository clusterNodeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile String selfId;
+    private volatile String selfUrl;
+    private volatile LocalDateTime startedAt;
+    private volatile ConsistentHashRing ring;
+    private volatile Map<String, String> urls = Map.of();
+
+    /**
+     * Join once the web server is up, the advertised URL may need its port
+     */
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            return;
+        }
+        selfId = properties.resolvedNodeId();
+        selfUrl = properties.getAdvertisedUrl().isBlank()
+                ? "http://" + hostName() + ":" + event.getWebServer().getPort()
+                : properties.getAdvertisedUrl();
+        startedAt = LocalDateTime.now();
+        urls = Map.of(selfId, selfUrl);
+        ring = ConsistentHashRing.of(Set.of(selfId), properties.getVirtualNodes());
+        if (properties.isEnabled()) {
+            heartbeat();
+            log.info("Node {} joined the cluster at {}", selfId, selfUrl);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sharding.heartbeat-interval-ms:2000}")
+    public void heartbeat() {
+        if (!properties.isEnabled() || selfId == null) {
+            return;
+        }
+        try {
+            // Read-write transaction: the live nodes are read from the primary, never from a lagging replica
+            List<ClusterNode> live = transactionTemplate.execute(status -> {
+                // Database clock for the heartbeat and the TTL alike, node clocks may drift apart
+                LocalDateTime now = clusterNodeRepository.currentTimestamp();
+                clusterNodeRepository.save(ClusterNode.builder()
+                        .nodeId(selfId)
+                        .baseUrl(selfUrl)
+                        .startedAt(startedAt)
+                        .heartbeatAt(now)
+                        .build());
+                return clusterNodeRepository.findByHeartbeatAtAfterOrderByNodeIdAsc(
+                        now.minusNanos(properties.getNodeTtlMs() * 1_000_000));
+            });
+            refresh(live);
+        } catch (Exception e) {
+            // Keep the last ring, forwarding to a dead node falls back to local execution
+            log.warn("Cluster heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void refresh(List<ClusterNode> live) {
+        Map<String, String> current = new LinkedHashMap<>();
+        live.forEach(node -> current.put(node.getNodeId(), node.getBaseUrl()));
+        current.putIfAbsent(selfId, selfUrl);
+        if (current.equals(urls)) {
+            return;
+        }
+
+        Set<String> joined = new HashSet<>(current.keySet());
+        joined.removeAll(urls.keySet());
+        Set<String> left = new HashSet<>(urls.keySet());
+        left.removeAll(current.keySet());
+
+        ring = ConsistentHashRing.of(current.keySet(), properties.getVirtualNodes());
+        urls = Map.copyOf(current);
+        log.info("Shard ring rebuilt with {} nodes (joined {}, left {}), local share {}",
+                current.size(), joined, left, String.format("%.3f", ring.shares().getOrDefault(selfId, 0.0)));
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!properties.isEnabled() || selfId == null) {
+            return;
+        }
+        try {
+            clusterNodeRepository.deleteById(selfId);
+            log.info("Node {} left the cluster", selfId);
+        } catch (Exception e) {
+            log.warn("Cannot leave the cluster, node {} expires after its TTL: {}", selfId, e.getMessage());
+        }
+    }
+
+    /**
+     * Owner node of an account, this node when sharding is off or the ring is not built yet
+     */
+    public String ownerOf(long accountId) {
+        ConsistentHashRing current = ring;
+        if (!properties.isEnabled() || current == null) {
+            return selfId;
+        }
+        return current.ownerOf(accountId);
+    }
+
+    public boolean isLocal(long accountId) {
+        String owner = ownerOf(accountId);
+        return owner == null || owner.equals(selfId);
+    }
+
+    /**
+     * Base URL of a live node, null if it is not in the ring any more
+     */
+    public String urlOf(String nodeId) {
+        return urls.get(nodeId);
+    }
+
+    /**
+     * Current ring with node URLs and shares, for diagnostics
+     */
+    public ShardRingResponse describe(Long accountId) {
+        ConsistentHashRing current = getRing();
+        Map<String, Double> shares = current.shares();
+        return ShardRingResponse.builder()
+                .enabled(properties.isEnabled())
+                .selfId(selfId)
+                .nodes(current.getNodes().stream()
+                        .map(node -> ShardNodeResponse.builder()
+                                .nodeId(node)
+                                .baseUrl(urls.get(node))
+                                .share(shares.get(node))
+                                .build())
+                        .toList())
+                .accountId(accountId)
+                .accountOwner(accountId != null ? ownerOf(accountId) : null)
+                .build();
+    }
+
+    public String getSelfId() {
+        return selfId;
+    }
+
+    public ConsistentHashRing getRing() {
+        ConsistentHashRing current = ring;
+        return current != null ? current : ConsistentHashRing.of(List.of(), properties.getVirtualNodes());
+    }
+
+    private String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
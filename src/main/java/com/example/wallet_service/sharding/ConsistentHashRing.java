@@ -0,0 +1,121 @@
+package com.example.wallet_service.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Consistent hash ring of node ids with virtual nodes, immutable
+ *
+ * Each node is placed at virtualNodes points of a 64-bit ring; an account belongs to the first point
+ * at or after the hash of its id. When a node joins or leaves, only the accounts on the arcs it
+ * gains or loses change owner (about 1/N of them), the rest stay where they are.
+ * The same set of node ids gives the same ring on every node.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final long[] points;   // Sorted
+    private final String[] owners; // Owner of each point
+
+    private ConsistentHashRing(List<String> nodes, long[] points, String[] owners) {
+        this.nodes = nodes;
+        this.points = points;
+        this.owners = owners;
+    }
+
+    public static ConsistentHashRing of(Collection<String> nodeIds, int virtualNodes) {
+        List<String> nodes = List.copyOf(new TreeSet<>(nodeIds));
+        record Point(long hash, String owner) {
+        }
+        List<Point> ring = new ArrayList<>(nodes.size() * virtualNodes);
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.add(new Point(hash(node + "#" + i), node));
+            }
+        }
+        // Ties (practically never) resolved by node id so every node builds the same ring
+        ring.sort(Comparator.comparingLong(Point::hash).thenComparing(Point::owner));
+
+        long[] points = new long[ring.size()];
+        String[] owners = new String[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).hash();
+            owners[i] = ring.get(i).owner();
+        }
+        return new ConsistentHashRing(nodes, points, owners);
+    }
+
+    /**
+     * Owner of an account, null for an empty ring
+     */
+    public String ownerOf(long accountId) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, mix(accountId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Fraction of the hash space owned by each node
+     */
+    public Map<String, Double> shares() {
+        Map<String, Double> shares = new LinkedHashMap<>();
+        nodes.forEach(node -> shares.put(node, 0.0));
+        if (nodes.size() == 1) {
+            shares.put(nodes.get(0), 1.0);
+            return shares;
+        }
+        double ringSize = Math.pow(2, 64);
+        for (int i = 0; i < points.length; i++) {
+            // Arc (previous point, this point], wrapping around at the first point
+            long arc = points[i] - points[i == 0 ? points.length - 1 : i - 1];
+            double length = arc >= 0 ? arc : arc + ringSize;
+            shares.merge(owners[i], length / ringSize, Double::sum);
+        }
+        return shares;
+    }
+
+    /**
+     * 64-bit FNV-1a of the string, finished with the MurmurHash3 mixer to spread nearby names
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * MurmurHash3 fmix64, sequential account ids land all over the ring
+     */
+    static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
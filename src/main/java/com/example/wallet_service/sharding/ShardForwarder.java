@@ -0,0 +1,125 @@
+package com.example.wallet_service.sharding;
+
+import com.example.wallet_service.config.ShardingProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replays an HTTP request on the owner node and copies its response back
+ *
+ * The Authorization header travels with the request, the owner authenticates the caller again.
+ * The forwarding node is named in X-Wallet-Forwarded-By, backed by the cluster secret: the owner only
+ * trusts the header, and never forwards the request again, when the secret matches.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardForwarder {
+
+    public static final String FORWARDED_BY_HEADER = "X-Wallet-Forwarded-By";
+    public static final String CLUSTER_SECRET_HEADER = "X-Wallet-Cluster-Secret";
+
+    // Hop-by-hop headers and the ones HttpClient sets itself
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "upgrade", "keep-alive",
+            "transfer-encoding", "te", "trailer", "proxy-authorization", "proxy-connection");
+
+    // Set by the forwarder only, never copied from the incoming request
+    private static final Set<String> CLUSTER_HEADERS = Set.of(
+            FORWARDED_BY_HEADER.toLowerCase(Locale.ROOT), CLUSTER_SECRET_HEADER.toLowerCase(Locale.ROOT));
+
+    private final ShardingProperties properties;
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(Math.min(properties.getForwardTimeoutMs(), 2000)))
+                .build();
+    }
+
+    /**
+     * Whether the request was forwarded by another node, proven by the cluster secret
+     * A client-supplied X-Wallet-Forwarded-By without it is ignored, the request is routed as usual.
+     */
+    public boolean isForwardedByPeer(HttpServletRequest request) {
+        String secret = request.getHeader(CLUSTER_SECRET_HEADER);
+        return request.getHeader(FORWARDED_BY_HEADER) != null && secret != null
+                && !properties.getClusterSecret().isEmpty()
+                && MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                properties.getClusterSecret().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Forward the request to the node at baseUrl
+     * Returns false when the owner could not be reached at all, the request was not sent and can run
+     * here; once sent, failures are answered with 502/504 instead of running the request twice.
+     */
+    public boolean forward(String baseUrl, String selfId, HttpServletRequest request, byte[] body,
+                           HttpServletResponse response) throws IOException {
+        String query = request.getQueryString();
+        HttpRequest.Builder forwarded = HttpRequest.newBuilder(
+                        URI.create(baseUrl + request.getRequestURI() + (query != null ? "?" + query : "")))
+                .timeout(Duration.ofMillis(properties.getForwardTimeoutMs()))
+                .method(request.getMethod(), body.length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        for (String name : Collections.list(request.getHeaderNames())) {
+            String lowerCase = name.toLowerCase(Locale.ROOT);
+            if (!SKIPPED_HEADERS.contains(lowerCase) && !CLUSTER_HEADERS.contains(lowerCase)) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    forwarded.header(name, value);
+                }
+            }
+        }
+        forwarded.header(FORWARDED_BY_HEADER, selfId);
+        forwarded.header(CLUSTER_SECRET_HEADER, properties.getClusterSecret());
+
+        HttpResponse<byte[]> answer;
+        try {
+            answer = httpClient.send(forwarded.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (ConnectException | HttpConnectTimeoutException e) {
+            return false;
+        } catch (HttpTimeoutException e) {
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Owner node did not answer in time");
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Interrupted while forwarding");
+            return true;
+        } catch (IOException e) {
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "Owner node failed: " + e.getMessage());
+            return true;
+        }
+
+        response.setStatus(answer.statusCode());
+        for (Map.Entry<String, List<String>> header : answer.headers().map().entrySet()) {
+            if (!SKIPPED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT)) && !header.getKey().startsWith(":")) {
+                header.getValue().forEach(value -> response.addHeader(header.getKey(), value));
+            }
+        }
+        response.getOutputStream().write(answer.body());
+        return true;
+    }
+}
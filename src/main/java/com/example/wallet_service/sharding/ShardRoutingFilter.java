@@ -0,0 +1,265 @@
+package com.example.wallet_service.sharding;
+
+import com.example.wallet_service.config.ShardingProperties;
+import com.example.wallet_service.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends account-mutating requests to the node that owns the caller's account
+ *
+ * Key features:
+ * 1. Routed endpoints (app.sharding.routed-endpoints) run on the owner of the caller's account, the
+ *    account that is debited and locked first; other nodes forward them (see ShardForwarder)
+ * 2. On the owner, requests for one account queue on a local striped lock before opening a database
+ *    transaction, so a hot account has one waiter in PostgreSQL instead of one per node and thread,
+ *    and waiting requests hold no connection
+ * 3. Cross-shard transfers: the debit owner runs the whole transfer in one database transaction and
+ *    locks the credited row in PostgreSQL only, never the credited owner's local lock, so owners never
+ *    wait on each other
+ * 4. A forwarded request is never forwarded again (nodes may briefly disagree on the ring), and an
+ *    unreachable owner means the request runs here: ownership is an optimization, not a guarantee.
+ *    Only requests carrying the cluster secret count as forwarded, clients cannot opt out of routing
+ */
+@Slf4j
+@Component
+@Order(0) // After the Spring Security filter chain (-100), the caller is authenticated
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardRoutingFilter extends OncePerRequestFilter {
+
+    private final ShardingProperties properties;
+    private final ClusterMembership membership;
+    private final ShardForwarder forwarder;
+    private final AccountRepository accountRepository;
+    private final MeterRegistry meterRegistry;
+
+    private record Route(String method, PathPattern pattern) {
+    }
+
+    private final Map<String, Long> accountIds = new ConcurrentHashMap<>(); // Accounts never change user
+    private final List<Route> routes = new ArrayList<>();
+    private ReentrantLock[] locks;
+    private Counter local;
+    private Counter forwarded;
+    private Counter fallback;
+    private Counter lockTimeouts;
+
+    @PostConstruct
+    public void init() {
+        if (properties.getClusterSecret() == null || properties.getClusterSecret().isBlank()) {
+            throw new IllegalStateException("app.sharding.cluster-secret (SHARDING_CLUSTER_SECRET) must be set "
+                    + "when sharding is enabled, nodes use it to authenticate forwarded requests");
+        }
+        PathPatternParser parser = new PathPatternParser();
+        for (String endpoint : properties.getRoutedEndpoints()) {
+            String[] parts = endpoint.trim().split("\\s+", 2);
+            routes.add(new Route(parts[0].toUpperCase(Locale.ROOT), parser.parse(parts[1])));
+        }
+        locks = new ReentrantLock[properties.getLocalLockStripes()];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock(true);
+        }
+        local = requests("local");
+        forwarded = requests("forwarded");
+        fallback = requests("owner_unreachable");
+        lockTimeouts = Counter.builder("wallet.shard.local_lock_timeouts")
+                .description("Routed requests that ran without the local account lock")
+                .register(meterRegistry);
+    }
+
+    private Counter requests(String outcome) {
+        return Counter.builder("wallet.shard.requests")
+                .description("Routed requests by where they ran")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Route route : routes) {
+            if (route.method().equals(request.getMethod()) && route.pattern().matches(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Long accountId = callerAccountId();
+        if (accountId == null) {
+            // Anonymous or no account yet, the controller answers
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String owner = membership.ownerOf(accountId);
+        String ownerUrl = owner != null ? membership.urlOf(owner) : null;
+        if (forwarder.isForwardedByPeer(request) || membership.isLocal(accountId)
+                || ownerUrl == null) {
+            local.increment();
+            runLocally(accountId, request, response, filterChain);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        if (forwarder.forward(ownerUrl, membership.getSelfId(), request, body, response)) {
+            forwarded.increment();
+            return;
+        }
+        log.warn("Owner {} of account {} unreachable at {}, running locally", owner, accountId, ownerUrl);
+        fallback.increment();
+        runLocally(accountId, new CachedBodyRequest(request, body), response, filterChain);
+    }
+
+    private void runLocally(long accountId, HttpServletRequest request, HttpServletResponse response,
+                            FilterChain filterChain) throws ServletException, IOException {
+        ReentrantLock lock = locks[(int) Math.floorMod(ConsistentHashRing.mix(accountId), (long) locks.length)];
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(properties.getLocalLockTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!locked) {
+            // The database row lock still serializes the request
+            lockTimeouts.increment();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (locked) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Long callerAccountId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails userDetails)) {
+            return null;
+        }
+        String username = userDetails.getUsername();
+        Long accountId = accountIds.get(username);
+        if (accountId == null) {
+            accountId = accountRepository.findIdByUsername(username).orElse(null);
+            if (accountId != null) {
+                if (accountIds.size() >= properties.getAccountCacheSize()) {
+                    evictSome();
+                }
+                accountIds.put(username, accountId);
+            }
+        }
+        return accountId;
+    }
+
+    /**
+     * Over capacity, drop an arbitrary tenth of the cached account ids
+     */
+    private void evictSome() {
+        int toDrop = Math.max(1, accountIds.size() / 10);
+        Iterator<String> it = accountIds.keySet().iterator();
+        while (it.hasNext() && toDrop-- > 0) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Request whose body was already read for forwarding
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The whole body is already in memory, so it is all available at once
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.example.wallet_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.event-log.node-id=context-loads") // The event log requires an explicit node id
 class WalletServiceApplicationTests {
 
 	@Test
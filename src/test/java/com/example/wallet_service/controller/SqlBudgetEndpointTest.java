@@ -0,0 +1,258 @@
+package com.example.wallet_service.controller;
+
+import com.example.wallet_service.config.SqlBudgetProperties;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Role;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.RoleRepository;
+import com.example.wallet_service.repository.UserRepository;
+import com.example.wallet_service.util.JwtTokenUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Drives the budgeted payment, auth and user endpoints through the full filter chain and checks their SQL budgets
+ *
+ * Runs with app.sql-budget.mode=FAIL and the budgets from application.yaml, so a new query on
+ * any of these paths (N+1, extra lookup) fails here before it reaches production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SqlBudgetEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private SqlBudgetProperties sqlBudgetProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String senderToken;
+    private String recipientToken;
+    private Long recipientAccountId;
+
+    private record SeededUser(String token, Long accountId) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        // pg_trgm stand-in, so the ranked user search runs on H2
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS similarity FOR \""
+                + SqlBudgetEndpointTest.class.getName() + ".similarity\"");
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        senderToken = seedUser("budget_sender_" + runId, true).token();
+        SeededUser recipient = seedUser("budget_recipient_" + runId, true);
+        recipientToken = recipient.token();
+        recipientAccountId = recipient.accountId();
+    }
+
+    @Test
+    void paymentEndpointsStayWithinTheirBudgets() throws Exception {
+        call(get("/api/payments/balance"), senderToken, 200);
+
+        MvcResult transfer = call(post("/api/payments/transfer").content(json(Map.of(
+                "toAccountId", recipientAccountId,
+                "amount", new BigDecimal("25.00"),
+                "idempotencyKey", UUID.randomUUID().toString()))), senderToken, 201);
+        long transactionId = read(transfer).get("transactionId").asLong();
+
+        call(get("/api/payments/transactions?size=20"), senderToken, 200);
+        call(get("/api/payments/transactions?size=20"), recipientToken, 200);
+
+        call(post("/api/payments/transactions/{id}/refund", transactionId).content(json(Map.of(
+                "amount", new BigDecimal("10.00"),
+                "idempotencyKey", UUID.randomUUID().toString()))), recipientToken, 201);
+        call(get("/api/payments/transactions/{id}/refunds", transactionId), senderToken, 200);
+    }
+
+    @Test
+    void fullHistoryPageDoesNotLoadCounterpartiesOneByOne() throws Exception {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < 25; i++) {
+            String token = seedUser("budget_payer_" + runId + "_" + i, true).token();
+            call(post("/api/payments/transfer").content(json(Map.of(
+                    "toAccountId", recipientAccountId,
+                    "amount", new BigDecimal("1.00"),
+                    "idempotencyKey", UUID.randomUUID().toString()))), token, 201);
+        }
+
+        MvcResult page = call(get("/api/payments/transactions?size=20"), recipientToken, 200);
+
+        assertThat(read(page).get("content")).hasSize(20);
+    }
+
+    @Test
+    void idempotentReplayStaysWithinTheTransferBudget() throws Exception {
+        String body = json(Map.of(
+                "toAccountId", recipientAccountId,
+                "amount", new BigDecimal("1.00"),
+                "idempotencyKey", UUID.randomUUID().toString()));
+
+        call(post("/api/payments/transfer").content(body), senderToken, 201);
+        call(post("/api/payments/transfer").content(body), senderToken, 201);
+    }
+
+    @Test
+    void accountCreationStaysWithinItsBudget() throws Exception {
+        String token = seedUser("budget_new_" + UUID.randomUUID().toString().substring(0, 8), false).token();
+
+        call(post("/api/payments/account/create"), token, 201);
+    }
+
+    @Test
+    void authEndpointsStayWithinTheirBudgets() throws Exception {
+        String username = "budget_auth_" + UUID.randomUUID().toString().substring(0, 8);
+        String email = username + "@example.com";
+
+        call(post("/api/auth/register").content(json(Map.of(
+                "username", username,
+                "email", email,
+                "password", "secret-1",
+                "fullName", "Budget Auth"))), null, 200);
+        call(post("/api/auth/login").content(json(Map.of(
+                "username", username,
+                "password", "secret-1"))), null, 200);
+
+        call(post("/api/auth/forgot-password").content(json(Map.of("email", email))), null, 200);
+        String resetToken = userRepository.findByEmail(email).orElseThrow().getResetPasswordToken();
+        call(post("/api/auth/reset-password").content(json(Map.of(
+                "token", resetToken,
+                "newPassword", "secret-2"))), null, 200);
+    }
+
+    @Test
+    void userEndpointsStayWithinTheirBudgets() throws Exception {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        String adminToken = seedUser("budget_admin_" + runId, false, Role.RoleName.ROLE_ADMIN).token();
+        Long userId = userRepository.findByUsername("budget_admin_" + runId).orElseThrow().getId();
+
+        MvcResult ranked = call(get("/api/users/search?keyword=budget_admin_" + runId), adminToken, 200);
+        assertThat(read(ranked).get("content").get(0).get("id").asLong()).isEqualTo(userId);
+        call(get("/api/users/search?keyword=budget&size=20"), adminToken, 200);
+        call(get("/api/users/search?keyword=budget&size=20&sort=username"), adminToken, 200);
+        call(get("/api/users/search?size=20"), adminToken, 200);
+        call(get("/api/users/{id}", userId), adminToken, 200);
+
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv",
+                ("username,email,password,fullName\n"
+                        + "budget_import_" + runId + ",budget_import_" + runId + "@example.com,secret-1,Imported\n")
+                        .getBytes(StandardCharsets.UTF_8));
+        MvcResult started = call(multipart("/api/users/import").file(file), adminToken, 202);
+        call(get("/api/users/import/{executionId}", read(started).get("executionId").asLong()), adminToken, 200);
+    }
+
+    @Test
+    void exceededBudgetFailsTheRequest() throws Exception {
+        sqlBudgetProperties.getEndpoints().put("GET /api/payments/balance", 1);
+        try {
+            MvcResult result = mockMvc.perform(get("/api/payments/balance")
+                            .header("Authorization", "Bearer " + senderToken))
+                    .andReturn();
+
+            assertThat(result.getResponse().getStatus()).isEqualTo(500);
+            assertThat(result.getResponse().getContentAsString()).contains("SQL budget exceeded on GET /api/payments/balance");
+        } finally {
+            sqlBudgetProperties.getEndpoints().put("GET /api/payments/balance", 8);
+        }
+    }
+
+    /**
+     * Perform the request and check its status and that it ran within its budget
+     */
+    private MvcResult call(MockHttpServletRequestBuilder request, String token, int expectedStatus) throws Exception {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (!(request instanceof MockMultipartHttpServletRequestBuilder)) {
+            request.contentType(MediaType.APPLICATION_JSON);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        String endpoint = result.getRequest().getMethod() + " "
+                + result.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        assertThat(result.getResponse().getStatus())
+                .as("%s: %s", endpoint, result.getResponse().getContentAsString())
+                .isEqualTo(expectedStatus);
+        int statements = Integer.parseInt(result.getResponse().getHeader("X-SQL-Statements"));
+        int budget = Integer.parseInt(result.getResponse().getHeader("X-SQL-Budget"));
+        assertThat(sqlBudgetProperties.getEndpoints()).as("budgeted endpoints").containsEntry(endpoint, budget);
+        assertThat(statements).as("%s statements", endpoint).isPositive().isLessThanOrEqualTo(budget);
+        return result;
+    }
+
+    private SeededUser seedUser(String username, boolean withAccount) {
+        return seedUser(username, withAccount, Role.RoleName.ROLE_USER);
+    }
+
+    private SeededUser seedUser(String username, boolean withAccount, Role.RoleName roleName) {
+        Role userRole = roleRepository.findByName(roleName).orElseThrow();
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("not-used")
+                .fullName(username)
+                .build();
+        user.getRoles().add(userRole);
+        user = userRepository.save(user);
+        Long accountId = withAccount
+                ? accountRepository.save(Account.builder().user(user).balance(new BigDecimal("1000.00")).build()).getId()
+                : null;
+        return new SeededUser(jwtTokenUtil.generateToken(username, Set.of(roleName.name())), accountId);
+    }
+
+    public static double similarity(String value, String keyword) {
+        return value != null && value.contains(keyword) ? (double) keyword.length() / value.length() : 0;
+    }
+
+    private String json(Object body) throws Exception {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private JsonNode read(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.wallet_service.scheduling;
+
+import com.example.wallet_service.dto.request.TransferRequest;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.service.PaymentService;
+import com.example.wallet_service.service.ScheduledTransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Which transfer failures skip an occurrence and which hand it back for a retry
+ */
+class ScheduledTransferDispatcherTest {
+
+    private final ScheduledExecution execution = new ScheduledExecution(
+            7L, 3, 11L, 22L, new BigDecimal("50.00"), "Rent", LocalDateTime.now());
+
+    private ScheduledTransferService scheduledTransferService;
+    private PaymentService paymentService;
+    private ScheduledTransferDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        scheduledTransferService = mock(ScheduledTransferService.class);
+        paymentService = mock(PaymentService.class);
+        dispatcher = new ScheduledTransferDispatcher(scheduledTransferService, paymentService);
+        ReflectionTestUtils.setField(dispatcher, "retryDelaySeconds", 60L);
+        when(scheduledTransferService.isExecutable(execution)).thenReturn(true);
+    }
+
+    @Test
+    void completedTransferCompletesTheOccurrence() {
+        execute();
+
+        verify(scheduledTransferService).complete(eq(execution), isNull());
+        verify(scheduledTransferService, never()).release(any(), anyString(), any());
+    }
+
+    @Test
+    void businessFailureSkipsTheOccurrence() {
+        when(paymentService.transfer(anyLong(), any(TransferRequest.class)))
+                .thenThrow(new BadRequestException("Insufficient balance"));
+
+        execute();
+
+        verify(scheduledTransferService).complete(execution, "Insufficient balance");
+        verify(scheduledTransferService, never()).release(any(), anyString(), any());
+    }
+
+    @Test
+    void transientFailureIsRetried() {
+        when(paymentService.transfer(anyLong(), any(TransferRequest.class)))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        execute();
+
+        verify(scheduledTransferService).release(eq(execution), anyString(), any(LocalDateTime.class));
+        verify(scheduledTransferService, never()).complete(any(), any());
+    }
+
+    private void execute() {
+        ReflectionTestUtils.invokeMethod(dispatcher, "execute", execution);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.entity.EmailOutbox;
+import com.example.wallet_service.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * EmailDispatcher against a GreenMail SMTP server, with the outbox table kept in memory
+ *
+ * The repository mock applies the same state changes as the outbox queries (due rows, lease, sent),
+ * so dispatch, retry and backoff run unchanged.
+ */
+class EmailDispatcherTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static final int BATCH_SIZE = 3;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+    private static final long MAX_BACKOFF_SECONDS = 45;
+
+    private final Map<Long, EmailOutbox> outbox = new LinkedHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private JavaMailSenderImpl mailSender;
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        EmailOutboxRepository repository = inMemoryRepository();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        dispatcher = new EmailDispatcher(repository, mailSender,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(dispatcher, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffSeconds", INITIAL_BACKOFF_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffSeconds", MAX_BACKOFF_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(dispatcher, "from", "wallet@example.com");
+    }
+
+    @Test
+    void sendsEveryDueEmailOnceAcrossBatches() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            enqueue("user" + i + "@example.com");
+        }
+
+        dispatcher.dispatch();
+        dispatcher.dispatch(); // Nothing due any more
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(7);
+        List<String> recipients = new ArrayList<>();
+        for (MimeMessage message : received) {
+            recipients.add(message.getAllRecipients()[0].toString());
+        }
+        assertThat(recipients).doesNotHaveDuplicates();
+        assertThat(outbox.values()).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(EmailOutbox.EmailStatus.SENT);
+            assertThat(email.getAttempts()).isEqualTo(1);
+            assertThat(email.getSentAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void leasedEmailIsNotSentAgainBeforeTheLeaseExpires() {
+        EmailOutbox email = enqueue("leased@example.com");
+        email.setStatus(EmailOutbox.EmailStatus.SENDING);
+        email.setNextAttemptAt(LocalDateTime.now().plusMinutes(5)); // Claimed by another node
+
+        dispatcher.dispatch();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+        email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)); // That node died
+        dispatcher.dispatch();
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(email.getStatus()).isEqualTo(EmailOutbox.EmailStatus.SENT);
+    }
+
+    @Test
+    void retriesWithExponentialBackoffThenGivesUp() throws IOException {
+        EmailOutbox email = enqueue("retry@example.com");
+        mailSender.setPort(closedPort());
+
+        dispatcher.dispatch();
+        assertRetryScheduled(email, 1, INITIAL_BACKOFF_SECONDS);
+
+        dispatcher.dispatch(); // Not due yet
+        assertThat(email.getAttempts()).isEqualTo(1);
+
+        makeDue(email);
+        dispatcher.dispatch();
+        assertRetryScheduled(email, 2, MAX_BACKOFF_SECONDS); // 60s capped
+
+        makeDue(email);
+        dispatcher.dispatch();
+        assertThat(email.getStatus()).isEqualTo(EmailOutbox.EmailStatus.FAILED);
+        assertThat(email.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        makeDue(email);
+        dispatcher.dispatch();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void retriedEmailIsDeliveredOnceWhenTheServerIsBack() throws IOException {
+        EmailOutbox email = enqueue("recover@example.com");
+        mailSender.setPort(closedPort());
+        dispatcher.dispatch();
+        assertRetryScheduled(email, 1, INITIAL_BACKOFF_SECONDS);
+
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        makeDue(email);
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(email.getStatus()).isEqualTo(EmailOutbox.EmailStatus.SENT);
+        assertThat(email.getAttempts()).isEqualTo(2);
+        assertThat(email.getLastError()).isNull();
+    }
+
+    private void assertRetryScheduled(EmailOutbox email, int attempts, long backoffSeconds) {
+        assertThat(email.getStatus()).isEqualTo(EmailOutbox.EmailStatus.PENDING);
+        assertThat(email.getAttempts()).isEqualTo(attempts);
+        assertThat(email.getLastError()).isNotBlank();
+        assertThat(email.getNextAttemptAt())
+                .isCloseTo(LocalDateTime.now().plusSeconds(backoffSeconds), within(5, ChronoUnit.SECONDS));
+    }
+
+    private EmailOutbox enqueue(String recipient) {
+        EmailOutbox email = EmailOutbox.builder()
+                .id(ids.incrementAndGet())
+                .recipient(recipient)
+                .subject("Password reset")
+                .body("Reset link for " + recipient)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+        outbox.put(email.getId(), email);
+        return email;
+    }
+
+    private void makeDue(EmailOutbox email) {
+        email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+    }
+
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Repository mock over the in-memory outbox, mirroring the queries of EmailOutboxRepository
+     */
+    @SuppressWarnings("unchecked")
+    private EmailOutboxRepository inMemoryRepository() {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+        when(repository.findDueForUpdate(any(), anyInt())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return outbox.values().stream()
+                    .filter(e -> e.getStatus() == EmailOutbox.EmailStatus.PENDING
+                            || e.getStatus() == EmailOutbox.EmailStatus.SENDING)
+                    .filter(e -> !e.getNextAttemptAt().isAfter(now))
+                    .sorted(Comparator.comparing(EmailOutbox::getNextAttemptAt))
+                    .limit(limit)
+                    .toList();
+        });
+        when(repository.markSending(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> claimed = invocation.getArgument(0);
+            LocalDateTime leaseUntil = invocation.getArgument(1);
+            claimed.forEach(id -> {
+                outbox.get(id).setStatus(EmailOutbox.EmailStatus.SENDING);
+                outbox.get(id).setNextAttemptAt(leaseUntil);
+            });
+            return claimed.size();
+        });
+        when(repository.markSent(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> sent = invocation.getArgument(0);
+            LocalDateTime sentAt = invocation.getArgument(1);
+            sent.forEach(id -> {
+                EmailOutbox email = outbox.get(id);
+                email.setStatus(EmailOutbox.EmailStatus.SENT);
+                email.setSentAt(sentAt);
+                email.setAttempts(email.getAttempts() + 1);
+                email.setLastError(null);
+            });
+            return sent.size();
+        });
+        when(repository.saveAll(any(Iterable.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        return repository;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.dto.request.CaptureHoldRequest;
+import com.example.wallet_service.dto.request.PlaceHoldRequest;
+import com.example.wallet_service.dto.response.HoldResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Hold;
+import com.example.wallet_service.entity.Role;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.HoldRepository;
+import com.example.wallet_service.repository.RoleRepository;
+import com.example.wallet_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Holds against the account's held amount: place, capture, release and expiry each move it exactly once
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HoldServiceTest {
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private HoldExpirySweeper holdExpirySweeper;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account payer;
+    private Account merchant;
+
+    @BeforeEach
+    void setUp() {
+        payer = seedAccount("hold_payer", "1000.00");
+        merchant = seedAccount("hold_merchant", "0.00");
+    }
+
+    @Test
+    void placingAHoldReservesTheAmount() {
+        placeHold("250.00");
+
+        Account account = reload(payer);
+        assertThat(account.getBalance()).isEqualByComparingTo("1000.00");
+        assertThat(account.getHeldAmount()).isEqualByComparingTo("250.00");
+        assertThat(account.availableBalance()).isEqualByComparingTo("750.00");
+    }
+
+    @Test
+    void holdAboveTheAvailableBalanceIsRejected() {
+        placeHold("800.00");
+
+        assertThatThrownBy(() -> placeHold("300.00")).isInstanceOf(BadRequestException.class);
+        assertThat(reload(payer).getHeldAmount()).isEqualByComparingTo("800.00");
+    }
+
+    @Test
+    void partialCaptureDebitsTheCaptureAndReleasesTheRest() {
+        HoldResponse hold = placeHold("250.00");
+
+        paymentService.captureHold(merchant.getUser().getId(), hold.getHoldId(),
+                new CaptureHoldRequest(new BigDecimal("100.00"), UUID.randomUUID().toString()));
+
+        Account account = reload(payer);
+        assertThat(account.getBalance()).isEqualByComparingTo("900.00");
+        assertThat(account.getHeldAmount()).isEqualByComparingTo("0.00");
+        assertThat(reload(merchant).getBalance()).isEqualByComparingTo("100.00");
+        Hold captured = holdRepository.findById(hold.getHoldId()).orElseThrow();
+        assertThat(captured.getStatus()).isEqualTo(Hold.HoldStatus.CAPTURED);
+        assertThat(captured.getCapturedAmount()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void releaseReturnsTheReservedAmountOnce() {
+        HoldResponse kept = placeHold("100.00");
+        HoldResponse released = placeHold("250.00");
+
+        holdService.releaseHold(payer.getUser().getId(), released.getHoldId());
+        assertThatThrownBy(() -> holdService.releaseHold(payer.getUser().getId(), released.getHoldId()))
+                .isInstanceOf(BadRequestException.class);
+
+        Account account = reload(payer);
+        assertThat(account.getBalance()).isEqualByComparingTo("1000.00");
+        assertThat(account.getHeldAmount()).isEqualByComparingTo(kept.getAmount());
+    }
+
+    @Test
+    void expiryReturnsTheReservedAmountOnce() {
+        HoldResponse active = placeHold("100.00");
+        HoldResponse first = placeHold("250.00");
+        HoldResponse second = placeHold("50.00");
+        expire(first);
+        expire(second);
+
+        holdExpirySweeper.sweep();
+        holdExpirySweeper.sweep();
+
+        Account account = reload(payer);
+        assertThat(account.getBalance()).isEqualByComparingTo("1000.00");
+        assertThat(account.getHeldAmount()).isEqualByComparingTo(active.getAmount());
+        assertThat(holdRepository.findById(first.getHoldId()).orElseThrow().getStatus()).isEqualTo(Hold.HoldStatus.EXPIRED);
+        assertThat(holdRepository.findById(second.getHoldId()).orElseThrow().getStatus()).isEqualTo(Hold.HoldStatus.EXPIRED);
+        assertThat(holdRepository.findById(active.getHoldId()).orElseThrow().getStatus()).isEqualTo(Hold.HoldStatus.ACTIVE);
+
+        // An expired hold can neither be released nor captured again
+        assertThatThrownBy(() -> holdService.releaseHold(payer.getUser().getId(), first.getHoldId()))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> paymentService.captureHold(merchant.getUser().getId(), second.getHoldId(),
+                new CaptureHoldRequest(null, UUID.randomUUID().toString())))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(reload(payer).getHeldAmount()).isEqualByComparingTo(active.getAmount());
+    }
+
+    @Test
+    void sweeperReleaseKeepsTheAccountUsable() {
+        HoldResponse expired = placeHold("400.00");
+        expire(expired);
+        holdExpirySweeper.sweep();
+
+        // The bulk update bumped the version, a later locked update must still see the released amount
+        placeHold("900.00");
+        assertThat(reload(payer).getHeldAmount()).isEqualByComparingTo("900.00");
+    }
+
+    private HoldResponse placeHold(String amount) {
+        return holdService.placeHold(payer.getUser().getId(), new PlaceHoldRequest(merchant.getId(),
+                new BigDecimal(amount), UUID.randomUUID().toString(), null, null));
+    }
+
+    private void expire(HoldResponse hold) {
+        jdbcTemplate.update("UPDATE holds SET expires_at = DATEADD('SECOND', -1, LOCALTIMESTAMP) WHERE id = ?",
+                hold.getHoldId());
+    }
+
+    private Account reload(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow();
+    }
+
+    private Account seedAccount(String prefix, String balance) {
+        String username = prefix + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("not-used")
+                .fullName(username)
+                .build();
+        user.getRoles().add(roleRepository.findByName(Role.RoleName.ROLE_USER).orElseThrow());
+        user = userRepository.save(user);
+        return accountRepository.save(Account.builder().user(user).balance(new BigDecimal(balance)).build());
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.dto.request.RefundRequest;
+import com.example.wallet_service.dto.request.TransferRequest;
+import com.example.wallet_service.dto.response.TransferResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Role;
+import com.example.wallet_service.entity.Transaction;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.RoleRepository;
+import com.example.wallet_service.repository.TransactionRepository;
+import com.example.wallet_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Refunds against the original transfer: they add up, never exceed it, and return exactly what was paid
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentServiceRefundTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private Account payer;
+    private Account merchant;
+
+    @BeforeEach
+    void setUp() {
+        payer = seedAccount("refund_payer", "1000.00", "USD");
+        merchant = seedAccount("refund_merchant", "0.00", "USD");
+    }
+
+    @Test
+    void fullRefundCancelsTheTransfer() {
+        TransferResponse transfer = transfer("100.00");
+
+        TransferResponse refund = refund(transfer, null);
+
+        assertThat(refund.getAmount()).isEqualByComparingTo("100.00");
+        assertThat(refund.getRefundOfTransactionId()).isEqualTo(transfer.getTransactionId());
+        Transaction original = reload(transfer);
+        assertThat(original.getStatus()).isEqualTo(Transaction.TransactionStatus.CANCELLED);
+        assertThat(original.getRefundedAmount()).isEqualByComparingTo("100.00");
+        assertThat(reload(payer).getBalance()).isEqualByComparingTo("1000.00");
+        assertThat(reload(merchant).getBalance()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void partialRefundsAddUp() {
+        TransferResponse transfer = transfer("100.00");
+
+        refund(transfer, "30.00");
+        Transaction original = reload(transfer);
+        assertThat(original.getStatus()).isEqualTo(Transaction.TransactionStatus.COMPLETED);
+        assertThat(original.refundableAmount()).isEqualByComparingTo("70.00");
+
+        refund(transfer, "70.00");
+        original = reload(transfer);
+        assertThat(original.getStatus()).isEqualTo(Transaction.TransactionStatus.CANCELLED);
+        assertThat(original.getRefundedAmount()).isEqualByComparingTo("100.00");
+        assertThat(transactionRepository.findByRefundOfTransactionIdOrderByIdAsc(transfer.getTransactionId()))
+                .extracting(Transaction::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("30.00"), new BigDecimal("70.00"));
+        assertThat(reload(payer).getBalance()).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    void overRefundAndRefundOfARefundAreRejected() {
+        TransferResponse transfer = transfer("100.00");
+        TransferResponse refund = refund(transfer, "60.00");
+
+        assertThatThrownBy(() -> refund(transfer, "40.01"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("exceeds refundable amount");
+        assertThatThrownBy(() -> paymentService.refund(payer.getUser().getId(), refund.getTransactionId(),
+                new RefundRequest(null, UUID.randomUUID().toString(), null), false))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("can't be refunded");
+
+        assertThat(reload(transfer).getRefundedAmount()).isEqualByComparingTo("60.00");
+        assertThat(reload(merchant).getBalance()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void retryWithTheSameKeyReturnsTheStoredRefund() {
+        TransferResponse transfer = transfer("100.00");
+        RefundRequest request = new RefundRequest(new BigDecimal("25.00"), UUID.randomUUID().toString(), null);
+
+        TransferResponse first = paymentService.refund(merchant.getUser().getId(), transfer.getTransactionId(), request, false);
+        TransferResponse retry = paymentService.refund(merchant.getUser().getId(), transfer.getTransactionId(), request, false);
+
+        assertThat(retry.getTransactionId()).isEqualTo(first.getTransactionId());
+        assertThat(retry.getAmount()).isEqualByComparingTo("25.00");
+        assertThat(reload(transfer).getRefundedAmount()).isEqualByComparingTo("25.00");
+        assertThat(reload(merchant).getBalance()).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void crossCurrencyRefundsReturnExactlyTheOriginalAmount() {
+        Account eurMerchant = seedAccount("refund_merchant_eur", "9.17", "EUR");
+        // 10.00 USD credited as 9.17 EUR
+        Transaction original = transactionRepository.save(Transaction.builder()
+                .fromAccount(payer)
+                .toAccount(eurMerchant)
+                .amount(new BigDecimal("10.00"))
+                .currency("USD")
+                .creditedAmount(new BigDecimal("9.17"))
+                .creditedCurrency("EUR")
+                .fxRate(new BigDecimal("0.9170000000"))
+                .fxRateVersion(1L)
+                .status(Transaction.TransactionStatus.COMPLETED)
+                .idempotencyKey(UUID.randomUUID().toString())
+                .build());
+
+        TransferResponse first = paymentService.refund(eurMerchant.getUser().getId(), original.getId(),
+                new RefundRequest(new BigDecimal("3.00"), UUID.randomUUID().toString(), null), false);
+        TransferResponse last = paymentService.refund(eurMerchant.getUser().getId(), original.getId(),
+                new RefundRequest(new BigDecimal("6.17"), UUID.randomUUID().toString(), null), false);
+
+        // 3.00 EUR is 3.27 USD rounded down, the last refund returns the rest instead of rounding again
+        assertThat(first.getCreditedAmount()).isEqualByComparingTo("3.27");
+        assertThat(last.getCreditedAmount()).isEqualByComparingTo("6.73");
+        // Each refund row carries the rate it applied
+        assertThat(first.getFxRate()).isEqualByComparingTo("1.09");
+        assertThat(last.getFxRate()).isEqualByComparingTo(new BigDecimal("6.73").divide(new BigDecimal("6.17"),
+                10, RoundingMode.HALF_EVEN));
+
+        Transaction refunded = transactionRepository.findById(original.getId()).orElseThrow();
+        assertThat(refunded.getStatus()).isEqualTo(Transaction.TransactionStatus.CANCELLED);
+        assertThat(refunded.getRefundReturnedAmount()).isEqualByComparingTo("10.00");
+        assertThat(reload(payer).getBalance()).isEqualByComparingTo("1010.00");
+        assertThat(reload(eurMerchant).getBalance()).isEqualByComparingTo("0.00");
+    }
+
+    private TransferResponse transfer(String amount) {
+        return paymentService.transfer(payer.getUser().getId(), new TransferRequest(merchant.getId(),
+                new BigDecimal(amount), UUID.randomUUID().toString(), null));
+    }
+
+    private TransferResponse refund(TransferResponse transfer, String amount) {
+        return paymentService.refund(merchant.getUser().getId(), transfer.getTransactionId(),
+                new RefundRequest(amount != null ? new BigDecimal(amount) : null, UUID.randomUUID().toString(), null),
+                false);
+    }
+
+    private Transaction reload(TransferResponse transfer) {
+        return transactionRepository.findById(transfer.getTransactionId()).orElseThrow();
+    }
+
+    private Account reload(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow();
+    }
+
+    private Account seedAccount(String prefix, String balance, String currency) {
+        String username = prefix + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("not-used")
+                .fullName(username)
+                .build();
+        user.getRoles().add(roleRepository.findByName(Role.RoleName.ROLE_USER).orElseThrow());
+        user = userRepository.save(user);
+        return accountRepository.save(Account.builder().user(user).balance(new BigDecimal(balance))
+                .currency(currency).build());
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.dto.request.PayoutItemRequest;
+import com.example.wallet_service.dto.request.PayoutRequest;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Payout;
+import com.example.wallet_service.entity.Role;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.event.PayoutItemsCreditedEvent;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.PayoutRepository;
+import com.example.wallet_service.repository.RoleRepository;
+import com.example.wallet_service.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payouts credited chunk by chunk: the sender is debited once per credited item and nobody is paid twice
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class PayoutServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private PayoutService payoutService;
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void multiChunkPayoutSkipsAVanishedRecipient() {
+        Account sender = seedAccount("payout_sender", "1000.00");
+        List<Account> recipients = seedRecipients(5);
+        // The third recipient, in the middle of the second chunk, is deleted after the payout was accepted
+        long payoutId = createPayout(sender, recipients, "10.00", "20.00", "30.00", "40.00", "50.00");
+        vanish(recipients.get(2));
+
+        PayoutService.Claim claim = claim("node-a", payoutId);
+        assertThat(drain(claim, "node-a")).isEqualTo(3);
+        payoutService.complete(payoutId, "node-a");
+
+        Account senderAfter = reload(sender);
+        assertThat(senderAfter.getBalance()).isEqualByComparingTo("880.00");
+        assertThat(senderAfter.getHeldAmount()).isEqualByComparingTo("0.00");
+
+        Payout payout = payoutRepository.findById(payoutId).orElseThrow();
+        assertThat(payout.getStatus()).isEqualTo(Payout.PayoutStatus.COMPLETED);
+        assertThat(payout.getCreditedCount()).isEqualTo(4);
+        assertThat(payout.getFailedCount()).isEqualTo(1);
+        assertThat(payout.getFailedAmount()).isEqualByComparingTo("30.00");
+
+        List<Map<String, Object>> rows = transactions(payoutId);
+        assertThat(rows).extracting(row -> ((Number) row.get("TO_ACCOUNT_ID")).longValue())
+                .containsExactly(recipients.get(0).getId(), recipients.get(1).getId(),
+                        recipients.get(3).getId(), recipients.get(4).getId());
+        // Sender balance after each credit, in account id order; recipients started at 5.00
+        assertThat(rows).extracting(row -> (BigDecimal) row.get("FROM_BALANCE_AFTER"))
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("990.00"), new BigDecimal("970.00"),
+                        new BigDecimal("930.00"), new BigDecimal("880.00"));
+        assertThat(rows).extracting(row -> (BigDecimal) row.get("TO_BALANCE_AFTER"))
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("15.00"), new BigDecimal("25.00"),
+                        new BigDecimal("45.00"), new BigDecimal("55.00"));
+
+        // One credit per credited item, carrying what the recipient's notification needs
+        List<PayoutItemsCreditedEvent.Credit> credits = events.stream(PayoutItemsCreditedEvent.class)
+                .filter(event -> event.payoutId() == payoutId)
+                .flatMap(event -> event.credits().stream())
+                .toList();
+        assertThat(credits).extracting(PayoutItemsCreditedEvent.Credit::toUserId)
+                .containsExactly(recipients.get(0).getUser().getId(), recipients.get(1).getUser().getId(),
+                        recipients.get(3).getUser().getId(), recipients.get(4).getUser().getId());
+        assertThat(credits).extracting(PayoutItemsCreditedEvent.Credit::toAccountBalance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("15.00"), new BigDecimal("25.00"),
+                        new BigDecimal("45.00"), new BigDecimal("55.00"));
+    }
+
+    @Test
+    void payoutResumedAfterALostLeasePaysEachRecipientOnce() {
+        Account sender = seedAccount("payout_sender", "1000.00");
+        List<Account> recipients = seedRecipients(5);
+        long payoutId = createPayout(sender, recipients, "10.00", "20.00", "30.00", "40.00", "50.00");
+
+        PayoutService.Claim claimA = claim("node-a", payoutId);
+        assertThat(payoutService.creditChunk(claimA, "node-a", CHUNK_SIZE, leaseUntil())).isEqualTo(CHUNK_SIZE);
+
+        // node-a stalls past its lease, node-b takes the payout over and finishes it
+        jdbcTemplate.update("UPDATE payouts SET lease_until = DATEADD('SECOND', -1, LOCALTIMESTAMP) WHERE id = ?",
+                payoutId);
+        PayoutService.Claim claimB = claim("node-b", payoutId);
+        assertThat(drain(claimB, "node-b")).isEqualTo(2);
+
+        // node-a wakes up: its chunk and its completion are refused
+        assertThat(payoutService.creditChunk(claimA, "node-a", CHUNK_SIZE, leaseUntil())).isEqualTo(-1);
+        payoutService.complete(payoutId, "node-a");
+        assertThat(payoutRepository.findById(payoutId).orElseThrow().getStatus())
+                .isEqualTo(Payout.PayoutStatus.PROCESSING);
+        payoutService.complete(payoutId, "node-b");
+
+        Payout payout = payoutRepository.findById(payoutId).orElseThrow();
+        assertThat(payout.getStatus()).isEqualTo(Payout.PayoutStatus.COMPLETED);
+        assertThat(payout.getCreditedCount()).isEqualTo(5);
+        assertThat(payout.getFailedCount()).isZero();
+
+        Account senderAfter = reload(sender);
+        assertThat(senderAfter.getBalance()).isEqualByComparingTo("850.00");
+        assertThat(senderAfter.getHeldAmount()).isEqualByComparingTo("0.00");
+        assertThat(recipients).extracting(recipient -> reload(recipient).getBalance())
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("15.00"), new BigDecimal("25.00"), new BigDecimal("35.00"),
+                        new BigDecimal("45.00"), new BigDecimal("55.00"));
+        assertThat(transactions(payoutId)).extracting(row -> ((Number) row.get("TO_ACCOUNT_ID")).longValue())
+                .containsExactlyElementsOf(recipients.stream().map(Account::getId).toList());
+    }
+
+    private long createPayout(Account sender, List<Account> recipients, String... amounts) {
+        List<PayoutItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < amounts.length; i++) {
+            items.add(new PayoutItemRequest(recipients.get(i).getId(), new BigDecimal(amounts[i])));
+        }
+        return payoutService.create(sender.getUser().getId(),
+                new PayoutRequest(UUID.randomUUID().toString(), "Payout test", items)).getPayoutId();
+    }
+
+    /**
+     * Credit chunks until none is left, returns the number of chunks credited
+     */
+    private int drain(PayoutService.Claim claim, String owner) {
+        int chunks = 0;
+        while (payoutService.creditChunk(claim, owner, CHUNK_SIZE, leaseUntil()) > 0) {
+            chunks++;
+        }
+        return chunks;
+    }
+
+    private PayoutService.Claim claim(String owner, long payoutId) {
+        return payoutService.claim(owner, leaseUntil(), 100).stream()
+                .filter(claim -> claim.payoutId() == payoutId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plusMinutes(1);
+    }
+
+    /**
+     * Delete a recipient account behind the payout's back, as the foreign key would otherwise prevent it
+     */
+    private void vanish(Account account) {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", account.getId());
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
+
+    private List<Map<String, Object>> transactions(long payoutId) {
+        return jdbcTemplate.queryForList(
+                "SELECT to_account_id, from_balance_after, to_balance_after FROM transactions " +
+                        "WHERE idempotency_key LIKE ? ORDER BY to_account_id",
+                Payout.TRANSACTION_KEY_PREFIX + payoutId + "-%");
+    }
+
+    private Account reload(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow();
+    }
+
+    private List<Account> seedRecipients(int count) {
+        List<Account> recipients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recipients.add(seedAccount("payout_recipient", "5.00"));
+        }
+        return recipients;
+    }
+
+    private Account seedAccount(String prefix, String balance) {
+        String username = prefix + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("not-used")
+                .fullName(username)
+                .build();
+        user.getRoles().add(roleRepository.findByName(Role.RoleName.ROLE_USER).orElseThrow());
+        user = userRepository.save(user);
+        return accountRepository.save(Account.builder().user(user).balance(new BigDecimal(balance)).build());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.wallet_service.service;
+
+import com.example.wallet_service.analytics.RollupAggregator;
+import com.example.wallet_service.dto.response.RollupRebuildResponse;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Role;
+import com.example.wallet_service.entity.Transaction;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.exception.BadRequestException;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.RoleRepository;
+import com.example.wallet_service.repository.TransactionRepository;
+import com.example.wallet_service.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Rollup rebuilds recount a day from transactions without adding the increments still buffered for it
+ * The flush interval is long enough that the aggregator never flushes on its own during the test.
+ */
+@SpringBootTest(properties = {
+        "app.analytics.rollups.enabled=true",
+        "app.analytics.rollups.flush-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class RollupRebuildServiceTest {
+
+    @Autowired
+    private RollupRebuildService rollupRebuildService;
+
+    @Autowired
+    private RollupAggregator rollupAggregator;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuildDropsTheIncrementsStillPendingForTheDay() throws InterruptedException {
+        Account payer = seedAccount("rollup_payer", "1000.00");
+        Account merchant = seedAccount("rollup_merchant", "0.00");
+        LocalDate day = LocalDate.now().minusDays(3);
+        LocalDateTime createdAt = day.atTime(12, 0);
+        seedTransaction(payer, merchant, "10.00", createdAt);
+        seedTransaction(payer, merchant, "15.00", createdAt);
+        // Both transfers committed, their increments not flushed yet
+        rollupAggregator.record(payer.getId(), merchant.getId(), new BigDecimal("10.00"), new BigDecimal("10.00"), createdAt);
+        rollupAggregator.record(payer.getId(), merchant.getId(), new BigDecimal("15.00"), new BigDecimal("15.00"), createdAt);
+
+        RollupRebuildResponse rebuild = awaitRebuild(rollupRebuildService.startRebuild(day, day));
+
+        assertThat(rebuild.getStatus()).isEqualTo("COMPLETED");
+        assertThat(rebuild.getDaysDone()).isEqualTo(1);
+        // Nothing left for the next flush to add on top of the rebuilt rows
+        assertThat(rollupAggregator.flush()).isZero();
+
+        Map<String, Object> sent = dailyStats(payer, day);
+        assertThat(((Number) sent.get("SENT_COUNT")).longValue()).isEqualTo(2);
+        assertThat((BigDecimal) sent.get("SENT_AMOUNT")).isEqualByComparingTo("25.00");
+        Map<String, Object> received = dailyStats(merchant, day);
+        assertThat(((Number) received.get("RECEIVED_COUNT")).longValue()).isEqualTo(2);
+        assertThat((BigDecimal) received.get("RECEIVED_AMOUNT")).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void daysOtherNodesMayStillBufferAreRefused() {
+        LocalDate today = LocalDate.now();
+
+        assertThatThrownBy(() -> rollupRebuildService.startRebuild(today, today))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("ended more than 3600 seconds ago");
+    }
+
+    private RollupRebuildResponse awaitRebuild(RollupRebuildResponse started) throws InterruptedException {
+        RollupRebuildResponse rebuild = started;
+        for (int i = 0; i < 300 && rebuild.getEndTime() == null; i++) {
+            Thread.sleep(100);
+            rebuild = rollupRebuildService.getRebuild(started.getExecutionId());
+        }
+        return rebuild;
+    }
+
+    private Map<String, Object> dailyStats(Account account, LocalDate day) {
+        return jdbcTemplate.queryForMap(
+                "SELECT sent_count, sent_amount, received_count, received_amount FROM account_daily_stats " +
+                        "WHERE account_id = ? AND stat_date = ?",
+                account.getId(), Date.valueOf(day));
+    }
+
+    private void seedTransaction(Account from, Account to, String amount, LocalDateTime createdAt) {
+        Transaction transaction = transactionRepository.save(Transaction.builder()
+                .fromAccount(from)
+                .toAccount(to)
+                .amount(new BigDecimal(amount))
+                .currency("USD")
+                .status(Transaction.TransactionStatus.COMPLETED)
+                .idempotencyKey(UUID.randomUUID().toString())
+                .build());
+        jdbcTemplate.update("UPDATE transactions SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(createdAt), transaction.getId());
+    }
+
+    private Account seedAccount(String prefix, String balance) {
+        String username = prefix + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("not-used")
+                .fullName(username)
+                .build();
+        user.getRoles().add(roleRepository.findByName(Role.RoleName.ROLE_USER).orElseThrow());
+        user = userRepository.save(user);
+        return accountRepository.save(Account.builder().user(user).balance(new BigDecimal(balance)).build());
+    }
+}
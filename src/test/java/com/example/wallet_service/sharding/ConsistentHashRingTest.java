@@ -0,0 +1,62 @@
+package com.example.wallet_service.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Ownership moves only on the arcs a joining or leaving node gains or loses, about 1/N of the accounts
+ */
+class ConsistentHashRingTest {
+
+    private static final int VIRTUAL_NODES = 128;
+    private static final int ACCOUNTS = 100_000;
+
+    @Test
+    void joiningNodeTakesAboutOneNthFromTheOthers() {
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c", "node-d"), VIRTUAL_NODES);
+        ConsistentHashRing after = ConsistentHashRing.of(
+                List.of("node-a", "node-b", "node-c", "node-d", "node-e"), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (long accountId = 1; accountId <= ACCOUNTS; accountId++) {
+            String owner = after.ownerOf(accountId);
+            if (!owner.equals(before.ownerOf(accountId))) {
+                // Accounts only ever move to the new node, never between existing ones
+                assertThat(owner).isEqualTo("node-e");
+                moved++;
+            }
+        }
+        assertThat((double) moved / ACCOUNTS).isCloseTo(1.0 / 5, within(0.05));
+    }
+
+    @Test
+    void leavingNodeHandsOnlyItsOwnAccountsOver() {
+        ConsistentHashRing before = ConsistentHashRing.of(
+                List.of("node-a", "node-b", "node-c", "node-d", "node-e"), VIRTUAL_NODES);
+        ConsistentHashRing after = ConsistentHashRing.of(List.of("node-a", "node-b", "node-d", "node-e"), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (long accountId = 1; accountId <= ACCOUNTS; accountId++) {
+            String owner = before.ownerOf(accountId);
+            if (!owner.equals(after.ownerOf(accountId))) {
+                assertThat(owner).isEqualTo("node-c");
+                moved++;
+            } else {
+                assertThat(owner).isNotEqualTo("node-c");
+            }
+        }
+        assertThat((double) moved / ACCOUNTS).isCloseTo(1.0 / 5, within(0.05));
+    }
+
+    @Test
+    void sharesAddUpAndStayEven() {
+        ConsistentHashRing ring = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c", "node-d"), VIRTUAL_NODES);
+
+        assertThat(ring.shares().values().stream().mapToDouble(Double::doubleValue).sum()).isCloseTo(1.0, within(1e-9));
+        assertThat(ring.shares().values()).allSatisfy(share -> assertThat(share).isCloseTo(0.25, within(0.06)));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.wallet_service.sharding;
+
+import com.example.wallet_service.WalletServiceApplication;
+import com.example.wallet_service.entity.Account;
+import com.example.wallet_service.entity.Role;
+import com.example.wallet_service.entity.User;
+import com.example.wallet_service.repository.AccountRepository;
+import com.example.wallet_service.repository.RoleRepository;
+import com.example.wallet_service.repository.UserRepository;
+import com.example.wallet_service.util.JwtTokenUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes on one database: a routed request sent to the wrong node is answered by the account's owner
+ * Both contexts share an in-memory H2 database, the first one creates the schema.
+ */
+class ShardForwardingTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:wallet_shard_test;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;IGNORE_UNKNOWN_SETTINGS=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String CLUSTER_SECRET = "shard-forwarding-test";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static int portA;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private String payerToken;
+    private Account payer;
+    private Account recipient;
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        portA = freePort();
+        nodeA = startNode("node-a", portA, "create-drop", "embedded");
+        nodeB = startNode("node-b", freePort(), "none", "never");
+        awaitRing();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // A payer owned by node-b, so node-a has to forward its transfers
+        ConsistentHashRing ring = nodeA.getBean(ClusterMembership.class).getRing();
+        do {
+            payer = seedAccount("shard_payer");
+        } while (!"node-b".equals(ring.ownerOf(payer.getId())));
+        recipient = seedAccount("shard_recipient");
+        payerToken = nodeA.getBean(JwtTokenUtil.class)
+                .generateToken(payer.getUser().getUsername(), Set.of(Role.RoleName.ROLE_USER.name()));
+    }
+
+    @Test
+    void requestToANonOwnerIsAnsweredByTheOwner() throws Exception {
+        double forwardedBefore = requests(nodeA, "forwarded");
+        double ownerLocalBefore = requests(nodeB, "local");
+
+        HttpResponse<String> response = transfer(Map.of());
+
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(201);
+        assertThat(requests(nodeA, "forwarded") - forwardedBefore).isEqualTo(1);
+        assertThat(requests(nodeB, "local") - ownerLocalBefore).isEqualTo(1);
+        assertThat(balance(payer)).isEqualByComparingTo("999.00");
+        assertThat(balance(recipient)).isEqualByComparingTo("1001.00");
+    }
+
+    @Test
+    void clientCannotClaimTheRequestWasForwarded() throws Exception {
+        double forwardedBefore = requests(nodeA, "forwarded");
+        double ownerLocalBefore = requests(nodeB, "local");
+
+        // Without the cluster secret, or with a wrong one, the header is ignored and the request still routed
+        HttpResponse<String> unsigned = transfer(Map.of(ShardForwarder.FORWARDED_BY_HEADER, "node-a"));
+        HttpResponse<String> wrongSecret = transfer(Map.of(ShardForwarder.FORWARDED_BY_HEADER, "node-a",
+                ShardForwarder.CLUSTER_SECRET_HEADER, "guessed"));
+
+        assertThat(unsigned.statusCode()).as(unsigned.body()).isEqualTo(201);
+        assertThat(wrongSecret.statusCode()).isEqualTo(201);
+        assertThat(requests(nodeA, "forwarded") - forwardedBefore).isEqualTo(2);
+        assertThat(requests(nodeB, "local") - ownerLocalBefore).isEqualTo(2);
+        assertThat(balance(payer)).isEqualByComparingTo("998.00");
+    }
+
+    private HttpResponse<String> transfer(Map<String, String> headers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + portA + "/api/payments/transfer"))
+                .header("Authorization", "Bearer " + payerToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                        "{\"toAccountId\": %d, \"amount\": 1.00, \"idempotencyKey\": \"%s\"}",
+                        recipient.getId(), UUID.randomUUID())));
+        headers.forEach(request::header);
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double requests(ConfigurableApplicationContext node, String outcome) {
+        return node.getBean(MeterRegistry.class).counter("wallet.shard.requests", "outcome", outcome).count();
+    }
+
+    private static BigDecimal balance(Account account) {
+        return nodeA.getBean(AccountRepository.class).findById(account.getId()).orElseThrow().getBalance();
+    }
+
+    private static Account seedAccount(String prefix) {
+        String username = prefix + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("not-used")
+                .fullName(username)
+                .build();
+        user.getRoles().add(nodeA.getBean(RoleRepository.class).findByName(Role.RoleName.ROLE_USER).orElseThrow());
+        user = nodeA.getBean(UserRepository.class).save(user);
+        return nodeA.getBean(AccountRepository.class)
+                .save(Account.builder().user(user).balance(new BigDecimal("1000.00")).build());
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, int port, String ddlAuto,
+                                                            String batchSchema) {
+        // Command line arguments, default properties would lose to application.yaml
+        return new SpringApplicationBuilder(WalletServiceApplication.class)
+                .profiles("test")
+                .run("--server.port=" + port,
+                        "--spring.datasource.url=" + DB_URL,
+                        "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "--spring.batch.jdbc.initialize-schema=" + batchSchema,
+                        "--spring.jmx.enabled=false",
+                        "--app.sharding.enabled=true",
+                        "--app.sharding.node-id=" + nodeId,
+                        "--app.sharding.advertised-url=http://localhost:" + port,
+                        "--app.sharding.cluster-secret=" + CLUSTER_SECRET,
+                        "--app.sharding.heartbeat-interval-ms=200");
+    }
+
+    /**
+     * Wait until both nodes see each other in their ring
+     */
+    private static void awaitRing() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            if (nodeA.getBean(ClusterMembership.class).getRing().getNodes().size() == 2
+                    && nodeB.getBean(ClusterMembership.class).getRing().getNodes().size() == 2) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Shard ring did not converge on 2 nodes");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}